@@ -2,8 +2,10 @@ package camera;
 
 import objects.GameResource;
 import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
+import org.joml.Vector3fc;
 import org.joml.Vector4f;
 
 /**
@@ -30,12 +32,17 @@ public abstract class Camera implements GameResource {
     /**
      * This camera's projection matrix used to define how it flattens three-dimensional onto a two-dimensional surface.
      */
-    private Matrix4f proj;
+    private final Matrix4f proj = new Matrix4f();
 
     /**
      * This camera's view matrix used to move the camera in space by moving the visible objects around it instead.
      */
-    private Matrix4f view;
+    private final Matrix4f view = new Matrix4f();
+
+    /**
+     * The product of {@link #proj} and {@link #view}, refreshed alongside the view matrix.
+     */
+    private final Matrix4f projView = new Matrix4f();
 
     /**
      * Creates a new camera with the given aspect ratio
@@ -57,7 +64,7 @@ public abstract class Camera implements GameResource {
      */
     private void updateProjectionMatrix() {
         fovy = (float) (2 * Math.atan(Math.tan(Math.toRadians(fovx) / 2) / aspect));
-        proj = new Matrix4f().perspective(fovy, aspect, 0.1f, 1000f);
+        proj.setPerspective(fovy, aspect, 0.1f, 1000f);
         fovy = (float) Math.toDegrees(fovy);
     }
 
@@ -65,15 +72,11 @@ public abstract class Camera implements GameResource {
      * Updates the camera's view matrix based on transformation values.
      */
     private void updateViewMatrix() {
-        view = new Matrix4f();
-
-        view.rotate((float) (rot.x * Math.PI / 180), new Vector3f(1, 0, 0));
-        view.rotate((float) (rot.y * Math.PI / 180), new Vector3f(0, 1, 0));
-        view.rotate((float) (rot.z * Math.PI / 180), new Vector3f(0, 0, 1));
-
-        Vector3f invPos = new Vector3f();
-        pos.mul(-1.0f, invPos);
-        view.translate(invPos);
+        view.rotationX((float) (rot.x * Math.PI / 180))
+                .rotateY((float) (rot.y * Math.PI / 180))
+                .rotateZ((float) (rot.z * Math.PI / 180))
+                .translate(-pos.x, -pos.y, -pos.z);
+        proj.mul(view, projView);
     }
 
     /**
@@ -149,21 +152,21 @@ public abstract class Camera implements GameResource {
     }
 
     /**
-     * Returns the position vector of this camera.
+     * Returns a read-only view of the position vector of this camera.
      *
-     * @return {@link Vector3f} A vector representing the position of the camera.
+     * @return {@link Vector3fc} A vector representing the position of the camera.
      */
-    public Vector3f getPosition() {
-        return new Vector3f(pos);
+    public Vector3fc getPosition() {
+        return pos;
     }
 
     /**
-     * Returns the Euler rotation of this camera.
+     * Returns a read-only view of the Euler rotation of this camera.
      *
-     * @return {@link Vector3f} A vector containing the Euler rotation of the camera.
+     * @return {@link Vector3fc} A vector containing the Euler rotation of the camera.
      */
-    public Vector3f getRotation() {
-        return new Vector3f(rot);
+    public Vector3fc getRotation() {
+        return rot;
     }
 
     /**
@@ -256,28 +259,36 @@ public abstract class Camera implements GameResource {
      * @return {@link Matrix4f} The resulting projection-view matrix.
      */
     public Matrix4f createProjectionViewMatrix() {
+        return new Matrix4f(getProjectionViewMatrix());
+    }
+
+    /**
+     * Returns a read-only view of the projection-view matrix using the camera's current whereabouts.
+     *
+     * @return {@link Matrix4fc} The projection-view matrix of this camera.
+     */
+    public Matrix4fc getProjectionViewMatrix() {
         updateViewMatrix();
-        Matrix4f result = new Matrix4f(proj);
-        result.mul(view);
-        return result;
+        return projView;
     }
 
     /**
-     * Returns this camera's projection matrix.
+     * Returns a read-only view of this camera's projection matrix.
      *
-     * @return {@link Matrix4f} A matrix representing how objects should be flattened by this camera instance.
+     * @return {@link Matrix4fc} A matrix representing how objects should be flattened by this camera instance.
      */
-    public Matrix4f getProjectionMatrix() {
-        return new Matrix4f(proj);
+    public Matrix4fc getProjectionMatrix() {
+        return proj;
     }
 
     /**
-     * Returns this camera's view matrix.
+     * Returns a read-only view of this camera's view matrix.
      *
-     * @return {@link Matrix4f} A matrix representing the camera's current whereabouts.
+     * @return {@link Matrix4fc} A matrix representing the camera's current whereabouts.
      */
-    public Matrix4f getViewMatrix() {
-        return new Matrix4f(view);
+    public Matrix4fc getViewMatrix() {
+        updateViewMatrix();
+        return view;
     }
 
     /**
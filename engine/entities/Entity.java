@@ -5,6 +5,7 @@ import objects.TexturedMesh;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
+import org.joml.Vector3fc;
 
 /**
  * Represents an in-game entity with a position, rotation, and scale.
@@ -15,7 +16,7 @@ public abstract class Entity implements GameResource {
     /**
      * Rotation and position of the entity in three-dimensional space.
      */
-    private Vector3f pos, rot;
+    private final Vector3f pos, rot;
 
     /**
      * Scale of the entity used to resize it relative to other objects.
@@ -27,6 +28,16 @@ public abstract class Entity implements GameResource {
      */
     private final TexturedMesh model;
 
+    /**
+     * Cached model matrix of the entity, rebuilt lazily whenever the position, rotation or scale changes.
+     */
+    private final Matrix4f transform = new Matrix4f();
+
+    /**
+     * Indicates that {@link #transform} no longer reflects the entity's position, rotation or scale.
+     */
+    private boolean transformDirty = true;
+
     /**
      * Creates an entity using the specified mesh.
      *
@@ -47,7 +58,7 @@ public abstract class Entity implements GameResource {
      * @param scale The initial scale of the entity.
      * @param model The mesh of the entity.
      */
-    public Entity(Vector3f pos, Vector3f rot, float scale, TexturedMesh model) {
+    public Entity(Vector3fc pos, Vector3fc rot, float scale, TexturedMesh model) {
         this.pos = new Vector3f(pos);
         this.rot = new Vector3f(rot);
         this.scale = scale;
@@ -69,9 +80,11 @@ public abstract class Entity implements GameResource {
      * @param rot The Euler rotation to set.
      * @return {@link Entity} This same instance of the class.
      */
-    public Entity setRotation(Vector3f rot) {
-        if (rot != null)
-            this.rot = new Vector3f(rot);
+    public Entity setRotation(Vector3fc rot) {
+        if (rot != null) {
+            this.rot.set(rot);
+            transformDirty = true;
+        }
         return this;
     }
 
@@ -81,9 +94,11 @@ public abstract class Entity implements GameResource {
      * @param pos The position to set.
      * @return {@link Entity} This same instance of the class.
      */
-    public Entity setPosition(Vector3f pos) {
-        if (pos != null)
-            this.pos = new Vector3f(pos);
+    public Entity setPosition(Vector3fc pos) {
+        if (pos != null) {
+            this.pos.set(pos);
+            transformDirty = true;
+        }
         return this;
     }
 
@@ -95,6 +110,7 @@ public abstract class Entity implements GameResource {
      */
     public Entity setScale(float scale) {
         this.scale = scale;
+        transformDirty = true;
         return this;
     }
 
@@ -104,9 +120,11 @@ public abstract class Entity implements GameResource {
      * @param rotation The rotation to be applied on the entity.
      * @return {@link Entity} This same instance of the class.
      */
-    public Entity rotate(Vector3f rotation) {
-        if (rotation != null)
+    public Entity rotate(Vector3fc rotation) {
+        if (rotation != null) {
             rot.add(rotation);
+            transformDirty = true;
+        }
         return this;
     }
 
@@ -116,7 +134,7 @@ public abstract class Entity implements GameResource {
      * @param other the position to look towards
      * @return {@link Entity} This same instance of the class
      */
-    public Entity lookAt(Vector3f other) {
+    public Entity lookAt(Vector3fc other) {
         Vector3f dir = new Vector3f();
         other.sub(this.pos, dir);
 
@@ -125,7 +143,8 @@ public abstract class Entity implements GameResource {
                 (float) (Math.atan(dir.x / dir.z) * 180 / Math.PI) :
                 (float) (Math.atan(dir.x / dir.z) * 180 / Math.PI + 180);
 
-        rot = new Vector3f(-pitch, -yaw, 0);
+        rot.set(-pitch, -yaw, 0);
+        transformDirty = true;
 
         return this;
     }
@@ -136,9 +155,11 @@ public abstract class Entity implements GameResource {
      * @param translation The translation to be applied on the entity.
      * @return {@link Entity} This same instance of the class.
      */
-    public Entity translate(Vector3f translation) {
-        if (translation != null)
+    public Entity translate(Vector3fc translation) {
+        if (translation != null) {
             pos.add(translation);
+            transformDirty = true;
+        }
         return this;
     }
 
@@ -150,16 +171,17 @@ public abstract class Entity implements GameResource {
      */
     public Entity scale(float scale) {
         this.scale *= scale;
+        transformDirty = true;
         return this;
     }
 
     /**
-     * Returns the position vector of this entity.
+     * Returns a read-only view of the position vector of this entity.
      *
-     * @return {@link Vector3f} A vector representing the world position of the entity.
+     * @return {@link Vector3fc} A vector representing the world position of the entity.
      */
-    public Vector3f getPosition() {
-        return new Vector3f(pos);
+    public Vector3fc getPosition() {
+        return pos;
     }
 
     /**
@@ -190,12 +212,12 @@ public abstract class Entity implements GameResource {
     }
 
     /**
-     * Returns the Euler rotation of the entity.
+     * Returns a read-only view of the Euler rotation of the entity.
      *
-     * @return {@link Vector3f} A vector containing the Euler rotation of the entity.
+     * @return {@link Vector3fc} A vector containing the Euler rotation of the entity.
      */
-    public Vector3f getRotation() {
-        return new Vector3f(rot);
+    public Vector3fc getRotation() {
+        return rot;
     }
 
     /**
@@ -226,30 +248,42 @@ public abstract class Entity implements GameResource {
     }
 
     /**
-     * Returns the entity's model matrix.
+     * Returns a copy of the entity's model matrix.
      *
      * @return {@link Matrix4f} The model matrix of this entity.
      */
     public Matrix4f getTransform() {
+        return getTransform(new Matrix4f());
+    }
 
-        // Identity matrix
-        Matrix4f mat = new Matrix4f();
-        mat.identity();
-
-        // Position
-        mat.translate(pos);
-
-        // Rotation
-        mat.rotate((float) Math.toRadians(rot.x), new Vector3f(1, 0, 0));
-        mat.rotate((float) Math.toRadians(rot.y), new Vector3f(0, 1, 0));
-        mat.rotate((float) Math.toRadians(rot.z), new Vector3f(0, 0, 1));
-
-        // Scale
-        mat.scale(scale);
-
-        // Return result
-        return mat;
+    /**
+     * Stores the entity's model matrix in the given matrix without allocating.
+     *
+     * @param dest The matrix in which to store the result.
+     * @return {@link Matrix4f} The destination matrix.
+     */
+    public Matrix4f getTransform(Matrix4f dest) {
+        return dest.set(updateTransform());
+    }
 
+    /**
+     * Rebuilds the cached model matrix if the entity has moved since the last call.
+     *
+     * @return {@link Matrix4f} The up-to-date cached model matrix.
+     */
+    private Matrix4f updateTransform() {
+        if (!transformDirty)
+            return transform;
+
+        // Position, rotation, and scale
+        transform.translation(pos)
+                .rotateX((float) Math.toRadians(rot.x))
+                .rotateY((float) Math.toRadians(rot.y))
+                .rotateZ((float) Math.toRadians(rot.z))
+                .scale(scale);
+
+        transformDirty = false;
+        return transform;
     }
 
     /**
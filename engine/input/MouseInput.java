@@ -2,6 +2,7 @@ package input;
 
 import camera.Camera;
 import display.Window;
+import org.joml.Matrix4f;
 import org.joml.Vector2i;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
@@ -84,6 +85,12 @@ public class MouseInput {
      */
     private boolean ignoreNext = false;
 
+    /**
+     * Scratch matrix and vector reused when unprojecting the mouse coordinates into a world-space ray.
+     */
+    private final Matrix4f rayMatrix = new Matrix4f();
+    private final Vector4f rayVector = new Vector4f();
+
 
     private class MouseCursorCallback implements GLFWCursorPosCallbackI {
 
@@ -306,6 +313,24 @@ public class MouseInput {
         return new Vector2i((int)x.get(), (int)y.get());
     }
 
+    /**
+     * Returns the last known horizontal mouse position reported by the cursor callback, without querying GLFW.
+     *
+     * @return <b>double</b> The x position of the mouse cursor in window coordinates.
+     */
+    public double getMouseX() {
+        return lastX;
+    }
+
+    /**
+     * Returns the last known vertical mouse position reported by the cursor callback, without querying GLFW.
+     *
+     * @return <b>double</b> The y position of the mouse cursor in window coordinates.
+     */
+    public double getMouseY() {
+        return lastY;
+    }
+
     /**
      * Returns whether or not a mouse button is currently being pressed.
      *
@@ -335,11 +360,23 @@ public class MouseInput {
      * @return {@link Vector3f} The ray direction in world coordinates.
      */
     public Vector3f getRayAtMouseCoords(Camera camera) {
-        Vector4f clipSpace = new Vector4f((float) lastX * 2.0f / window.getWidth() - 1.0f,
+        return getRayAtMouseCoords(camera, new Vector3f());
+    }
+
+    /**
+     * Computes the ray casted by the mouse at its current coordinates without allocating.
+     *
+     * @param camera The camera through which to cast a ray.
+     * @param dest   The vector in which to store the result.
+     * @return {@link Vector3f} The destination vector, containing the ray direction in world coordinates.
+     */
+    public Vector3f getRayAtMouseCoords(Camera camera, Vector3f dest) {
+        rayVector.set((float) lastX * 2.0f / window.getWidth() - 1.0f,
                 1.0f - (float) lastY * 2.0f / window.getHeight(), -1f, 1f);
-        Vector4f eyeSpace = camera.getProjectionMatrix().invert().transform(clipSpace);
-        Vector4f worldSpace = camera.getViewMatrix().invert().transform(new Vector4f(eyeSpace.x, eyeSpace.y, -1, 0));
-        return new Vector3f(worldSpace.x, worldSpace.y, worldSpace.z).normalize();
+        camera.getProjectionMatrix().invert(rayMatrix).transform(rayVector);
+        rayVector.set(rayVector.x, rayVector.y, -1, 0);
+        camera.getViewMatrix().invert(rayMatrix).transform(rayVector);
+        return dest.set(rayVector.x, rayVector.y, rayVector.z).normalize();
     }
 
 }
@@ -386,6 +386,7 @@ public class Scene implements FreeableObject {
         Mesh mesh = ent.getModel().getMesh();
 
         entityList.add(ent);
+        physics.addCollider(ent);
 
         if (!entityMap.containsKey(mesh))
             entityMap.put(ent.getModel().getMesh(), new HashMap<>() {{
@@ -420,6 +421,7 @@ public class Scene implements FreeableObject {
         Mesh mesh = ent.getModel().getMesh();
 
         entityList.remove(ent);
+        physics.removeCollider(ent);
 
         if (!entityMap.containsKey(mesh))
             return;
@@ -486,7 +488,9 @@ public class Scene implements FreeableObject {
         window.mouse().removeMouseClickCallback(this.onClickRef);
         entityList.clear();
         entityMap.clear();
+        physics.clearColliders();
         lights.clear();
+        gameScripts.values().forEach(GameScript::destroy);
         gameScripts.clear();
     }
 
@@ -0,0 +1,64 @@
+package network;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A bounded pool of direct {@link ByteBuffer}s of a fixed length, so that datagrams can be received without allocating
+ * a buffer per datagram. Buffers are allocated on demand when the pool is empty and dropped when it is full.
+ */
+public class BufferPool {
+
+    /**
+     * The length of every buffer in the pool, in bytes.
+     */
+    private final int bufferLength;
+
+    /**
+     * The buffers currently available.
+     */
+    private final ArrayBlockingQueue<ByteBuffer> buffers;
+
+    /**
+     * Creates a new pool, filled with the given number of buffers.
+     *
+     * @param bufferLength The length of every buffer in the pool, in bytes.
+     * @param size         The maximum number of buffers kept in the pool.
+     */
+    public BufferPool(int bufferLength, int size) {
+        this.bufferLength = bufferLength;
+        this.buffers = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++)
+            buffers.add(ByteBuffer.allocateDirect(bufferLength));
+    }
+
+    /**
+     * Takes a buffer from the pool, allocating a new one if the pool is empty.
+     *
+     * @return {@link ByteBuffer} A cleared buffer.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(bufferLength);
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used after being released.
+     *
+     * @param buffer The buffer to return.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() == bufferLength)
+            buffers.offer(buffer);
+    }
+
+    /**
+     * Returns the length of the buffers in this pool.
+     *
+     * @return <b>int</b> The length of every buffer in the pool, in bytes.
+     */
+    public int getBufferLength() {
+        return bufferLength;
+    }
+
+}
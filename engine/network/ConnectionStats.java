@@ -0,0 +1,166 @@
+package network;
+
+import network.packets.PacketPing;
+
+/**
+ * Keeps track of the health of a connection from the {@link PacketPing} round trips made over it: a smoothed round
+ * trip time, its jitter and the fraction of pings lost over the last {@link #WINDOW_SIZE} pings.
+ */
+@SuppressWarnings("unused")
+public class ConnectionStats {
+
+    /**
+     * The number of most recent pings over which loss is measured.
+     */
+    public static final int WINDOW_SIZE = 32;
+
+    /**
+     * The time in milliseconds after which an unanswered ping is considered lost.
+     */
+    public static final int PING_TIMEOUT = 2000;
+
+    // Recent pings, indexed by sequence number modulo the window size
+    private final long[] sendTimes = new long[WINDOW_SIZE];
+    private final boolean[] answered = new boolean[WINDOW_SIZE];
+
+    /**
+     * The sequence number of the next ping.
+     */
+    private int nextSequence = 0;
+
+    // Round trip time statistics in milliseconds
+    private double smoothedRTT = -1;
+    private double jitter = 0;
+    private long lastRTT = -1;
+
+    // Totals since the connection was established
+    private long pingsSent = 0;
+    private long pingsReceived = 0;
+
+    /**
+     * The last time a packet was received from the remote peer, in milliseconds.
+     */
+    private volatile long lastReceived = System.currentTimeMillis();
+
+    /**
+     * Creates a new ping to send to the remote peer and records when it was sent.
+     *
+     * @return {@link PacketPing} The ping to send.
+     */
+    public synchronized PacketPing nextPing() {
+        long now = System.currentTimeMillis();
+        int sequence = nextSequence++;
+        sendTimes[sequence & (WINDOW_SIZE - 1)] = now;
+        answered[sequence & (WINDOW_SIZE - 1)] = false;
+        pingsSent++;
+        return new PacketPing(now, true).setSequence(sequence);
+    }
+
+    /**
+     * Records a ping returned by the remote peer.
+     *
+     * @param ping The returned ping.
+     */
+    public synchronized void onPingReturned(PacketPing ping) {
+        long now = System.currentTimeMillis();
+        int sequence = ping.getSequence();
+        int slot = sequence & (WINDOW_SIZE - 1);
+
+        // Ignore pings from before the window and duplicates
+        if (nextSequence - sequence > WINDOW_SIZE || sequence - nextSequence >= 0 || answered[slot])
+            return;
+        answered[slot] = true;
+        pingsReceived++;
+
+        // Smoothed round trip time and jitter as interarrival variation, RFC 3550 style
+        long rtt = now - sendTimes[slot];
+        if (smoothedRTT < 0) {
+            smoothedRTT = rtt;
+        } else {
+            smoothedRTT += (rtt - smoothedRTT) / 8;
+            jitter += (Math.abs(rtt - lastRTT) - jitter) / 16;
+        }
+        lastRTT = rtt;
+    }
+
+    /**
+     * Records that a packet was received from the remote peer.
+     */
+    public void onReceive() {
+        lastReceived = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the smoothed round trip time.
+     *
+     * @return <b>double</b> The smoothed round trip time in milliseconds, or -1 if no ping has returned yet.
+     */
+    public synchronized double getRoundTripTime() {
+        return smoothedRTT;
+    }
+
+    /**
+     * Returns the jitter of the round trip time.
+     *
+     * @return <b>double</b> The mean deviation between consecutive round trip times in milliseconds.
+     */
+    public synchronized double getJitter() {
+        return jitter;
+    }
+
+    /**
+     * Returns the fraction of recent pings lost. Pings still in flight for less than {@link #PING_TIMEOUT}
+     * milliseconds are not counted.
+     *
+     * @return <b>double</b> The fraction of recent pings lost, between 0 and 1.
+     */
+    public synchronized double getLoss() {
+        long now = System.currentTimeMillis();
+        int settled = 0, lost = 0;
+        for (int sequence = Math.max(0, nextSequence - WINDOW_SIZE); sequence < nextSequence; sequence++) {
+            int slot = sequence & (WINDOW_SIZE - 1);
+            if (answered[slot]) {
+                settled++;
+            } else if (now - sendTimes[slot] >= PING_TIMEOUT) {
+                settled++;
+                lost++;
+            }
+        }
+        return settled > 0 ? (double) lost / settled : 0;
+    }
+
+    /**
+     * Returns the number of pings sent over the connection.
+     *
+     * @return <b>long</b> The number of pings sent.
+     */
+    public synchronized long getPingsSent() {
+        return pingsSent;
+    }
+
+    /**
+     * Returns the number of pings returned over the connection.
+     *
+     * @return <b>long</b> The number of pings returned by the remote peer.
+     */
+    public synchronized long getPingsReceived() {
+        return pingsReceived;
+    }
+
+    /**
+     * Returns the last time a packet was received from the remote peer.
+     *
+     * @return <b>long</b> The time the last packet was received, in milliseconds.
+     */
+    public long getLastReceived() {
+        return lastReceived;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String toString() {
+        return String.format("rtt=%.1fms jitter=%.1fms loss=%.1f%%", getRoundTripTime(), getJitter(), getLoss() * 100);
+    }
+
+}
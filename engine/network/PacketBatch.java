@@ -0,0 +1,169 @@
+package network;
+
+import network.packets.Packet;
+import network.serializers.ByteArrayWriter;
+import network.serializers.ByteBufferReader;
+import network.serializers.PacketSerializer;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * Coalesces several serialized packets bound to the same remote peer into a single datagram. A batch starts with
+ * {@link #HEADER}, which no serialized packet starts with, followed by every packet prefixed with its length as a
+ * varint. A batch holding a single packet is sent as that packet alone.
+ */
+public class PacketBatch {
+
+    /**
+     * The first byte of a datagram holding a batch of packets.
+     */
+    public static final byte HEADER = (byte) 0xFF;
+
+    /**
+     * The maximum length of a batch in bytes, keeping encrypted datagrams under common path MTUs.
+     */
+    public static final int MAX_LENGTH = 1200;
+
+    /**
+     * The buffer holding the batch.
+     */
+    private final ByteArrayWriter out = new ByteArrayWriter(MAX_LENGTH);
+
+    /**
+     * The session cipher the batch is to be encrypted with, or null if it is to be sent in the clear.
+     */
+    private SessionCipher cipher = null;
+
+    /**
+     * The offset of the first packet's data in the buffer.
+     */
+    private int firstOffset = 0;
+
+    /**
+     * The number of packets in the batch.
+     */
+    private int count = 0;
+
+    /**
+     * The time at which the batch is to be sent, in milliseconds.
+     */
+    private long deadline = 0;
+
+    /**
+     * Empties the batch to start a new one.
+     *
+     * @param cipher   The session cipher the batch is to be encrypted with, or null if it is to be sent in the clear.
+     * @param deadline The time at which the batch is to be sent, in milliseconds.
+     * @return {@link PacketBatch} This same {@link PacketBatch} instance to allow for method chaining.
+     */
+    public PacketBatch reset(SessionCipher cipher, long deadline) {
+        this.out.reset().put(HEADER);
+        this.cipher = cipher;
+        this.deadline = deadline;
+        this.count = 0;
+        return this;
+    }
+
+    /**
+     * Appends a serialized packet to the batch if it fits.
+     *
+     * @param data The serialized packet data.
+     * @return <b>boolean</b> True if the packet was added, false if the batch would exceed {@link #MAX_LENGTH}.
+     */
+    public boolean add(byte[] data) {
+        if (count > 0 && out.position() + 5 + data.length > MAX_LENGTH)
+            return false;
+
+        out.putVarInt(data.length);
+        if (count++ == 0)
+            firstOffset = out.position();
+        out.put(data);
+        return true;
+    }
+
+    /**
+     * Returns the batch's serialized data, ready to be sealed.
+     *
+     * @return <b>byte[]</b> The batch data, or the data of its only packet.
+     */
+    public byte[] toByteArray() {
+        if (count == 1) {
+            byte[] data = new byte[out.position() - firstOffset];
+            System.arraycopy(out.array(), firstOffset, data, 0, data.length);
+            return data;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns whether the batch holds no packet.
+     *
+     * @return <b>boolean</b> True if no packet was added since the batch was reset.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the session cipher the batch is to be encrypted with.
+     *
+     * @return {@link SessionCipher} The session cipher, or null if the batch is to be sent in the clear.
+     */
+    public SessionCipher getCipher() {
+        return cipher;
+    }
+
+    /**
+     * Returns the time at which the batch is to be sent.
+     *
+     * @return <b>long</b> The time at which the batch is to be sent, in milliseconds.
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Deserializes every packet held in a datagram's data, whether it is a batch or a single packet, and passes them
+     * to a callback in order. Packets that cannot be deserialized are skipped.
+     *
+     * @param source   The remote IP address and port the datagram was received from.
+     * @param data     The buffer holding the datagram's decrypted data in its remaining bytes.
+     * @param callback The callback to pass every packet to, may be null.
+     */
+    public static void dispatch(InetSocketAddress source, ByteBuffer data, PacketReceivedListener callback) {
+        if (!data.hasRemaining())
+            return;
+
+        // Single packet
+        if (data.get(data.position()) != HEADER) {
+            Packet packet = PacketSerializer.deserialize(data);
+            if (packet != null && callback != null)
+                callback.invoke(source, packet);
+            return;
+        }
+
+        // Batch, every packet is read within a limit set to its end
+        data.get();
+        int limit = data.limit();
+        try {
+            while (data.hasRemaining()) {
+                int length = ByteBufferReader.getVarInt(data);
+                int end = data.position() + length;
+                if (length < 0 || end > limit)
+                    return;
+
+                data.limit(end);
+                Packet packet = PacketSerializer.deserialize(data);
+                data.limit(limit).position(end);
+                if (packet != null && callback != null)
+                    callback.invoke(source, packet);
+            }
+        } catch (RuntimeException ignored) {
+            // Malformed length prefix
+        } finally {
+            data.limit(limit);
+        }
+    }
+
+}
@@ -0,0 +1,281 @@
+package network;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Encrypts and decrypts the packets of a single connection using AES-GCM with a session key exchanged during the
+ * {@link network.packets.PacketKey} handshake. The {@link Cipher} instances are created once per connection and
+ * re-initialized with a fresh nonce for every packet.
+ */
+@SuppressWarnings("unused")
+public class SessionCipher {
+
+    /**
+     * String representing the AES algorithm.
+     */
+    private static final String AES = "AES";
+
+    /**
+     * String representing the cipher transformation used to encrypt packets.
+     */
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    /**
+     * The AES key size in bits.
+     */
+    public static final int KEY_SIZE = 128;
+
+    /**
+     * The length of the nonce prepended to every encrypted packet, in bytes.
+     */
+    public static final int NONCE_LENGTH = 12;
+
+    /**
+     * The length of the authentication tag appended to every encrypted packet, in bits.
+     */
+    public static final int TAG_LENGTH = 128;
+
+    /**
+     * The number of bytes added to a packet by encryption.
+     */
+    public static final int OVERHEAD = NONCE_LENGTH + TAG_LENGTH / 8;
+
+    /**
+     * The number of packet counters below the highest one received for which replays are still detected. Older packets
+     * are dropped.
+     */
+    public static final int REPLAY_WINDOW = Long.SIZE;
+
+    /**
+     * The session key shared by both peers.
+     */
+    private final SecretKey key;
+
+    /**
+     * The cipher used to encrypt outgoing packets.
+     */
+    private final Cipher encryptCipher;
+
+    /**
+     * The cipher used to decrypt incoming packets.
+     */
+    private final Cipher decryptCipher;
+
+    /**
+     * The nonce of the next outgoing packet. Its first byte identifies the side of the connection that encrypted the
+     * packet so that both peers never use the same nonce, and its last eight bytes hold a packet counter.
+     */
+    private final byte[] nonce = new byte[NONCE_LENGTH];
+
+    /**
+     * The nonce of the last incoming packet read from a {@link ByteBuffer}.
+     */
+    private final byte[] remoteNonce = new byte[NONCE_LENGTH];
+
+    /**
+     * The nonce prefix expected on incoming packets.
+     */
+    private final byte remotePrefix;
+
+    /**
+     * The number of packets encrypted so far.
+     */
+    private long counter = 0;
+
+    /**
+     * The highest packet counter received from the remote peer, or -1 if no packet was received yet.
+     */
+    private long highestReceived = -1;
+
+    /**
+     * The packets received within the replay window, bit i standing for counter {@code highestReceived - i}.
+     */
+    private long receivedBits = 0;
+
+    /**
+     * Creates a new session cipher for one side of a connection.
+     *
+     * @param key       The session key shared by both peers.
+     * @param initiator True on the side that generated the session key, false on the side that received it.
+     * @throws Exception If the cipher could not be created or the key is invalid.
+     */
+    public SessionCipher(SecretKey key, boolean initiator) throws Exception {
+        this.key = key;
+        this.encryptCipher = Cipher.getInstance(TRANSFORMATION);
+        this.decryptCipher = Cipher.getInstance(TRANSFORMATION);
+        this.nonce[0] = (byte) (initiator ? 1 : 2);
+        this.remotePrefix = (byte) (initiator ? 2 : 1);
+
+        // Fail early on keys the cipher does not accept
+        this.encryptCipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, new byte[NONCE_LENGTH]));
+    }
+
+    /**
+     * Generates a new random session key.
+     *
+     * @return {@link SecretKey} The generated key, or null if AES is not available.
+     */
+    public static SecretKey generateKey() {
+        try {
+            KeyGenerator keygen = KeyGenerator.getInstance(AES);
+            keygen.init(KEY_SIZE);
+            return keygen.generateKey();
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a session key from its encoded byte array format.
+     *
+     * @param bytes The encoded key.
+     * @return {@link SecretKey} The session key, or null if the encoded key is invalid.
+     */
+    public static SecretKey toSecretKey(byte[] bytes) {
+        if (bytes == null || bytes.length != KEY_SIZE / 8)
+            return null;
+        return new SecretKeySpec(bytes, AES);
+    }
+
+    /**
+     * Returns the session key in its encoded byte array format.
+     *
+     * @return <b>byte[]</b> The encoded session key.
+     */
+    public byte[] getEncodedKey() {
+        return key.getEncoded();
+    }
+
+    /**
+     * Encrypts a packet into a destination array, writing the nonce followed by the ciphertext and its tag.
+     *
+     * @param data   The data to encrypt.
+     * @param dest   The array in which to write the encrypted data, which must have at least {@link #OVERHEAD} bytes
+     *               more than the data left after the offset.
+     * @param offset The offset in the destination array at which to start writing.
+     * @return <b>int</b> The number of bytes written, or -1 if encryption failed.
+     */
+    public synchronized int encrypt(byte[] data, byte[] dest, int offset) {
+        try {
+            // Write the packet counter in the last bytes of the nonce
+            long value = counter++;
+            for (int i = NONCE_LENGTH - 1; i >= NONCE_LENGTH - Long.BYTES; i--, value >>>= 8)
+                nonce[i] = (byte) value;
+
+            encryptCipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, nonce));
+            System.arraycopy(nonce, 0, dest, offset, NONCE_LENGTH);
+            return NONCE_LENGTH + encryptCipher.doFinal(data, 0, data.length, dest, offset + NONCE_LENGTH);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Decrypts and authenticates a packet encrypted by the remote peer.
+     *
+     * @param data   The array holding the nonce followed by the ciphertext and its tag.
+     * @param offset The offset of the nonce in the array.
+     * @param length The number of bytes to decrypt, including the nonce and tag.
+     * @return <b>byte[]</b> The decrypted data, or null if the packet was not encrypted by the remote peer with this
+     * session's key or is a replay of a packet already received.
+     */
+    public synchronized byte[] decrypt(byte[] data, int offset, int length) {
+        if (length < OVERHEAD || data[offset] != remotePrefix)
+            return null;
+
+        long packetCounter = readCounter(data, offset);
+        if (!isFresh(packetCounter))
+            return null;
+
+        try {
+            decryptCipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, data, offset, NONCE_LENGTH));
+            byte[] decrypted = decryptCipher.doFinal(data, offset + NONCE_LENGTH, length - NONCE_LENGTH);
+            markReceived(packetCounter);
+            return decrypted;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decrypts and authenticates a packet encrypted by the remote peer, reading the nonce followed by the ciphertext and
+     * its tag from the input's remaining bytes.
+     *
+     * @param in  The buffer holding the encrypted packet, fully consumed on success.
+     * @param out The buffer in which to write the decrypted data, which must have room for at least the input's
+     *            remaining bytes minus {@link #OVERHEAD}.
+     * @return <b>boolean</b> True if the packet was decrypted, false if it was not encrypted by the remote peer with
+     * this session's key or is a replay of a packet already received.
+     */
+    public synchronized boolean decrypt(ByteBuffer in, ByteBuffer out) {
+        if (in.remaining() < OVERHEAD || in.get(in.position()) != remotePrefix)
+            return false;
+
+        try {
+            in.get(remoteNonce);
+            long packetCounter = readCounter(remoteNonce, 0);
+            if (!isFresh(packetCounter))
+                return false;
+
+            decryptCipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, remoteNonce));
+            decryptCipher.doFinal(in, out);
+            markReceived(packetCounter);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the packet counter held in the last bytes of a nonce.
+     *
+     * @param nonce  The array holding the nonce.
+     * @param offset The offset of the nonce in the array.
+     * @return <b>long</b> The packet counter.
+     */
+    private static long readCounter(byte[] nonce, int offset) {
+        long value = 0;
+        for (int i = NONCE_LENGTH - Long.BYTES; i < NONCE_LENGTH; i++)
+            value = (value << 8) | (nonce[offset + i] & 0xFF);
+        return value;
+    }
+
+    /**
+     * Returns whether a packet counter was neither received yet nor fell out of the replay window.
+     *
+     * @param packetCounter The counter of the packet received.
+     * @return <b>boolean</b> True if the packet is to be decrypted, false if it is stale or a duplicate.
+     */
+    private boolean isFresh(long packetCounter) {
+        if (packetCounter < 0)
+            return false;
+        if (packetCounter > highestReceived)
+            return true;
+        long age = highestReceived - packetCounter;
+        return age < REPLAY_WINDOW && (receivedBits & (1L << age)) == 0;
+    }
+
+    /**
+     * Records that a packet was authenticated, sliding the replay window if it is the newest one.
+     *
+     * @param packetCounter The counter of the packet received.
+     */
+    private void markReceived(long packetCounter) {
+        if (packetCounter > highestReceived) {
+            long shift = packetCounter - highestReceived;
+            receivedBits = shift >= REPLAY_WINDOW ? 0 : receivedBits << shift;
+            receivedBits |= 1;
+            highestReceived = packetCounter;
+        } else {
+            receivedBits |= 1L << (highestReceived - packetCounter);
+        }
+    }
+
+}
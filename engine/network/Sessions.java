@@ -0,0 +1,199 @@
+package network;
+
+import network.packets.Packet;
+import network.packets.PacketKey;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the {@link SessionCipher} negotiated with each remote peer and frames datagrams accordingly. Every
+ * datagram starts with a single byte indicating whether the rest of it is plain or encrypted, so that handshake
+ * packets can still be exchanged in the clear once a session exists. Any other packet received in the clear from a
+ * peer with a session is rejected, since anyone could have sent it from a spoofed address.
+ */
+@SuppressWarnings("unused")
+public class Sessions {
+
+    /**
+     * Header byte of a datagram sent in the clear.
+     */
+    private static final byte PLAIN = 0;
+
+    /**
+     * Header byte of a datagram encrypted with the session cipher of its sender.
+     */
+    private static final byte ENCRYPTED = 1;
+
+    /**
+     * The session ciphers of the remote peers, by remote IP address and port.
+     */
+    private final Map<InetSocketAddress, SessionCipher> ciphers = new ConcurrentHashMap<>();
+
+    /**
+     * Sets the session cipher used to communicate with a remote peer.
+     *
+     * @param remote The remote peer's IP address and port.
+     * @param cipher The session cipher to use.
+     * @return {@link Sessions} This same {@link Sessions} instance to allow for method chaining.
+     */
+    public Sessions put(InetSocketAddress remote, SessionCipher cipher) {
+        ciphers.put(remote, cipher);
+        return this;
+    }
+
+    /**
+     * Returns the session cipher used to communicate with a remote peer.
+     *
+     * @param remote The remote peer's IP address and port.
+     * @return {@link SessionCipher} The session cipher, or null if no session exists with the remote peer.
+     */
+    public SessionCipher get(InetSocketAddress remote) {
+        return ciphers.get(remote);
+    }
+
+    /**
+     * Ends the session with a remote peer, after which datagrams exchanged with it are sent in the clear.
+     *
+     * @param remote The remote peer's IP address and port.
+     * @return {@link Sessions} This same {@link Sessions} instance to allow for method chaining.
+     */
+    public Sessions remove(InetSocketAddress remote) {
+        ciphers.remove(remote);
+        return this;
+    }
+
+    /**
+     * Ends every session.
+     *
+     * @return {@link Sessions} This same {@link Sessions} instance to allow for method chaining.
+     */
+    public Sessions clear() {
+        ciphers.clear();
+        return this;
+    }
+
+    /**
+     * Returns whether a packet received in the clear is to be handled. Once a session exists with a remote peer, only
+     * the {@link PacketKey} handshake is accepted in the clear.
+     *
+     * @param remote The remote peer's IP address and port.
+     * @param packet The packet received in the clear.
+     * @return <b>boolean</b> True if the packet may be handled, false if it must be dropped.
+     */
+    public boolean acceptsPlain(InetSocketAddress remote, Packet packet) {
+        return packet instanceof PacketKey || !ciphers.containsKey(remote);
+    }
+
+    /**
+     * Returns whether a datagram was sent in the clear, in which case its packets must be checked with
+     * {@link #acceptsPlain} once deserialized.
+     *
+     * @param data   The array holding the datagram payload.
+     * @param offset The offset of the payload in the array.
+     * @param length The length of the payload.
+     * @return <b>boolean</b> True if the datagram's header marks it as plain.
+     */
+    public static boolean isPlain(byte[] data, int offset, int length) {
+        return length > 0 && data[offset] == PLAIN;
+    }
+
+    /**
+     * Frames serialized packet data into a datagram for a remote peer, encrypting it if a session exists with the peer.
+     *
+     * @param remote The remote peer's IP address and port.
+     * @param data   The serialized packet data.
+     * @return <b>byte[]</b> The datagram payload, or null if encryption failed.
+     */
+    public byte[] seal(InetSocketAddress remote, byte[] data) {
+        return seal(ciphers.get(remote), data);
+    }
+
+    /**
+     * Frames serialized packet data into a datagram, encrypting it with the given session cipher if there is one.
+     *
+     * @param cipher The session cipher to encrypt with, or null to send the data in the clear.
+     * @param data   The serialized packet data.
+     * @return <b>byte[]</b> The datagram payload, or null if encryption failed.
+     */
+    public byte[] seal(SessionCipher cipher, byte[] data) {
+        if (cipher == null)
+            return plain(data);
+
+        byte[] datagram = new byte[1 + data.length + SessionCipher.OVERHEAD];
+        datagram[0] = ENCRYPTED;
+        return cipher.encrypt(data, datagram, 1) >= 0 ? datagram : null;
+    }
+
+    /**
+     * Frames serialized packet data into a datagram sent in the clear.
+     *
+     * @param data The serialized packet data.
+     * @return <b>byte[]</b> The datagram payload.
+     */
+    public byte[] plain(byte[] data) {
+        byte[] datagram = new byte[1 + data.length];
+        datagram[0] = PLAIN;
+        System.arraycopy(data, 0, datagram, 1, data.length);
+        return datagram;
+    }
+
+    /**
+     * Extracts the serialized packet data from a datagram received from a remote peer. This is the reverse operation
+     * of {@link #seal}.
+     *
+     * @param remote The remote peer's IP address and port.
+     * @param data   The array holding the datagram payload.
+     * @param offset The offset of the payload in the array.
+     * @param length The length of the payload.
+     * @return <b>byte[]</b> The serialized packet data, or null if the datagram is malformed or could not be
+     * authenticated.
+     */
+    public byte[] open(InetSocketAddress remote, byte[] data, int offset, int length) {
+        if (length < 1)
+            return null;
+
+        switch (data[offset]) {
+            case PLAIN:
+                return Arrays.copyOfRange(data, offset + 1, offset + length);
+            case ENCRYPTED:
+                SessionCipher cipher = ciphers.get(remote);
+                return cipher != null ? cipher.decrypt(data, offset + 1, length - 1) : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Extracts the serialized packet data from a datagram received from a remote peer without copying it when it was
+     * sent in the clear. This is the reverse operation of {@link #seal}.
+     *
+     * @param remote    The remote peer's IP address and port.
+     * @param datagram  The buffer holding the datagram payload in its remaining bytes.
+     * @param decrypted The buffer in which to decrypt the payload if it is encrypted.
+     * @return {@link ByteBuffer} The datagram buffer positioned after the header if the payload is plain, the
+     * decrypted buffer flipped for reading if it is encrypted, or null if the datagram is malformed or could not be
+     * authenticated.
+     */
+    public ByteBuffer open(InetSocketAddress remote, ByteBuffer datagram, ByteBuffer decrypted) {
+        if (!datagram.hasRemaining())
+            return null;
+
+        switch (datagram.get()) {
+            case PLAIN:
+                return datagram;
+            case ENCRYPTED:
+                SessionCipher cipher = ciphers.get(remote);
+                decrypted.clear();
+                if (cipher == null || !cipher.decrypt(datagram, decrypted))
+                    return null;
+                return decrypted.flip();
+            default:
+                return null;
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+package network;
+
+import java.util.ArrayList;
+
+/**
+ * A hashed timer wheel scheduling many timeouts at a coarse resolution. Timeouts are kept in doubly linked buckets, one
+ * per tick of the wheel, so that scheduling and cancelling are constant time regardless of the number of timeouts.
+ * The wheel does not implement its own thread: its owner calls {@link #advance} periodically, and expired tasks run on
+ * the calling thread.
+ */
+@SuppressWarnings("unused")
+public class TimerWheel {
+
+    /**
+     * A task scheduled on the wheel.
+     */
+    public class Timeout {
+
+        /**
+         * The task to run on expiry.
+         */
+        private final Runnable task;
+
+        /**
+         * The number of full turns of the wheel left before expiry.
+         */
+        private long rounds;
+
+        /**
+         * The bucket this timeout is in, or -1 if it has expired or was cancelled.
+         */
+        private int bucket = -1;
+
+        // Bucket links
+        private Timeout previous, next;
+
+        /**
+         * Creates a new timeout.
+         *
+         * @param task The task to run on expiry.
+         */
+        private Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        /**
+         * Cancels this timeout if it has not expired yet.
+         *
+         * @return <b>boolean</b> True if the timeout was cancelled, false if it had already expired or been cancelled.
+         */
+        public boolean cancel() {
+            synchronized (TimerWheel.this) {
+                if (bucket < 0)
+                    return false;
+                unlink(this);
+                return true;
+            }
+        }
+
+        /**
+         * Returns whether this timeout is still waiting to expire.
+         *
+         * @return <b>boolean</b> True if this timeout has neither expired nor been cancelled.
+         */
+        public boolean isPending() {
+            synchronized (TimerWheel.this) {
+                return bucket >= 0;
+            }
+        }
+
+    }
+
+    /**
+     * The duration of a tick in milliseconds, which is the resolution of the wheel.
+     */
+    private final long tickDuration;
+
+    /**
+     * The buckets of the wheel, each holding the head of a list of timeouts.
+     */
+    private final Timeout[] buckets;
+
+    /**
+     * Mask mapping a tick to its bucket.
+     */
+    private final int mask;
+
+    /**
+     * The time at which the wheel started, in milliseconds.
+     */
+    private final long startTime;
+
+    /**
+     * The next tick to process.
+     */
+    private long tick = 0;
+
+    /**
+     * The timeouts expired during the last call to {@link #advance}, run outside of the wheel's lock.
+     */
+    private final ArrayList<Timeout> expired = new ArrayList<>();
+
+    /**
+     * Creates a new timer wheel.
+     *
+     * @param tickDuration The duration of a tick in milliseconds.
+     * @param size         The number of buckets, rounded up to a power of two.
+     */
+    public TimerWheel(long tickDuration, int size) {
+        this.tickDuration = tickDuration;
+        this.buckets = new Timeout[Integer.highestOneBit(Math.max(1, size - 1)) << 1];
+        this.mask = buckets.length - 1;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Schedules a task to run once after a delay. The task runs on the first call to {@link #advance} at least
+     * {@code delay} milliseconds from now, rounded up to the next tick.
+     *
+     * @param task  The task to run.
+     * @param delay The delay in milliseconds.
+     * @return {@link Timeout} A handle through which the task can be cancelled.
+     */
+    public synchronized Timeout schedule(Runnable task, long delay) {
+        long deadline = System.currentTimeMillis() + Math.max(0, delay) - startTime;
+        long deadlineTick = Math.max(tick, (deadline + tickDuration - 1) / tickDuration);
+
+        Timeout timeout = new Timeout(task);
+        timeout.rounds = (deadlineTick - tick) / buckets.length;
+        timeout.bucket = (int) (deadlineTick & mask);
+
+        // Insert at the head of the bucket
+        timeout.next = buckets[timeout.bucket];
+        if (timeout.next != null)
+            timeout.next.previous = timeout;
+        buckets[timeout.bucket] = timeout;
+        return timeout;
+    }
+
+    /**
+     * Processes every tick elapsed up to the given time, running the tasks that expire.
+     *
+     * @param now The current time in milliseconds.
+     */
+    public void advance(long now) {
+        synchronized (this) {
+            long target = (now - startTime) / tickDuration;
+            for (; tick <= target; tick++) {
+                Timeout timeout = buckets[(int) (tick & mask)];
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    if (timeout.rounds-- <= 0) {
+                        unlink(timeout);
+                        expired.add(timeout);
+                    }
+                    timeout = next;
+                }
+            }
+        }
+
+        // Tasks may schedule new timeouts, so they run without holding the lock
+        for (int i = 0; i < expired.size(); i++) {
+            try {
+                expired.get(i).task.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        expired.clear();
+    }
+
+    /**
+     * Returns the resolution of this wheel.
+     *
+     * @return <b>long</b> The duration of a tick in milliseconds.
+     */
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    /**
+     * Removes a timeout from its bucket.
+     *
+     * @param timeout The timeout to remove.
+     */
+    private void unlink(Timeout timeout) {
+        if (timeout.previous != null)
+            timeout.previous.next = timeout.next;
+        else
+            buckets[timeout.bucket] = timeout.next;
+        if (timeout.next != null)
+            timeout.next.previous = timeout.previous;
+        timeout.previous = timeout.next = null;
+        timeout.bucket = -1;
+    }
+
+}
@@ -0,0 +1,17 @@
+package network;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Listener for the size of every datagram sent or received.
+ */
+public interface TrafficListener {
+
+	/**
+	 * Handles a datagram sent to or received from a remote peer.
+	 * @param remote The remote peer's IP address and port.
+	 * @param length The length of the datagram in bytes.
+	 */
+	void invoke(InetSocketAddress remote, int length);
+
+}
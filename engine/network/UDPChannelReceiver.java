@@ -0,0 +1,288 @@
+package network;
+
+import network.packets.Packet;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+/**
+ * Used to receive and decrypt UDP packets over the network through a non-blocking {@link DatagramChannel}. Datagrams
+ * are read into pooled direct buffers and packets are deserialized straight from them, so that receiving does not
+ * allocate anything per packet beyond the decoded packet itself. This class implements its own thread.
+ */
+@SuppressWarnings("unused")
+public class UDPChannelReceiver extends Thread {
+
+    /**
+     * The length of a packet buffer in bytes.
+     */
+    private static final int BUFFER_LENGTH = 4096;
+
+    /**
+     * The number of packet buffers kept in the pool.
+     */
+    private static final int POOL_SIZE = 4;
+
+    /**
+     * The maximum time in milliseconds spent waiting for a datagram before checking whether the receiver was halted.
+     */
+    private static final int TIMEOUT = 1000;
+
+    /**
+     * The port to which the receiver is bound.
+     */
+    private int port;
+
+    /**
+     * The address to which the receiver is bound.
+     */
+    private InetAddress address;
+
+    /**
+     * The pool of buffers datagrams are received into.
+     */
+    private final BufferPool pool = new BufferPool(BUFFER_LENGTH, POOL_SIZE);
+
+    /**
+     * The buffer encrypted datagrams are decrypted into.
+     */
+    private final ByteBuffer decrypted = ByteBuffer.allocateDirect(BUFFER_LENGTH);
+
+    /**
+     * The sessions used to decrypt packets from remote peers.
+     */
+    private final Sessions sessions;
+
+    /**
+     * The datagram channel used to listen for incoming packets.
+     */
+    private DatagramChannel channel;
+
+    /**
+     * The selector used to wait for incoming packets.
+     */
+    private Selector selector;
+
+    /**
+     * The callback triggered on receiving a valid packet.
+     */
+    private PacketReceivedListener callback = null;
+
+    /**
+     * The callback given the packets of datagrams received in the clear, passing on those the sessions accept.
+     */
+    private final PacketReceivedListener plainCallback = this::onPlainPacket;
+
+    /**
+     * The listener notified of every datagram received, if any.
+     */
+    private TrafficListener trafficListener = null;
+
+    /**
+     * Indicates whether this receiver is ready to be started.
+     */
+    private boolean ready = false;
+
+    /**
+     * The operational state of this thread (running or not).
+     */
+    private volatile boolean running = false;
+
+    /**
+     * Initializes a new {@link UDPChannelReceiver} on a random port.
+     *
+     * @param sessions The sessions to be used for decryption.
+     */
+    public UDPChannelReceiver(Sessions sessions) {
+        this(null, 0, sessions);
+    }
+
+    /**
+     * Initializes a new {@link UDPChannelReceiver} on the specified port.
+     *
+     * @param address  The IP address to bind the channel to.
+     * @param port     The port to listen on.
+     * @param sessions The sessions to be used for decryption.
+     */
+    public UDPChannelReceiver(InetAddress address, int port, Sessions sessions) {
+        this.sessions = sessions;
+
+        try {
+            // Create the channel on the given address and port
+            this.channel = DatagramChannel.open();
+            this.channel.bind(new InetSocketAddress(address, port));
+            this.channel.configureBlocking(false);
+            this.address = this.channel.socket().getLocalAddress();
+            this.port = this.channel.socket().getLocalPort();
+
+            // Register the channel for reading
+            this.selector = Selector.open();
+            this.channel.register(selector, SelectionKey.OP_READ);
+
+            // Set ready
+            this.ready = true;
+
+        } catch (IOException e) {
+
+            // Error while creating channel
+            this.channel = null;
+            e.printStackTrace();
+
+        }
+    }
+
+    /**
+     * Sets this {@link UDPChannelReceiver}'s callback triggered when a packet is received.
+     *
+     * @param callback The callback to use when a packet is received.
+     * @return {@link UDPChannelReceiver} This same {@link UDPChannelReceiver} instance to allow for method chaining.
+     */
+    public UDPChannelReceiver withCallback(PacketReceivedListener callback) {
+        this.callback = callback;
+        return this;
+    }
+
+    /**
+     * Sets the listener notified of the size of every datagram received, before it is decrypted.
+     *
+     * @param listener The listener to notify, or null to stop notifying.
+     * @return {@link UDPChannelReceiver} This same {@link UDPChannelReceiver} instance to allow for method chaining.
+     */
+    public UDPChannelReceiver withTrafficListener(TrafficListener listener) {
+        this.trafficListener = listener;
+        return this;
+    }
+
+    /**
+     * The entry point of the receiver's thread.
+     */
+    public void run() {
+
+        // Loop until halted
+        while (running) {
+            try {
+                // Wait for datagrams
+                if (selector.select(TIMEOUT) == 0)
+                    continue;
+                selector.selectedKeys().clear();
+
+                // Drain every datagram available
+                ByteBuffer buffer = pool.acquire();
+                try {
+                    SocketAddress source;
+                    while ((source = channel.receive(buffer.clear())) != null)
+                        handleDatagram((InetSocketAddress) source, buffer.flip());
+                } finally {
+                    pool.release(buffer);
+                }
+
+            } catch (IOException ignored) {
+            }
+        }
+
+        // Release the port once halted
+        try {
+            selector.close();
+            channel.close();
+        } catch (IOException ignored) {
+        }
+
+    }
+
+    /**
+     * Decrypts and deserializes a received datagram, then passes the resulting packets to the callback.
+     *
+     * @param source   The remote IP address and port the datagram was received from.
+     * @param datagram The buffer holding the datagram.
+     */
+    private void handleDatagram(InetSocketAddress source, ByteBuffer datagram) {
+        if (trafficListener != null)
+            trafficListener.invoke(source, datagram.remaining());
+
+        // Attempt decryption
+        ByteBuffer data = sessions.open(source, datagram, decrypted);
+        if (data == null)
+            return;
+
+        // Pass every packet it holds to the callback, only handshakes once a session exists if sent in the clear
+        PacketBatch.dispatch(source, data, data == datagram ? plainCallback : callback);
+    }
+
+    /**
+     * Starts the receiver if it is operational.
+     */
+    public synchronized void start() {
+        if (running)
+            return;
+
+        if (!ready)
+            return;
+
+        this.running = true;
+
+        super.start();
+    }
+
+    /**
+     * Stops the receiver and kills its thread.
+     */
+    public synchronized void halt() {
+        this.running = false;
+        selector.wakeup();
+    }
+
+    /**
+     * Returns whether this receiver is ready to be started.
+     *
+     * @return [<d>boolean</b>] True if this receiver is ready to operate, false otherwise.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the bind port of this receiver.
+     *
+     * @return <b>int</b> The local port number to which this receiver is bound to.
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Returns the bind address of this receiver.
+     *
+     * @return {@link InetAddress} The local IP address to which this receiver is bound to.
+     */
+    public InetAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Returns the {@link DatagramChannel} backing this receiver.
+     *
+     * @return {@link DatagramChannel} The {@link DatagramChannel} used by this receiver to receive packets.
+     */
+    public DatagramChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Passes a packet received in the clear to the callback if the sessions accept it.
+     *
+     * @param source The remote IP address and port the packet was received from.
+     * @param packet The packet received.
+     */
+    private void onPlainPacket(InetSocketAddress source, Packet packet) {
+        PacketReceivedListener listener = callback;
+        if (listener != null && sessions.acceptsPlain(source, packet))
+            listener.invoke(source, packet);
+    }
+
+}
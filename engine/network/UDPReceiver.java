@@ -1,12 +1,10 @@
 package network;
 
 import network.packets.Packet;
-import network.serializers.PacketSerializer;
 
 import java.io.IOException;
 import java.net.*;
-import java.security.PrivateKey;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 
 /**
  * Used to receive and decrypt UDP packets over the network. This class implements its own thread.
@@ -40,9 +38,9 @@ public class UDPReceiver extends Thread {
     private final byte[] buffer = new byte[BUFFER_LENGTH];
 
     /**
-     * The private RSA key used for decryption.
+     * The sessions used to decrypt packets from remote peers.
      */
-    private final PrivateKey key;
+    private final Sessions sessions;
 
     /**
      * The datagram socket used to listen for incoming packets.
@@ -54,6 +52,11 @@ public class UDPReceiver extends Thread {
      */
     private PacketReceivedListener callback = null;
 
+    /**
+     * The callback given the packets of datagrams received in the clear, passing on those the sessions accept.
+     */
+    private final PacketReceivedListener plainCallback = this::onPlainPacket;
+
     /**
      * Indicates whether this receiver is ready to be started.
      */
@@ -67,11 +70,11 @@ public class UDPReceiver extends Thread {
     /**
      * Initializes a new {@link UDPReceiver} on a random port.
      *
-     * @param key The RSA key to be used for decryption.
+     * @param sessions The sessions to be used for decryption.
      */
-    public UDPReceiver(PrivateKey key) {
-        // Store the decryption key
-        this.key = key;
+    public UDPReceiver(Sessions sessions) {
+        // Store the decryption sessions
+        this.sessions = sessions;
 
         try {
             // Create the socket and retrieve its port number
@@ -97,15 +100,15 @@ public class UDPReceiver extends Thread {
     /**
      * Initializes a new {@link UDPReceiver} on the specified port.
      *
-     * @param address The IP address to bind the socket to.
-     * @param port    The port to listen on.
-     * @param key     The RSA key to be used for decryption.
+     * @param address  The IP address to bind the socket to.
+     * @param port     The port to listen on.
+     * @param sessions The sessions to be used for decryption.
      */
-    public UDPReceiver(InetAddress address, int port, PrivateKey key) {
-        // Store the decryption key, address, and port number
+    public UDPReceiver(InetAddress address, int port, Sessions sessions) {
+        // Store the decryption sessions, address, and port number
         this.address = address;
         this.port = port;
-        this.key = key;
+        this.sessions = sessions;
 
         try {
 
@@ -130,15 +133,15 @@ public class UDPReceiver extends Thread {
     /**
      * Initializes a new {@link UDPReceiver} using the specified socket.
      *
-     * @param socket The socket to listen with.
-     * @param key    The RSA key to be used for decryption.
+     * @param socket   The socket to listen with.
+     * @param sessions The sessions to be used for decryption.
      */
-    public UDPReceiver(DatagramSocket socket, PrivateKey key) {
-        // Store the socket, decryption key, address, and port number
+    public UDPReceiver(DatagramSocket socket, Sessions sessions) {
+        // Store the socket, decryption sessions, address, and port number
         this.socket = socket;
         this.address = socket.getLocalAddress();
         this.port = socket.getLocalPort();
-        this.key = key;
+        this.sessions = sessions;
 
         try {
             // Set the socket timeout
@@ -179,24 +182,15 @@ public class UDPReceiver extends Thread {
                 DatagramPacket dp = new DatagramPacket(buffer, BUFFER_LENGTH);
                 socket.receive(dp);
 
-                // Copy the packet data
-                byte[] data = Arrays.copyOfRange(dp.getData(), dp.getOffset(), dp.getOffset() + dp.getLength());
-
-                // Attempt decryption
-                if (key != null) {
-                    byte[] temp = RSA.decrypt(key, data);
-                    if (temp != null)
-                        data = temp;
-                }
-
-                // Attempt to create packet object
-                Packet packet = PacketSerializer.deserialize(data);
-                if (packet == null)
+                // Copy or decrypt the packet data
+                InetSocketAddress source = new InetSocketAddress(dp.getAddress(), dp.getPort());
+                boolean plain = Sessions.isPlain(dp.getData(), dp.getOffset(), dp.getLength());
+                byte[] data = sessions.open(source, dp.getData(), dp.getOffset(), dp.getLength());
+                if (data == null)
                     continue;
 
-                // Pass packet to callback
-                if (callback != null)
-                    callback.invoke(new InetSocketAddress(dp.getAddress(), dp.getPort()), packet);
+                // Pass every packet it holds to the callback, only handshakes once a session exists if sent in the clear
+                PacketBatch.dispatch(source, ByteBuffer.wrap(data), plain ? plainCallback : callback);
 
             } catch (IOException ignored) {
             }
@@ -262,4 +256,16 @@ public class UDPReceiver extends Thread {
         return socket;
     }
 
-}
\ No newline at end of file
+    /**
+     * Passes a packet received in the clear to the callback if the sessions accept it.
+     *
+     * @param source The remote IP address and port the packet was received from.
+     * @param packet The packet received.
+     */
+    private void onPlainPacket(InetSocketAddress source, Packet packet) {
+        PacketReceivedListener listener = callback;
+        if (listener != null && sessions.acceptsPlain(source, packet))
+            listener.invoke(source, packet);
+    }
+
+}
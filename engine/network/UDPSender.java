@@ -2,20 +2,40 @@ package network;
 
 import network.packets.Packet;
 import network.serializers.PacketSerializer;
+import network.serializers.WireFormat;
 
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
-import java.security.PublicKey;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Used to send UDP packets over the network. This class implements its own thread.
+ * <p>
+ * In batching mode, packets sent to the same remote peer within {@link #FLUSH_INTERVAL} milliseconds of each other are
+ * coalesced into a single {@link PacketBatch} datagram, up to {@link PacketBatch#MAX_LENGTH} bytes.
  */
 @SuppressWarnings("unused")
 public class UDPSender extends Thread {
 
+    /**
+     * The time in milliseconds a packet may wait for others bound to the same peer in batching mode.
+     */
+    public static final int FLUSH_INTERVAL = 5;
+
+    /**
+     * The maximum time in milliseconds spent waiting for a packet before checking whether the sender was halted.
+     */
+    private static final int TIMEOUT = 500;
+
     /**
      * The port to which the sender is bound.
      */
@@ -26,6 +46,41 @@ public class UDPSender extends Thread {
      */
     private DatagramSocket socket;
 
+    /**
+     * The datagram channel used to send packets, if this sender shares the channel of a {@link UDPChannelReceiver}.
+     */
+    private DatagramChannel channel = null;
+
+    /**
+     * The sessions used to encrypt packets sent to remote peers.
+     */
+    private final Sessions sessions;
+
+    /**
+     * The encoding in which packets are serialized.
+     */
+    private volatile WireFormat format = WireFormat.STANDARD;
+
+    /**
+     * The listener notified of every datagram queued, if any.
+     */
+    private volatile TrafficListener trafficListener = null;
+
+    /**
+     * Indicates whether packets are coalesced into batches.
+     */
+    private volatile boolean batching = false;
+
+    /**
+     * The batches being filled, by remote IP address and port. Guards every batch.
+     */
+    private final Map<InetSocketAddress, PacketBatch> batches = new HashMap<>();
+
+    /**
+     * The batches available for reuse.
+     */
+    private final ArrayDeque<PacketBatch> spareBatches = new ArrayDeque<>();
+
     /**
      * A queue of packets to be sent.
      */
@@ -45,6 +100,8 @@ public class UDPSender extends Thread {
      * Initializes a new {@link UDPSender} on a random port.
      */
     public UDPSender() {
+        this.sessions = new Sessions();
+
         try {
             // Create the socket and retrieve its port number
             this.socket = new DatagramSocket();
@@ -69,6 +126,7 @@ public class UDPSender extends Thread {
      */
     public UDPSender(int port) {
         this.port = port;
+        this.sessions = new Sessions();
 
         try {
             // Create the socket on the specified port
@@ -87,19 +145,41 @@ public class UDPSender extends Thread {
     }
 
     /**
-     * Initializes a new {@link UDPSender} on a random port.
+     * Initializes a new {@link UDPSender} using the specified socket.
      *
-     * @param socket The socket to listen with.
+     * @param socket The socket to send with.
      */
     public UDPSender(DatagramSocket socket) {
+        this(socket, new Sessions());
+    }
+
+    /**
+     * Initializes a new {@link UDPSender} using the specified socket.
+     *
+     * @param socket   The socket to send with.
+     * @param sessions The sessions to be used for encryption.
+     */
+    public UDPSender(DatagramSocket socket, Sessions sessions) {
         this.socket = socket;
         this.port = socket.getLocalPort();
+        this.sessions = sessions;
 
         // Set ready if socket is bound
         if (this.socket.isBound() && !this.socket.isClosed())
             this.ready = true;
     }
 
+    /**
+     * Initializes a new {@link UDPSender} using the specified channel, which may be in non-blocking mode.
+     *
+     * @param channel  The channel to send with.
+     * @param sessions The sessions to be used for encryption.
+     */
+    public UDPSender(DatagramChannel channel, Sessions sessions) {
+        this(channel.socket(), sessions);
+        this.channel = channel;
+    }
+
     /**
      * The entry point of the receiver's thread.
      */
@@ -109,10 +189,13 @@ public class UDPSender extends Thread {
             try {
 
                 // Remove a packet from the queue
-                DatagramPacket packet = packets.take();
+                DatagramPacket packet = packets.poll(batching ? FLUSH_INTERVAL : TIMEOUT, TimeUnit.MILLISECONDS);
+                if (packet != null)
+                    write(packet);
 
-                // Send it over UDP
-                socket.send(packet);
+                // Queue the batches that have waited long enough
+                if (batching)
+                    flushExpired(System.currentTimeMillis());
 
             } catch (Exception e) {
                 // TODO Log failed to send packet
@@ -120,6 +203,29 @@ public class UDPSender extends Thread {
 
             }
         }
+
+        // Send what was queued before halting
+        DatagramPacket packet;
+        while ((packet = packets.poll()) != null) {
+            try {
+                write(packet);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Sends a datagram over UDP, a non-blocking channel drops the datagram if the socket buffer is full.
+     *
+     * @param packet The datagram to send.
+     * @throws Exception If the datagram could not be sent.
+     */
+    private void write(DatagramPacket packet) throws Exception {
+        if (channel != null)
+            channel.send(ByteBuffer.wrap(packet.getData(), packet.getOffset(), packet.getLength()), packet.getSocketAddress());
+        else
+            socket.send(packet);
     }
 
     /**
@@ -141,6 +247,7 @@ public class UDPSender extends Thread {
      * Stops the sender and kills its thread.
      */
     public synchronized void halt() {
+        flush();
         this.running = false;
         try {
             this.join();
@@ -167,34 +274,183 @@ public class UDPSender extends Thread {
     }
 
     /**
-     * Enqueues a packet to be sent to the specified IP and port.
+     * Enqueues a packet to be sent to the specified IP and port. The packet is encrypted if a session exists with the
+     * destination.
      *
      * @param packet The packet to send.
      * @param dest   The destination IP address and port.
      */
     public void send(Packet packet, InetSocketAddress dest) {
-        byte[] data = PacketSerializer.serialize(packet);
-        packets.add(new DatagramPacket(data, data.length, dest));
+        byte[] data = PacketSerializer.serialize(packet, format);
+        if (batching) {
+            batch(data, dest);
+            return;
+        }
+
+        data = sessions.seal(dest, data);
+        if (data != null)
+            enqueue(data, dest);
     }
 
     /**
-     * Enqueues an encrypted packet to be sent to the specified IP and port.
+     * Enqueues a packet to be sent in the clear to the specified IP and port, even if a session exists with the
+     * destination. Only meant for the key exchange.
      *
      * @param packet The packet to send.
-     * @param dest   The destination IP address and port number.
-     * @param key    The public RSA key to encrypt the packet with.
+     * @param dest   The destination IP address and port.
      */
-    public void send(Packet packet, InetSocketAddress dest, PublicKey key) {
-        if (key == null) {
-            send(packet, dest);
-            return;
+    public void sendUnencrypted(Packet packet, InetSocketAddress dest) {
+        byte[] data = sessions.plain(PacketSerializer.serialize(packet, format));
+        synchronized (batches) {
+            // Keep the packet behind those already batched for the destination
+            PacketBatch batch = batches.remove(dest);
+            if (batch != null)
+                flush(dest, batch);
+            enqueue(data, dest);
+        }
+    }
+
+    /**
+     * Adds serialized packet data to the batch bound to a destination, sending the batch first if the data does not
+     * fit or the destination's session has changed since the batch was started.
+     *
+     * @param data The serialized packet data.
+     * @param dest The destination IP address and port.
+     */
+    private void batch(byte[] data, InetSocketAddress dest) {
+        SessionCipher cipher = sessions.get(dest);
+        synchronized (batches) {
+            PacketBatch batch = batches.get(dest);
+            if (batch != null && (batch.getCipher() != cipher || !batch.add(data))) {
+                batches.remove(dest);
+                flush(dest, batch);
+                batch = null;
+            }
+
+            if (batch == null) {
+                batch = spareBatches.isEmpty() ? new PacketBatch() : spareBatches.poll();
+                batch.reset(cipher, System.currentTimeMillis() + FLUSH_INTERVAL).add(data);
+                batches.put(dest, batch);
+            }
         }
+    }
+
+    /**
+     * Seals a batch and queues it, then makes it available for reuse. Must be called while holding the batches' lock.
+     *
+     * @param dest  The destination IP address and port.
+     * @param batch The batch to send, already removed from the batches being filled.
+     */
+    private void flush(InetSocketAddress dest, PacketBatch batch) {
+        byte[] data = sessions.seal(batch.getCipher(), batch.toByteArray());
+        if (data != null)
+            enqueue(data, dest);
+        spareBatches.add(batch);
+    }
+
+    /**
+     * Queues every batch whose deadline has passed.
+     *
+     * @param now The current time in milliseconds.
+     */
+    private void flushExpired(long now) {
+        synchronized (batches) {
+            Iterator<Map.Entry<InetSocketAddress, PacketBatch>> it = batches.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<InetSocketAddress, PacketBatch> entry = it.next();
+                if (entry.getValue().getDeadline() <= now) {
+                    it.remove();
+                    flush(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues every batch being filled without waiting for its deadline.
+     *
+     * @return {@link UDPSender} This same {@link UDPSender} instance to allow for method chaining.
+     */
+    public UDPSender flush() {
+        flushExpired(Long.MAX_VALUE);
+        return this;
+    }
+
+    /**
+     * Sets whether packets sent to the same destination are coalesced into batches. Disabling batching sends the
+     * batches being filled right away.
+     *
+     * @param batching True to coalesce packets, false to send every packet in its own datagram.
+     * @return {@link UDPSender} This same {@link UDPSender} instance to allow for method chaining.
+     */
+    public UDPSender setBatching(boolean batching) {
+        this.batching = batching;
+        if (!batching)
+            flush();
+        return this;
+    }
 
-        byte[] data = PacketSerializer.serialize(packet);
-        byte[] encrypted = RSA.encrypt(key, data);
+    /**
+     * Returns whether packets sent to the same destination are coalesced into batches.
+     *
+     * @return <b>boolean</b> True if this sender is in batching mode.
+     */
+    public boolean isBatching() {
+        return batching;
+    }
 
-        if (encrypted != null)
-            packets.add(new DatagramPacket(encrypted, encrypted.length, dest));
+    /**
+     * Enqueues a datagram to be sent and notifies the traffic listener.
+     *
+     * @param data The datagram payload.
+     * @param dest The destination IP address and port.
+     */
+    private void enqueue(byte[] data, InetSocketAddress dest) {
+        packets.add(new DatagramPacket(data, data.length, dest));
+        TrafficListener listener = trafficListener;
+        if (listener != null)
+            listener.invoke(dest, data.length);
+    }
+
+    /**
+     * Sets the listener notified of the size of every datagram this sender queues.
+     *
+     * @param listener The listener to notify, or null to stop notifying.
+     * @return {@link UDPSender} This same {@link UDPSender} instance to allow for method chaining.
+     */
+    public UDPSender withTrafficListener(TrafficListener listener) {
+        this.trafficListener = listener;
+        return this;
+    }
+
+    /**
+     * Sets the encoding in which this sender serializes packets. Receivers detect the encoding of every packet, so this
+     * can be changed at any time.
+     *
+     * @param format The encoding to use.
+     * @return {@link UDPSender} This same {@link UDPSender} instance to allow for method chaining.
+     */
+    public UDPSender setWireFormat(WireFormat format) {
+        this.format = format;
+        return this;
+    }
+
+    /**
+     * Returns the encoding in which this sender serializes packets.
+     *
+     * @return {@link WireFormat} The encoding used by this sender.
+     */
+    public WireFormat getWireFormat() {
+        return format;
+    }
+
+    /**
+     * Returns the sessions used by this sender to encrypt packets.
+     *
+     * @return {@link Sessions} The sessions used by this sender.
+     */
+    public Sessions getSessions() {
+        return sessions;
     }
 
 }
\ No newline at end of file
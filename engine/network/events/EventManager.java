@@ -5,49 +5,96 @@ import network.packets.PacketEvent;
 import network.packets.PacketEventConfirmation;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Delivers events reliably to a remote peer over UDP. Events in flight are kept in a fixed size send window and
+ * acknowledged with a cumulative ID plus a bitfield of the events received past it, which are piggybacked on every
+ * event and confirmation packet so that a lost confirmation is covered by any later one. Unconfirmed events are resent
+ * after a timeout adapted to the measured round trip time, backing off exponentially on every resend.
+ */
 public class EventManager {
 
     /**
-     * Amount of time in milliseconds after which to resend an event if no confirmation was received.
+     * The maximum number of events in flight, which is also the number of events the receiving side can buffer ahead of
+     * the next expected one. It must be a power of two no larger than the number of bits in an acknowledgement field
+     * plus one.
      */
-    private static final int EVENT_CONFIRMATION_TIMEOUT = 500;
+    public static final int WINDOW_SIZE = 32;
 
     /**
-     * Represents an event that has already been sent by this peer.
+     * Mask mapping an event ID to its slot in a window.
      */
-    private static class EventSent {
-        public final long eventID;
-        public final NetworkEvent event;
-        public long timestamp;
+    private static final int WINDOW_MASK = WINDOW_SIZE - 1;
 
-        private EventSent(long eventID, NetworkEvent event) {
-            this.eventID = eventID;
-            this.event = event;
-            this.timestamp = System.currentTimeMillis();
-        }
+    /**
+     * Amount of time in milliseconds after which to resend an event before the round trip time has been measured.
+     */
+    private static final int INITIAL_TIMEOUT = 500;
 
-        public boolean equals(Object obj) {
-            if (obj == null)
-                return false;
+    /**
+     * The minimum amount of time in milliseconds after which to resend an event.
+     */
+    private static final int MIN_TIMEOUT = 100;
 
-            if (!(obj instanceof EventSent))
-                return false;
+    /**
+     * The maximum amount of time in milliseconds after which to resend an event, including backoff.
+     */
+    private static final int MAX_TIMEOUT = 4000;
 
-            return ((EventSent)obj).eventID == eventID;
-        }
+    /**
+     * The maximum number of times the resend timeout of an event is doubled.
+     */
+    private static final int MAX_BACKOFF = 5;
 
-        private void resetTimestamp() {
-            this.timestamp = System.currentTimeMillis();
-        }
-    }
+    // Send window, indexed by event ID modulo the window size, null slots have been confirmed
+    private final NetworkEvent[] sendWindow = new NetworkEvent[WINDOW_SIZE];
+    private final long[] sendTimes = new long[WINDOW_SIZE];
+    private final long[] resendTimes = new long[WINDOW_SIZE];
+    private final int[] transmissions = new int[WINDOW_SIZE];
+
+    /**
+     * The events waiting for room in the send window.
+     */
+    private final ArrayDeque<NetworkEvent> backlog = new ArrayDeque<>();
+
+    /**
+     * The ID of the oldest unconfirmed event sent.
+     */
+    private long sendBase = 0;
 
+    /**
+     * The ID of the next event to send.
+     */
     private long nextSendingEventID = 0;
-    private final ArrayList<EventSent> eventsSent = new ArrayList<>(10);
 
+    // Round trip time estimation in milliseconds
+    private double smoothedRTT = -1;
+    private double rttVariation = 0;
+    private long retransmitTimeout = INITIAL_TIMEOUT;
+
+    /**
+     * The ID of the next event expected from the remote peer, every event before it having been received.
+     */
     private long nextReceivingEventID = 0;
-    private final ArrayList<Long> unreceivedEvents = new ArrayList<>(10);
+
+    /**
+     * The events received past the next expected one, bit i standing for event ID {@code nextReceivingEventID + 1 + i}.
+     */
+    private int receivedBits = 0;
+
+    /**
+     * The events received out of order and held back for in-order delivery, indexed like the send window.
+     */
+    private final NetworkEvent[] receiveWindow = new NetworkEvent[WINDOW_SIZE];
+
+    /**
+     * Whether events are triggered in the order they were sent rather than as soon as they are received.
+     */
+    private boolean ordered = false;
 
     private final UDPSender sender;
     private InetSocketAddress remote = null;
@@ -68,100 +115,251 @@ public class EventManager {
      * @param remote The remote peer's IP address and port.
      * @return {@link EventManager} This same instance of the class.
      */
-    public EventManager setRemoteAddress(InetSocketAddress remote) {
+    public synchronized EventManager setRemoteAddress(InetSocketAddress remote) {
         this.remote = remote;
         return this;
     }
 
     /**
-     * Processes an event packet received from the remote peer.
-     * @param pEvent The packet received from the remote peer.
+     * Forgets every event sent and received, meant for a new connection whose peer numbers its events from zero again.
+     * Events not confirmed yet are dropped.
+     * @return {@link EventManager} This same instance of the class.
      */
-    public void handlePacket(PacketEvent pEvent) {
-
-        // Event and event ID
-        long eventID = pEvent.getEventID();
-        NetworkEvent event = pEvent.getEvent();
+    public synchronized EventManager reset() {
+        Arrays.fill(sendWindow, null);
+        Arrays.fill(receiveWindow, null);
+        backlog.clear();
+        sendBase = 0;
+        nextSendingEventID = 0;
+        nextReceivingEventID = 0;
+        receivedBits = 0;
+        return this;
+    }
 
-        // Difference between next expected event ID and received event ID
-        long diff = eventID - nextReceivingEventID;
+    /**
+     * Sets whether events are triggered in the order they were sent. When enabled, an event received ahead of a missing
+     * one is held back until the missing one arrives.
+     * @param ordered True to trigger events in order, false to trigger them as soon as they are received.
+     * @return {@link EventManager} This same instance of the class.
+     */
+    public synchronized EventManager setOrderedDelivery(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
 
-        // Send confirmation packet to remote
-        sender.send(new PacketEventConfirmation(pEvent.getEventID()), remote);
+    /**
+     * Processes an event packet received from the remote peer. The events it makes deliverable are triggered once this
+     * manager's lock is released, so that the callback may send events through other managers without deadlocking.
+     * Ordered delivery relies on the packets of a peer being handled by one thread at a time.
+     * @param pEvent The packet received from the remote peer.
+     */
+    public void handlePacket(PacketEvent pEvent) {
+        List<NetworkEvent> deliverable = new ArrayList<>(1);
+
+        synchronized (this) {
+
+            // Process the acknowledgements piggybacked on the event
+            acknowledge(pEvent.getAck(), pEvent.getAckBits(), System.currentTimeMillis());
+
+            long eventID = pEvent.getEventID();
+            NetworkEvent event = pEvent.getEvent();
+
+            // Difference between received event ID and next expected event ID
+            long diff = eventID - nextReceivingEventID;
+
+            // Event ID matches next ID, deliver it along with any following event held back or already received
+            if (diff == 0) {
+                deliverable.add(event);
+                nextReceivingEventID++;
+                while ((receivedBits & 1) != 0) {
+                    receivedBits >>>= 1;
+                    takeHeldBack(nextReceivingEventID++, deliverable);
+                }
+                receivedBits >>>= 1;
+
+            // Event ID is ahead of next ID and within the window, deliver it once
+            } else if (diff > 0 && diff < WINDOW_SIZE) {
+                int bit = 1 << (diff - 1);
+                if ((receivedBits & bit) == 0) {
+                    receivedBits |= bit;
+                    if (ordered)
+                        receiveWindow[(int) (eventID & WINDOW_MASK)] = event;
+                    else
+                        deliverable.add(event);
+                }
+            }
 
-        // Event ID matches or is ahead of next ID
-        if (diff >= 0) {
+            // Send confirmation packet to remote, duplicates included in case a previous confirmation was lost
+            sender.send(new PacketEventConfirmation(eventID).setAck(nextReceivingEventID, receivedBits), remote);
+        }
 
-            // Trigger event callback
+        for (NetworkEvent event : deliverable)
             eventTrigger.invoke(event);
+    }
 
-            // Add any missed event IDs to unreceived list
-            for (long i = eventID - diff; i < eventID; i++)
-                unreceivedEvents.add(i);
-
-        // Event ID is behind next ID
-        } else {
-
-            // Find event ID in unreceived list
-            int index = unreceivedEvents.indexOf(eventID);
+    /**
+     * Processes an event confirmation packet received from the remote peer.
+     * @param pEventConfirm The packet received from the remote peer.
+     */
+    public synchronized void handlePacket(PacketEventConfirmation pEventConfirm) {
+        long now = System.currentTimeMillis();
+        confirm(pEventConfirm.getEventID(), now);
+        acknowledge(pEventConfirm.getAck(), pEventConfirm.getAckBits(), now);
+    }
 
-            // If we do find it, trigger event callback and remove ID from the list
-            if (index >= 0) {
-                eventTrigger.invoke(event);
-                unreceivedEvents.remove(index);
-            }
+    /**
+     * Sends an event to the remote peer. If the send window is full, the event is sent once earlier events are
+     * confirmed.
+     * @param event The event to send.
+     */
+    public synchronized void sendEvent(NetworkEvent event) {
+        if (nextSendingEventID - sendBase >= WINDOW_SIZE || !backlog.isEmpty())
+            backlog.add(event);
+        else
+            transmit(event, System.currentTimeMillis());
+    }
 
+    /**
+     * Updates the event manager, resending event packets whose timeout has expired.
+     */
+    public synchronized void update() {
+        long now = System.currentTimeMillis();
+        for (long id = sendBase; id < nextSendingEventID; id++) {
+            int slot = (int) (id & WINDOW_MASK);
+            if (sendWindow[slot] == null || now < resendTimes[slot])
+                continue;
+
+            // Back off exponentially on every resend so that a lossy link is not flooded
+            int backoff = Math.min(transmissions[slot], MAX_BACKOFF);
+            transmissions[slot]++;
+            sendTimes[slot] = now;
+            resendTimes[slot] = now + Math.min(retransmitTimeout << backoff, MAX_TIMEOUT);
+            send(id, sendWindow[slot]);
         }
-
-        // Increment the next ID by diff + 1 if diff + 1 is positive
-        nextReceivingEventID += Math.max(diff + 1, 0);
-
     }
 
     /**
-     * Processes an event confirmation packet received from the remote peer.
-     * @param pEventConfirm The packet received from the remote peer.
+     * Returns the smoothed round trip time measured from event confirmations.
+     * @return <b>double</b> The smoothed round trip time in milliseconds, or -1 if no event was confirmed yet.
      */
-    public void handlePacket(PacketEventConfirmation pEventConfirm) {
+    public synchronized double getRoundTripTime() {
+        return smoothedRTT;
+    }
 
-        // Remove the confirmed event from events sent if it exists
-        eventsSent.stream()
-                .filter(s -> s.eventID == pEventConfirm.getEventID())
-                .findFirst()
-                .ifPresent(eventsSent::remove);
+    /**
+     * Returns the time after which an unconfirmed event is resent for the first time.
+     * @return <b>long</b> The current retransmit timeout in milliseconds.
+     */
+    public synchronized long getRetransmitTimeout() {
+        return retransmitTimeout;
+    }
 
+    /**
+     * Returns the number of events sent and not yet confirmed, including those waiting for room in the send window.
+     * @return <b>int</b> The number of unconfirmed events.
+     */
+    public synchronized int getUnconfirmedCount() {
+        int count = backlog.size();
+        for (long id = sendBase; id < nextSendingEventID; id++)
+            if (sendWindow[(int) (id & WINDOW_MASK)] != null)
+                count++;
+        return count;
     }
 
     /**
-     * Sends an event to the remote peer.
+     * Assigns the next ID to an event, stores it in the send window and sends it.
      * @param event The event to send.
+     * @param now The current time in milliseconds.
      */
-    public void sendEvent(NetworkEvent event) {
-
-        // Get next event ID
+    private void transmit(NetworkEvent event, long now) {
         long eventID = nextSendingEventID++;
+        int slot = (int) (eventID & WINDOW_MASK);
+        sendWindow[slot] = event;
+        sendTimes[slot] = now;
+        resendTimes[slot] = now + retransmitTimeout;
+        transmissions[slot] = 1;
+        send(eventID, event);
+    }
 
-        // Send event to peer
-        sender.send(new PacketEvent(eventID, event), remote);
-
-        // Save sent event
-        eventsSent.add(new EventSent(eventID, event));
+    /**
+     * Sends an event packet carrying the current acknowledgements.
+     * @param eventID The ID of the event.
+     * @param event The event to send.
+     */
+    private void send(long eventID, NetworkEvent event) {
+        sender.send(new PacketEvent(eventID, event).setAck(nextReceivingEventID, receivedBits), remote);
+    }
 
+    /**
+     * Confirms every sent event acknowledged by the remote peer, then slides the send window forward.
+     * @param ack The ID of the next event expected by the remote peer.
+     * @param ackBits The events received by the remote peer past the next expected one.
+     * @param now The current time in milliseconds.
+     */
+    private void acknowledge(long ack, int ackBits, long now) {
+        // Every event before the next expected one was received
+        long end = Math.min(ack, nextSendingEventID);
+        for (long id = sendBase; id < end; id++)
+            confirm(id, now);
+
+        // Along with those flagged in the bitfield
+        for (int bits = ackBits; bits != 0; bits &= bits - 1)
+            confirm(ack + 1 + Integer.numberOfTrailingZeros(bits), now);
+
+        // Slide the window past confirmed events and send what was waiting for room
+        while (sendBase < nextSendingEventID && sendWindow[(int) (sendBase & WINDOW_MASK)] == null)
+            sendBase++;
+        while (!backlog.isEmpty() && nextSendingEventID - sendBase < WINDOW_SIZE)
+            transmit(backlog.poll(), now);
     }
 
     /**
-     * Updates the event manager, resending event packets if necessary.
+     * Marks a sent event as confirmed, sampling the round trip time if it was only sent once.
+     * @param eventID The ID of the confirmed event.
+     * @param now The current time in milliseconds.
      */
-    public void update() {
+    private void confirm(long eventID, long now) {
+        if (eventID < sendBase || eventID >= nextSendingEventID)
+            return;
+
+        int slot = (int) (eventID & WINDOW_MASK);
+        if (sendWindow[slot] == null)
+            return;
+
+        // Confirmations of resent events are ambiguous and not sampled
+        if (transmissions[slot] == 1)
+            sampleRoundTripTime(now - sendTimes[slot]);
+        sendWindow[slot] = null;
+    }
 
-        // Resend any event that has not been confirmed within the defined time duration
-        eventsSent.forEach(es -> {
-            if (System.currentTimeMillis() - es.timestamp > EVENT_CONFIRMATION_TIMEOUT) {
-                sender.send(new PacketEvent(es.eventID, es.event), remote);
-                es.resetTimestamp();
-            }
-        });
+    /**
+     * Updates the round trip time estimates and the retransmit timeout derived from them.
+     * @param rtt The measured round trip time in milliseconds.
+     */
+    private void sampleRoundTripTime(long rtt) {
+        if (smoothedRTT < 0) {
+            smoothedRTT = rtt;
+            rttVariation = rtt / 2.0;
+        } else {
+            rttVariation = 0.75 * rttVariation + 0.25 * Math.abs(smoothedRTT - rtt);
+            smoothedRTT = 0.875 * smoothedRTT + 0.125 * rtt;
+        }
+        long timeout = (long) Math.ceil(smoothedRTT + 4 * rttVariation);
+        retransmitTimeout = Math.max(MIN_TIMEOUT, Math.min(timeout, MAX_TIMEOUT));
+    }
 
+    /**
+     * Removes an event that was held back for in-order delivery, if any, and adds it to the events to deliver.
+     * @param eventID The ID of the event.
+     * @param deliverable The events to deliver once the lock is released.
+     */
+    private void takeHeldBack(long eventID, List<NetworkEvent> deliverable) {
+        int slot = (int) (eventID & WINDOW_MASK);
+        NetworkEvent event = receiveWindow[slot];
+        if (event == null)
+            return;
+        receiveWindow[slot] = null;
+        deliverable.add(event);
     }
 
 }
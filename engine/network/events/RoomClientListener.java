@@ -0,0 +1,7 @@
+package network.events;
+
+public interface RoomClientListener {
+
+    public void invoke(int clientID);
+
+}
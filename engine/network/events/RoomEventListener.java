@@ -0,0 +1,7 @@
+package network.events;
+
+public interface RoomEventListener {
+
+    public void invoke(int clientID, NetworkEvent event);
+
+}
@@ -1,16 +1,20 @@
 package network.managers;
 
+import network.ConnectionStats;
 import network.RSA;
-import network.UDPReceiver;
+import network.SessionCipher;
+import network.Sessions;
+import network.UDPChannelReceiver;
 import network.UDPSender;
 import network.events.EventManager;
 import network.events.NetworkEvent;
+import network.events.NetworkEventListener;
 import network.packets.*;
+import network.serializers.WireFormat;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.security.KeyPair;
-import java.security.PublicKey;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
 
@@ -31,19 +35,19 @@ public class GameClient extends Thread {
     private static final int SERVER_TIMEOUT = 10000;
 
     /**
-     * The RSA public key used to encrypt messages sent to the remote server.
+     * The RSA keypair used to receive the session key from the remote server.
      */
-    private PublicKey remoteKey = null;
+    private final KeyPair keys;
 
     /**
-     * The RSA keypair used for encryption purposes.
+     * The session ciphers negotiated with remote servers.
      */
-    private final KeyPair keys;
+    private final Sessions sessions = new Sessions();
 
     /**
      * The receiver handling packet reception and decryption.
      */
-    private final UDPReceiver receiver;
+    private final UDPChannelReceiver receiver;
 
     /**
      * The sender handling packet dispatch and encryption.
@@ -70,6 +74,11 @@ public class GameClient extends Thread {
      */
     private String username = null;
 
+    /**
+     * The ID of the room this client joins on the remote server.
+     */
+    private int roomID = PacketConnect.DEFAULT_ROOM;
+
     /**
      * The packet queue filled with incoming packets.
      */
@@ -90,6 +99,11 @@ public class GameClient extends Thread {
      */
     private Runnable onTimeout = null;
 
+    /**
+     * The callback to execute for every event received from the server.
+     */
+    private volatile NetworkEventListener onEvent = null;
+
     /**
      * A countdown timer managing server timeout.
      */
@@ -106,7 +120,7 @@ public class GameClient extends Thread {
     private volatile boolean running = false;
 
     /**
-     * Whether or not this client should attempt to connect when the remote RSA public key is received.
+     * Whether or not this client should attempt to connect when the session key is received.
      */
     private boolean connectOnReceiveKey = false;
 
@@ -116,9 +130,9 @@ public class GameClient extends Thread {
     private boolean connected = false;
 
     /**
-     * Indicates latency between the client and server in milliseconds.
+     * The health of the connection with the server, reset on every new connection.
      */
-    private long ping = 0;
+    private volatile ConnectionStats stats = new ConnectionStats();
 
     /**
      * Initializes the client to an operational state.
@@ -126,11 +140,11 @@ public class GameClient extends Thread {
     @SuppressWarnings("ConstantConditions")
     public GameClient() {
         keys = RSA.generateKeyPair(KEY_SIZE);
-        receiver = new UDPReceiver(keys.getPrivate()).withCallback((InetSocketAddress source, Packet packet) -> {
+        receiver = new UDPChannelReceiver(sessions).withCallback((InetSocketAddress source, Packet packet) -> {
             if (remoteAddress == null || remoteAddress.equals(source))
                 packetQueue.add(packet);
         });
-        sender = new UDPSender(receiver.getSocket());
+        sender = new UDPSender(receiver.getChannel(), sessions);
         eventManager = new EventManager(sender, this::onTriggerEvent);
 
         if (receiver.isReady() && sender.isReady()) {
@@ -140,6 +154,29 @@ public class GameClient extends Thread {
         }
     }
 
+    /**
+     * Sets the encoding in which this client sends packets to the server.
+     *
+     * @param format The encoding to use.
+     * @return {@link GameClient} This same {@link GameClient} instance to allow for method chaining.
+     */
+    public GameClient setWireFormat(WireFormat format) {
+        sender.setWireFormat(format);
+        return this;
+    }
+
+    /**
+     * Sets whether packets sent to the server are coalesced into batches, trading up to {@link UDPSender#FLUSH_INTERVAL}
+     * milliseconds of latency for fewer datagrams.
+     *
+     * @param batching True to coalesce packets, false to send every packet in its own datagram.
+     * @return {@link GameClient} This same {@link GameClient} instance to allow for method chaining.
+     */
+    public GameClient setBatching(boolean batching) {
+        sender.setBatching(batching);
+        return this;
+    }
+
     /**
      * Returns whether this client is ready to be started.
      *
@@ -171,7 +208,7 @@ public class GameClient extends Thread {
             // Send ping if connected
             long currentTime = System.currentTimeMillis();
             if (connected && currentTime - lastPing >= 1000) {
-                sender.send(new PacketPing(), remoteAddress, remoteKey);
+                sender.send(stats.nextPing(), remoteAddress);
                 lastPing = currentTime;
             }
 
@@ -189,6 +226,7 @@ public class GameClient extends Thread {
 
                 // Reset timeout counter
                 timeout = SERVER_TIMEOUT;
+                stats.onReceive();
 
                 if (PacketKey.class.equals(p.getClass())) {
                     PacketKey pKey = Packets.cast(p);
@@ -241,7 +279,7 @@ public class GameClient extends Thread {
     }
 
     /**
-     * Stops the client and kills its thread.
+     * Stops the client and kills its thread, along with its network threads.
      */
     public void halt() {
         running = false;
@@ -249,6 +287,10 @@ public class GameClient extends Thread {
             join();
         } catch (InterruptedException ignored) {
         }
+        if (ready) {
+            sender.halt();
+            receiver.halt();
+        }
     }
 
     /**
@@ -260,13 +302,27 @@ public class GameClient extends Thread {
      * @return {@link GameClient} This same {@link GameClient} instance to allow for method chaining.
      */
     public GameClient connect(String address, int port, String username) {
+        return connect(address, port, username, PacketConnect.DEFAULT_ROOM);
+    }
+
+    /**
+     * Attempts to connect the client to a room hosted at the remote address and port specified.
+     *
+     * @param address  The remote IP address in string form (ie. "192.168.0.1") to connect to.
+     * @param port     The remote port number to connect to.
+     * @param username The username to use.
+     * @param roomID   The ID of the room to join on the remote server.
+     * @return {@link GameClient} This same {@link GameClient} instance to allow for method chaining.
+     */
+    public GameClient connect(String address, int port, String username, int roomID) {
         if (!ready) return this;
         try {
             remoteAddress = new InetSocketAddress(InetAddress.getByName(address), port);
             eventManager.setRemoteAddress(remoteAddress);
             this.username = username;
-            if (remoteKey != null) {
-                sender.send(new PacketConnect(username), remoteAddress, remoteKey);
+            this.roomID = roomID;
+            if (sessions.get(remoteAddress) != null) {
+                sender.send(new PacketConnect(username, roomID), remoteAddress);
             } else {
                 connectOnReceiveKey = true;
                 sender.send(new PacketKey(true, keys.getPublic()), remoteAddress);
@@ -287,6 +343,7 @@ public class GameClient extends Thread {
     public GameClient disconnect() {
         if (!ready || !connected) return this;
         sender.send(new PacketDisconnect(), remoteAddress);
+        sessions.remove(remoteAddress);
         connected = false;
         if (this.onDisconnect != null)
             this.onDisconnect.run();
@@ -326,6 +383,18 @@ public class GameClient extends Thread {
         return this;
     }
 
+    /**
+     * Sets the callback to invoke for every event received from the remote server. The callback runs on this client's
+     * thread.
+     *
+     * @param callback The new callback to invoke with every event received, or null to only log events.
+     * @return {@link GameClient} This same {@link GameClient} instance to allow for method chaining.
+     */
+    public GameClient onEvent(NetworkEventListener callback) {
+        this.onEvent = callback;
+        return this;
+    }
+
     /**
      * Sends an event to the remote peer.
      *
@@ -348,17 +417,50 @@ public class GameClient extends Thread {
         return connected;
     }
 
+    /**
+     * Returns the ID of the room this client joins or has joined on the remote server.
+     *
+     * @return <b>int</b> The ID of this client's room.
+     */
+    public int getRoomID() {
+        return roomID;
+    }
+
+    /**
+     * Returns the ID the remote server assigned to this client.
+     *
+     * @return <b>int</b> This client's ID, or -1 if it has not connected yet.
+     */
+    public int getClientID() {
+        return clientID;
+    }
+
     private void handlePacket(PacketKey packet) {
-        if (connectOnReceiveKey && packet.getKey() != null) {
-            remoteKey = packet.getKey();
-            connectOnReceiveKey = false;
-            sender.send(new PacketConnect(username), remoteAddress, remoteKey);
+        if (!connectOnReceiveKey || packet.getSessionKey().length == 0)
+            return;
+
+        // Decrypt the session key with our private key
+        SessionCipher session;
+        try {
+            session = new SessionCipher(SessionCipher.toSecretKey(RSA.decrypt(keys.getPrivate(), packet.getSessionKey())), false);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return;
         }
+
+        sessions.put(remoteAddress, session);
+        connectOnReceiveKey = false;
+        sender.send(new PacketConnect(username, roomID), remoteAddress);
     }
 
     private void handlePacket(PacketAcceptConnection packet) {
+        // Every acceptance starts a new session, in which the server numbers its events from zero
+        if (!connected)
+            stats = new ConnectionStats();
+        eventManager.reset();
         connected = true;
         clientID = packet.getID();
+        roomID = packet.getRoomID();
         if (this.onConnect != null)
             onConnect.run();
         System.out.println("Connected to server.");
@@ -369,7 +471,12 @@ public class GameClient extends Thread {
     }
 
     private void handlePacket(PacketPing packet) {
-        ping = (System.currentTimeMillis() - packet.getTimestamp()) / 2;
+        if (packet.getShouldReturnPing()) {
+            packet.setShouldReturnPing(false);
+            sender.send(packet, remoteAddress);
+        } else {
+            stats.onPingReturned(packet);
+        }
     }
 
     private void handlePacket(PacketEvent packet) {
@@ -381,6 +488,7 @@ public class GameClient extends Thread {
     }
 
     private void timeOut() {
+        sessions.remove(remoteAddress);
         connected = false;
         remoteAddress = null;
         if (this.onTimeout != null)
@@ -390,6 +498,9 @@ public class GameClient extends Thread {
 
     private void onTriggerEvent(NetworkEvent event) {
         System.out.println("Received event: " + event);
+        NetworkEventListener listener = onEvent;
+        if (listener != null)
+            listener.invoke(event);
     }
 
     /**
@@ -400,7 +511,16 @@ public class GameClient extends Thread {
     public long getPing() {
         if (!ready || !connected)
             return 0;
-        return ping;
+        return (long) Math.max(0, stats.getRoundTripTime()) / 2;
+    }
+
+    /**
+     * Returns the health of the connection with the server.
+     *
+     * @return {@link ConnectionStats} The statistics of the current or last connection.
+     */
+    public ConnectionStats getConnectionStats() {
+        return stats;
     }
 
 }
@@ -1,24 +1,34 @@
 package network.managers;
 
+import network.ConnectionStats;
 import network.RSA;
-import network.UDPReceiver;
+import network.SessionCipher;
+import network.Sessions;
+import network.UDPChannelReceiver;
+import network.TimerWheel;
 import network.UDPSender;
 import network.events.EventManager;
 import network.events.NetworkEvent;
+import network.events.RoomClientListener;
+import network.events.RoomEventListener;
 import network.packets.*;
+import network.serializers.WireFormat;
 import utils.Pair;
 
 import java.net.InetSocketAddress;
-import java.security.KeyPair;
-import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Runs a game server handling client connections and network events.
+ * Runs a game server handling client connections and network events. Clients are grouped in {@link Room}s, each hosting
+ * a single match, and join the room requested in their {@link PacketConnect}. Depending on its {@link ServerMode},
+ * clients are either served by a thread each or multiplexed onto a small pool of worker threads.
  */
 public class GameServer extends Thread {
 
@@ -43,38 +53,40 @@ public class GameServer extends Thread {
         public final InetSocketAddress address;
 
         /**
-         * The handler thread for this client instance.
+         * The room this client has joined.
          */
-        public final ClientHandler handler;
+        public final Room room;
 
         /**
-         * The public RSA key associated to this client used for encryption purposes.
+         * The handler thread for this client instance.
          */
-        public PublicKey key;
+        public final ClientHandler handler;
 
         /**
-         * The amount of time after which this client will be considered disconnected.
+         * The health of the connection with this client.
          */
-        public volatile long timeout = CLIENT_TIMEOUT;
+        public final ConnectionStats stats = new ConnectionStats();
 
         /**
          * Creates a new client instance with the specified IP address and port number.
          *
          * @param address The remote IP address and port from which the client is responding.
-         * @param key     The client's public RSA key.
+         * @param room    The room the client has joined.
          */
-        public RemoteClient(int id, String username, InetSocketAddress address, PublicKey key) {
+        public RemoteClient(int id, String username, InetSocketAddress address, Room room) {
             this.id = id;
             this.username = username;
             this.address = address;
-            this.key = key;
+            this.room = room;
             this.handler = new ClientHandler(this);
         }
 
     }
 
     /**
-     * Serves a single client.
+     * Serves a single client, either on its own thread or, in {@link ServerMode#EVENT_LOOP} mode, as a task scheduled
+     * on the worker pool whenever it has work pending. In the latter case at most one worker serves a given client at
+     * any time, so the client's packets are still handled in order.
      */
     private class ClientHandler extends Thread {
 
@@ -83,6 +95,26 @@ public class GameServer extends Thread {
          */
         private final LinkedBlockingDeque<Packet> packets = new LinkedBlockingDeque<>();
 
+        /**
+         * The events waiting to be sent to this client, in event loop mode.
+         */
+        private final ConcurrentLinkedQueue<NetworkEvent> events = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Indicates that resends are due, in event loop mode.
+         */
+        private volatile boolean updatePending = false;
+
+        /**
+         * Indicates that this handler is queued on or running in the worker pool, in event loop mode.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        /**
+         * The task serving this handler's pending work on the worker pool.
+         */
+        private final Runnable drainTask = this::drain;
+
         /**
          * The client this handler is serving.
          */
@@ -115,60 +147,142 @@ public class GameServer extends Thread {
          * @return {@link GameClient} This same {@link GameClient} instance to allow for method chaining.
          */
         public ClientHandler sendEvent(NetworkEvent event) {
-            eventManager.sendEvent(event);
+            if (mode == ServerMode.EVENT_LOOP) {
+                events.add(event);
+                schedule();
+            } else
+                eventManager.sendEvent(event);
             return this;
         }
 
+        /**
+         * Queues a packet received from the remote client.
+         *
+         * @param packet The packet to handle.
+         */
+        public void enqueue(Packet packet) {
+            packets.add(packet);
+            if (mode == ServerMode.EVENT_LOOP)
+                schedule();
+        }
+
+        /**
+         * Forgets the events exchanged with the remote client, which numbers its events from zero again whenever its
+         * connection is accepted.
+         */
+        public void reset() {
+            eventManager.reset();
+        }
+
+        /**
+         * Requests that unconfirmed events be resent if due, in event loop mode.
+         */
+        public void requestUpdate() {
+            updatePending = true;
+            schedule();
+        }
+
+        /**
+         * Schedules this handler on the worker pool unless it is already scheduled.
+         */
+        private void schedule() {
+            if (running && scheduled.compareAndSet(false, true))
+                workers.execute(drainTask);
+        }
+
+        /**
+         * Serves all of this handler's pending work, in event loop mode.
+         */
+        private void drain() {
+            try {
+                NetworkEvent event;
+                while ((event = events.poll()) != null)
+                    eventManager.sendEvent(event);
+
+                Packet p;
+                while (running && (p = packets.poll()) != null)
+                    handle(p);
+
+                if (updatePending) {
+                    updatePending = false;
+                    updateEvents();
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                scheduled.set(false);
+            }
+
+            // Work may have been queued after it was last checked
+            if (!events.isEmpty() || !packets.isEmpty() || updatePending)
+                schedule();
+        }
+
+        /**
+         * Resends unconfirmed events, accounting the time spent to the client's room.
+         */
+        private void updateEvents() {
+            long start = System.nanoTime();
+            eventManager.update();
+            client.room.processingTime.addAndGet(System.nanoTime() - start);
+        }
+
+        /**
+         * Handles a packet received from the remote client.
+         *
+         * @param p The packet to handle.
+         */
+        @SuppressWarnings("ConstantConditions")
+        private void handle(Packet p) {
+            long start = System.nanoTime();
+            client.room.packetsReceived.incrementAndGet();
+
+            // Reset timeout
+            client.stats.onReceive();
+
+            // Handle packet
+            if (PacketPing.class.equals(p.getClass())) {
+                PacketPing pPing = Packets.cast(p);
+                handlePacket(pPing);
+            } else if (PacketEvent.class.equals(p.getClass())) {
+                PacketEvent pEvent = Packets.cast(p);
+                handlePacket(pEvent);
+            } else if (PacketEventConfirmation.class.equals(p.getClass())) {
+                PacketEventConfirmation pEvent = Packets.cast(p);
+                handlePacket(pEvent);
+            }
+
+            client.room.processingTime.addAndGet(System.nanoTime() - start);
+        }
+
         /**
          * {@inheritDoc}}
          */
-        @SuppressWarnings({"DuplicatedCode", "ConstantConditions"})
         public void run() {
-            long lastTime = System.currentTimeMillis();
             while (this.running) {
 
-                // Handle timeouts
-                long currentTime = System.currentTimeMillis();
-                client.timeout -= currentTime - lastTime;
-                if (client.timeout < 0)
-                    onTimeout(client);
-                lastTime = currentTime;
-
                 // Attempt to process pending packets
                 try {
 
                     // Get next packet
                     Packet p = packets.poll(500, TimeUnit.MILLISECONDS);
-                    if (p == null) continue;
-
-                    // Reset timeout
-                    client.timeout = CLIENT_TIMEOUT;
 
                     // Handle packet
-                    if (PacketPing.class.equals(p.getClass())) {
-                        PacketPing pPing = Packets.cast(p);
-                        handlePacket(pPing);
-                    } else if (PacketEvent.class.equals(p.getClass())) {
-                        PacketEvent pEvent = Packets.cast(p);
-                        handlePacket(pEvent);
-                    } else if (PacketEventConfirmation.class.equals(p.getClass())) {
-                        PacketEventConfirmation pEvent = Packets.cast(p);
-                        handlePacket(pEvent);
-                    }
-
+                    if (p != null)
+                        handle(p);
 
                 } catch (Exception e) {
                     e.printStackTrace();
                 }
 
                 // Update event manager
-                eventManager.update();
+                updateEvents();
 
             }
         }
 
         /**
-         * Starts the client handler.
+         * Starts the client handler, on its own thread unless the server runs in event loop mode.
          */
         public void start() {
             if (this.running)
@@ -176,7 +290,8 @@ public class GameServer extends Thread {
 
             this.running = true;
 
-            super.start();
+            if (mode == ServerMode.THREAD_PER_CLIENT)
+                super.start();
         }
 
         /**
@@ -189,7 +304,9 @@ public class GameServer extends Thread {
         private void handlePacket(PacketPing packet) {
             if (packet.getShouldReturnPing()) {
                 packet.setShouldReturnPing(false);
-                sender.send(packet, client.address, client.key);
+                sender.send(packet, client.address);
+            } else {
+                client.stats.onPingReturned(packet);
             }
         }
 
@@ -203,14 +320,243 @@ public class GameServer extends Thread {
 
         private void onTriggerEvent(NetworkEvent event) {
             System.out.println("Received event : " + event + " (" + client.address + ")");
+            RoomEventListener listener = client.room.listener;
+            if (listener != null)
+                listener.invoke(client.id, event);
         }
 
     }
 
     /**
-     * The RSA key size in bits.
+     * A group of clients playing a single match. Each room owns its clients, their event managers and an arbitrary
+     * game state, and keeps track of the traffic and processing time it accounts for.
      */
-    private static final int KEY_SIZE = 512;
+    public class Room {
+
+        /**
+         * This room's identifier.
+         */
+        private final int id;
+
+        /**
+         * The clients in this room, by remote IP address and port.
+         */
+        private final Map<InetSocketAddress, RemoteClient> clients = new ConcurrentHashMap<>();
+
+        /**
+         * The game state of the match hosted in this room.
+         */
+        private volatile Object state = null;
+
+        /**
+         * The callback invoked for every event received from a client in this room, along with the sender's ID.
+         */
+        private volatile RoomEventListener listener = null;
+
+        /**
+         * The callback invoked whenever a client joins this room, including a client reconnecting from the same address.
+         */
+        private volatile RoomClientListener joinListener = null;
+
+        /**
+         * The callback invoked whenever a client leaves this room, by disconnecting or timing out.
+         */
+        private volatile RoomClientListener leaveListener = null;
+
+        /**
+         * The number of bytes sent to the clients in this room.
+         */
+        private final AtomicLong bytesSent = new AtomicLong();
+
+        /**
+         * The number of bytes received from the clients in this room.
+         */
+        private final AtomicLong bytesReceived = new AtomicLong();
+
+        /**
+         * The number of packets received from the clients in this room.
+         */
+        private final AtomicLong packetsReceived = new AtomicLong();
+
+        /**
+         * The time spent handling this room's packets and events, in nanoseconds.
+         */
+        private final AtomicLong processingTime = new AtomicLong();
+
+        /**
+         * Creates a new empty room.
+         *
+         * @param id The room's identifier.
+         */
+        private Room(int id) {
+            this.id = id;
+        }
+
+        /**
+         * Sends an event to every client in this room.
+         *
+         * @param event The event to send.
+         * @return {@link Room} This same {@link Room} instance to allow for method chaining.
+         */
+        public Room broadcastEvent(NetworkEvent event) {
+            for (RemoteClient client : clients.values())
+                client.handler.sendEvent(event);
+            return this;
+        }
+
+        /**
+         * Sends an event to a single client in this room.
+         *
+         * @param clientID The ID of the client to send the event to.
+         * @param event    The event to send.
+         * @return <b>boolean</b> True if the event was sent, false if no such client is in this room.
+         */
+        public boolean sendEvent(int clientID, NetworkEvent event) {
+            for (RemoteClient client : clients.values()) {
+                if (client.id == clientID) {
+                    client.handler.sendEvent(event);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the IDs of the clients in this room.
+         *
+         * @return {@link List} The IDs of the clients currently connected to this room.
+         */
+        public List<Integer> getClientIDs() {
+            List<Integer> ids = new ArrayList<>();
+            for (RemoteClient client : clients.values())
+                ids.add(client.id);
+            return ids;
+        }
+
+        /**
+         * Sets the callback invoked for every event received from a client in this room. The callback is given the ID
+         * of the client the event was received from, as known from its connection.
+         *
+         * @param listener The callback to invoke, or null to only log events.
+         * @return {@link Room} This same {@link Room} instance to allow for method chaining.
+         */
+        public Room onEvent(RoomEventListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Sets the callback invoked whenever a client joins this room, once it was told its connection was accepted. A
+         * client connecting again from the same address joins again, since it may have lost its state.
+         *
+         * @param listener The callback to invoke with the ID of the client, or null to ignore joins.
+         * @return {@link Room} This same {@link Room} instance to allow for method chaining.
+         */
+        public Room onJoin(RoomClientListener listener) {
+            this.joinListener = listener;
+            return this;
+        }
+
+        /**
+         * Sets the callback invoked whenever a client leaves this room, by disconnecting or timing out.
+         *
+         * @param listener The callback to invoke with the ID of the client, or null to ignore departures.
+         * @return {@link Room} This same {@link Room} instance to allow for method chaining.
+         */
+        public Room onLeave(RoomClientListener listener) {
+            this.leaveListener = listener;
+            return this;
+        }
+
+        /**
+         * Sets the game state of the match hosted in this room.
+         *
+         * @param state The new game state.
+         * @return {@link Room} This same {@link Room} instance to allow for method chaining.
+         */
+        public Room setState(Object state) {
+            this.state = state;
+            return this;
+        }
+
+        /**
+         * Returns the game state of the match hosted in this room.
+         *
+         * @param <T> The type of the game state.
+         * @return {@link T} The game state, or null if none was set.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T getState() {
+            return (T) state;
+        }
+
+        /**
+         * Returns the health of the connection with every client in this room.
+         *
+         * @return {@link Map} The connection statistics of every client in this room, by client ID.
+         */
+        public Map<Integer, ConnectionStats> getConnectionStats() {
+            Map<Integer, ConnectionStats> stats = new HashMap<>();
+            for (RemoteClient client : clients.values())
+                stats.put(client.id, client.stats);
+            return stats;
+        }
+
+        /**
+         * Returns this room's identifier.
+         *
+         * @return <b>int</b> The ID clients use to join this room.
+         */
+        public int getID() {
+            return id;
+        }
+
+        /**
+         * Returns the number of clients in this room.
+         *
+         * @return <b>int</b> The number of clients currently connected to this room.
+         */
+        public int getClientCount() {
+            return clients.size();
+        }
+
+        /**
+         * Returns the number of bytes sent to the clients in this room, including encryption overhead.
+         *
+         * @return <b>long</b> The number of bytes sent since this room was opened.
+         */
+        public long getBytesSent() {
+            return bytesSent.get();
+        }
+
+        /**
+         * Returns the number of bytes received from the clients in this room, including encryption overhead.
+         *
+         * @return <b>long</b> The number of bytes received since this room was opened.
+         */
+        public long getBytesReceived() {
+            return bytesReceived.get();
+        }
+
+        /**
+         * Returns the number of packets received from the clients in this room, excluding connection management.
+         *
+         * @return <b>long</b> The number of packets received since this room was opened.
+         */
+        public long getPacketsReceived() {
+            return packetsReceived.get();
+        }
+
+        /**
+         * Returns the time the server spent handling this room's packets and resending its events.
+         *
+         * @return <b>long</b> The processing time since this room was opened, in nanoseconds.
+         */
+        public long getProcessingTime() {
+            return processingTime.get();
+        }
+
+    }
 
     /**
      * The amount of time, in milliseconds, after which a client not sending a response is considered disconnected.
@@ -218,14 +564,49 @@ public class GameServer extends Thread {
     private static final int CLIENT_TIMEOUT = 10000;
 
     /**
-     * The RSA keypair used for encryption purposes.
+     * The interval in milliseconds at which the server pings its clients.
+     */
+    private static final int PING_INTERVAL = 1000;
+
+    /**
+     * The interval in milliseconds at which resends are processed in event loop mode.
+     */
+    private static final int TICK_INTERVAL = 100;
+
+    /**
+     * The resolution in milliseconds of the server's timers.
+     */
+    private static final int TIMER_RESOLUTION = 50;
+
+    /**
+     * The number of worker threads serving clients in event loop mode.
+     */
+    private static final int WORKER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+    /**
+     * The way clients are served.
+     */
+    private final ServerMode mode;
+
+    /**
+     * The timers driving client timeouts, pings and, in event loop mode, resends. Advanced by the server thread.
+     */
+    private final TimerWheel timers = new TimerWheel(TIMER_RESOLUTION, 256);
+
+    /**
+     * The worker threads serving clients in event loop mode, null in thread per client mode.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * The session ciphers negotiated with remote peers.
      */
-    private final KeyPair keys;
+    private final Sessions sessions = new Sessions();
 
     /**
      * The receiver handling packet reception and decryption.
      */
-    private final UDPReceiver receiver;
+    private final UDPChannelReceiver receiver;
 
     /**
      * The sender handling packet dispatch and encryption.
@@ -243,9 +624,9 @@ public class GameServer extends Thread {
     private final Map<InetSocketAddress, RemoteClient> clients = new ConcurrentHashMap<>();
 
     /**
-     * Temporarily store RSA keys in a hashmap.
+     * The rooms currently open, by identifier.
      */
-    private final Map<InetSocketAddress, PublicKey> remoteKeys = new HashMap<>();
+    private final Map<Integer, Room> rooms = new ConcurrentHashMap<>();
 
     /**
      * The next ID to be assigned to a client.
@@ -263,19 +644,105 @@ public class GameServer extends Thread {
     private volatile boolean running = false;
 
     /**
-     * Initializes the server to an operational state.
+     * Initializes the server to an operational state, serving each client on its own thread.
+     *
+     * @param port The port to listen on.
      */
-    @SuppressWarnings("ConstantConditions")
     public GameServer(int port) {
-        keys = RSA.generateKeyPair(KEY_SIZE);
-        receiver = new UDPReceiver(null, port, keys.getPrivate())
-                .withCallback((InetSocketAddress source, Packet packet) -> packetQueue.add(new Pair<>(source, packet)));
-        sender = new UDPSender(receiver.getSocket());
+        this(port, ServerMode.THREAD_PER_CLIENT);
+    }
+
+    /**
+     * Initializes the server to an operational state.
+     *
+     * @param port The port to listen on.
+     * @param mode The way clients are to be served.
+     */
+    public GameServer(int port, ServerMode mode) {
+        this.mode = mode;
+        this.workers = mode == ServerMode.EVENT_LOOP ? Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "GameServer worker");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+
+        receiver = new UDPChannelReceiver(null, port, sessions)
+                .withCallback(this::onReceivePacket)
+                .withTrafficListener(this::onReceiveDatagram);
+        sender = new UDPSender(receiver.getChannel(), sessions).withTrafficListener(this::onSendDatagram);
+        openRoom(PacketConnect.DEFAULT_ROOM);
 
         if (receiver.isReady() && sender.isReady())
             ready = true;
     }
 
+    /**
+     * Opens a new room with the lowest unused identifier.
+     *
+     * @return {@link Room} The room opened.
+     */
+    public synchronized Room openRoom() {
+        int id = PacketConnect.DEFAULT_ROOM;
+        while (rooms.containsKey(id))
+            id++;
+        return openRoom(id);
+    }
+
+    /**
+     * Opens a room with the given identifier, unless it is already open.
+     *
+     * @param id The identifier clients are to use to join the room.
+     * @return {@link Room} The room with the given identifier.
+     */
+    public synchronized Room openRoom(int id) {
+        return rooms.computeIfAbsent(id, Room::new);
+    }
+
+    /**
+     * Closes a room and drops every client connected to it.
+     *
+     * @param id The identifier of the room to close.
+     */
+    public synchronized void closeRoom(int id) {
+        Room room = rooms.remove(id);
+        if (room == null)
+            return;
+
+        for (RemoteClient client : room.clients.values())
+            onDisconnect(client, 0);
+    }
+
+    /**
+     * Returns an open room.
+     *
+     * @param id The identifier of the room.
+     * @return {@link Room} The room, or null if no room with the given identifier is open.
+     */
+    public Room getRoom(int id) {
+        return rooms.get(id);
+    }
+
+    /**
+     * Returns the health of the connection with every client currently connected.
+     *
+     * @return {@link Map} The connection statistics of every client, by client ID.
+     */
+    public Map<Integer, ConnectionStats> getConnectionStats() {
+        Map<Integer, ConnectionStats> stats = new HashMap<>();
+        for (RemoteClient client : clients.values())
+            stats.put(client.id, client.stats);
+        return stats;
+    }
+
+    /**
+     * Returns every room currently open.
+     *
+     * @return {@link Collection} A live view of the open rooms.
+     */
+    public Collection<Room> getRooms() {
+        return rooms.values();
+    }
+
     /**
      * Broadcast an event to every client currently connected to the server.
      *
@@ -286,6 +753,29 @@ public class GameServer extends Thread {
             clients.get(key).handler.sendEvent(event);
     }
 
+    /**
+     * Sets the encoding in which this server sends packets to its clients.
+     *
+     * @param format The encoding to use.
+     * @return {@link GameServer} This same {@link GameServer} instance to allow for method chaining.
+     */
+    public GameServer setWireFormat(WireFormat format) {
+        sender.setWireFormat(format);
+        return this;
+    }
+
+    /**
+     * Sets whether packets sent to its clients are coalesced into batches, trading up to {@link UDPSender#FLUSH_INTERVAL}
+     * milliseconds of latency for fewer datagrams.
+     *
+     * @param batching True to coalesce packets, false to send every packet in its own datagram.
+     * @return {@link GameServer} This same {@link GameServer} instance to allow for method chaining.
+     */
+    public GameServer setBatching(boolean batching) {
+        sender.setBatching(batching);
+        return this;
+    }
+
     /**
      * Returns whether this server is ready to be started or not.
      *
@@ -316,7 +806,10 @@ public class GameServer extends Thread {
 
             try {
 
-                Pair<InetSocketAddress, Packet> addrPacket = packetQueue.poll(3, TimeUnit.SECONDS);
+                // Run the client timers that are due
+                timers.advance(System.currentTimeMillis());
+
+                Pair<InetSocketAddress, Packet> addrPacket = packetQueue.poll(TIMER_RESOLUTION, TimeUnit.MILLISECONDS);
                 if (addrPacket == null)
                     continue;
 
@@ -341,7 +834,7 @@ public class GameServer extends Thread {
                 if (client == null)
                     continue;
 
-                client.handler.packets.add(p);
+                client.handler.enqueue(p);
 
             } catch (Exception ignored) {
             }
@@ -349,6 +842,49 @@ public class GameServer extends Thread {
         }
     }
 
+    /**
+     * Called by the receiver thread for every packet received. In event loop mode, packets from connected clients are
+     * handed to their handler directly, while connection management packets always go through the server thread.
+     *
+     * @param source The IP address and port the packet was received from.
+     * @param packet The packet content.
+     */
+    private void onReceivePacket(InetSocketAddress source, Packet packet) {
+        Class<? extends Packet> type = packet.getClass();
+        if (mode == ServerMode.EVENT_LOOP && !PacketKey.class.equals(type) && !PacketConnect.class.equals(type)
+                && !PacketDisconnect.class.equals(type)) {
+            RemoteClient client = clients.get(source);
+            if (client != null)
+                client.handler.enqueue(packet);
+            return;
+        }
+        packetQueue.add(new Pair<>(source, packet));
+    }
+
+    /**
+     * Accounts a datagram received to the room of the client it was received from.
+     *
+     * @param source The IP address and port the datagram was received from.
+     * @param length The length of the datagram in bytes.
+     */
+    private void onReceiveDatagram(InetSocketAddress source, int length) {
+        RemoteClient client = clients.get(source);
+        if (client != null)
+            client.room.bytesReceived.addAndGet(length);
+    }
+
+    /**
+     * Accounts a datagram sent to the room of the client it was sent to.
+     *
+     * @param dest   The IP address and port the datagram was sent to.
+     * @param length The length of the datagram in bytes.
+     */
+    private void onSendDatagram(InetSocketAddress dest, int length) {
+        RemoteClient client = clients.get(dest);
+        if (client != null)
+            client.room.bytesSent.addAndGet(length);
+    }
+
     /**
      * Starts the server if it is operational.
      */
@@ -365,7 +901,7 @@ public class GameServer extends Thread {
     }
 
     /**
-     * Stops the server and kills its thread.
+     * Stops the server and kills its thread, along with its clients' handlers and its network threads.
      */
     public void halt() {
         running = false;
@@ -373,32 +909,53 @@ public class GameServer extends Thread {
             join();
         } catch (InterruptedException ignored) {
         }
+        for (RemoteClient client : clients.values())
+            client.handler.halt();
+        if (workers != null)
+            workers.shutdown();
+        if (ready) {
+            sender.halt();
+            receiver.halt();
+        }
     }
 
     /**
-     * Handles an invalid packet.
+     * Handles a key exchange packet.
      *
      * @param source The IP address and port the packet was received from.
      * @param packet The packet content.
      */
     private void handlePacket(InetSocketAddress source, PacketKey packet) {
+        if (!packet.getRequestRemoteKey() || packet.getKey() == null)
+            return;
 
-        // Reset client timeout if connected
-        RemoteClient client = clients.get(source);
-        if (client != null)
-            client.timeout = CLIENT_TIMEOUT;
-
-        // Store the remote public key
-        if (packet.getKey() != null)
-            remoteKeys.put(source, packet.getKey());
+        // Key requests are unauthenticated, so they never replace a live session, which ends once its client
+        // disconnects or times out
+        if (sessions.get(source) != null)
+            return;
 
-        // Send public key back
-        if (packet.getRequestRemoteKey()) {
-            packet.setRequestRemoteKey(false);
-            packet.setKey(keys.getPublic());
-            sender.send(packet, source);
+        // Start a new session, so that a restarted client never reuses the nonces of a previous one
+        SessionCipher session;
+        try {
+            session = new SessionCipher(SessionCipher.generateKey(), true);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return;
         }
 
+        // Send the session key back encrypted with the remote public key
+        byte[] sessionKey = RSA.encrypt(packet.getKey(), session.getEncodedKey());
+        if (sessionKey == null)
+            return;
+
+        sessions.put(source, session);
+        sender.sendUnencrypted(new PacketKey(false, null).setSessionKey(sessionKey), source);
+
+        // End the session if no client connects through it, so that the handshake can be retried
+        timers.schedule(() -> {
+            if (clients.get(source) == null && sessions.get(source) == session)
+                sessions.remove(source);
+        }, CLIENT_TIMEOUT);
     }
 
     /**
@@ -410,14 +967,24 @@ public class GameServer extends Thread {
     private void handlePacket(InetSocketAddress source, PacketConnect packet) {
         RemoteClient client = clients.get(source);
         if (client != null) {
-            sender.send(new PacketAcceptConnection(), source, client.key);
+            client.handler.reset();
+            sender.send(new PacketAcceptConnection(client.id, client.room.id), source);
+            onJoin(client);
+            return;
+        }
+
+        // Route the client to the room it requested
+        Room room = rooms.get(packet.getRoomID());
+        if (room == null) {
+            sender.send(new PacketRejectConnection("Room " + packet.getRoomID() + " does not exist."), source);
             return;
         }
 
-        RemoteClient newClient = new RemoteClient(nextID++, packet.getUsername(), source, remoteKeys.get(source));
+        RemoteClient newClient = new RemoteClient(nextID++, packet.getUsername(), source, room);
         onConnect(newClient);
 
-        sender.send(new PacketAcceptConnection(newClient.id), source, newClient.key);
+        sender.send(new PacketAcceptConnection(newClient.id, room.id), source);
+        onJoin(newClient);
     }
 
     /**
@@ -438,9 +1005,81 @@ public class GameServer extends Thread {
      * @param client The client having disconnected.
      */
     private void onConnect(RemoteClient client) {
-        System.out.println("User " + client.username + " (" + client.address + ") has connected.");
+        System.out.println("User " + client.username + " (" + client.address + ") has connected to room " + client.room.id + ".");
         clients.put(client.address, client);
+        client.room.clients.put(client.address, client);
         client.handler.start();
+
+        // Start the client's timers
+        timers.schedule(() -> checkTimeout(client), CLIENT_TIMEOUT);
+        timers.schedule(() -> ping(client), PING_INTERVAL);
+        if (mode == ServerMode.EVENT_LOOP)
+            timers.schedule(() -> tick(client), TICK_INTERVAL);
+    }
+
+    /**
+     * Notifies a client's room that the client joined it.
+     *
+     * @param client The client having joined its room.
+     */
+    private void onJoin(RemoteClient client) {
+        RoomClientListener listener = client.room.joinListener;
+        if (listener != null)
+            listener.invoke(client.id);
+    }
+
+    /**
+     * Notifies a client's room that the client left it.
+     *
+     * @param client The client having left its room.
+     */
+    private void onLeave(RemoteClient client) {
+        RoomClientListener listener = client.room.leaveListener;
+        if (listener != null)
+            listener.invoke(client.id);
+    }
+
+    /**
+     * Times a client out if nothing was received from it for {@link #CLIENT_TIMEOUT} milliseconds, otherwise checks
+     * again once that much time will have passed since the last packet received.
+     *
+     * @param client The client to check.
+     */
+    private void checkTimeout(RemoteClient client) {
+        if (clients.get(client.address) != client)
+            return;
+
+        long idle = System.currentTimeMillis() - client.stats.getLastReceived();
+        if (idle >= CLIENT_TIMEOUT)
+            onTimeout(client);
+        else
+            timers.schedule(() -> checkTimeout(client), CLIENT_TIMEOUT - idle);
+    }
+
+    /**
+     * Pings a client to measure the health of its connection, then schedules the next ping.
+     *
+     * @param client The client to ping.
+     */
+    private void ping(RemoteClient client) {
+        if (clients.get(client.address) != client)
+            return;
+
+        sender.send(client.stats.nextPing(), client.address);
+        timers.schedule(() -> ping(client), PING_INTERVAL);
+    }
+
+    /**
+     * Requests that a client's unconfirmed events be resent if due, then schedules the next request.
+     *
+     * @param client The client to update.
+     */
+    private void tick(RemoteClient client) {
+        if (clients.get(client.address) != client)
+            return;
+
+        client.handler.requestUpdate();
+        timers.schedule(() -> tick(client), TICK_INTERVAL);
     }
 
     /**
@@ -451,7 +1090,10 @@ public class GameServer extends Thread {
     private void onTimeout(RemoteClient client) {
         System.out.println("User " + client.username + " (" + client.address + ") has timed out.");
         clients.remove(client.address);
+        client.room.clients.remove(client.address);
+        sessions.remove(client.address);
         client.handler.halt();
+        onLeave(client);
     }
 
     /**
@@ -463,7 +1105,10 @@ public class GameServer extends Thread {
     private void onDisconnect(RemoteClient client, int exitCode) {
         System.out.println("User " + client.username + " (" + client.address + ") has disconnected. (Exit code = " + exitCode + ")");
         clients.remove(client.address);
+        client.room.clients.remove(client.address);
+        sessions.remove(client.address);
         client.handler.halt();
+        onLeave(client);
     }
 
 }
@@ -0,0 +1,19 @@
+package network.managers;
+
+/**
+ * The ways in which a {@link GameServer} can serve its clients.
+ */
+public enum ServerMode {
+
+    /**
+     * Every client is served by a dedicated thread polling its packet queue.
+     */
+    THREAD_PER_CLIENT,
+
+    /**
+     * Clients are served by a small shared pool of worker threads, each client being scheduled on the pool only when
+     * it has packets, events or timers pending. Thread count no longer grows with the number of clients.
+     */
+    EVENT_LOOP
+
+}
@@ -13,18 +13,36 @@ public class PacketAcceptConnection extends Packet {
     @SerializableField
     private int id;
 
+    /**
+     * The ID of the room the client has joined.
+     */
+    @SerializableField
+    private int roomID;
+
     /**
      * Creates a new connection accepting packet.
      */
     public PacketAcceptConnection() {
         this.id = -1;
+        this.roomID = PacketConnect.DEFAULT_ROOM;
     }
 
     /**
      * Creates a new connection accepting packet.
      */
     public PacketAcceptConnection(int id) {
+        this(id, PacketConnect.DEFAULT_ROOM);
+    }
+
+    /**
+     * Creates a new connection accepting packet for a client joining a given room.
+     *
+     * @param id     The client ID to be assigned to the client.
+     * @param roomID The ID of the room the client has joined.
+     */
+    public PacketAcceptConnection(int id, int roomID) {
         this.id = id;
+        this.roomID = roomID;
     }
 
     /**
@@ -47,4 +65,24 @@ public class PacketAcceptConnection extends Packet {
         return this;
     }
 
+    /**
+     * Returns the ID of the room the client has joined.
+     *
+     * @return <b>int</b> The ID of the room stored in this packet.
+     */
+    public int getRoomID() {
+        return roomID;
+    }
+
+    /**
+     * Sets the ID of the room the client has joined.
+     *
+     * @param roomID The new room ID to store.
+     * @return {@link PacketAcceptConnection} This same {@link PacketAcceptConnection} instance to allow for method chaining.
+     */
+    public PacketAcceptConnection setRoomID(int roomID) {
+        this.roomID = roomID;
+        return this;
+    }
+
 }
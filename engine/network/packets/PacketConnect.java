@@ -8,26 +8,49 @@ import network.annotations.SerializableField;
 @SuppressWarnings("unused")
 public class PacketConnect extends Packet {
 
+    /**
+     * The ID of the room every server hosts, joined when no other room is requested.
+     */
+    public static final int DEFAULT_ROOM = 0;
+
     /**
      * The client's username.
      */
     @SerializableField
     private String username;
 
+    /**
+     * The ID of the room the client wishes to join.
+     */
+    @SerializableField
+    private int roomID;
+
     /**
      * Creates a new connection request packet with an empty username.
      */
     public PacketConnect() {
         this.username = "username";
+        this.roomID = DEFAULT_ROOM;
     }
 
     /**
-     * Creates a new connection request packet with the credentials.
+     * Creates a new connection request packet with the credentials, joining the default room.
      *
      * @param username The username used to authenticate the client.
      */
     public PacketConnect(String username) {
+        this(username, DEFAULT_ROOM);
+    }
+
+    /**
+     * Creates a new connection request packet with the credentials.
+     *
+     * @param username The username used to authenticate the client.
+     * @param roomID   The ID of the room to join.
+     */
+    public PacketConnect(String username, int roomID) {
         this.username = username;
+        this.roomID = roomID;
     }
 
     /**
@@ -50,4 +73,24 @@ public class PacketConnect extends Packet {
         return this;
     }
 
+    /**
+     * Returns the ID of the room to join.
+     *
+     * @return <b>int</b> The ID of the room the client wishes to join.
+     */
+    public int getRoomID() {
+        return roomID;
+    }
+
+    /**
+     * Sets the ID of the room to join.
+     *
+     * @param roomID The ID of the room the client wishes to join.
+     * @return {@link PacketConnect} This same {@link PacketConnect} instance to allow for method chaining.
+     */
+    public PacketConnect setRoomID(int roomID) {
+        this.roomID = roomID;
+        return this;
+    }
+
 }
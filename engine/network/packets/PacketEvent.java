@@ -21,6 +21,19 @@ public class PacketEvent extends Packet {
     @SerializableField
     private NetworkEvent event;
 
+    /**
+     * The ID of the next event the sender of this packet expects, every event before it having been received.
+     */
+    @SerializableField
+    private long ack;
+
+    /**
+     * The events received by the sender of this packet past the next expected one, bit i standing for event ID
+     * {@code ack + 1 + i}.
+     */
+    @SerializableField
+    private int ackBits;
+
     /**
      * Creates a new event packet with no event and with ID of 0.
      */
@@ -77,4 +90,32 @@ public class PacketEvent extends Packet {
         return this;
     }
 
+    /**
+     * Returns the ID of the next event expected by the sender of this packet.
+     * @return <b>long</b> The cumulative acknowledgement stored in this packet.
+     */
+    public long getAck() {
+        return ack;
+    }
+
+    /**
+     * Returns the events received by the sender of this packet past the next expected one.
+     * @return <b>int</b> The selective acknowledgement bitfield stored in this packet.
+     */
+    public int getAckBits() {
+        return ackBits;
+    }
+
+    /**
+     * Sets the acknowledgements carried by this packet.
+     * @param ack The ID of the next event expected.
+     * @param ackBits The events received past the next expected one.
+     * @return {@link PacketEvent} This same {@link PacketEvent} instance to allow for method chaining.
+     */
+    public PacketEvent setAck(long ack, int ackBits) {
+        this.ack = ack;
+        this.ackBits = ackBits;
+        return this;
+    }
+
 }
@@ -5,40 +5,49 @@ import network.annotations.SerializableField;
 import java.security.PublicKey;
 
 /**
- * This packet is sent to transmit a public RSA key to a remote peer.
+ * This packet is used for the key exchange between a client and a server. The client sends its public RSA key, to
+ * which the server responds with a new session key encrypted with it.
  */
 @SuppressWarnings("unused")
 public class PacketKey extends Packet {
 
     /**
-     * Whether or not the receiver should respond with their RSA key.
+     * Whether or not the receiver should respond with a session key.
      */
     @SerializableField
     private boolean requestKey;
 
     /**
-     * Optional public RSA key of the server.
+     * Optional public RSA key of the sender.
      */
     @SerializableField
     private PublicKey key;
 
+    /**
+     * Optional session key, encrypted with the receiver's public RSA key.
+     */
+    @SerializableField
+    private byte[] sessionKey;
+
     /**
      * Creates a new invalid packet with no key and requeting a remote key.
      */
     public PacketKey() {
         this.requestKey = true;
         this.key = null;
+        this.sessionKey = new byte[0];
     }
 
     /**
      * Creates a new invalid packet carrying the specified key.
      *
-     * @param requestRemoteKey Whether or not the receiver should respond with their own key.
+     * @param requestRemoteKey Whether or not the receiver should respond with a session key.
      * @param key              The key to store in this packet.
      */
     public PacketKey(boolean requestRemoteKey, PublicKey key) {
         this.requestKey = requestRemoteKey;
         this.key = key;
+        this.sessionKey = new byte[0];
     }
 
     /**
@@ -62,9 +71,30 @@ public class PacketKey extends Packet {
     }
 
     /**
-     * Returns whether or not the receiver should respond with their own key.
+     * Returns the stored encrypted session key.
+     *
+     * @return <b>byte[]</b> The session key encrypted with the receiver's public RSA key, empty if this packet carries
+     * no session key.
+     */
+    public byte[] getSessionKey() {
+        return sessionKey;
+    }
+
+    /**
+     * Sets this packet's encrypted session key.
+     *
+     * @param sessionKey The session key encrypted with the receiver's public RSA key.
+     * @return {@link PacketKey} This same {@link PacketKey} instance to allow for method chaining.
+     */
+    public PacketKey setSessionKey(byte[] sessionKey) {
+        this.sessionKey = sessionKey != null ? sessionKey : new byte[0];
+        return this;
+    }
+
+    /**
+     * Returns whether or not the receiver should respond with a session key.
      *
-     * @return <b>boolean</b> True if the receiver is to send back their key, false otherwise.
+     * @return <b>boolean</b> True if the receiver is to send back a session key, false otherwise.
      */
     public boolean getRequestRemoteKey() {
         return requestKey;
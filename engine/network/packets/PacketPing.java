@@ -20,6 +20,12 @@ public class PacketPing extends Packet {
     @SerializableField
     private boolean returnPing;
 
+    /**
+     * The sequence number of this ping, used by its sender to detect lost pings.
+     */
+    @SerializableField
+    private int sequence;
+
     /**
      * Creates a new invalid packet with the current timestamp.
      */
@@ -77,4 +83,24 @@ public class PacketPing extends Packet {
         this.timestamp = timestamp;
     }
 
+    /**
+     * Returns this packet's sequence number.
+     *
+     * @return <b>int</b> The sequence number given to this packet by its sender.
+     */
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Sets this packet's sequence number.
+     *
+     * @param sequence The new sequence number this packet is to hold.
+     * @return {@link PacketPing} This same {@link PacketPing} instance to allow for method chaining.
+     */
+    public PacketPing setSequence(int sequence) {
+        this.sequence = sequence;
+        return this;
+    }
+
 }
@@ -0,0 +1,13 @@
+package network.serializers;
+
+public class ByteArraySerializer extends FieldSerializer<byte[]> {
+
+    public byte[] serialize(byte[] data) {
+        return data != null ? data : new byte[0];
+    }
+
+    public byte[] deserialize(byte[] data) {
+        return data;
+    }
+
+}
@@ -0,0 +1,205 @@
+package network.serializers;
+
+import java.util.Arrays;
+
+/**
+ * Growable big-endian byte output used to serialize an object and all of its fields into a single array. Instances
+ * are meant to be reset and reused across serializations.
+ */
+public class ByteArrayWriter {
+
+    /**
+     * The backing array, grown by doubling when full.
+     */
+    private byte[] buffer;
+
+    /**
+     * The index at which the next byte is written.
+     */
+    private int position = 0;
+
+    /**
+     * Creates a new writer with a default initial capacity.
+     */
+    public ByteArrayWriter() {
+        this(256);
+    }
+
+    /**
+     * Creates a new writer with the given initial capacity.
+     *
+     * @param capacity The initial capacity in bytes.
+     */
+    public ByteArrayWriter(int capacity) {
+        this.buffer = new byte[capacity];
+    }
+
+    /**
+     * Discards everything written so far.
+     *
+     * @return {@link ByteArrayWriter} This same instance of the class.
+     */
+    public ByteArrayWriter reset() {
+        position = 0;
+        return this;
+    }
+
+    /**
+     * Returns the number of bytes written so far.
+     *
+     * @return <b>int</b> The index at which the next byte is written.
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Moves the write position back, discarding everything written after it.
+     *
+     * @param position The new write position, at most the current one.
+     * @return {@link ByteArrayWriter} This same instance of the class.
+     */
+    public ByteArrayWriter position(int position) {
+        this.position = position;
+        return this;
+    }
+
+    /**
+     * Returns the backing array, valid up to {@link #position()}.
+     *
+     * @return <b>byte[]</b> The backing array.
+     */
+    public byte[] array() {
+        return buffer;
+    }
+
+    /**
+     * Returns a copy of the bytes written so far.
+     *
+     * @return <b>byte[]</b> The written bytes.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public ByteArrayWriter put(byte value) {
+        ensureCapacity(1);
+        buffer[position++] = value;
+        return this;
+    }
+
+    public ByteArrayWriter put(byte[] values) {
+        return put(values, 0, values.length);
+    }
+
+    public ByteArrayWriter put(byte[] values, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(values, offset, buffer, position, length);
+        position += length;
+        return this;
+    }
+
+    public ByteArrayWriter putShort(short value) {
+        ensureCapacity(Short.BYTES);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+        return this;
+    }
+
+    public ByteArrayWriter putInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        putInt(position, value);
+        position += Integer.BYTES;
+        return this;
+    }
+
+    /**
+     * Overwrites four previously written bytes, used to fill in a length once the data it covers has been written.
+     *
+     * @param index The index of the first byte to overwrite.
+     * @param value The value to write.
+     * @return {@link ByteArrayWriter} This same instance of the class.
+     */
+    public ByteArrayWriter putInt(int index, int value) {
+        buffer[index] = (byte) (value >>> 24);
+        buffer[index + 1] = (byte) (value >>> 16);
+        buffer[index + 2] = (byte) (value >>> 8);
+        buffer[index + 3] = (byte) value;
+        return this;
+    }
+
+    public ByteArrayWriter putLong(long value) {
+        ensureCapacity(Long.BYTES);
+        for (int shift = 56; shift >= 0; shift -= 8)
+            buffer[position++] = (byte) (value >>> shift);
+        return this;
+    }
+
+    public ByteArrayWriter putFloat(float value) {
+        return putInt(Float.floatToRawIntBits(value));
+    }
+
+    public ByteArrayWriter putDouble(double value) {
+        return putLong(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Writes an unsigned variable-length integer, seven bits per byte with the high bit marking continuation.
+     *
+     * @param value The value to write, treated as unsigned.
+     * @return {@link ByteArrayWriter} This same instance of the class.
+     */
+    public ByteArrayWriter putVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Writes an unsigned variable-length long, seven bits per byte with the high bit marking continuation.
+     *
+     * @param value The value to write, treated as unsigned.
+     * @return {@link ByteArrayWriter} This same instance of the class.
+     */
+    public ByteArrayWriter putVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Writes a signed variable-length integer using zig-zag encoding, so that values close to zero take a single byte
+     * regardless of their sign.
+     *
+     * @param value The value to write.
+     * @return {@link ByteArrayWriter} This same instance of the class.
+     */
+    public ByteArrayWriter putSignedVarInt(int value) {
+        return putVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Writes a signed variable-length long using zig-zag encoding, so that values close to zero take a single byte
+     * regardless of their sign.
+     *
+     * @param value The value to write.
+     * @return {@link ByteArrayWriter} This same instance of the class.
+     */
+    public ByteArrayWriter putSignedVarLong(long value) {
+        return putVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (position + bytes > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(position + bytes, buffer.length * 2));
+    }
+
+}
@@ -0,0 +1,66 @@
+package network.serializers;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the variable-length integers written by {@link ByteArrayWriter} from a {@link ByteBuffer}.
+ */
+public class ByteBufferReader {
+
+    /**
+     * Reads an unsigned variable-length integer.
+     *
+     * @param in The buffer to read from.
+     * @return <b>int</b> The value read.
+     */
+    public static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Malformed variable-length integer.");
+    }
+
+    /**
+     * Reads an unsigned variable-length long.
+     *
+     * @param in The buffer to read from.
+     * @return <b>long</b> The value read.
+     */
+    public static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Malformed variable-length long.");
+    }
+
+    /**
+     * Reads a zig-zag encoded signed variable-length integer.
+     *
+     * @param in The buffer to read from.
+     * @return <b>int</b> The value read.
+     */
+    public static int getSignedVarInt(ByteBuffer in) {
+        int value = getVarInt(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a zig-zag encoded signed variable-length long.
+     *
+     * @param in The buffer to read from.
+     * @return <b>long</b> The value read.
+     */
+    public static long getSignedVarLong(ByteBuffer in) {
+        long value = getVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
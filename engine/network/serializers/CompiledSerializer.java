@@ -0,0 +1,655 @@
+package network.serializers;
+
+import network.annotations.SerializableField;
+import network.events.NetworkEvent;
+import network.events.NetworkEvents;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static network.serializers.ByteBufferReader.getSignedVarInt;
+import static network.serializers.ByteBufferReader.getSignedVarLong;
+import static network.serializers.ByteBufferReader.getVarInt;
+
+/**
+ * Serializes objects of a single class in the same format as {@link ObjectSerializer}, using method handles resolved
+ * once from the class's {@link SerializableField} metadata instead of reflecting over its fields on every call.
+ * Every field is written directly into a single {@link ByteArrayWriter} and read directly from a {@link ByteBuffer}.
+ * Objects can also be written in the {@link WireFormat#COMPACT} encoding, where the class's fields are the schema.
+ *
+ * @param <T> The class serialized by this serializer.
+ */
+@SuppressWarnings("unused")
+public final class CompiledSerializer<T> {
+
+    /**
+     * The compiled serializer of every class serialized so far.
+     */
+    private static final ClassValue<CompiledSerializer<?>> SERIALIZERS = new ClassValue<>() {
+        protected CompiledSerializer<?> computeValue(Class<?> type) {
+            return new CompiledSerializer<>(type);
+        }
+    };
+
+    /**
+     * The writer reused by {@link #serialize(Object)} on each thread.
+     */
+    private static final ThreadLocal<ByteArrayWriter> WRITERS = ThreadLocal.withInitial(ByteArrayWriter::new);
+
+    /**
+     * Wire identifier of fields with no registered {@link FieldSerializer}, which are skipped when reading.
+     */
+    private static final int UNSUPPORTED = -1;
+
+    /**
+     * Event ID written in the compact encoding for a null event.
+     */
+    private static final int NULL_EVENT = WireFormat.COMPACT_MAX_ID + 1;
+
+    /**
+     * The serialized class.
+     */
+    private final Class<T> type;
+
+    /**
+     * The class's no-argument constructor, adapted to return an {@link Object}.
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * The class's serializable fields, in declaration order.
+     */
+    private final CompiledField[] fields;
+
+    private CompiledSerializer(Class<T> type) {
+        this.type = type;
+
+        MethodHandle constructor = null;
+        try {
+            Constructor<T> declared = type.getDeclaredConstructor();
+            declared.setAccessible(true);
+            constructor = MethodHandles.lookup().unreflectConstructor(declared).asType(MethodType.methodType(Object.class));
+        } catch (Exception ignored) {
+            // Only objects of this class can be written, not read
+        }
+        this.constructor = constructor;
+
+        List<CompiledField> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields())
+            if (field.isAnnotationPresent(SerializableField.class))
+                fields.add(compile(field));
+        this.fields = fields.toArray(new CompiledField[0]);
+    }
+
+    /**
+     * Returns the compiled serializer of a class, compiling it on first use.
+     *
+     * @param type The class to serialize.
+     * @param <T>  The class to serialize.
+     * @return {@link CompiledSerializer} The class's compiled serializer.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompiledSerializer<T> of(Class<T> type) {
+        return (CompiledSerializer<T>) SERIALIZERS.get(type);
+    }
+
+    /**
+     * Serializes an object into a byte array.
+     *
+     * @param object The object to serialize.
+     * @return <b>byte[]</b> The resulting byte array.
+     */
+    public static byte[] serialize(Object object) {
+        ByteArrayWriter out = WRITERS.get().reset();
+        of(object.getClass()).write(object, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Reconstructs an object from a given byte array. This is the reverse operation of {@link #serialize}.
+     *
+     * @param type The class of the object to reconstruct.
+     * @param data The byte data in which the object is serialized.
+     * @param <T>  The class of the object to reconstruct.
+     * @return <b>T</b> The resulting object, or null if the data does not describe an object of the given class.
+     */
+    public static <T> T deserialize(Class<T> type, byte[] data) {
+        return of(type).read(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Returns the writer reused by serializations on the current thread.
+     *
+     * @return {@link ByteArrayWriter} The current thread's writer, reset.
+     */
+    static ByteArrayWriter writer() {
+        return WRITERS.get().reset();
+    }
+
+    /**
+     * Writes an object to the given output.
+     *
+     * @param object The object to serialize, which must be an instance of this serializer's class.
+     * @param out    The output to write to.
+     */
+    public void write(Object object, ByteArrayWriter out) {
+        out.putInt(fields.length);
+        for (CompiledField field : fields) {
+            out.putInt(field.id);
+            int length = out.position();
+            out.putInt(0);
+            try {
+                field.write(object, out);
+            } catch (Throwable e) {
+                // Send the field as unsupported so that the receiver keeps its default value
+                e.printStackTrace();
+                out.putInt(length - Integer.BYTES, UNSUPPORTED);
+                out.position(length + Integer.BYTES);
+            }
+            out.putInt(length, out.position() - length - Integer.BYTES);
+        }
+    }
+
+    /**
+     * Reads an object from the given input, advancing it past the object's data.
+     *
+     * @param in The input to read from.
+     * @return <b>T</b> The resulting object, or null if the data does not describe an object of this serializer's class.
+     */
+    @SuppressWarnings("unchecked")
+    public T read(ByteBuffer in) {
+        try {
+            if (constructor == null || in.getInt() != fields.length)
+                return null;
+
+            T instance = (T) (Object) constructor.invokeExact();
+            for (CompiledField field : fields) {
+                int fieldType = in.getInt();
+                int fieldSize = in.getInt();
+                int end = in.position() + fieldSize;
+
+                // Not a supported serializable type
+                if (fieldType < 0) {
+                    in.position(end);
+                    continue;
+                }
+
+                // Sent as a different type than the one declared
+                if (fieldType != field.id)
+                    return null;
+
+                field.read(instance, in, fieldSize);
+                in.position(end);
+            }
+            return instance;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes an object to the given output in the {@link WireFormat#COMPACT} encoding.
+     *
+     * @param object The object to serialize, which must be an instance of this serializer's class.
+     * @param out    The output to write to.
+     * @throws IllegalArgumentException If the object cannot be represented in the compact encoding.
+     */
+    public void writeCompact(Object object, ByteArrayWriter out) {
+        try {
+            for (CompiledField field : fields)
+                field.writeCompact(object, out);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Reads an object in the {@link WireFormat#COMPACT} encoding from the given input, advancing it past the object's
+     * data.
+     *
+     * @param in The input to read from.
+     * @return <b>T</b> The resulting object, or null if the data does not describe an object of this serializer's class.
+     */
+    public T readCompact(ByteBuffer in) {
+        try {
+            return readCompactFields(in);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T readCompactFields(ByteBuffer in) throws Throwable {
+        if (constructor == null)
+            throw new IllegalArgumentException("No constructor for " + type);
+
+        T instance = (T) (Object) constructor.invokeExact();
+        for (CompiledField field : fields)
+            field.readCompact(instance, in);
+        return instance;
+    }
+
+    /**
+     * Returns the serialized class.
+     *
+     * @return {@link Class} The class serialized by this serializer.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    private static CompiledField compile(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle getter = lookup.unreflectGetter(field);
+            MethodHandle setter = lookup.unreflectSetter(field);
+
+            Class<?> type = field.getType();
+            Integer id = Serializers.FIELD_ID_FROM_TYPE.get(type);
+            if (id == null)
+                return new UnsupportedField(getter);
+            if (type == boolean.class)
+                return new BooleanField(id, getter, setter);
+            if (type == short.class)
+                return new ShortField(id, getter, setter);
+            if (type == int.class)
+                return new IntField(id, getter, setter);
+            if (type == long.class)
+                return new LongField(id, getter, setter);
+            if (type == float.class)
+                return new FloatField(id, getter, setter);
+            if (type == double.class)
+                return new DoubleField(id, getter, setter);
+            if (type == String.class)
+                return new StringField(id, getter, setter);
+            if (type == NetworkEvent.class)
+                return new EventField(id, getter, setter);
+            return new SerializerField(id, getter, setter, Serializers.FIELD_SERIALIZER_FROM_TYPE.get(type));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access serializable field " + field, e);
+        }
+    }
+
+    /**
+     * A serializable field along with the method handles used to access it.
+     */
+    private abstract static class CompiledField {
+
+        /**
+         * The field's type identifier on the wire.
+         */
+        final int id;
+
+        CompiledField(int id) {
+            this.id = id;
+        }
+
+        /**
+         * Writes the value of the field of an object, without its header.
+         */
+        abstract void write(Object object, ByteArrayWriter out) throws Throwable;
+
+        /**
+         * Reads the value of the field into an object.
+         */
+        abstract void read(Object object, ByteBuffer in, int size) throws Throwable;
+
+        /**
+         * Writes the value of the field of an object in the compact encoding.
+         */
+        abstract void writeCompact(Object object, ByteArrayWriter out) throws Throwable;
+
+        /**
+         * Reads the value of the field in the compact encoding into an object.
+         */
+        abstract void readCompact(Object object, ByteBuffer in) throws Throwable;
+
+    }
+
+    private static final class BooleanField extends CompiledField {
+
+        private final MethodHandle getter, setter;
+
+        BooleanField(int id, MethodHandle getter, MethodHandle setter) {
+            super(id);
+            this.getter = getter.asType(MethodType.methodType(boolean.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, boolean.class));
+        }
+
+        void write(Object object, ByteArrayWriter out) throws Throwable {
+            out.put((boolean) getter.invokeExact(object) ? (byte) 1 : (byte) 0);
+        }
+
+        void read(Object object, ByteBuffer in, int size) throws Throwable {
+            setter.invokeExact(object, in.get() > 0);
+        }
+
+        void writeCompact(Object object, ByteArrayWriter out) throws Throwable {
+            write(object, out);
+        }
+
+        void readCompact(Object object, ByteBuffer in) throws Throwable {
+            read(object, in, 1);
+        }
+
+    }
+
+    private static final class ShortField extends CompiledField {
+
+        private final MethodHandle getter, setter;
+
+        ShortField(int id, MethodHandle getter, MethodHandle setter) {
+            super(id);
+            this.getter = getter.asType(MethodType.methodType(short.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, short.class));
+        }
+
+        void write(Object object, ByteArrayWriter out) throws Throwable {
+            out.putShort((short) getter.invokeExact(object));
+        }
+
+        void read(Object object, ByteBuffer in, int size) throws Throwable {
+            setter.invokeExact(object, in.getShort());
+        }
+
+        void writeCompact(Object object, ByteArrayWriter out) throws Throwable {
+            out.putSignedVarInt((short) getter.invokeExact(object));
+        }
+
+        void readCompact(Object object, ByteBuffer in) throws Throwable {
+            setter.invokeExact(object, (short) getSignedVarInt(in));
+        }
+
+    }
+
+    private static final class IntField extends CompiledField {
+
+        private final MethodHandle getter, setter;
+
+        IntField(int id, MethodHandle getter, MethodHandle setter) {
+            super(id);
+            this.getter = getter.asType(MethodType.methodType(int.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, int.class));
+        }
+
+        void write(Object object, ByteArrayWriter out) throws Throwable {
+            out.putInt((int) getter.invokeExact(object));
+        }
+
+        void read(Object object, ByteBuffer in, int size) throws Throwable {
+            setter.invokeExact(object, in.getInt());
+        }
+
+        void writeCompact(Object object, ByteArrayWriter out) throws Throwable {
+            out.putSignedVarInt((int) getter.invokeExact(object));
+        }
+
+        void readCompact(Object object, ByteBuffer in) throws Throwable {
+            setter.invokeExact(object, getSignedVarInt(in));
+        }
+
+    }
+
+    private static final class LongField extends CompiledField {
+
+        private final MethodHandle getter, setter;
+
+        LongField(int id, MethodHandle getter, MethodHandle setter) {
+            super(id);
+            this.getter = getter.asType(MethodType.methodType(long.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, long.class));
+        }
+
+        void write(Object object, ByteArrayWriter out) throws Throwable {
+            out.putLong((long) getter.invokeExact(object));
+        }
+
+        void read(Object object, ByteBuffer in, int size) throws Throwable {
+            setter.invokeExact(object, in.getLong());
+        }
+
+        void writeCompact(Object object, ByteArrayWriter out) throws Throwable {
+            out.putSignedVarLong((long) getter.invokeExact(object));
+        }
+
+        void readCompact(Object object, ByteBuffer in) throws Throwable {
+            setter.invokeExact(object, getSignedVarLong(in));
+        }
+
+    }
+
+    private static final class FloatField extends CompiledField {
+
+        private final MethodHandle getter, setter;
+
+        FloatField(int id, MethodHandle getter, MethodHandle setter) {
+            super(id);
+            this.getter = getter.asType(MethodType.methodType(float.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, float.class));
+        }
+
+        void write(Object object, ByteArrayWriter out) throws Throwable {
+            out.putFloat((float) getter.invokeExact(object));
+        }
+
+        void read(Object object, ByteBuffer in, int size) throws Throwable {
+            setter.invokeExact(object, in.getFloat());
+        }
+
+        void writeCompact(Object object, ByteArrayWriter out) throws Throwable {
+            write(object, out);
+        }
+
+        void readCompact(Object object, ByteBuffer in) throws Throwable {
+            read(object, in, Float.BYTES);
+        }
+
+    }
+
+    private static final class DoubleField extends CompiledField {
+
+        private final MethodHandle getter, setter;
+
+        DoubleField(int id, MethodHandle getter, MethodHandle setter) {
+            super(id);
+            this.getter = getter.asType(MethodType.methodType(double.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, double.class));
+        }
+
+        void write(Object object, ByteArrayWriter out) throws Throwable {
+            out.putDouble((double) getter.invokeExact(object));
+        }
+
+        void read(Object object, ByteBuffer in, int size) throws Throwable {
+            setter.invokeExact(object, in.getDouble());
+        }
+
+        void writeCompact(Object object, ByteArrayWriter out) throws Throwable {
+            write(object, out);
+        }
+
+        void readCompact(Object object, ByteBuffer in) throws Throwable {
+            read(object, in, Double.BYTES);
+        }
+
+    }
+
+    private static final class StringField extends CompiledField {
+
+        private final MethodHandle getter, setter;
+
+        StringField(int id, MethodHandle getter, MethodHandle setter) {
+            super(id);
+            this.getter = getter.asType(MethodType.methodType(String.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, String.class));
+        }
+
+        void write(Object object, ByteArrayWriter out) throws Throwable {
+            out.put(((String) getter.invokeExact(object)).getBytes(StandardCharsets.UTF_8));
+        }
+
+        void read(Object object, ByteBuffer in, int size) throws Throwable {
+            setter.invokeExact(object, decode(in, size));
+        }
+
+        void writeCompact(Object object, ByteArrayWriter out) throws Throwable {
+            // Length plus one, zero standing for null
+            String value = (String) getter.invokeExact(object);
+            if (value == null) {
+                out.putVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.putVarInt(bytes.length + 1).put(bytes);
+        }
+
+        void readCompact(Object object, ByteBuffer in) throws Throwable {
+            int length = getVarInt(in);
+            String value = length > 0 ? decode(in, length - 1) : null;
+            setter.invokeExact(object, value);
+        }
+
+        private static String decode(ByteBuffer in, int size) {
+            if (!in.hasArray()) {
+                byte[] bytes = new byte[size];
+                in.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            String value = new String(in.array(), in.arrayOffset() + in.position(), size, StandardCharsets.UTF_8);
+            in.position(in.position() + size);
+            return value;
+        }
+
+    }
+
+    /**
+     * A {@link NetworkEvent} field, written as its event ID followed by the event's own fields.
+     */
+    private static final class EventField extends CompiledField {
+
+        private final MethodHandle getter, setter;
+
+        EventField(int id, MethodHandle getter, MethodHandle setter) {
+            super(id);
+            this.getter = getter.asType(MethodType.methodType(NetworkEvent.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, NetworkEvent.class));
+        }
+
+        void write(Object object, ByteArrayWriter out) throws Throwable {
+            NetworkEvent event = (NetworkEvent) getter.invokeExact(object);
+            out.putInt(event.getEventID());
+            of(event.getClass()).write(event, out);
+        }
+
+        void read(Object object, ByteBuffer in, int size) throws Throwable {
+            Class<? extends NetworkEvent> eventType = NetworkEvents.getEventClass(in.getInt());
+            NetworkEvent event = eventType != null ? of(eventType).read(in) : null;
+            setter.invokeExact(object, event);
+        }
+
+        void writeCompact(Object object, ByteArrayWriter out) throws Throwable {
+            NetworkEvent event = (NetworkEvent) getter.invokeExact(object);
+            if (event == null) {
+                out.put((byte) NULL_EVENT);
+                return;
+            }
+            if (event.getEventID() < 0 || event.getEventID() > WireFormat.COMPACT_MAX_ID)
+                throw new IllegalArgumentException("Event ID " + event.getEventID() + " does not fit in the compact encoding.");
+            out.put((byte) event.getEventID());
+            of(event.getClass()).writeCompact(event, out);
+        }
+
+        void readCompact(Object object, ByteBuffer in) throws Throwable {
+            int eventID = in.get() & 0xFF;
+            NetworkEvent event = null;
+            if (eventID != NULL_EVENT) {
+                Class<? extends NetworkEvent> eventType = NetworkEvents.getEventClass(eventID);
+                if (eventType == null)
+                    throw new IllegalArgumentException("Unknown event ID " + eventID + ".");
+                event = of(eventType).readCompactFields(in);
+            }
+            setter.invokeExact(object, event);
+        }
+
+    }
+
+    /**
+     * A field of any other type with a registered {@link FieldSerializer}.
+     */
+    private static final class SerializerField extends CompiledField {
+
+        private final MethodHandle getter, setter;
+        private final FieldSerializer<Object> serializer;
+
+        @SuppressWarnings("unchecked")
+        SerializerField(int id, MethodHandle getter, MethodHandle setter, FieldSerializer<?> serializer) {
+            super(id);
+            this.getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+            this.setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.serializer = (FieldSerializer<Object>) serializer;
+        }
+
+        void write(Object object, ByteArrayWriter out) throws Throwable {
+            out.put(serializer.serialize((Object) getter.invokeExact(object)));
+        }
+
+        void read(Object object, ByteBuffer in, int size) throws Throwable {
+            byte[] bytes = new byte[size];
+            in.get(bytes);
+            setter.invokeExact(object, serializer.deserialize(bytes));
+        }
+
+        void writeCompact(Object object, ByteArrayWriter out) throws Throwable {
+            byte[] bytes = serializer.serialize((Object) getter.invokeExact(object));
+            out.putVarInt(bytes.length).put(bytes);
+        }
+
+        void readCompact(Object object, ByteBuffer in) throws Throwable {
+            read(object, in, getVarInt(in));
+        }
+
+    }
+
+    /**
+     * A field with no registered {@link FieldSerializer}, written as a nested object and skipped by the receiver.
+     */
+    private static final class UnsupportedField extends CompiledField {
+
+        private final MethodHandle getter;
+
+        UnsupportedField(MethodHandle getter) {
+            super(UNSUPPORTED);
+            this.getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+        }
+
+        void write(Object object, ByteArrayWriter out) throws Throwable {
+            Object value = (Object) getter.invokeExact(object);
+            if (value != null)
+                of(value.getClass()).write(value, out);
+            else
+                out.putInt(0);
+        }
+
+        void read(Object object, ByteBuffer in, int size) {
+        }
+
+        void writeCompact(Object object, ByteArrayWriter out) {
+            // Never read by the receiver, so not sent at all
+        }
+
+        void readCompact(Object object, ByteBuffer in) {
+        }
+
+    }
+
+}
@@ -8,31 +8,76 @@ import java.nio.ByteBuffer;
 public class PacketSerializer {
 
     /**
-     * Serializes a {@link Packet} instance into a byte array.
+     * Serializes a {@link Packet} instance into a byte array in the {@link WireFormat#STANDARD} encoding.
      *
      * @param packet The packet to be serialized.
      * @return <b>byte[]</b> The resulting byte array.
      */
     public static byte[] serialize(Packet packet) {
-        byte[] packetData = ObjectSerializer.serialize(packet);
-        return ByteBuffer.allocate(packetData.length + Integer.BYTES)
-                .putInt(packet.getPacketID())
-                .put(packetData)
-                .array();
+        return serialize(packet, WireFormat.STANDARD);
     }
 
     /**
-     * Reconstructs a {@link Packet} instance from a given byte array. This is the reverse operation of {@link #serialize}.
+     * Serializes a {@link Packet} instance into a byte array in the given encoding. Packets that cannot be represented
+     * in the compact encoding, because their packet or event ID does not fit in a byte, fall back to the standard one.
+     *
+     * @param packet The packet to be serialized.
+     * @param format The encoding to use.
+     * @return <b>byte[]</b> The resulting byte array.
+     */
+    public static byte[] serialize(Packet packet, WireFormat format) {
+        CompiledSerializer<? extends Packet> serializer = CompiledSerializer.of(packet.getClass());
+
+        if (format == WireFormat.COMPACT && packet.getPacketID() >= 0 && packet.getPacketID() <= WireFormat.COMPACT_MAX_ID) {
+            try {
+                ByteArrayWriter out = CompiledSerializer.writer()
+                        .put(WireFormat.COMPACT_HEADER)
+                        .put((byte) packet.getPacketID());
+                serializer.writeCompact(packet, out);
+                return out.toByteArray();
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+
+        ByteArrayWriter out = CompiledSerializer.writer().putInt(packet.getPacketID());
+        serializer.write(packet, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Reconstructs a {@link Packet} instance from a given byte array. This is the reverse operation of {@link #serialize},
+     * the encoding being detected from the first byte.
      *
      * @param data The byte data in which the packet is serialized.
      * @return {@link Packet} The resulting packet instance.
      */
     public static Packet deserialize(byte[] data) {
+        return deserialize(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Reconstructs a {@link Packet} instance from the remaining bytes of a buffer, reading fields straight from the
+     * buffer. This is the reverse operation of {@link #serialize}, the encoding being detected from the first byte.
+     *
+     * @param buffer The buffer in which the packet is serialized, advanced past the packet's data.
+     * @return {@link Packet} The resulting packet instance.
+     */
+    public static Packet deserialize(ByteBuffer buffer) {
         try {
+            if (!buffer.hasRemaining())
+                return null;
+
+            // Compact encoding, only the current version is understood
+            if ((buffer.get(buffer.position()) & 0x80) != 0) {
+                if (buffer.get() != WireFormat.COMPACT_HEADER)
+                    return null;
+                Class<? extends Packet> packetType = Packets.getPacketClass(buffer.get() & 0xFF);
+                return packetType != null ? CompiledSerializer.of(packetType).readCompact(buffer) : null;
+            }
+
             // Parse packet type
             int packetID = -1;
-            ByteBuffer buffer = ByteBuffer.wrap(data);
-            if (data.length >= Integer.BYTES)
+            if (buffer.remaining() >= Integer.BYTES)
                 packetID = buffer.getInt();
 
             // Get the event class
@@ -40,10 +85,8 @@ public class PacketSerializer {
             if (packetType == null)
                 return null;
 
-            // Deserialize the event
-            byte[] packetData = new byte[buffer.remaining()];
-            buffer.get(packetData);
-            return ObjectSerializer.deserialize(packetType, packetData);
+            // Deserialize the packet
+            return CompiledSerializer.of(packetType).read(buffer);
         } catch (Exception e) {
             // Return a null reference in case of exceptions
             return null;
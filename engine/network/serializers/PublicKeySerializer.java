@@ -7,11 +7,11 @@ import java.security.PublicKey;
 public class PublicKeySerializer extends FieldSerializer<PublicKey> {
 
     public byte[] serialize(PublicKey data) {
-        return data.getEncoded();
+        return data != null ? data.getEncoded() : new byte[0];
     }
 
     public PublicKey deserialize(byte[] data) {
-        return RSA.toPublicKey(data);
+        return data.length > 0 ? RSA.toPublicKey(data) : null;
     }
 
 }
@@ -16,7 +16,8 @@ public class Serializers {
             new DoubleSerializer(),
             new StringSerializer(),
             new NetworkEventSerializer(),
-            new PublicKeySerializer()
+            new PublicKeySerializer(),
+            new ByteArraySerializer()
     );
 
     public static final List<Class<?>> FIELD_TYPE_FROM_ID =
@@ -0,0 +1,37 @@
+package network.serializers;
+
+/**
+ * The encodings in which packets can be sent. Receivers detect the encoding of every packet from its first byte, so
+ * peers using different formats can still communicate.
+ */
+public enum WireFormat {
+
+    /**
+     * Fields prefixed with their type and length, packet and event IDs as 4-byte integers. Fields of a type the
+     * receiver cannot decode are skipped.
+     */
+    STANDARD,
+
+    /**
+     * Fields in declaration order with no headers, integers as zig-zag varints, packet and event IDs as single bytes.
+     * Both peers must be running the same packet and event schemas.
+     */
+    COMPACT;
+
+    /**
+     * The version of the compact encoding, bumped whenever it changes in an incompatible way.
+     */
+    public static final int COMPACT_VERSION = 1;
+
+    /**
+     * The first byte of every packet in the compact encoding. Packets in the standard encoding start with the high byte
+     * of their packet ID, which never has its high bit set.
+     */
+    static final byte COMPACT_HEADER = (byte) (0x80 | COMPACT_VERSION);
+
+    /**
+     * The largest packet or event ID that fits in the compact encoding, the next value being reserved for null events.
+     */
+    static final int COMPACT_MAX_ID = 0xFE;
+
+}
@@ -3,6 +3,7 @@ package objects;
 import org.lwjgl.assimp.*;
 
 import javax.imageio.ImageIO;
+import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
@@ -189,42 +190,122 @@ public class GameResourceFactory {
             // Load the file
             BufferedImage img = ImageIO.read(new File(filepath));
 
-            // Generate a new OpenGL texture
-            int texture = glGenTextures();
-
-            // Bind it
-            glBindTexture(GL_TEXTURE_2D, texture);
-
-            // Pack image data in byte buffer
-            ByteBuffer buffer = imageToRGBABuffer(img);
+            // Pack image data in byte buffer and load it into a new texture
+            return addToCleanup(createTexture2D(img.getWidth(), img.getHeight(), imageToRGBABuffer(img), filtering, mipmap));
 
-            // Load the texture with the pixel data
-            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, img.getWidth(), img.getHeight(), 0, GL_RGBA, GL_UNSIGNED_BYTE,
-                    buffer);
+        } catch (IOException e) {
+            return null;
+        }
+    }
 
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filtering);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, filtering);
+    /**
+     * Loads 2D textures from files and packs them into a single texture atlas.
+     *
+     * @param filepaths The paths to the bitmap files, in the order of the atlas regions.
+     * @param maxSize   The largest width or height of an image in the atlas, larger images are scaled down to fit.
+     * @param filtering The filtering strategy to use when scaling the texture.
+     * @param mipmap    Whether or not to generate a mipmap for the texture.
+     * @return {@link TextureAtlas} Null if any of the textures could not be loaded, otherwise returns the atlas
+     * holding every loaded bitmap.
+     */
+    public static TextureAtlas loadTextureAtlas(String[] filepaths, int maxSize, int filtering, boolean mipmap) {
+        try {
 
-            // If no mipmap needed, return the resulting texture
-            if (!mipmap) {
-                Texture t = new Texture(GL_TEXTURE_2D, texture);
-                cleanup.add(t);
-                return t;
+            // Load the files and compute the size of every image in the atlas
+            BufferedImage[] images = new BufferedImage[filepaths.length];
+            int[] widths = new int[filepaths.length];
+            int[] heights = new int[filepaths.length];
+            for (int i = 0; i < filepaths.length; i++) {
+                images[i] = ImageIO.read(new File(filepaths[i]));
+                if (images[i] == null)
+                    return null;
+
+                float scale = Math.min(1.0f, (float) maxSize / Math.max(images[i].getWidth(), images[i].getHeight()));
+                widths[i] = Math.max(1, Math.round(images[i].getWidth() * scale));
+                heights[i] = Math.max(1, Math.round(images[i].getHeight() * scale));
             }
 
-            // Generate a mipmap with the right parameters
-            glGenerateMipmap(GL_TEXTURE_2D);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR);
-            glTexParameterf(GL_TEXTURE_2D, GL_TEXTURE_LOD_BIAS, -0.4f);
+            // Place the images and draw them into the atlas
+            int[] layout = TextureAtlas.pack(widths, heights);
+            BufferedImage atlas = new BufferedImage(layout[0], layout[1], BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = atlas.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            for (int i = 0; i < images.length; i++) {
+                g.drawImage(images[i], layout[2 + 2 * i], layout[3 + 2 * i], widths[i], heights[i], null);
+                extrudeBorder(atlas, layout[2 + 2 * i], layout[3 + 2 * i], widths[i], heights[i]);
+            }
+            g.dispose();
 
-            // Return the resulting texture
-            return addToCleanup(new Texture(GL_TEXTURE_2D, texture));
+            // Pack atlas data in byte buffer and load it into a new texture
+            Texture texture = createTexture2D(atlas.getWidth(), atlas.getHeight(), imageToRGBABuffer(atlas), filtering, mipmap);
+            return addToCleanup(new TextureAtlas(texture, layout, widths, heights));
 
         } catch (IOException e) {
             return null;
         }
     }
 
+    /**
+     * Repeats the border pixels of an image drawn in an atlas into the padding around it.
+     *
+     * @param atlas  The atlas image.
+     * @param x      The x-coordinate of the image's top left corner.
+     * @param y      The y-coordinate of the image's top left corner.
+     * @param width  The width of the image.
+     * @param height The height of the image.
+     */
+    private static void extrudeBorder(BufferedImage atlas, int x, int y, int width, int height) {
+        // Rows above and below the image, then columns on either side including the corners
+        for (int p = 1; p <= TextureAtlas.PADDING; p++)
+            for (int i = x; i < x + width; i++) {
+                atlas.setRGB(i, y - p, atlas.getRGB(i, y));
+                atlas.setRGB(i, y + height - 1 + p, atlas.getRGB(i, y + height - 1));
+            }
+        for (int p = 1; p <= TextureAtlas.PADDING; p++)
+            for (int j = y - TextureAtlas.PADDING; j < y + height + TextureAtlas.PADDING; j++) {
+                atlas.setRGB(x - p, j, atlas.getRGB(x, j));
+                atlas.setRGB(x + width - 1 + p, j, atlas.getRGB(x + width - 1, j));
+            }
+    }
+
+    /**
+     * Creates a 2D texture from RGBA pixel data.
+     *
+     * @param width     The width of the texture in pixels.
+     * @param height    The height of the texture in pixels.
+     * @param buffer    The pixel data in RGBA format.
+     * @param filtering The filtering strategy to use when scaling the texture.
+     * @param mipmap    Whether or not to generate a mipmap for the texture.
+     * @return {@link Texture} The resulting texture.
+     */
+    private static Texture createTexture2D(int width, int height, ByteBuffer buffer, int filtering, boolean mipmap) {
+
+        // Generate a new OpenGL texture
+        int texture = glGenTextures();
+
+        // Bind it
+        glBindTexture(GL_TEXTURE_2D, texture);
+
+        // Load the texture with the pixel data
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, buffer);
+
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filtering);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, filtering);
+
+        // If no mipmap needed, return the resulting texture
+        if (!mipmap)
+            return new Texture(GL_TEXTURE_2D, texture);
+
+        // Generate a mipmap with the right parameters
+        glGenerateMipmap(GL_TEXTURE_2D);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR);
+        glTexParameterf(GL_TEXTURE_2D, GL_TEXTURE_LOD_BIAS, -0.4f);
+
+        // Return the resulting texture
+        return new Texture(GL_TEXTURE_2D, texture);
+
+    }
+
     /**
      * Loads a cube map texture from six files into a texture object.
      *
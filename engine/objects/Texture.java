@@ -50,6 +50,43 @@ public class Texture implements GameResource {
         return texID;
     }
 
+    /**
+     * Returns the left edge of the area this texture covers in its OpenGL texture, in texture coordinates. Only a
+     * {@link TextureRegion} covers less than the whole texture.
+     *
+     * @return <b>float</b> The left texture coordinate.
+     */
+    public float getU0() {
+        return 0;
+    }
+
+    /**
+     * Returns the top edge of the area this texture covers in its OpenGL texture, in texture coordinates.
+     *
+     * @return <b>float</b> The top texture coordinate.
+     */
+    public float getV0() {
+        return 0;
+    }
+
+    /**
+     * Returns the right edge of the area this texture covers in its OpenGL texture, in texture coordinates.
+     *
+     * @return <b>float</b> The right texture coordinate.
+     */
+    public float getU1() {
+        return 1;
+    }
+
+    /**
+     * Returns the bottom edge of the area this texture covers in its OpenGL texture, in texture coordinates.
+     *
+     * @return <b>float</b> The bottom texture coordinate.
+     */
+    public float getV1() {
+        return 1;
+    }
+
     /**
      * Binds this texture to specified texture unit.
      *
@@ -63,9 +100,24 @@ public class Texture implements GameResource {
     }
 
     public static Texture create2D(int width, int height, int filtering) {
+        return create2D(width, height, GL_RGBA, GL_RGBA, null, filtering);
+    }
+
+    /**
+     * Creates a 2D texture from unsigned byte pixel data.
+     *
+     * @param width          The width of the texture in pixels.
+     * @param height         The height of the texture in pixels.
+     * @param internalFormat The format in which the texture is stored (ex: {@link org.lwjgl.opengl.GL11#GL_RGBA}).
+     * @param format         The format of the pixel data (ex: {@link org.lwjgl.opengl.GL11#GL_RED}).
+     * @param pixels         The pixel data, or null to leave the texture uninitialized.
+     * @param filtering      The filtering strategy to use when scaling the texture.
+     * @return {@link Texture} The created texture.
+     */
+    public static Texture create2D(int width, int height, int internalFormat, int format, ByteBuffer pixels, int filtering) {
         int texID = glGenTextures();
         glBindTexture(GL_TEXTURE_2D, texID);
-        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        glTexImage2D(GL_TEXTURE_2D, 0, internalFormat, width, height, 0, format, GL_UNSIGNED_BYTE, pixels);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filtering);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, filtering);
         return new Texture(GL_TEXTURE_2D, texID);
@@ -0,0 +1,148 @@
+package objects;
+
+import java.util.Arrays;
+
+/**
+ * Represents a set of images packed into a single texture. Each image is accessed as a {@link TextureRegion}, and all
+ * regions share the atlas texture, so sprites using images of the same atlas are drawn with a single texture binding.
+ */
+public class TextureAtlas implements GameResource {
+
+    /**
+     * The number of pixels left around every image. The border pixels of each image are repeated in this margin so
+     * that linear filtering never samples a neighbouring image.
+     */
+    public static final int PADDING = 2;
+
+    /**
+     * The texture holding every packed image.
+     */
+    private final Texture texture;
+
+    /**
+     * The packed images, in the order they were given to the atlas.
+     */
+    private final TextureRegion[] regions;
+
+    /**
+     * Creates an atlas from its texture and the placement of its images.
+     *
+     * @param texture The texture holding the packed images.
+     * @param layout  The placement of the images as returned by {@link #pack}.
+     * @param widths  The width of every image in pixels.
+     * @param heights The height of every image in pixels.
+     */
+    TextureAtlas(Texture texture, int[] layout, int[] widths, int[] heights) {
+        this.texture = texture;
+        this.regions = new TextureRegion[widths.length];
+
+        float atlasWidth = layout[0];
+        float atlasHeight = layout[1];
+        for (int i = 0; i < regions.length; i++) {
+            int x = layout[2 + 2 * i];
+            int y = layout[3 + 2 * i];
+            regions[i] = new TextureRegion(texture,
+                    x / atlasWidth, y / atlasHeight,
+                    (x + widths[i]) / atlasWidth, (y + heights[i]) / atlasHeight);
+        }
+    }
+
+    /**
+     * Returns the atlas texture.
+     *
+     * @return {@link Texture} The texture holding every packed image.
+     */
+    public Texture getTexture() {
+        return texture;
+    }
+
+    /**
+     * Returns one of the packed images.
+     *
+     * @param index The index of the image, in the order the images were given to the atlas.
+     * @return {@link TextureRegion} The region of the atlas covered by the image.
+     */
+    public TextureRegion getRegion(int index) {
+        return regions[index];
+    }
+
+    /**
+     * Returns the number of packed images.
+     *
+     * @return <b>int</b> The number of regions in this atlas.
+     */
+    public int getRegionCount() {
+        return regions.length;
+    }
+
+    /**
+     * Packs rectangles in shelves, from the tallest to the shortest. Every power of two width between that of the
+     * widest rectangle and that of a square of the total area is tried, and the one giving the smallest, then the
+     * squarest atlas is kept. Both sides of the atlas are powers of two.
+     *
+     * @param widths  The width of every rectangle in pixels.
+     * @param heights The height of every rectangle in pixels.
+     * @return <b>int[]</b> The atlas width and height, followed by the x and y coordinates of every rectangle.
+     */
+    static int[] pack(int[] widths, int[] heights) {
+        int count = widths.length;
+
+        // Sort the rectangles from the tallest to the shortest
+        Integer[] order = new Integer[count];
+        long area = 0;
+        int widest = 1;
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+            area += (long) (widths[i] + 2 * PADDING) * (heights[i] + 2 * PADDING);
+            widest = Math.max(widest, widths[i] + 2 * PADDING);
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(heights[b], heights[a]));
+
+        int[] best = null;
+        int maxWidth = nextPowerOfTwo(Math.max(widest, (int) Math.ceil(Math.sqrt(area))));
+        for (int width = nextPowerOfTwo(widest); width <= maxWidth; width *= 2) {
+            int[] layout = packShelves(widths, heights, order, width);
+            long size = (long) layout[0] * layout[1];
+            long bestSize = best == null ? Long.MAX_VALUE : (long) best[0] * best[1];
+            if (size < bestSize || size == bestSize && Math.max(layout[0], layout[1]) < Math.max(best[0], best[1]))
+                best = layout;
+        }
+        return best;
+    }
+
+    private static int[] packShelves(int[] widths, int[] heights, Integer[] order, int width) {
+        int[] layout = new int[2 + 2 * order.length];
+
+        // Fill shelves from left to right, opening a new shelf under the last one when a rectangle does not fit
+        int x = 0, y = 0, shelfHeight = 0;
+        for (int i : order) {
+            int w = widths[i] + 2 * PADDING;
+            int h = heights[i] + 2 * PADDING;
+            if (x + w > width) {
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            }
+            layout[2 + 2 * i] = x + PADDING;
+            layout[3 + 2 * i] = y + PADDING;
+            x += w;
+            shelfHeight = Math.max(shelfHeight, h);
+        }
+
+        layout[0] = width;
+        layout[1] = nextPowerOfTwo(y + shelfHeight);
+        return layout;
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void destroy() {
+        texture.destroy();
+    }
+
+}
@@ -0,0 +1,59 @@
+package objects;
+
+/**
+ * Represents an image packed in a {@link TextureAtlas}. It is bound like any other texture, but only covers a
+ * rectangle of the atlas, so images of the same atlas can be drawn together without switching textures.
+ */
+public class TextureRegion extends Texture {
+
+    /**
+     * The rectangle covered by this region in its atlas, in texture coordinates.
+     */
+    private final float u0, v0, u1, v1;
+
+    /**
+     * Creates a region covering a rectangle of an atlas texture.
+     *
+     * @param atlas The texture holding the region.
+     * @param u0    The left edge of the region, in texture coordinates.
+     * @param v0    The top edge of the region, in texture coordinates.
+     * @param u1    The right edge of the region, in texture coordinates.
+     * @param v1    The bottom edge of the region, in texture coordinates.
+     */
+    TextureRegion(Texture atlas, float u0, float v0, float u1, float v1) {
+        super(atlas.getType(), atlas.getTextureID());
+        this.u0 = u0;
+        this.v0 = v0;
+        this.u1 = u1;
+        this.v1 = v1;
+    }
+
+    @Override
+    public float getU0() {
+        return u0;
+    }
+
+    @Override
+    public float getV0() {
+        return v0;
+    }
+
+    @Override
+    public float getU1() {
+        return u1;
+    }
+
+    @Override
+    public float getV1() {
+        return v1;
+    }
+
+    /**
+     * Does nothing, the texture is owned and deleted by its {@link TextureAtlas}.
+     */
+    @Override
+    public void destroy() {
+
+    }
+
+}
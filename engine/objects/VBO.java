@@ -1,5 +1,10 @@
 package objects;
 
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
 import static org.lwjgl.opengl.GL15.*;
 
 /**
@@ -18,6 +23,17 @@ public class VBO implements FreeableObject {
      */
     private final int type;
 
+    /**
+     * The client-side buffer instance data is written to before being streamed, reused from one upload to the next.
+     */
+    private FloatBuffer streamData = null;
+
+    /**
+     * The number of bytes streamed and the number of uploads since the counters were last reset.
+     */
+    private long uploadedBytes = 0;
+    private int uploadCount = 0;
+
     /**
      * Creates a Vertex Buffer Object (VBO) with the specified type and ID.
      *
@@ -94,6 +110,28 @@ public class VBO implements FreeableObject {
         return this;
     }
 
+    /**
+     * @param offset The offset in the buffer to start loading the data at, in bytes.
+     * @param data   The data to load in the buffer, from its current position up to its limit.
+     * @return {@link VBO} This same instance of the class.
+     */
+    public VBO storeSubData(int offset, FloatBuffer data) {
+        glBufferSubData(type, offset, data);
+        return this;
+    }
+
+    /**
+     * Reads data back from the buffer. The buffer must be bound beforehand.
+     *
+     * @param offset The offset in the buffer to start reading the data at, in bytes.
+     * @param dest   The destination of the data, filled from its current position up to its limit.
+     * @return {@link VBO} This same instance of the class.
+     */
+    public VBO getSubData(int offset, IntBuffer dest) {
+        glGetBufferSubData(type, offset, dest);
+        return this;
+    }
+
     /**
      * Allocates memory to the buffer object.
      *
@@ -106,6 +144,87 @@ public class VBO implements FreeableObject {
         return this;
     }
 
+    /**
+     * Returns the client-side stream buffer with room for at least the given number of floats past its position. The
+     * buffer grows geometrically and keeps the data already written to it, so it is only reallocated a handful of
+     * times however much data is streamed.
+     *
+     * @param floats The number of floats about to be written.
+     * @return {@link FloatBuffer} The stream buffer, to be filled from its current position then sent with
+     * {@link #stream()}.
+     */
+    public FloatBuffer reserve(int floats) {
+        int needed = (streamData == null ? 0 : streamData.position()) + floats;
+        if (streamData != null && needed <= streamData.capacity())
+            return streamData;
+
+        FloatBuffer grown = BufferUtils.createFloatBuffer(Math.max(needed, streamData == null ? 0 : streamData.capacity() * 2));
+        if (streamData != null)
+            grown.put(streamData.flip());
+        streamData = grown;
+        return streamData;
+    }
+
+    /**
+     * Returns the number of floats written to the stream buffer and not yet uploaded.
+     *
+     * @return <b>int</b> The number of floats pending in the stream buffer.
+     */
+    public int getPendingFloats() {
+        return streamData == null ? 0 : streamData.position();
+    }
+
+    /**
+     * Uploads the data written to the stream buffer since the last upload and empties it. The previous storage is
+     * orphaned, so the driver hands out fresh memory instead of waiting for draws still reading the old contents. The
+     * storage is as large as the stream buffer, growing along with it. The buffer must be bound beforehand.
+     *
+     * @return {@link VBO} This same instance of the class.
+     */
+    public VBO stream() {
+        if (streamData == null || streamData.position() == 0)
+            return this;
+
+        streamData.flip();
+        glBufferData(type, (long) streamData.capacity() * Float.BYTES, GL_STREAM_DRAW);
+        glBufferSubData(type, 0, streamData);
+
+        uploadedBytes += (long) streamData.remaining() * Float.BYTES;
+        uploadCount++;
+
+        streamData.clear();
+        return this;
+    }
+
+    /**
+     * Returns the number of bytes uploaded with {@link #stream()} since the counters were last reset.
+     *
+     * @return <b>long</b> The number of bytes streamed.
+     */
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    /**
+     * Returns the number of uploads made with {@link #stream()} since the counters were last reset.
+     *
+     * @return <b>int</b> The number of uploads.
+     */
+    public int getUploadCount() {
+        return uploadCount;
+    }
+
+    /**
+     * Resets the upload counters, typically at the start of a frame.
+     *
+     * @return {@link VBO} This same instance of the class.
+     */
+    public VBO resetUploadCounters() {
+        uploadedBytes = 0;
+        uploadCount = 0;
+        return this;
+    }
+
     /**
      * Deletes the VBO.
      */
@@ -3,8 +3,11 @@ package physics;
 import entities.Entity;
 import main.Scene;
 import org.joml.Vector3f;
+import org.joml.Vector3fc;
 import physics.colliders.SphereCollider;
 
+import java.util.List;
+
 /**
  * Performs physics calculations for a given scene.
  */
@@ -15,6 +18,32 @@ public class PhysicsManager {
      */
     private final Scene scene;
 
+    /**
+     * Scratch vector holding the direction of the last ray cast from the camera.
+     */
+    private final Vector3f ray = new Vector3f();
+
+    /**
+     * Spatial index over the sphere colliders of the scene.
+     */
+    private final SphereColliderBVH colliders = new SphereColliderBVH();
+
+    /**
+     * Result reused by the raycasts that only return the entity hit.
+     */
+    private final RaycastHit hit = new RaycastHit();
+
+    /**
+     * The strategy used by {@link #raycastFromCamera()} to find the entity under the cursor.
+     */
+    private volatile PickingMode pickingMode = PickingMode.RAYCAST;
+
+    /**
+     * The latest entity under the cursor reported by the GPU picking pass, and its distance from the camera.
+     */
+    private volatile Entity pickedEntity = null;
+    private volatile float pickedDistance = Float.POSITIVE_INFINITY;
+
     /**
      * Creates a new physics manager bound to the given scene.
      *
@@ -25,40 +54,128 @@ public class PhysicsManager {
     }
 
     /**
-     * Cast a ray originating from the coordinates of the mouse on the frame and determine if it collides with an entity in the scene.
+     * Cast a ray originating from the coordinates of the mouse on the frame and determine the closest entity it collides with in the scene.
      *
-     * @return An entity hit by the raycast, null if not found.
+     * @return The closest entity hit by the raycast, null if not found.
      */
     public Entity raycastFromCamera() {
-        Vector3f ray = scene.getWindow().mouse().getRayAtMouseCoords(scene.getCamera());
-        for (Entity entity : scene.getEntityList()) {
-            if (entity instanceof SphereCollider) {
-                SphereCollider collider = (SphereCollider) entity;
-                boolean doesIntersect = hitSphere(scene.getCamera().getPosition(), ray, entity.getPosition(), collider.getRadius());
-                if (doesIntersect) {
-                    return entity;
-                }
-            }
+        return raycastFromCamera(hit).getEntity();
+    }
+
+    /**
+     * Cast a ray originating from the coordinates of the mouse on the frame and store the closest hit in the given result.
+     *
+     * @param hit The result in which to store the closest entity hit and its distance from the camera.
+     * @return {@link RaycastHit} The given result.
+     */
+    public RaycastHit raycastFromCamera(RaycastHit hit) {
+        if (pickingMode == PickingMode.GPU) {
+            Entity entity = pickedEntity;
+            return entity != null ? hit.set(entity, pickedDistance) : hit.clear();
         }
-        return null;
+
+        scene.getWindow().mouse().getRayAtMouseCoords(scene.getCamera(), ray);
+        return raycast(scene.getCamera().getPosition(), ray, hit);
+    }
+
+    /**
+     * Cast a ray from the given origin and determine the closest entity it collides with in the scene.
+     *
+     * @param origin    The point of origin of the ray.
+     * @param direction A vector describing the direction of the ray.
+     * @return The closest entity hit by the raycast, null if not found.
+     */
+    public Entity raycast(Vector3fc origin, Vector3fc direction) {
+        return raycast(origin, direction, hit).getEntity();
+    }
+
+    /**
+     * Cast a ray from the given origin and store the closest hit in the given result.
+     *
+     * @param origin    The point of origin of the ray.
+     * @param direction A vector describing the direction of the ray.
+     * @param hit       The result in which to store the closest entity hit and its distance from the origin.
+     * @return {@link RaycastHit} The given result.
+     */
+    public RaycastHit raycast(Vector3fc origin, Vector3fc direction, RaycastHit hit) {
+        colliders.raycast(origin, direction, hit);
+        return hit;
+    }
+
+    /**
+     * Registers an entity to be considered by raycasts. This is done automatically by {@link Scene#register(Entity)}
+     * for every entity implementing {@link SphereCollider}.
+     *
+     * @param entity The collider entity to add.
+     */
+    public void addCollider(Entity entity) {
+        if (entity instanceof SphereCollider)
+            colliders.add(entity);
     }
 
     /**
-     * Determines if a ray intersects with a given sphere.
+     * Stops considering an entity in raycasts.
      *
-     * @param origin       The point of origin of the ray.
-     * @param direction    A vector describing the direction of the ray.
-     * @param sphereCenter The center point of the sphere.
-     * @param radius       The radius of the sphere.
-     * @return True if the ray intersects the sphere, false otherwise.
-     */
-    private boolean hitSphere(Vector3f origin, Vector3f direction, Vector3f sphereCenter, float radius) {
-        Vector3f oc = origin.sub(sphereCenter);
-        float a = direction.dot(direction);
-        float b = (float) (2.0 * oc.dot(direction));
-        float c = oc.dot(oc) - radius * radius;
-        float discriminant = b * b - 4 * a * c;
-        return discriminant > 0;
+     * @param entity The collider entity to remove.
+     */
+    public void removeCollider(Entity entity) {
+        if (entity instanceof SphereCollider)
+            colliders.remove(entity);
+    }
+
+    /**
+     * Removes all colliders.
+     */
+    public void clearColliders() {
+        colliders.clear();
+    }
+
+    /**
+     * Returns a read-only view of the colliders considered by raycasts.
+     *
+     * @return {@link List} The registered collider entities.
+     */
+    public List<Entity> getColliders() {
+        return colliders.getColliders();
+    }
+
+    /**
+     * Sets the strategy used by {@link #raycastFromCamera()} to find the entity under the cursor.
+     *
+     * @param pickingMode The picking strategy to use.
+     */
+    public void setPickingMode(PickingMode pickingMode) {
+        this.pickingMode = pickingMode;
+        submitPickResult(null, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Returns the strategy used by {@link #raycastFromCamera()} to find the entity under the cursor.
+     *
+     * @return {@link PickingMode} The current picking strategy.
+     */
+    public PickingMode getPickingMode() {
+        return pickingMode;
+    }
+
+    /**
+     * Reports the entity found under the cursor by the GPU picking pass. Called by the renderer whenever a readback
+     * completes.
+     *
+     * @param entity   The entity under the cursor, null if there is none.
+     * @param distance The distance from the camera to the entity's center.
+     */
+    public void submitPickResult(Entity entity, float distance) {
+        this.pickedDistance = distance;
+        this.pickedEntity = entity;
+    }
+
+    /**
+     * Signals that colliders have moved or changed radius since they were registered, so that the spatial index
+     * is rebuilt before the next raycast.
+     */
+    public void invalidateColliders() {
+        colliders.invalidate();
     }
 
 }
@@ -0,0 +1,19 @@
+package physics;
+
+/**
+ * The strategies available to determine which entity lies under the mouse cursor.
+ */
+public enum PickingMode {
+
+    /**
+     * Casts a ray from the camera and tests it analytically against the sphere colliders of the scene.
+     */
+    RAYCAST,
+
+    /**
+     * Renders the sphere colliders of the scene into an integer ID buffer and reads back the pixel under the cursor.
+     * Results lag behind the cursor by the few frames it takes for the asynchronous readback to complete.
+     */
+    GPU
+
+}
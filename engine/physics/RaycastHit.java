@@ -0,0 +1,69 @@
+package physics;
+
+import entities.Entity;
+
+/**
+ * Holds the result of a raycast. Instances are meant to be reused across raycasts to avoid allocating on every frame.
+ */
+public class RaycastHit {
+
+    /**
+     * The closest entity hit by the ray, null if nothing was hit.
+     */
+    private Entity entity;
+
+    /**
+     * The distance from the ray's origin to the closest intersection, in world units.
+     */
+    private float distance;
+
+    /**
+     * Stores the given hit in this result.
+     *
+     * @param entity   The entity that was hit.
+     * @param distance The distance from the ray's origin to the intersection point.
+     * @return {@link RaycastHit} This same instance of the class.
+     */
+    RaycastHit set(Entity entity, float distance) {
+        this.entity = entity;
+        this.distance = distance;
+        return this;
+    }
+
+    /**
+     * Clears this result so that it represents a miss.
+     *
+     * @return {@link RaycastHit} This same instance of the class.
+     */
+    RaycastHit clear() {
+        return set(null, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Indicates whether or not the raycast hit anything.
+     *
+     * @return <b>boolean</b> True if an entity was hit, false otherwise.
+     */
+    public boolean hasHit() {
+        return entity != null;
+    }
+
+    /**
+     * Returns the closest entity hit by the ray.
+     *
+     * @return {@link Entity} The entity that was hit, null if nothing was hit.
+     */
+    public Entity getEntity() {
+        return entity;
+    }
+
+    /**
+     * Returns the distance from the ray's origin to the closest intersection.
+     *
+     * @return <b>float</b> The distance in world units, positive infinity if nothing was hit.
+     */
+    public float getDistance() {
+        return distance;
+    }
+
+}
@@ -0,0 +1,387 @@
+package physics;
+
+import entities.Entity;
+import org.joml.Vector3fc;
+import physics.colliders.SphereCollider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bounding volume hierarchy over the sphere colliders of a scene, used to find the closest collider hit by a ray
+ * without testing every collider. The hierarchy is stored in flat arrays and rebuilt lazily the next time it is
+ * queried after colliders were added, removed or invalidated.
+ */
+class SphereColliderBVH {
+
+    /**
+     * The maximum number of colliders stored in a single leaf.
+     */
+    private static final int LEAF_SIZE = 4;
+
+    /**
+     * The maximum depth of the traversal stack. Splits are made at the median, so the tree depth is logarithmic.
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * The registered colliders, in registration order.
+     */
+    private final List<Entity> colliders = new ArrayList<>();
+
+    /**
+     * Read-only view of {@link #colliders}.
+     */
+    private final List<Entity> collidersView = Collections.unmodifiableList(colliders);
+
+    /**
+     * Indicates that the hierarchy must be rebuilt before the next query.
+     */
+    private boolean dirty = false;
+
+    /**
+     * Colliders reordered such that each leaf covers a contiguous range.
+     */
+    private Entity[] entities = new Entity[0];
+
+    /**
+     * Sphere of each collider in {@link #entities}, stored as consecutive (x, y, z, radius) tuples.
+     */
+    private float[] spheres = new float[0];
+
+    /**
+     * Bounds of each node, stored as consecutive (minX, minY, minZ, maxX, maxY, maxZ) tuples.
+     */
+    private float[] bounds = new float[0];
+
+    /**
+     * For leaves, the index of the first collider. For internal nodes, the index of the right child; the left child
+     * always immediately follows its parent.
+     */
+    private int[] first = new int[0];
+
+    /**
+     * The number of colliders in each leaf, zero for internal nodes.
+     */
+    private int[] count = new int[0];
+
+    /**
+     * The number of nodes currently in use.
+     */
+    private int nodes = 0;
+
+    /**
+     * Traversal stack of node indices and their entry distances, reused across queries.
+     */
+    private final int[] stack = new int[MAX_DEPTH];
+    private final float[] stackDistances = new float[MAX_DEPTH];
+
+    /**
+     * Adds a collider to the hierarchy.
+     *
+     * @param entity The entity to add, which must implement {@link SphereCollider}.
+     */
+    void add(Entity entity) {
+        colliders.add(entity);
+        dirty = true;
+    }
+
+    /**
+     * Removes a collider from the hierarchy.
+     *
+     * @param entity The entity to remove.
+     */
+    void remove(Entity entity) {
+        if (colliders.remove(entity))
+            dirty = true;
+    }
+
+    /**
+     * Removes all colliders from the hierarchy.
+     */
+    void clear() {
+        colliders.clear();
+        dirty = true;
+    }
+
+    /**
+     * Forces the hierarchy to be rebuilt before the next query, for instance after colliders have moved.
+     */
+    void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Returns a read-only view of the registered colliders, in registration order.
+     *
+     * @return {@link List} The registered colliders.
+     */
+    List<Entity> getColliders() {
+        return collidersView;
+    }
+
+    /**
+     * Returns the number of colliders in the hierarchy.
+     *
+     * @return <b>int</b> The number of registered colliders.
+     */
+    int size() {
+        return colliders.size();
+    }
+
+    /**
+     * Finds the closest collider hit by a ray.
+     *
+     * @param origin    The point of origin of the ray.
+     * @param direction A vector describing the direction of the ray.
+     * @param hit       The result in which to store the closest hit.
+     * @return <b>boolean</b> True if a collider was hit, false otherwise.
+     */
+    boolean raycast(Vector3fc origin, Vector3fc direction, RaycastHit hit) {
+        if (dirty)
+            rebuild();
+
+        hit.clear();
+
+        float ox = origin.x(), oy = origin.y(), oz = origin.z();
+        float dx = direction.x(), dy = direction.y(), dz = direction.z();
+        float a = dx * dx + dy * dy + dz * dz;
+        if (nodes == 0 || a == 0)
+            return false;
+
+        float invX = 1.0f / dx, invY = 1.0f / dy, invZ = 1.0f / dz;
+
+        float best = Float.POSITIVE_INFINITY;
+        Entity bestEntity = null;
+
+        int sp = 0;
+        float rootDistance = intersectNode(0, ox, oy, oz, invX, invY, invZ);
+        if (rootDistance < best) {
+            stack[sp] = 0;
+            stackDistances[sp++] = rootDistance;
+        }
+
+        while (sp > 0) {
+            int node = stack[--sp];
+            if (stackDistances[sp] >= best)
+                continue;
+
+            if (count[node] > 0) {
+
+                // Leaf, test every sphere it contains
+                for (int i = first[node], end = first[node] + count[node]; i < end; i++) {
+                    float t = intersectSphere(i, ox, oy, oz, dx, dy, dz, a);
+                    if (t < best) {
+                        best = t;
+                        bestEntity = entities[i];
+                    }
+                }
+
+            } else {
+
+                // Internal node, visit the closest child first by pushing it last
+                int left = node + 1, right = first[node];
+                float tl = intersectNode(left, ox, oy, oz, invX, invY, invZ);
+                float tr = intersectNode(right, ox, oy, oz, invX, invY, invZ);
+
+                int near = tl <= tr ? left : right, far = tl <= tr ? right : left;
+                float tNear = Math.min(tl, tr), tFar = Math.max(tl, tr);
+
+                if (tFar < best) {
+                    stack[sp] = far;
+                    stackDistances[sp++] = tFar;
+                }
+                if (tNear < best) {
+                    stack[sp] = near;
+                    stackDistances[sp++] = tNear;
+                }
+            }
+        }
+
+        if (bestEntity == null)
+            return false;
+
+        hit.set(bestEntity, best * (float) Math.sqrt(a));
+        return true;
+    }
+
+    /**
+     * Computes the entry distance of a ray into a node's bounding box.
+     *
+     * @return <b>float</b> The ray parameter at which the box is entered, positive infinity if the box is missed.
+     */
+    private float intersectNode(int node, float ox, float oy, float oz, float invX, float invY, float invZ) {
+        int b = node * 6;
+
+        float t1 = (bounds[b] - ox) * invX, t2 = (bounds[b + 3] - ox) * invX;
+        float tMin = Math.min(t1, t2), tMax = Math.max(t1, t2);
+
+        t1 = (bounds[b + 1] - oy) * invY;
+        t2 = (bounds[b + 4] - oy) * invY;
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+
+        t1 = (bounds[b + 2] - oz) * invZ;
+        t2 = (bounds[b + 5] - oz) * invZ;
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+
+        tMin = Math.max(tMin, 0);
+        return tMax >= tMin ? tMin : Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Computes the closest non-negative intersection of a ray with a collider's sphere.
+     *
+     * @return <b>float</b> The ray parameter of the intersection, positive infinity if the sphere is missed.
+     */
+    private float intersectSphere(int i, float ox, float oy, float oz, float dx, float dy, float dz, float a) {
+        int s = i * 4;
+        float ocX = ox - spheres[s];
+        float ocY = oy - spheres[s + 1];
+        float ocZ = oz - spheres[s + 2];
+        float radius = spheres[s + 3];
+
+        float halfB = ocX * dx + ocY * dy + ocZ * dz;
+        float c = ocX * ocX + ocY * ocY + ocZ * ocZ - radius * radius;
+        float discriminant = halfB * halfB - a * c;
+        if (discriminant < 0)
+            return Float.POSITIVE_INFINITY;
+
+        float sqrt = (float) Math.sqrt(discriminant);
+        float t = (-halfB - sqrt) / a;
+        if (t < 0)
+            t = (-halfB + sqrt) / a;
+        return t < 0 ? Float.POSITIVE_INFINITY : t;
+    }
+
+    /**
+     * Rebuilds the hierarchy from the registered colliders.
+     */
+    private void rebuild() {
+        int n = colliders.size();
+
+        if (entities.length < n) {
+            entities = new Entity[n];
+            spheres = new float[n * 4];
+            bounds = new float[n * 2 * 6];
+            first = new int[n * 2];
+            count = new int[n * 2];
+        }
+
+        for (int i = 0; i < n; i++) {
+            Entity entity = colliders.get(i);
+            Vector3fc pos = entity.getPosition();
+            entities[i] = entity;
+            spheres[i * 4] = pos.x();
+            spheres[i * 4 + 1] = pos.y();
+            spheres[i * 4 + 2] = pos.z();
+            spheres[i * 4 + 3] = ((SphereCollider) entity).getRadius();
+        }
+        for (int i = n; i < entities.length; i++)
+            entities[i] = null;
+
+        nodes = 0;
+        if (n > 0)
+            build(0, n);
+
+        dirty = false;
+    }
+
+    /**
+     * Recursively builds the node covering the colliders in the given range.
+     *
+     * @param start The index of the first collider, inclusive.
+     * @param end   The index of the last collider, exclusive.
+     */
+    private void build(int start, int end) {
+        int node = nodes++;
+
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+        float cMinX = Float.POSITIVE_INFINITY, cMinY = Float.POSITIVE_INFINITY, cMinZ = Float.POSITIVE_INFINITY;
+        float cMaxX = Float.NEGATIVE_INFINITY, cMaxY = Float.NEGATIVE_INFINITY, cMaxZ = Float.NEGATIVE_INFINITY;
+
+        for (int i = start; i < end; i++) {
+            float x = spheres[i * 4], y = spheres[i * 4 + 1], z = spheres[i * 4 + 2], r = spheres[i * 4 + 3];
+            minX = Math.min(minX, x - r);
+            minY = Math.min(minY, y - r);
+            minZ = Math.min(minZ, z - r);
+            maxX = Math.max(maxX, x + r);
+            maxY = Math.max(maxY, y + r);
+            maxZ = Math.max(maxZ, z + r);
+            cMinX = Math.min(cMinX, x);
+            cMinY = Math.min(cMinY, y);
+            cMinZ = Math.min(cMinZ, z);
+            cMaxX = Math.max(cMaxX, x);
+            cMaxY = Math.max(cMaxY, y);
+            cMaxZ = Math.max(cMaxZ, z);
+        }
+
+        int b = node * 6;
+        bounds[b] = minX;
+        bounds[b + 1] = minY;
+        bounds[b + 2] = minZ;
+        bounds[b + 3] = maxX;
+        bounds[b + 4] = maxY;
+        bounds[b + 5] = maxZ;
+
+        if (end - start <= LEAF_SIZE) {
+            first[node] = start;
+            count[node] = end - start;
+            return;
+        }
+
+        // Split at the median along the axis with the largest spread of centers
+        float extentX = cMaxX - cMinX, extentY = cMaxY - cMinY, extentZ = cMaxZ - cMinZ;
+        int axis = extentX >= extentY && extentX >= extentZ ? 0 : extentY >= extentZ ? 1 : 2;
+        int mid = (start + end) >>> 1;
+        select(start, end - 1, mid, axis);
+
+        count[node] = 0;
+        build(start, mid);
+        first[node] = nodes;
+        build(mid, end);
+    }
+
+    /**
+     * Partially sorts the colliders in the given range such that the collider at index k is the one that would be
+     * there if the range was sorted along the given axis.
+     */
+    private void select(int lo, int hi, int k, int axis) {
+        while (hi > lo) {
+            float pivot = spheres[((lo + hi) >>> 1) * 4 + axis];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (spheres[i * 4 + axis] < pivot)
+                    i++;
+                while (spheres[j * 4 + axis] > pivot)
+                    j--;
+                if (i <= j)
+                    swap(i++, j--);
+            }
+            if (k <= j)
+                hi = j;
+            else if (k >= i)
+                lo = i;
+            else
+                return;
+        }
+    }
+
+    /**
+     * Swaps two colliders along with their spheres.
+     */
+    private void swap(int i, int j) {
+        Entity entity = entities[i];
+        entities[i] = entities[j];
+        entities[j] = entity;
+        for (int k = 0; k < 4; k++) {
+            float value = spheres[i * 4 + k];
+            spheres[i * 4 + k] = spheres[j * 4 + k];
+            spheres[j * 4 + k] = value;
+        }
+    }
+
+}
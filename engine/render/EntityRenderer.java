@@ -6,17 +6,40 @@ import lights.Light;
 import objects.FreeableObject;
 import objects.Mesh;
 import objects.Texture;
+import objects.VAO;
+import objects.VBO;
 import org.joml.Matrix4f;
-import org.joml.Vector3f;
+import org.lwjgl.BufferUtils;
 import shaders.entity.ShaderEntity;
+import shaders.entityinstanced.ShaderEntityInstanced;
 
+import java.nio.FloatBuffer;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import static org.lwjgl.opengl.GL11.GL_FLOAT;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_STREAM_DRAW;
 
 public class EntityRenderer implements FreeableObject {
-	
+
+	private static final int INITIAL_INSTANCES = 256;
+	private static final int DATA_LENGTH = 16;
+
 	private final ShaderEntity shader;
-	
+	private final ShaderEntityInstanced instancedShader;
+
+	private final Matrix4f modelMatrix = new Matrix4f();
+
+	private final VBO instanceVBO;
+	private final Set<Mesh> instancedMeshes = new HashSet<>();
+	private FloatBuffer instanceData;
+	private int instanceCapacity = 0;
+
+	private boolean instanced = true;
+
 	public EntityRenderer() {
 		shader = new ShaderEntity();
 		shader.use();
@@ -24,53 +47,156 @@ public class EntityRenderer implements FreeableObject {
 		shader.modelMatrix.set(new Matrix4f());
 		shader.textureSampler.set(0);
 		shader.stop();
+
+		instancedShader = new ShaderEntityInstanced();
+		instancedShader.use();
+		instancedShader.projectionViewMatrix.set(new Matrix4f());
+		instancedShader.textureSampler.set(0);
+		instancedShader.stop();
+
+		instanceVBO = VBO.create(GL_ARRAY_BUFFER);
+		ensureInstanceCapacity(INITIAL_INSTANCES);
+	}
+
+	/**
+	 * Enables or disables instanced rendering. When enabled, all visible entities sharing a mesh and texture are
+	 * drawn with a single draw call.
+	 *
+	 * @param instanced True to render entities using instancing, false to issue one draw call per entity.
+	 */
+	public void setInstanced(boolean instanced) {
+		this.instanced = instanced;
+	}
+
+	/**
+	 * Indicates whether or not entities are rendered using instancing.
+	 *
+	 * @return <b>boolean</b> True if instanced rendering is enabled, false otherwise.
+	 */
+	public boolean isInstanced() {
+		return instanced;
 	}
 
 	public void render(Camera cam, Map<Mesh, Map<Texture, List<Entity>>> entities, List<Light> lights) {
-		
+
+		ShaderEntity shader = instanced ? instancedShader : this.shader;
+
 		shader.use();
-		shader.projectionViewMatrix.set(cam.createProjectionViewMatrix());
+		shader.projectionViewMatrix.set(cam.getProjectionViewMatrix());
 		shader.numLights.set(lights.size());
-		
-		Vector3f[] positions = new Vector3f[lights.size()];
-		for(int i = 0; i < positions.length; i++)
-			positions[i] = lights.get(i).getPosition();
-		
-		Vector3f[] colors = new Vector3f[lights.size()];
-		for(int i = 0; i < colors.length; i++)
-			colors[i] = lights.get(i).getColor();
-		
-		shader.lightPositions.set(positions);
-		shader.lightColors.set(colors);
+
+		for(int i = 0; i < lights.size(); i++) {
+			shader.lightPositions.set(i, lights.get(i).getPosition());
+			shader.lightColors.set(i, lights.get(i).getColor());
+		}
+
 		shader.cameraPos.set(cam.getPosition());
-		
-		for(Mesh mesh : entities.keySet()) {
-			
-			mesh.getVAO().bind(0, 1, 2);
-			 
-			for(Texture texture : entities.get(mesh).keySet()) {
-				
-				texture.bindToUnit(0);
-
-				// TODO instanced rendering to alleviate the need for this loop
-				for (Entity entity : entities.get(mesh).get(texture)) {
-					if(!entity.shouldRender())
-						continue;
-					
-					shader.modelMatrix.set(entity.getTransform());
-					mesh.draw();
-				}
-			}
-			
-			mesh.getVAO().unbind(0, 1, 2);
+
+		for(Map.Entry<Mesh, Map<Texture, List<Entity>>> meshEntry : entities.entrySet()) {
+
+			Mesh mesh = meshEntry.getKey();
+
+			if (instanced)
+				renderInstanced(mesh, meshEntry.getValue());
+			else
+				renderIndividually(mesh, meshEntry.getValue());
 		}
-		
+
 		shader.stop();
-		
+
+	}
+
+	private void renderIndividually(Mesh mesh, Map<Texture, List<Entity>> entities) {
+
+		mesh.getVAO().bind(0, 1, 2);
+
+		for(Map.Entry<Texture, List<Entity>> textureEntry : entities.entrySet()) {
+
+			textureEntry.getKey().bindToUnit(0);
+
+			for (Entity entity : textureEntry.getValue()) {
+				if(!entity.shouldRender())
+					continue;
+
+				shader.modelMatrix.set(entity.getTransform(modelMatrix));
+				mesh.draw();
+			}
+		}
+
+		mesh.getVAO().unbind(0, 1, 2);
 	}
-	
+
+	private void renderInstanced(Mesh mesh, Map<Texture, List<Entity>> entities) {
+
+		// Attach the instance buffer to this mesh's VAO the first time we see it
+		if (!instancedMeshes.contains(mesh))
+			attachInstanceAttributes(mesh);
+
+		mesh.getVAO().bind(0, 1, 2, 3, 4, 5, 6);
+
+		for(Map.Entry<Texture, List<Entity>> textureEntry : entities.entrySet()) {
+
+			List<Entity> bucket = textureEntry.getValue();
+			ensureInstanceCapacity(bucket.size());
+
+			// Pack the transforms of all visible entities
+			instanceData.clear();
+			int count = 0;
+			for (Entity entity : bucket) {
+				if(!entity.shouldRender())
+					continue;
+
+				entity.getTransform(modelMatrix).get(count * DATA_LENGTH, instanceData);
+				count++;
+			}
+
+			if (count == 0)
+				continue;
+
+			instanceData.limit(count * DATA_LENGTH);
+
+			// Orphan the previous contents and upload this bucket's instances
+			instanceVBO.bind()
+					.allocate(instanceCapacity * DATA_LENGTH * Float.BYTES, GL_STREAM_DRAW)
+					.storeSubData(0, instanceData)
+					.unbind();
+
+			textureEntry.getKey().bindToUnit(0);
+			mesh.drawInstanced(count);
+		}
+
+		mesh.getVAO().unbind(0, 1, 2, 3, 4, 5, 6);
+	}
+
+	private void attachInstanceAttributes(Mesh mesh) {
+		VAO vao = mesh.getVAO().bind();
+		instanceVBO.bind();
+
+		// Model matrix
+		vao.addInstancedAttribute(3, 4, GL_FLOAT, DATA_LENGTH * Float.BYTES, 0);
+		vao.addInstancedAttribute(4, 4, GL_FLOAT, DATA_LENGTH * Float.BYTES, 4 * Float.BYTES);
+		vao.addInstancedAttribute(5, 4, GL_FLOAT, DATA_LENGTH * Float.BYTES, 8 * Float.BYTES);
+		vao.addInstancedAttribute(6, 4, GL_FLOAT, DATA_LENGTH * Float.BYTES, 12 * Float.BYTES);
+
+		instanceVBO.unbind();
+		vao.unbind();
+		instancedMeshes.add(mesh);
+	}
+
+	private void ensureInstanceCapacity(int instances) {
+		if (instances <= instanceCapacity)
+			return;
+
+		// Grow geometrically so large boards only reallocate a handful of times
+		instanceCapacity = Math.max(instances, instanceCapacity * 2);
+		instanceData = BufferUtils.createFloatBuffer(instanceCapacity * DATA_LENGTH);
+		instanceVBO.bind().allocate(instanceCapacity * DATA_LENGTH * Float.BYTES, GL_STREAM_DRAW).unbind();
+	}
+
 	public void destroy() {
 		shader.destroy();
+		instancedShader.destroy();
+		instanceVBO.destroy();
 	}
-	
+
 }
@@ -0,0 +1,274 @@
+package render;
+
+import camera.Camera;
+import display.Window;
+import entities.Entity;
+import main.Scene;
+import objects.FBO;
+import objects.FreeableObject;
+import objects.GameResourceFactory;
+import objects.Mesh;
+import objects.VAO;
+import objects.VBO;
+import org.joml.Vector3fc;
+import org.lwjgl.BufferUtils;
+import physics.PhysicsManager;
+import physics.PickingMode;
+import physics.colliders.SphereCollider;
+import shaders.picking.ShaderPicking;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL14.GL_DEPTH_COMPONENT32;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_STREAM_DRAW;
+import static org.lwjgl.opengl.GL15.GL_STREAM_READ;
+import static org.lwjgl.opengl.GL21.GL_PIXEL_PACK_BUFFER;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL32.*;
+
+/**
+ * Renders the sphere colliders of a scene into an integer ID buffer and reads back the ID under the mouse cursor
+ * through pixel buffer objects, so that picking costs a single one-pixel asynchronous readback per frame regardless
+ * of the number of colliders. Only used when the scene's {@link PhysicsManager} is in {@link PickingMode#GPU} mode.
+ */
+public class PickingRenderer implements FreeableObject {
+
+	private static final int SPHERE_STACKS = 6;
+	private static final int SPHERE_SLICES = 12;
+
+	private static final int INITIAL_INSTANCES = 256;
+	private static final int DATA_LENGTH = 5;
+
+	private static final int MAX_PENDING_READBACKS = 3;
+	private static final int[] CLEAR_ID = new int[4];
+
+	/**
+	 * A readback issued on a given frame along with the colliders whose IDs were rendered on that frame.
+	 */
+	private static class Readback {
+
+		private final VBO pbo = VBO.create(GL_PIXEL_PACK_BUFFER);
+		private Entity[] entities = new Entity[0];
+		private int count = 0;
+		private long sync = 0;
+
+	}
+
+	private final Window window;
+	private final ShaderPicking shader;
+	private final Mesh sphere;
+
+	private final VBO instanceVBO;
+	private FloatBuffer instanceData;
+	private int instanceCapacity = 0;
+
+	private FBO fbo;
+	private int fboWidth, fboHeight;
+
+	private final Readback[] readbacks = new Readback[MAX_PENDING_READBACKS];
+	private int nextReadback = 0, oldestReadback = 0, pendingReadbacks = 0;
+	private final IntBuffer pickedID = BufferUtils.createIntBuffer(1);
+
+	public PickingRenderer(Window window) {
+		this.window = window;
+
+		shader = new ShaderPicking();
+
+		instanceVBO = VBO.create(GL_ARRAY_BUFFER);
+		ensureInstanceCapacity(INITIAL_INSTANCES);
+		sphere = initSphereMesh(instanceVBO);
+
+		for (int i = 0; i < readbacks.length; i++) {
+			readbacks[i] = new Readback();
+			readbacks[i].pbo.bind().allocate(Integer.BYTES, GL_STREAM_READ).unbind();
+		}
+	}
+
+	private Mesh initSphereMesh(VBO instanceVBO) {
+
+		// Unit sphere vertices, ring by ring from the top pole to the bottom pole
+		float[] vertices = new float[(SPHERE_STACKS + 1) * (SPHERE_SLICES + 1) * 3];
+		for (int stack = 0, v = 0; stack <= SPHERE_STACKS; stack++) {
+			double phi = Math.PI * stack / SPHERE_STACKS;
+			for (int slice = 0; slice <= SPHERE_SLICES; slice++) {
+				double theta = 2 * Math.PI * slice / SPHERE_SLICES;
+				vertices[v++] = (float) (Math.sin(phi) * Math.cos(theta));
+				vertices[v++] = (float) Math.cos(phi);
+				vertices[v++] = (float) (Math.sin(phi) * Math.sin(theta));
+			}
+		}
+
+		int[] indices = new int[SPHERE_STACKS * SPHERE_SLICES * 6];
+		for (int stack = 0, i = 0; stack < SPHERE_STACKS; stack++) {
+			for (int slice = 0; slice < SPHERE_SLICES; slice++) {
+				int a = stack * (SPHERE_SLICES + 1) + slice;
+				int b = a + SPHERE_SLICES + 1;
+				indices[i++] = a;
+				indices[i++] = b;
+				indices[i++] = a + 1;
+				indices[i++] = a + 1;
+				indices[i++] = b;
+				indices[i++] = b + 1;
+			}
+		}
+
+		Mesh mesh = GameResourceFactory.loadMesh(indices, vertices);
+
+		// Sphere center and radius, then entity ID
+		VAO vao = mesh.getVAO().bind();
+		instanceVBO.bind();
+		vao.addInstancedAttribute(1, 4, GL_FLOAT, DATA_LENGTH * Float.BYTES, 0);
+		vao.addInstancedAttribute(2, 1, GL_FLOAT, DATA_LENGTH * Float.BYTES, 4 * Float.BYTES);
+		instanceVBO.unbind();
+		vao.unbind();
+
+		return mesh;
+	}
+
+	public void render(Scene scene) {
+
+		PhysicsManager physics = scene.physics();
+		Camera camera = scene.getCamera();
+
+		// Collect any readback that has completed since the last frame
+		collectReadbacks(physics, camera);
+
+		if (physics.getPickingMode() != PickingMode.GPU || pendingReadbacks == MAX_PENDING_READBACKS)
+			return;
+
+		int width = window.getWidth();
+		int height = window.getHeight();
+		int x = (int) window.mouse().getMouseX();
+		int y = height - 1 - (int) window.mouse().getMouseY();
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			physics.submitPickResult(null, Float.POSITIVE_INFINITY);
+			return;
+		}
+
+		// Pack every collider's sphere, IDs start at 1 so that 0 means nothing was hit
+		List<Entity> colliders = physics.getColliders();
+		Readback readback = readbacks[nextReadback];
+		if (readback.entities.length < colliders.size())
+			readback.entities = new Entity[Math.max(colliders.size(), readback.entities.length * 2)];
+		ensureInstanceCapacity(colliders.size());
+
+		instanceData.clear();
+		for (int i = 0; i < colliders.size(); i++) {
+			Entity entity = colliders.get(i);
+			Vector3fc pos = entity.getPosition();
+			instanceData.put(pos.x()).put(pos.y()).put(pos.z())
+					.put(((SphereCollider) entity).getRadius())
+					.put(i + 1);
+			readback.entities[i] = entity;
+		}
+		for (int i = colliders.size(); i < readback.count; i++)
+			readback.entities[i] = null;
+		readback.count = colliders.size();
+		instanceData.flip();
+
+		if (readback.count > 0)
+			instanceVBO.bind()
+					.allocate(instanceCapacity * DATA_LENGTH * Float.BYTES, GL_STREAM_DRAW)
+					.storeSubData(0, instanceData)
+					.unbind();
+
+		// Only the pixel under the cursor is rasterized
+		int previousFramebuffer = glGetInteger(GL_FRAMEBUFFER_BINDING);
+		bindFramebuffer(width, height);
+		glEnable(GL_SCISSOR_TEST);
+		glScissor(x, y, 1, 1);
+		glDisable(GL_CULL_FACE);
+
+		glClearBufferuiv(GL_COLOR, 0, CLEAR_ID);
+		glClear(GL_DEPTH_BUFFER_BIT);
+
+		if (readback.count > 0) {
+			shader.use();
+			shader.projectionViewMatrix.set(camera.getProjectionViewMatrix());
+			sphere.getVAO().bind(0, 1, 2);
+			sphere.drawInstanced(readback.count);
+			sphere.getVAO().unbind(0, 1, 2);
+			shader.stop();
+		}
+
+		// Queue the one-pixel readback into the PBO, it is collected once the GPU signals completion
+		glReadBuffer(GL_COLOR_ATTACHMENT0);
+		readback.pbo.bind();
+		glReadPixels(x, y, 1, 1, GL_RED_INTEGER, GL_UNSIGNED_INT, 0L);
+		readback.pbo.unbind();
+		readback.sync = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+
+		glEnable(GL_CULL_FACE);
+		glDisable(GL_SCISSOR_TEST);
+		glBindFramebuffer(GL_FRAMEBUFFER, previousFramebuffer);
+
+		nextReadback = (nextReadback + 1) % MAX_PENDING_READBACKS;
+		pendingReadbacks++;
+	}
+
+	private void collectReadbacks(PhysicsManager physics, Camera camera) {
+		while (pendingReadbacks > 0) {
+			Readback readback = readbacks[oldestReadback];
+
+			int status = glClientWaitSync(readback.sync, 0, 0);
+			if (status != GL_ALREADY_SIGNALED && status != GL_CONDITION_SATISFIED)
+				return;
+
+			glDeleteSync(readback.sync);
+			readback.sync = 0;
+
+			pickedID.clear();
+			readback.pbo.bind().getSubData(0, pickedID).unbind();
+			int id = pickedID.get(0);
+
+			if (physics.getPickingMode() == PickingMode.GPU) {
+				Entity entity = id > 0 && id <= readback.count ? readback.entities[id - 1] : null;
+				float distance = entity != null ? entity.getPosition().distance(camera.getPosition()) : Float.POSITIVE_INFINITY;
+				physics.submitPickResult(entity, distance);
+			}
+
+			oldestReadback = (oldestReadback + 1) % MAX_PENDING_READBACKS;
+			pendingReadbacks--;
+		}
+	}
+
+	private void bindFramebuffer(int width, int height) {
+		if (fbo == null || fboWidth != width || fboHeight != height) {
+			if (fbo != null)
+				fbo.destroy();
+			fbo = FBO.create(width, height, 1)
+					.addAttachment(GL_R32UI, GL_RED_INTEGER, GL_UNSIGNED_INT, GL_COLOR_ATTACHMENT0, false)
+					.addAttachment(GL_DEPTH_COMPONENT32, GL_DEPTH_COMPONENT, GL_FLOAT, GL_DEPTH_ATTACHMENT, false)
+					.bindAttachments();
+			fboWidth = width;
+			fboHeight = height;
+		} else
+			fbo.bind();
+	}
+
+	private void ensureInstanceCapacity(int instances) {
+		if (instances <= instanceCapacity)
+			return;
+
+		instanceCapacity = Math.max(instances, instanceCapacity * 2);
+		instanceData = BufferUtils.createFloatBuffer(instanceCapacity * DATA_LENGTH);
+		instanceVBO.bind().allocate(instanceCapacity * DATA_LENGTH * Float.BYTES, GL_STREAM_DRAW).unbind();
+	}
+
+	public void destroy() {
+		shader.destroy();
+		instanceVBO.destroy();
+		for (Readback readback : readbacks) {
+			if (readback.sync != 0)
+				glDeleteSync(readback.sync);
+			readback.pbo.destroy();
+		}
+		if (fbo != null)
+			fbo.destroy();
+	}
+
+}
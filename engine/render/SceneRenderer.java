@@ -10,9 +10,11 @@ public class SceneRenderer {
 
     private final EntityRenderer entityRenderer = new EntityRenderer();
     private final SkyboxRenderer skyboxRenderer = new SkyboxRenderer();
+    private final PickingRenderer pickingRenderer;
     private final UIRenderer uiRenderer;
 
     public SceneRenderer(Window window) {
+        this.pickingRenderer = new PickingRenderer(window);
         this.uiRenderer = new UIRenderer(window);
     }
 
@@ -22,6 +24,7 @@ public class SceneRenderer {
         if (skybox != null)
             skyboxRenderer.render(camera, skybox);
         entityRenderer.render(camera, scene.getEntityMap(), scene.getLightList());
+        pickingRenderer.render(scene);
         // TODO: add post-processing effects here
         uiRenderer.render(scene.getUiManager().getContainer());
     }
@@ -41,6 +41,8 @@ public class SkyboxRenderer {
 
 	private final ShaderSkybox shader;
 
+	private final Matrix4f projView = new Matrix4f();
+
 	public SkyboxRenderer() {
 		shader = new ShaderSkybox();
 		shader.use();
@@ -55,8 +57,8 @@ public class SkyboxRenderer {
 		if (skybox.getType() != GL15.GL_TEXTURE_CUBE_MAP)
 			return;
 		shader.use();
-		Matrix4f projView = cam.getViewMatrix().setTranslation(0, 0, 0);
-		projView = cam.getProjectionMatrix().mul(projView);
+		projView.set(cam.getViewMatrix()).setTranslation(0, 0, 0);
+		cam.getProjectionMatrix().mul(projView, projView);
 		shader.projectionViewMatrix.set(projView);
 		
 		mesh.getVAO().bind(0);
@@ -3,6 +3,7 @@ package resources;
 import main.Engine;
 import objects.GameResource;
 import objects.GameResourceFactory;
+import objects.TextureAtlas;
 import objects.TexturedMesh;
 
 import java.util.HashMap;
@@ -82,6 +83,26 @@ public abstract class GameResourceLoader {
         engine.enqueueLoadOperation(() -> resources.put(id, GameResourceFactory.loadTexture2D(filepath, filtering, mipmap)));
     }
 
+    /**
+     * Loads textures packed into a single atlas. The atlas is stored under its own ID and each of its regions under
+     * the ID of the texture it was loaded from, so that regions are used like any other texture.
+     *
+     * @param id        The ID of the atlas.
+     * @param regionIds The ID of every packed texture.
+     * @param filepaths The path to every packed texture, in the same order as their IDs.
+     * @param maxSize   The largest width or height of a texture in the atlas.
+     * @param filtering The filtering strategy to use when scaling the atlas.
+     * @param mipmap    Whether or not to generate a mipmap for the atlas.
+     */
+    protected void loadTextureAtlas(int id, int[] regionIds, String[] filepaths, int maxSize, int filtering, boolean mipmap) {
+        engine.enqueueLoadOperation(() -> {
+            TextureAtlas atlas = GameResourceFactory.loadTextureAtlas(filepaths, maxSize, filtering, mipmap);
+            resources.put(id, atlas);
+            for (int i = 0; i < regionIds.length; i++)
+                resources.put(regionIds[i], atlas != null ? atlas.getRegion(i) : null);
+        });
+    }
+
     protected void loadTextureCubeMap(int id, String filepath) {
         engine.enqueueLoadOperation(() -> resources.put(id, GameResourceFactory.loadTextureCubeMap(filepath)));
     }
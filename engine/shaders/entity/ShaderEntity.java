@@ -29,7 +29,11 @@ public class ShaderEntity extends Shader {
 	public final UniformVector3f cameraPos = new UniformVector3f("cameraPos");
 
 	public ShaderEntity() {
-		super(VERTEX_FILE, FRAGMENT_FILE);
+		this(VERTEX_FILE, FRAGMENT_FILE);
+	}
+
+	protected ShaderEntity(String vertexFile, String fragmentFile) {
+		super(vertexFile, fragmentFile);
 		registerUniforms(
 				projectionViewMatrix,
 				modelMatrix,
@@ -0,0 +1,21 @@
+package shaders.entityinstanced;
+
+import shaders.entity.ShaderEntity;
+
+public class ShaderEntityInstanced extends ShaderEntity {
+
+	private static final String VERTEX_FILE = "/shaders/entityinstanced/vertex.glsl";
+	private static final String FRAGMENT_FILE = "/shaders/entity/fragment.glsl";
+
+	private static final String ATTRIBUTE_MODEL_MATRIX = "modelMatrix";
+
+	public ShaderEntityInstanced() {
+		super(VERTEX_FILE, FRAGMENT_FILE);
+	}
+
+	public void bindAttributes() {
+		super.bindAttributes();
+		bindToAttribute(3, ATTRIBUTE_MODEL_MATRIX);
+	}
+
+}
@@ -0,0 +1,30 @@
+package shaders.picking;
+
+import shaders.Shader;
+import shaders.uniform.UniformMatrix4f;
+
+public class ShaderPicking extends Shader {
+
+	private static final String VERTEX_FILE = "/shaders/picking/vertex.glsl";
+	private static final String FRAGMENT_FILE = "/shaders/picking/fragment.glsl";
+
+	private static final String ATTRIBUTE_POS = "pos";
+	private static final String ATTRIBUTE_SPHERE = "sphere";
+	private static final String ATTRIBUTE_ID = "id";
+
+	public final UniformMatrix4f projectionViewMatrix = new UniformMatrix4f("projViewMatrix");
+
+	public ShaderPicking() {
+		super(VERTEX_FILE, FRAGMENT_FILE);
+		registerUniforms(
+				projectionViewMatrix
+			);
+	}
+
+	public void bindAttributes() {
+		bindToAttribute(0, ATTRIBUTE_POS);
+		bindToAttribute(1, ATTRIBUTE_SPHERE);
+		bindToAttribute(2, ATTRIBUTE_ID);
+	}
+
+}
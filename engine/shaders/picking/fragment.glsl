@@ -0,0 +1,9 @@
+#version 330 core
+
+flat in uint pass_id;
+
+out uint entityID;
+
+void main(void) {
+	entityID = pass_id;
+}
\ No newline at end of file
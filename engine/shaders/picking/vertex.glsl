@@ -0,0 +1,16 @@
+#version 330 core
+
+in vec3 pos;
+
+// Instanced
+in vec4 sphere;
+in float id;
+
+flat out uint pass_id;
+
+uniform mat4 projViewMatrix;
+
+void main(void) {
+	pass_id = uint(id + 0.5);
+	gl_Position = projViewMatrix * vec4(pos * sphere.w + sphere.xyz, 1.0f);
+}
\ No newline at end of file
@@ -3,11 +3,13 @@
 in vec2 pos;
 in vec2 uv;
 
-out vec2 pass_uv;
+// Instanced
+in mat4 modelMatrix;
+in vec4 region;
 
-uniform mat4 modelMatrix;
+out vec2 pass_uv;
 
 void main(void) {
-    pass_uv = uv;
+    pass_uv = mix(region.xy, region.zw, uv);
     gl_Position = modelMatrix * vec4(pos, 0, 1);
-}
\ No newline at end of file
+}
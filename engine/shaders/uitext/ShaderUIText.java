@@ -0,0 +1,37 @@
+package shaders.uitext;
+
+import shaders.Shader;
+import shaders.uniform.UniformInt;
+import shaders.uniform.UniformVector2f;
+
+public class ShaderUIText extends Shader {
+
+	private static final String VERTEX_FILE = "/shaders/uitext/vertex.glsl";
+	private static final String FRAGMENT_FILE = "/shaders/uitext/fragment.glsl";
+
+	private static final String ATTRIBUTE_POS = "pos";
+	private static final String ATTRIBUTE_GLYPH = "glyph";
+	private static final String ATTRIBUTE_GLYPH_UVS = "glyphUVs";
+	private static final String ATTRIBUTE_COLOR = "color";
+	private static final String ATTRIBUTE_TRANSFORM = "transform";
+
+	public final UniformVector2f screenSize = new UniformVector2f("screenSize");
+	public final UniformInt textureSampler = new UniformInt("atlas");
+
+	public ShaderUIText() {
+		super(VERTEX_FILE, FRAGMENT_FILE);
+		registerUniforms(
+				screenSize,
+				textureSampler
+			);
+	}
+
+	public void bindAttributes() {
+		bindToAttribute(0, ATTRIBUTE_POS);
+		bindToAttribute(1, ATTRIBUTE_GLYPH);
+		bindToAttribute(2, ATTRIBUTE_GLYPH_UVS);
+		bindToAttribute(3, ATTRIBUTE_COLOR);
+		bindToAttribute(4, ATTRIBUTE_TRANSFORM);
+	}
+
+}
@@ -0,0 +1,19 @@
+#version 330 core
+
+in vec2 pass_uv;
+in vec4 pass_color;
+
+out vec4 finalColor;
+
+uniform sampler2D atlas;
+
+void main(void) {
+
+	// The atlas holds the glyph coverage in its red channel
+	float coverage = texture(atlas, pass_uv).r;
+	if (coverage <= 0)
+		discard;
+
+	finalColor = vec4(pass_color.rgb, pass_color.a * coverage);
+
+}
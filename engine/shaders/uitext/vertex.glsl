@@ -0,0 +1,33 @@
+#version 330 core
+
+in vec2 pos;
+
+// Instanced
+in vec4 glyph;
+in vec4 glyphUVs;
+in vec4 color;
+in vec4 transform;
+
+out vec2 pass_uv;
+out vec4 pass_color;
+
+uniform vec2 screenSize;
+
+void main(void) {
+
+	// Corner of the glyph, from its top left corner
+	vec2 corner = vec2(pos.x * 0.5 + 0.5, 0.5 - pos.y * 0.5);
+
+	// Rotate the glyph's pixel position around the center of its text
+	float angle = radians(transform.z);
+	vec2 offset = glyph.xy + corner * glyph.zw - transform.xy;
+	vec2 pixel = transform.xy + vec2(
+		offset.x * cos(angle) + offset.y * sin(angle),
+		-offset.x * sin(angle) + offset.y * cos(angle));
+
+	pass_uv = mix(glyphUVs.xy, glyphUVs.zw, corner);
+	pass_color = color;
+
+	gl_Position = vec4(2.0 * pixel.x / screenSize.x - 1.0, 1.0 - 2.0 * pixel.y / screenSize.y, transform.w, 1);
+
+}
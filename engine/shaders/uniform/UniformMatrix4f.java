@@ -5,7 +5,7 @@ import static org.lwjgl.opengl.GL20.glUniformMatrix4fv;
 
 import java.nio.FloatBuffer;
 
-import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
 import org.lwjgl.BufferUtils;
 import shaders.Uniform;
 
@@ -13,6 +13,8 @@ public class UniformMatrix4f extends Uniform {
 	
 	private int location = -1;
 
+	private final FloatBuffer buffer = BufferUtils.createFloatBuffer(16);
+
 	public UniformMatrix4f(String name) {
 		super(name);
 	}
@@ -21,8 +23,7 @@ public class UniformMatrix4f extends Uniform {
 		location = glGetUniformLocation(programID, name);
 	}
 	
-	public void set(Matrix4f value) {
-		FloatBuffer buffer = BufferUtils.createFloatBuffer(16);
+	public void set(Matrix4fc value) {
 		value.get(buffer);
 		glUniformMatrix4fv(location, false, buffer);
 	}
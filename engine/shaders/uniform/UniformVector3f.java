@@ -1,12 +1,9 @@
 package shaders.uniform;
 
 import static org.lwjgl.opengl.GL20.glGetUniformLocation;
-import static org.lwjgl.opengl.GL20.glUniform3fv;
+import static org.lwjgl.opengl.GL20.glUniform3f;
 
-import java.nio.FloatBuffer;
-
-import org.joml.Vector3f;
-import org.lwjgl.BufferUtils;
+import org.joml.Vector3fc;
 import shaders.Uniform;
 
 public class UniformVector3f extends Uniform {
@@ -21,10 +18,8 @@ public class UniformVector3f extends Uniform {
 		location = glGetUniformLocation(programID, name);
 	}
 	
-	public void set(Vector3f value) {
-		FloatBuffer buffer = BufferUtils.createFloatBuffer(3);
-		value.get(buffer);
-		glUniform3fv(location, buffer);
+	public void set(Vector3fc value) {
+		glUniform3f(location, value.x(), value.y(), value.z());
 	}
 	
 }
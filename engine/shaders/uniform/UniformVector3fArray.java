@@ -1,12 +1,9 @@
 package shaders.uniform;
 
 import static org.lwjgl.opengl.GL20.glGetUniformLocation;
-import static org.lwjgl.opengl.GL20.glUniform3fv;
+import static org.lwjgl.opengl.GL20.glUniform3f;
 
-import java.nio.FloatBuffer;
-
-import org.joml.Vector3f;
-import org.lwjgl.BufferUtils;
+import org.joml.Vector3fc;
 import shaders.Uniform;
 
 public class UniformVector3fArray extends Uniform {
@@ -23,23 +20,16 @@ public class UniformVector3fArray extends Uniform {
 			locations[i] = glGetUniformLocation(programID, name + "[" + i + "]");
 	}
 	
-	public void set(int index, Vector3f data) {
+	public void set(int index, Vector3fc data) {
 		if(index < 0 || index >= locations.length)
 			return;
 		
-		FloatBuffer buffer = BufferUtils.createFloatBuffer(3);
-		data.get(buffer);
-		glUniform3fv(locations[index], buffer);
+		glUniform3f(locations[index], data.x(), data.y(), data.z());
 	}
 	
-	public void set(Vector3f[] data) {
-		for(int i = 0; i < data.length; i++) {
-			FloatBuffer buffer = BufferUtils.createFloatBuffer(3);
-			data[i].get(buffer);
-			if(i < locations.length) {
-				glUniform3fv(locations[i], buffer);
-			}
-		}
+	public void set(Vector3fc[] data) {
+		for(int i = 0; i < data.length && i < locations.length; i++)
+			glUniform3f(locations[i], data[i].x(), data[i].y(), data[i].z());
 	}
 	
 	public int getSize() {
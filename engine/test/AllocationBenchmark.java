@@ -0,0 +1,87 @@
+package test;
+
+import camera.Camera;
+import entities.Entity;
+import main.Scene;
+import objects.TexturedMesh;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import physics.colliders.SphereCollider;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the number of bytes allocated per frame by the CPU-side hot paths of the frame loop
+ * (entity transforms, camera matrices and raycasting) once they have reached a steady state.
+ */
+public class AllocationBenchmark {
+
+	private static final int ENTITIES = 1000;
+	private static final int WARMUP_FRAMES = 20_000;
+	private static final int MEASURED_FRAMES = 10_000;
+
+	private static class BenchEntity extends Entity implements SphereCollider {
+
+		public BenchEntity() {
+			super(new TexturedMesh(null, null));
+		}
+
+		public float getRadius() {
+			return 0.1f;
+		}
+
+		public boolean shouldRender() {
+			return true;
+		}
+
+		public void destroy() {}
+
+	}
+
+	private static class BenchCamera extends Camera {
+
+		public BenchCamera() {
+			super(16f / 9f, 70);
+		}
+
+		public void update(double delta) {}
+
+		public void destroy() {}
+
+	}
+
+	public static void main(String[] args) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+
+		Scene scene = new Scene();
+		for (int i = 0; i < ENTITIES; i++)
+			scene.register(new BenchEntity().setPosition(new Vector3f(i % 32, 0, i / 32f)));
+
+		Camera camera = new BenchCamera();
+		camera.setPosition(new Vector3f(16, 10, -5));
+		Vector3f ray = new Vector3f(0, -1, 1).normalize();
+		Matrix4f dest = new Matrix4f();
+
+		for (int i = 0; i < WARMUP_FRAMES; i++)
+			frame(scene, camera, ray, dest);
+
+		long before = threads.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_FRAMES; i++)
+			frame(scene, camera, ray, dest);
+		long elapsed = System.nanoTime() - start;
+		long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+		System.out.printf("%d entities, %d frames: %.2f bytes/frame, %.2f us/frame%n",
+				ENTITIES, MEASURED_FRAMES, (double) allocated / MEASURED_FRAMES, elapsed / 1000.0 / MEASURED_FRAMES);
+	}
+
+	private static void frame(Scene scene, Camera camera, Vector3f ray, Matrix4f dest) {
+		camera.getProjectionViewMatrix();
+		for (Entity entity : scene.getEntityList())
+			entity.getTransform(dest);
+		scene.physics().raycast(camera.getPosition(), ray);
+	}
+
+}
@@ -0,0 +1,99 @@
+package test;
+
+import entities.Entity;
+import main.Scene;
+import objects.TexturedMesh;
+import org.joml.Vector3f;
+import physics.RaycastHit;
+import physics.colliders.SphereCollider;
+
+import java.util.Random;
+
+/**
+ * Measures the cost of picking the closest collider on a large board and checks the result against a linear scan.
+ */
+public class RaycastBenchmark {
+
+	private static final int COLLIDERS = 5000;
+	private static final int RAYS = 1024;
+	private static final int ITERATIONS = 200;
+
+	private static class BenchCollider extends Entity implements SphereCollider {
+
+		public BenchCollider() {
+			super(new TexturedMesh(null, null));
+		}
+
+		public float getRadius() {
+			return 0.1f;
+		}
+
+		public boolean shouldRender() {
+			return true;
+		}
+
+		public void destroy() {}
+
+	}
+
+	public static void main(String[] args) {
+		Random random = new Random(42);
+		Scene scene = new Scene();
+		BenchCollider[] colliders = new BenchCollider[COLLIDERS];
+		int side = (int) Math.ceil(Math.sqrt(COLLIDERS));
+		for (int i = 0; i < COLLIDERS; i++) {
+			colliders[i] = new BenchCollider();
+			colliders[i].setPosition(new Vector3f((i % side) * 0.5f, 0.1f, (i / side) * 0.5f));
+			scene.register(colliders[i]);
+		}
+
+		Vector3f origin = new Vector3f(side * 0.25f, 10, -5);
+		Vector3f[] rays = new Vector3f[RAYS];
+		for (int i = 0; i < RAYS; i++) {
+			Vector3f target = new Vector3f(random.nextFloat() * side * 0.5f, 0.1f, random.nextFloat() * side * 0.5f);
+			rays[i] = target.sub(origin).normalize();
+		}
+
+		// Verify against a linear scan
+		RaycastHit hit = new RaycastHit();
+		int mismatches = 0;
+		for (Vector3f ray : rays) {
+			scene.physics().raycast(origin, ray, hit);
+			if (hit.getEntity() != closest(colliders, origin, ray))
+				mismatches++;
+		}
+
+		for (int i = 0; i < ITERATIONS; i++)
+			for (Vector3f ray : rays)
+				scene.physics().raycast(origin, ray, hit);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++)
+			for (Vector3f ray : rays)
+				scene.physics().raycast(origin, ray, hit);
+		long elapsed = System.nanoTime() - start;
+
+		System.out.printf("%d colliders: %.1f ns/raycast, %d mismatches against linear scan%n",
+				COLLIDERS, (double) elapsed / (ITERATIONS * RAYS), mismatches);
+	}
+
+	private static Entity closest(BenchCollider[] colliders, Vector3f origin, Vector3f ray) {
+		Entity best = null;
+		float bestDistance = Float.POSITIVE_INFINITY;
+		for (BenchCollider collider : colliders) {
+			Vector3f oc = new Vector3f(origin).sub(collider.getPosition());
+			float b = oc.dot(ray);
+			float c = oc.dot(oc) - collider.getRadius() * collider.getRadius();
+			float discriminant = b * b - c;
+			if (discriminant < 0)
+				continue;
+			float t = -b - (float) Math.sqrt(discriminant);
+			if (t >= 0 && t < bestDistance) {
+				bestDistance = t;
+				best = collider;
+			}
+		}
+		return best;
+	}
+
+}
@@ -0,0 +1,77 @@
+package test;
+
+import network.events.EventTest;
+import network.packets.Packet;
+import network.packets.PacketEvent;
+import network.packets.PacketPing;
+import network.packets.Packets;
+import network.serializers.ObjectSerializer;
+import network.serializers.PacketSerializer;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Compares the reflective {@link ObjectSerializer} with the compiled serializers used by {@link PacketSerializer}, in
+ * time and bytes allocated per operation, and checks that both produce the same bytes.
+ */
+public class SerializerBenchmark {
+
+	private static final int WARMUP_ITERATIONS = 200_000;
+	private static final int MEASURED_ITERATIONS = 1_000_000;
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private static Object sink;
+
+	public static void main(String[] args) {
+		run("PacketPing", new PacketPing(123456789L, true));
+		run("PacketEvent", new PacketEvent(42, new EventTest("Player 2 rolled a 7")));
+	}
+
+	private static void run(String name, Packet packet) {
+		byte[] reflective = reflectiveSerialize(packet);
+		byte[] compiled = PacketSerializer.serialize(packet);
+		System.out.printf("%s: %d bytes, identical output: %b%n", name, compiled.length, Arrays.equals(reflective, compiled));
+
+		measure(name + " serialize   (reflective)", () -> reflectiveSerialize(packet));
+		measure(name + " serialize   (compiled)  ", () -> PacketSerializer.serialize(packet));
+		measure(name + " deserialize (reflective)", () -> reflectiveDeserialize(compiled));
+		measure(name + " deserialize (compiled)  ", () -> PacketSerializer.deserialize(compiled));
+	}
+
+	private static void measure(String name, Supplier<Object> operation) {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++)
+			sink = operation.get();
+
+		long thread = Thread.currentThread().getId();
+		long before = THREADS.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_ITERATIONS; i++)
+			sink = operation.get();
+		long elapsed = System.nanoTime() - start;
+		long allocated = THREADS.getThreadAllocatedBytes(thread) - before;
+
+		System.out.printf("  %s: %8.1f ns/op, %6.1f bytes/op%n",
+				name, (double) elapsed / MEASURED_ITERATIONS, (double) allocated / MEASURED_ITERATIONS);
+	}
+
+	private static byte[] reflectiveSerialize(Packet packet) {
+		byte[] packetData = ObjectSerializer.serialize(packet);
+		return ByteBuffer.allocate(packetData.length + Integer.BYTES)
+				.putInt(packet.getPacketID())
+				.put(packetData)
+				.array();
+	}
+
+	private static Packet reflectiveDeserialize(byte[] data) {
+		ByteBuffer buffer = ByteBuffer.wrap(data);
+		Class<? extends Packet> packetType = Packets.getPacketClass(buffer.getInt());
+		byte[] packetData = new byte[buffer.remaining()];
+		buffer.get(packetData);
+		return ObjectSerializer.deserialize(packetType, packetData);
+	}
+
+}
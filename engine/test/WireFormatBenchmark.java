@@ -0,0 +1,71 @@
+package test;
+
+import network.RSA;
+import network.events.EventTest;
+import network.packets.*;
+import network.serializers.PacketSerializer;
+import network.serializers.WireFormat;
+
+import java.util.Arrays;
+
+/**
+ * Compares the size of every packet type and the time taken to encode and decode it in each {@link WireFormat}, and
+ * checks that every packet survives a round trip in both encodings.
+ */
+public class WireFormatBenchmark {
+
+	private static final int WARMUP_ITERATIONS = 100_000;
+	private static final int MEASURED_ITERATIONS = 500_000;
+
+	private static Object sink;
+
+	public static void main(String[] args) {
+		Packet[] packets = {
+				new PacketKey(true, RSA.generateKeyPair(512).getPublic()),
+				new PacketConnect("rednite"),
+				new PacketDisconnect(),
+				new PacketAcceptConnection(3),
+				new PacketRejectConnection("Server is full"),
+				new PacketPing(),
+				new PacketEvent(42, new EventTest("Player 2 rolled a 7")),
+				new PacketEventConfirmation(42)
+		};
+
+		System.out.printf("%-24s %8s %8s %10s %10s %10s %10s %s%n",
+				"packet", "std B", "cmp B", "std enc", "cmp enc", "std dec", "cmp dec", "round trip");
+		for (Packet packet : packets) {
+			byte[] standard = PacketSerializer.serialize(packet, WireFormat.STANDARD);
+			byte[] compact = PacketSerializer.serialize(packet, WireFormat.COMPACT);
+
+			boolean roundTrip = Arrays.equals(standard, PacketSerializer.serialize(PacketSerializer.deserialize(compact), WireFormat.STANDARD))
+					&& Arrays.equals(compact, PacketSerializer.serialize(PacketSerializer.deserialize(standard), WireFormat.COMPACT));
+
+			System.out.printf("%-24s %8d %8d %7.1f ns %7.1f ns %7.1f ns %7.1f ns %s%n",
+					packet.getClass().getSimpleName(), standard.length, compact.length,
+					measureEncode(packet, WireFormat.STANDARD), measureEncode(packet, WireFormat.COMPACT),
+					measureDecode(standard), measureDecode(compact),
+					roundTrip ? "ok" : "FAILED");
+		}
+	}
+
+	private static double measureEncode(Packet packet, WireFormat format) {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++)
+			sink = PacketSerializer.serialize(packet, format);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_ITERATIONS; i++)
+			sink = PacketSerializer.serialize(packet, format);
+		return (double) (System.nanoTime() - start) / MEASURED_ITERATIONS;
+	}
+
+	private static double measureDecode(byte[] data) {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++)
+			sink = PacketSerializer.deserialize(data);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_ITERATIONS; i++)
+			sink = PacketSerializer.deserialize(data);
+		return (double) (System.nanoTime() - start) / MEASURED_ITERATIONS;
+	}
+
+}
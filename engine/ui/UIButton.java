@@ -5,13 +5,11 @@ import ui.animation.UIInterpolators;
 import ui.constraints.CenterConstraint;
 import ui.constraints.ParentMinusDiffConstraint;
 
-import java.awt.*;
-
 public class UIButton extends UIQuad {
 
     private Runnable onClick;
 
-    private final UIText textComponent = new UIText(new Font("Arial", Font.BOLD, 35), "")
+    private final UIText textComponent = new UIText(UIFont.load(UIFont.SANS_BOLD, 35), "")
             .setColor(UIColor.WHITE);
 
     private final UIQuad innerBox = new UIQuad();
@@ -74,7 +72,7 @@ public class UIButton extends UIQuad {
         return this;
     }
 
-    public UIButton setFont(Font font) {
+    public UIButton setFont(UIFont font) {
         textComponent.setFont(font);
         return this;
     }
@@ -2,7 +2,6 @@ package ui;
 
 import org.joml.Matrix4f;
 import org.joml.Vector2i;
-import org.joml.Vector3f;
 import ui.animation.UIAnimationMetrics;
 import ui.animation.UIAnimator;
 
@@ -22,8 +21,23 @@ public class UIComponent {
     private UIConstraints constraints = null;
     private final UIAnimator animator = new UIAnimator();
 
+    // Indicates the dimensions were re-solved by the parent and the animation and children must follow
+    private boolean layoutPending = true;
+
+    // Constraints the dimensions were last solved with, and their version at the time
+    private UIConstraints solvedConstraints = null;
+    private int constraintsVersion = -1;
+
+    // Number of components of this subtree laid out during the last update
+    private int layoutCount = 0;
+
     protected List<UIComponent> children = new ArrayList<>();
 
+    private UIComponent parent = null;
+
+    // Retained draw list, only created for the root of a rendered tree
+    private UIDrawList drawList = null;
+
     private boolean interactive = true;
     private boolean visible = true;
 
@@ -39,9 +53,21 @@ public class UIComponent {
 
     void setConstraints(UIConstraints constraints) {
         this.constraints = constraints;
+        invalidateLayout();
+    }
+
+    /**
+     * Forces this component's dimensions and those of its descendants to be solved again on the next update.
+     */
+    public void invalidateLayout() {
+        layoutPending = true;
+        solvedConstraints = null;
+        constraintsVersion = -1;
     }
 
     public UIComponent setVisible(boolean visible) {
+        if (this.visible != visible)
+            invalidate();
         this.visible = visible;
         // Set all the children to it's parent's visibility
         children.stream().flatMap(UIComponent::flatten).forEach((e -> e.setVisible(visible)));
@@ -86,74 +112,184 @@ public class UIComponent {
 
     public UIComponent add(UIComponent component, UIConstraints constraints) {
         component.setConstraints(constraints);
+        component.parent = this;
         children.add(component);
+        invalidate();
         return this;
     }
 
+    public boolean remove(UIComponent component) {
+        if (!children.remove(component))
+            return false;
+        component.parent = null;
+        invalidate();
+
+        // The following children move down one elevation index
+        children.forEach(UIComponent::invalidateLayout);
+        return true;
+    }
+
+    public void clear() {
+        children.forEach(child -> child.parent = null);
+        children.clear();
+        invalidate();
+    }
+
+    public UIComponent getParent() {
+        return parent;
+    }
+
+    /**
+     * Marks the draw list of the tree this component belongs to as out of date.
+     */
+    protected void invalidate() {
+        UIComponent root = this;
+        while (root.parent != null)
+            root = root.parent;
+        if (root.drawList != null)
+            root.drawList.invalidate();
+    }
+
+    /**
+     * Returns the draw list of the tree rooted at this component, rebuilt only if the tree changed since the last call.
+     *
+     * @return {@link UIDrawList} The visible components of this tree, sorted by elevation.
+     */
+    public UIDrawList getDrawList() {
+        if (drawList == null)
+            drawList = new UIDrawList();
+        return drawList.update(this);
+    }
+
     public UIAnimator animator() {
         return animator;
     }
 
+    /**
+     * Updates this component's animation and lays out its descendants. A child's constraints are only solved again
+     * when its parent's dimensions changed, its constraints were modified, it was just added or it is animating, so
+     * a static interface costs a single walk of the tree with no layout work.
+     *
+     * @param delta The amount of time that has passed since the last rendered frame in seconds.
+     */
     public void update(double delta) {
 
         // Update the animator if needed
         if (animator.shouldUpdate())
             animator.update(delta);
 
-        // Update this component's bounds if needed
-        if (animator.hasAnimation()) {
-            UIAnimationMetrics animMetrics = animator.getCurrentAnimationMetrics();
-            Vector2i center = new Vector2i(dimensions.getCenterX(), dimensions.getCenterY());
-            dimensions
-                    .setWidth((int) (dimensions.getWidth() * animMetrics.scale))
-                    .setHeight((int) (dimensions.getHeight() * animMetrics.scale))
-                    .setX((int) animMetrics.x + center.x - dimensions.getWidth() / 2)
-                    .setY((int) animMetrics.y + center.y - dimensions.getHeight() / 2)
-                    .setRotation(dimensions.getRotation() + animMetrics.rotation);
+        // Dimensions changed since the last layout, the children must be solved again
+        boolean moved = false;
+        sizeChanged = false;
+        if (layoutPending) {
+
+            // Update this component's bounds if needed, on top of the dimensions just solved by the parent
+            if (animator.hasAnimation()) {
+                UIAnimationMetrics animMetrics = animator.getCurrentAnimationMetrics();
+                Vector2i center = new Vector2i(dimensions.getCenterX(), dimensions.getCenterY());
+                dimensions
+                        .setWidth((int) (dimensions.getWidth() * animMetrics.scale))
+                        .setHeight((int) (dimensions.getHeight() * animMetrics.scale))
+                        .setX((int) animMetrics.x + center.x - dimensions.getWidth() / 2)
+                        .setY((int) animMetrics.y + center.y - dimensions.getHeight() / 2)
+                        .setRotation(dimensions.getRotation() + animMetrics.rotation);
+            }
+
+            // Set size changed if width or height is different
+            sizeChanged = dimensions.getWidth() != lastDimensions.getWidth()
+                    || dimensions.getHeight() != lastDimensions.getHeight();
+
+            moved = !dimensions.hasSameLayout(lastDimensions);
+
+            // Set last dimensions
+            lastDimensions.set(dimensions);
+            layoutPending = false;
         }
 
+        layoutCount = 0;
         for (int i = 0; i < children.size(); i++) {
 
             UIComponent child = children.get(i);
+            UIConstraints childConstraints = child.getConstraints();
 
-            // If constraints exist, compute dimensions using the constraints
-            if (child.getConstraints() != null)
-                child.getConstraints().computeDimensions(dimensions, child.dimensions);
+            if (moved || child.layoutPending || child.animator.shouldUpdate()
+                    || childConstraints != child.solvedConstraints
+                    || (childConstraints != null && childConstraints.getVersion() != child.constraintsVersion)) {
 
-            // Otherwise, set the dimensions to be the same as those of the parent component
-            else
-                child.dimensions.set(dimensions);
+                int elevation = child.dimensions.getElevation();
+                int elevationInParent = child.dimensions.getElevationInParent();
 
-            // Set elevation indices
-            child.dimensions
-                    .setElevation(dimensions.getElevation() + 1)
-                    .setElevationInParent(i);
+                // If constraints exist, compute dimensions using the constraints
+                if (childConstraints != null) {
+                    childConstraints.computeDimensions(dimensions, child.dimensions);
+                    child.constraintsVersion = childConstraints.getVersion();
+                }
 
-            // Set size changed if width or height is different
-            child.sizeChanged = child.dimensions.getWidth() != child.lastDimensions.getWidth()
-                    || child.dimensions.getHeight() != child.lastDimensions.getHeight();
+                // Otherwise, set the dimensions to be the same as those of the parent component
+                else
+                    child.dimensions.set(dimensions);
+                child.solvedConstraints = childConstraints;
 
-            // Set last dimensions
-            child.lastDimensions.set(child.dimensions);
+                // Set elevation indices
+                child.dimensions
+                        .setElevation(dimensions.getElevation() + 1)
+                        .setElevationInParent(i);
+
+                // The draw order depends on elevation
+                if (child.dimensions.getElevation() != elevation || child.dimensions.getElevationInParent() != elevationInParent)
+                    invalidate();
+
+                child.layoutPending = true;
+                layoutCount++;
+            }
 
             // Update the children
             child.update(delta);
+            layoutCount += child.layoutCount;
 
         }
 
     }
 
+    /**
+     * Returns the number of components of this subtree whose constraints were solved during the last update, for
+     * profiling.
+     *
+     * @return <b>int</b> The number of descendants laid out during the last call to {@link #update}.
+     */
+    public int getLayoutCount() {
+        return layoutCount;
+    }
+
     public Matrix4f computeModelMatrix(int screenWidth, int screenHeight) {
-        Matrix4f result = new Matrix4f();
+        return computeModelMatrix(screenWidth, screenHeight, new Matrix4f());
+    }
 
-        result.translate(new Vector3f(
-                2.0f * dimensions.getCenterX() / screenWidth - 1.0f,
-                1.0f - 2.0f * dimensions.getCenterY() / screenHeight,
-                -ELEVATION_DISTANCE * dimensions.getElevation() - ELEVATION_PARENT_DISTANCE * dimensions.getElevationInParent()));
-        result.scale(new Vector3f((float) dimensions.getWidth() / screenWidth, (float) dimensions.getHeight() / screenHeight, 1));
-        result.rotate((float) (Math.toRadians(dimensions.getRotation())), new Vector3f(0, 0, 1));
+    /**
+     * Computes the matrix transforming the unit quad into this component's bounds on the screen.
+     *
+     * @param screenWidth  The width of the screen in pixels.
+     * @param screenHeight The height of the screen in pixels.
+     * @param dest         The matrix to store the result in.
+     * @return {@link Matrix4f} The destination matrix.
+     */
+    public Matrix4f computeModelMatrix(int screenWidth, int screenHeight, Matrix4f dest) {
+        return dest
+                .translation(
+                        2.0f * dimensions.getCenterX() / screenWidth - 1.0f,
+                        1.0f - 2.0f * dimensions.getCenterY() / screenHeight,
+                        computeDepth())
+                .scale((float) dimensions.getWidth() / screenWidth, (float) dimensions.getHeight() / screenHeight, 1)
+                .rotateZ((float) Math.toRadians(dimensions.getRotation()));
+    }
 
-        return result;
+    /**
+     * Returns the depth at which this component is drawn, closer components having a greater elevation.
+     *
+     * @return <b>float</b> The depth of this component in normalized device coordinates.
+     */
+    float computeDepth() {
+        return -ELEVATION_DISTANCE * dimensions.getElevation() - ELEVATION_PARENT_DISTANCE * dimensions.getElevationInParent();
     }
 
 }
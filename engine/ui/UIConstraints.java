@@ -8,28 +8,36 @@ public class UIConstraints {
 	private UIConstraint x, y, width, height;
 	private float rotation;
 
+	// Incremented on every modification, so components know when to solve them again
+	private int version = 0;
+
 	public UIConstraints setAll(UIConstraint constraint) {
 		x = y = width = height = constraint;
+		version++;
 		return this;
 	}
 
 	public UIConstraints setX(UIConstraint xConstraint) {
 		x = xConstraint;
+		version++;
 		return this;
 	}
 
 	public UIConstraints setY(UIConstraint yConstraint) {
 		y = yConstraint;
+		version++;
 		return this;
 	}
 
 	public UIConstraints setWidth(UIConstraint widthConstraint) {
 		width = widthConstraint;
+		version++;
 		return this;
 	}
 
 	public UIConstraints setHeight(UIConstraint heightConstraint) {
 		height = heightConstraint;
+		version++;
 		return this;
 	}
 
@@ -55,9 +63,14 @@ public class UIConstraints {
 
 	public UIConstraints setRotation(float rotation) {
 		this.rotation = rotation;
+		version++;
 		return this;
 	}
 
+	int getVersion() {
+		return version;
+	}
+
 	void computeDimensions(UIDimensions parent, UIDimensions result) {
 		
 		if (width == null && height == null) {
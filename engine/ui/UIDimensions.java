@@ -78,6 +78,17 @@ public class UIDimensions {
 		return this;
 	}
 	
+	/**
+	 * Determines whether the children of a component with these dimensions are laid out the same as with others.
+	 *
+	 * @param other The dimensions to compare to.
+	 * @return <b>boolean</b> True if the bounds, rotation and elevation are the same, false otherwise.
+	 */
+	boolean hasSameLayout(UIDimensions other) {
+		return x == other.x && y == other.y && width == other.width && height == other.height
+				&& rotation == other.rotation && elevation == other.elevation;
+	}
+	
 	public int getWidth() {
 		return width;
 	}
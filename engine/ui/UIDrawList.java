@@ -0,0 +1,109 @@
+package ui;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The visible components of a UI tree, grouped by the way they are drawn and sorted by elevation. The list is retained
+ * between frames and only rebuilt after the tree is invalidated by adding or removing a component, or by a change of
+ * visibility or elevation, so a static interface costs no traversal, allocation or sort per frame.
+ */
+public class UIDrawList {
+
+    /**
+     * Orders components from the lowest to the highest elevation.
+     */
+    private static final Comparator<UIComponent> ELEVATION_ORDER = (a, b) -> Float.compare(sortKey(a), sortKey(b));
+
+    private final List<UIQuad> quads = new ArrayList<>();
+    private final List<UISprite> sprites = new ArrayList<>();
+    private final List<UIText> texts = new ArrayList<>();
+
+    /**
+     * Indicates whether the tree changed since the list was last built.
+     */
+    private boolean dirty = true;
+
+    /**
+     * The number of times the list was rebuilt.
+     */
+    private long rebuilds = 0;
+
+    /**
+     * Marks the list as out of date, it is rebuilt the next time it is used.
+     */
+    void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Rebuilds the list from a tree if it is out of date.
+     *
+     * @param root The root component of the tree.
+     * @return {@link UIDrawList} This same {@link UIDrawList} instance to allow for method chaining.
+     */
+    UIDrawList update(UIComponent root) {
+        if (!dirty)
+            return this;
+
+        quads.clear();
+        sprites.clear();
+        texts.clear();
+
+        // The root is drawn regardless of its visibility, its descendants only if visible
+        for (UIComponent child : root.children)
+            collect(child);
+        add(root);
+
+        quads.sort(ELEVATION_ORDER);
+        sprites.sort(ELEVATION_ORDER);
+        texts.sort(ELEVATION_ORDER);
+
+        dirty = false;
+        rebuilds++;
+        return this;
+    }
+
+    private void collect(UIComponent component) {
+        if (component.isVisible())
+            add(component);
+        for (UIComponent child : component.children)
+            collect(child);
+    }
+
+    private void add(UIComponent component) {
+        if (component instanceof UIQuad)
+            quads.add((UIQuad) component);
+        else if (component instanceof UISprite)
+            sprites.add((UISprite) component);
+        else if (component instanceof UIText)
+            texts.add((UIText) component);
+    }
+
+    private static float sortKey(UIComponent component) {
+        return component.dimensions.getElevation() + 0.01f * component.dimensions.getElevationInParent();
+    }
+
+    public List<UIQuad> getQuads() {
+        return quads;
+    }
+
+    public List<UISprite> getSprites() {
+        return sprites;
+    }
+
+    public List<UIText> getTexts() {
+        return texts;
+    }
+
+    /**
+     * Returns the number of times this list was rebuilt, for profiling.
+     *
+     * @return <b>long</b> The number of rebuilds since the list was created.
+     */
+    public long getRebuildCount() {
+        return rebuilds;
+    }
+
+}
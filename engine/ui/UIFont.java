@@ -0,0 +1,212 @@
+package ui;
+
+import objects.Texture;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.stb.STBTTPackContext;
+import org.lwjgl.stb.STBTTPackedchar;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL30.GL_R8;
+import static org.lwjgl.stb.STBTruetype.*;
+
+/**
+ * A TrueType font rasterized once into a single-channel glyph atlas. The printable ASCII range is baked when the font
+ * is loaded, and the atlas is uploaded to video memory the first time it is drawn, so changing a text never touches
+ * the font again. Fonts are cached by file and size, every text using the same font shares one atlas.
+ */
+public class UIFont {
+
+    public static final String SANS = "./fonts/DejaVuSans.ttf";
+    public static final String SANS_BOLD = "./fonts/DejaVuSans-Bold.ttf";
+    public static final String SERIF = "./fonts/DejaVuSerif.ttf";
+
+    /**
+     * The range of characters baked in the atlas, other characters are drawn as {@link #FALLBACK_CHAR}.
+     */
+    private static final int FIRST_CHAR = 32;
+    private static final int CHAR_COUNT = 95;
+    private static final char FALLBACK_CHAR = '?';
+
+    private static final int ATLAS_WIDTH = 512;
+    private static final int MAX_ATLAS_HEIGHT = 4096;
+
+    /**
+     * The number of floats describing a glyph: its offset from the pen position and size in pixels, followed by its
+     * rectangle in the atlas in texture coordinates.
+     */
+    static final int GLYPH_LENGTH = 8;
+
+    private static final Map<String, UIFont> cache = new HashMap<>();
+
+    private final float size;
+    private final float ascent;
+    private final float lineHeight;
+
+    private final float[] glyphs = new float[CHAR_COUNT * GLYPH_LENGTH];
+    private final float[] advances = new float[CHAR_COUNT];
+
+    private final int atlasWidth;
+    private final int atlasHeight;
+
+    // Rasterized atlas, released once it is uploaded
+    private ByteBuffer bitmap;
+    private Texture texture = null;
+
+    private UIFont(float size, float ascent, float lineHeight, int atlasWidth, int atlasHeight, ByteBuffer bitmap) {
+        this.size = size;
+        this.ascent = ascent;
+        this.lineHeight = lineHeight;
+        this.atlasWidth = atlasWidth;
+        this.atlasHeight = atlasHeight;
+        this.bitmap = bitmap;
+    }
+
+    /**
+     * Returns the font stored in a TrueType file at a given size, loading and rasterizing it on first use.
+     *
+     * @param path The path to the TrueType file.
+     * @param size The size of the font in pixels per em, as with {@link java.awt.Font} sizes.
+     * @return {@link UIFont} Null if the file could not be read or is not a valid font, the font otherwise.
+     */
+    public static UIFont load(String path, float size) {
+        String key = path + ":" + size;
+        synchronized (cache) {
+            if (!cache.containsKey(key))
+                cache.put(key, bake(path, size));
+            return cache.get(key);
+        }
+    }
+
+    private static UIFont bake(String path, float size) {
+        ByteBuffer data;
+        try {
+            byte[] bytes = Files.readAllBytes(Paths.get(path));
+            data = MemoryUtil.memAlloc(bytes.length).put(bytes).flip();
+        } catch (IOException e) {
+            return null;
+        }
+
+        try (STBTTFontinfo info = STBTTFontinfo.malloc();
+             STBTTPackContext context = STBTTPackContext.malloc();
+             STBTTPackedchar.Buffer chars = STBTTPackedchar.malloc(CHAR_COUNT)) {
+
+            if (!stbtt_InitFont(info, data))
+                return null;
+
+            // Vertical metrics, scaled to pixels
+            int[] ascent = new int[1], descent = new int[1], lineGap = new int[1];
+            stbtt_GetFontVMetrics(info, ascent, descent, lineGap);
+            float scale = stbtt_ScaleForMappingEmToPixels(info, size);
+
+            // Pack the glyphs, growing the atlas until they fit
+            for (int height = ATLAS_WIDTH / 4; height <= MAX_ATLAS_HEIGHT; height *= 2) {
+                ByteBuffer bitmap = MemoryUtil.memCalloc(ATLAS_WIDTH * height);
+                stbtt_PackBegin(context, bitmap, ATLAS_WIDTH, height, 0, 1);
+                boolean packed = stbtt_PackFontRange(context, data, 0, -size, FIRST_CHAR, chars);
+                stbtt_PackEnd(context);
+
+                if (!packed) {
+                    MemoryUtil.memFree(bitmap);
+                    continue;
+                }
+
+                UIFont font = new UIFont(size, ascent[0] * scale, (ascent[0] - descent[0] + lineGap[0]) * scale,
+                        ATLAS_WIDTH, height, bitmap);
+                for (int c = 0; c < CHAR_COUNT; c++)
+                    font.storeGlyph(c, chars.get(c));
+                return font;
+            }
+            return null;
+
+        } finally {
+            MemoryUtil.memFree(data);
+        }
+    }
+
+    private void storeGlyph(int index, STBTTPackedchar glyph) {
+        int offset = index * GLYPH_LENGTH;
+        glyphs[offset] = glyph.xoff();
+        glyphs[offset + 1] = glyph.yoff();
+        glyphs[offset + 2] = glyph.xoff2() - glyph.xoff();
+        glyphs[offset + 3] = glyph.yoff2() - glyph.yoff();
+        glyphs[offset + 4] = (float) glyph.x0() / atlasWidth;
+        glyphs[offset + 5] = (float) glyph.y0() / atlasHeight;
+        glyphs[offset + 6] = (float) glyph.x1() / atlasWidth;
+        glyphs[offset + 7] = (float) glyph.y1() / atlasHeight;
+        advances[index] = glyph.xadvance();
+    }
+
+    /**
+     * Returns the index of the glyph used to draw a character.
+     *
+     * @param c The character to draw.
+     * @return <b>int</b> The index of the character's glyph, or that of {@link #FALLBACK_CHAR} if it is not baked.
+     */
+    int getGlyphIndex(char c) {
+        int index = c - FIRST_CHAR;
+        return index >= 0 && index < CHAR_COUNT ? index : FALLBACK_CHAR - FIRST_CHAR;
+    }
+
+    float[] getGlyphs() {
+        return glyphs;
+    }
+
+    float getAdvance(int glyph) {
+        return advances[glyph];
+    }
+
+    /**
+     * Returns the width of a line of text drawn with this font.
+     *
+     * @param text  The text containing the line.
+     * @param start The index of the first character of the line.
+     * @param end   The index following the last character of the line.
+     * @return <b>float</b> The width of the line in pixels.
+     */
+    public float getLineWidth(CharSequence text, int start, int end) {
+        float width = 0;
+        for (int i = start; i < end; i++)
+            width += advances[getGlyphIndex(text.charAt(i))];
+        return width;
+    }
+
+    public float getSize() {
+        return size;
+    }
+
+    public float getAscent() {
+        return ascent;
+    }
+
+    public float getLineHeight() {
+        return lineHeight;
+    }
+
+    /**
+     * Returns the atlas texture of this font, uploading it on first use. Must be called from the render thread.
+     *
+     * @return {@link Texture} The glyph atlas, holding coverage in its red channel.
+     */
+    public Texture getTexture() {
+        if (texture != null)
+            return texture;
+
+        // Rows of a single-channel atlas are not 4-byte aligned
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+        texture = Texture.create2D(atlasWidth, atlasHeight, GL_R8, GL_RED, bitmap, GL_LINEAR);
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+
+        MemoryUtil.memFree(bitmap);
+        bitmap = null;
+        return texture;
+    }
+
+}
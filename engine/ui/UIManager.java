@@ -5,7 +5,6 @@ import objects.FreeableObject;
 import org.joml.Vector2i;
 import ui.constraints.PixelConstraint;
 
-import java.awt.*;
 import java.util.Iterator;
 
 import static org.lwjgl.glfw.GLFW.GLFW_PRESS;
@@ -41,7 +40,7 @@ public class UIManager implements FreeableObject {
     {
         this.mouseMoveHandle = window.mouse().registerMouseMoveCallback(this::onMouseMove);
         // FPS
-        framerate = new UIText(new Font("Arial", Font.BOLD, 30), "");
+        framerate = new UIText(UIFont.load(UIFont.SANS_BOLD, 30), "");
         framerate.setColor(UIColor.GREEN);
         UIConstraints fpsConstraints = new UIConstraints()
                 .setX(new PixelConstraint(4, UIDimensions.DIRECTION_RIGHT))
@@ -146,12 +145,21 @@ public class UIManager implements FreeableObject {
         root.update(delta);
     }
 
+    /**
+     * Returns the number of components whose constraints were solved during the last update, for profiling.
+     *
+     * @return <b>int</b> The number of components laid out during the last frame.
+     */
+    public int getLayoutCount() {
+        return root.getLayoutCount();
+    }
+
     /**
      * {@inheritDoc}
      */
     public void destroy() {
         window.mouse().removeMouseMoveCallback(mouseMoveHandle);
-        root.children.clear();
+        root.clear();
     }
 
 }
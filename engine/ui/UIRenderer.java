@@ -6,17 +6,15 @@ import objects.Texture;
 import objects.VAO;
 import objects.VBO;
 import org.joml.Matrix4f;
+import org.joml.Vector2f;
 import shaders.ui.ShaderUI;
 import shaders.uisprite.ShaderUISprite;
+import shaders.uitext.ShaderUIText;
 
-import java.util.Comparator;
-import java.util.HashMap;
+import java.nio.FloatBuffer;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 import static org.lwjgl.opengl.GL11.GL_FLOAT;
-import static org.lwjgl.opengl.GL11.GL_LINEAR;
 import static org.lwjgl.opengl.GL15.*;
 
 
@@ -41,28 +39,48 @@ public class UIRenderer {
 		0, 0
 	};
 	
-	private static final int MAX_INSTANCES = 1000;
 	private static final int DATA_LENGTH = 26;
+	private static final int SPRITE_DATA_LENGTH = 20;
+	private static final int GLYPH_DATA_LENGTH = 16;
 	
 	private final Window window;
 	private final Mesh mesh;
+	private final Mesh spriteMesh;
+	private final Mesh glyphMesh;
+
+	// Streaming instance buffers, grown on demand and orphaned on every upload
 	private final VBO instanceVBO;
+	private final VBO spriteVBO;
+	private final VBO glyphVBO;
+
+	private final Matrix4f modelMatrix = new Matrix4f();
+
+	// Bytes of instance data uploaded during the last frame
+	private long uploadedBytes = 0;
 
 	private final ShaderUI shader;
 	private final ShaderUISprite imageShader;
-
-	private final Map<UIText, Texture> textTextures = new HashMap<UIText, Texture>();
+	private final ShaderUIText textShader;
 	
 	public UIRenderer(Window window) {
 		this.window = window;
 		this.instanceVBO = VBO.create(GL_ARRAY_BUFFER);
 		this.mesh = initMesh(instanceVBO);
+		this.spriteVBO = VBO.create(GL_ARRAY_BUFFER);
+		this.spriteMesh = initSpriteMesh(spriteVBO);
+		this.glyphVBO = VBO.create(GL_ARRAY_BUFFER);
+		this.glyphMesh = initGlyphMesh(glyphVBO);
 		this.shader = new ShaderUI();
 		this.imageShader = new ShaderUISprite();
+		this.textShader = new ShaderUIText();
 
 		imageShader.use();
 		imageShader.textureSampler.set(0);
 		imageShader.stop();
+
+		textShader.use();
+		textShader.textureSampler.set(0);
+		textShader.stop();
 	}
 	
 	private Mesh initMesh(VBO instanceVBO) {
@@ -82,8 +100,8 @@ public class UIRenderer {
 		// Store uv data in attribute list 1
 		vao.storeFloatData(1, UI_MESH_UVS, 2, GL_STATIC_DRAW);
 		
-		// Create instanced VBO
-		instanceVBO.bind().allocate(MAX_INSTANCES * DATA_LENGTH * Float.BYTES, GL_DYNAMIC_DRAW);
+		// Bind instanced VBO, its storage is allocated when instances are streamed
+		instanceVBO.bind();
 		
 		// Add instanced VBO to VAO
 		vao.addVBO(instanceVBO);
@@ -112,52 +130,112 @@ public class UIRenderer {
 		return new Mesh(vao.unbind(), UI_MESH_INDICES.length);
 		
 	}
+
+	private Mesh initSpriteMesh(VBO spriteVBO) {
+
+		// Vao
+		VAO vao = VAO.create().bind();
+
+		// Create indices VBO
+		VBO indicesVBO = VBO.create(GL_ELEMENT_ARRAY_BUFFER).bind().store(UI_MESH_INDICES, GL_STATIC_DRAW);
+
+		// Add indices VBO to VAO
+		vao.addVBO(indicesVBO);
+
+		// Store vertex data in attribute list 0
+		vao.storeFloatData(0, UI_MESH_VERTICES, 2, GL_STATIC_DRAW);
+
+		// Store uv data in attribute list 1
+		vao.storeFloatData(1, UI_MESH_UVS, 2, GL_STATIC_DRAW);
+
+		// Bind instanced VBO, its storage is allocated when instances are streamed
+		spriteVBO.bind();
+
+		// Add instanced VBO to VAO
+		vao.addVBO(spriteVBO);
+
+		// Model matrix
+		vao.addInstancedAttribute(2, 4, GL_FLOAT, SPRITE_DATA_LENGTH * Float.BYTES, 0);
+		vao.addInstancedAttribute(3, 4, GL_FLOAT, SPRITE_DATA_LENGTH * Float.BYTES, 4 * Float.BYTES);
+		vao.addInstancedAttribute(4, 4, GL_FLOAT, SPRITE_DATA_LENGTH * Float.BYTES, 8 * Float.BYTES);
+		vao.addInstancedAttribute(5, 4, GL_FLOAT, SPRITE_DATA_LENGTH * Float.BYTES, 12 * Float.BYTES);
+
+		// Texture region
+		vao.addInstancedAttribute(6, 4, GL_FLOAT, SPRITE_DATA_LENGTH * Float.BYTES, 16 * Float.BYTES);
+
+		// Unbind VAO and store mesh
+		return new Mesh(vao.unbind(), UI_MESH_INDICES.length);
+
+	}
+
+	private Mesh initGlyphMesh(VBO glyphVBO) {
+
+		// Vao
+		VAO vao = VAO.create().bind();
+
+		// Create indices VBO
+		VBO indicesVBO = VBO.create(GL_ELEMENT_ARRAY_BUFFER).bind().store(UI_MESH_INDICES, GL_STATIC_DRAW);
+
+		// Add indices VBO to VAO
+		vao.addVBO(indicesVBO);
+
+		// Store vertex data in attribute list 0
+		vao.storeFloatData(0, UI_MESH_VERTICES, 2, GL_STATIC_DRAW);
+
+		// Bind instanced VBO, its storage is allocated when instances are streamed
+		glyphVBO.bind();
+
+		// Add instanced VBO to VAO
+		vao.addVBO(glyphVBO);
+
+		// Glyph position and size in pixels
+		vao.addInstancedAttribute(1, 4, GL_FLOAT, GLYPH_DATA_LENGTH * Float.BYTES, 0);
+
+		// Glyph rectangle in the atlas
+		vao.addInstancedAttribute(2, 4, GL_FLOAT, GLYPH_DATA_LENGTH * Float.BYTES, 4 * Float.BYTES);
+
+		// Color
+		vao.addInstancedAttribute(3, 4, GL_FLOAT, GLYPH_DATA_LENGTH * Float.BYTES, 8 * Float.BYTES);
+
+		// Text center, rotation and depth
+		vao.addInstancedAttribute(4, 4, GL_FLOAT, GLYPH_DATA_LENGTH * Float.BYTES, 12 * Float.BYTES);
+
+		// Unbind VAO and store mesh
+		return new Mesh(vao.unbind(), UI_MESH_INDICES.length);
+
+	}
 	
 	public void render(UIComponent root) {
 
-		// Create list of quads to be rendered
-		var quadsToRender = root.children
-				.stream()
-				.flatMap(UIComponent::flatten)
-				.filter(uiComponent -> uiComponent instanceof UIQuad && uiComponent.isVisible())
-				.map(uiComponent -> (UIQuad)uiComponent)
-				.collect(Collectors.toList());
-		if (root instanceof UIQuad) {
-			quadsToRender.add((UIQuad) root);
-		}
+		// Retained lists of visible components, sorted by elevation
+		UIDrawList drawList = root.getDrawList();
+
+		instanceVBO.resetUploadCounters();
+		spriteVBO.resetUploadCounters();
+		glyphVBO.resetUploadCounters();
+
 		// Render process for quads
-		if (quadsToRender.size() > 0)
-			renderQuads(quadsToRender);
-
-		// Create list of sprites to be rendered
-		List<UISprite> spritesToRender = root.children
-				.stream()
-				.flatMap(UIComponent::flatten)
-				.filter(component -> component instanceof UISprite && component.isVisible())
-				.map(uiComponent -> (UISprite)uiComponent)
-				.collect(Collectors.toList());
-		if (root instanceof UISprite) {
-			spritesToRender.add((UISprite)root);
-		}
+		if (drawList.getQuads().size() > 0)
+			renderQuads(drawList.getQuads());
+
 		// Render process for sprites
-		if (spritesToRender.size() > 0)
-			renderSprites(spritesToRender);
+		if (drawList.getSprites().size() > 0)
+			renderSprites(drawList.getSprites());
 
-		// Create list of texts to be rendered
-		List<UIText> textsToRender = root.children
-				.stream()
-				.flatMap(UIComponent::flatten)
-				.filter(component -> component instanceof UIText && component.isVisible())
-				.map(uiComponent -> (UIText)uiComponent)
-				.collect(Collectors.toList());
+		// Render process for texts
+		if (drawList.getTexts().size() > 0)
+			renderTexts(drawList.getTexts());
 
+		uploadedBytes = instanceVBO.getUploadedBytes() + spriteVBO.getUploadedBytes() + glyphVBO.getUploadedBytes();
+	}
 
-		if (root instanceof UIText) {
-			textsToRender.add((UIText) root);
-		}
-		// Render process for texts
-		if (textsToRender.size() > 0)
-			renderTexts(textsToRender);
+	/**
+	 * Returns the amount of instance data sent to video memory by the last call to {@link #render}, for profiling.
+	 *
+	 * @return <b>long</b> The number of bytes uploaded during the last frame.
+	 */
+	public long getUploadedBytes() {
+		return uploadedBytes;
 	}
 
 	private void renderQuads(List<UIQuad> quadsToRender) {
@@ -169,55 +247,30 @@ public class UIRenderer {
 		// Mesh vao
 		VAO vao = mesh.getVAO();
 
-		// Sort quads by elevation
-		quadsToRender.sort(Comparator.comparingDouble(a -> a.getDimensions().getElevation() + 0.01f * a.getDimensions().getElevationInParent()));
-
-		// Allocate float array and fill it with data
-		float[] instanceData = new float[quadsToRender.size() * DATA_LENGTH];
-		for (int i = 0; i < quadsToRender.size(); i++) {
-
-			UIQuad quad = quadsToRender.get(i);
-
-			Matrix4f modelMatrix = quad.computeModelMatrix(width, height);
-			instanceData[(i * DATA_LENGTH)] = modelMatrix.m00();
-			instanceData[(i * DATA_LENGTH ) + 1] = modelMatrix.m01();
-			instanceData[(i * DATA_LENGTH) + 2] = modelMatrix.m02();
-			instanceData[(i * DATA_LENGTH) + 3] = modelMatrix.m03();
-			instanceData[(i * DATA_LENGTH) + 4] = modelMatrix.m10();
-			instanceData[(i * DATA_LENGTH) + 5] = modelMatrix.m11();
-			instanceData[(i * DATA_LENGTH) + 6] = modelMatrix.m12();
-			instanceData[(i * DATA_LENGTH) + 7] = modelMatrix.m13();
-			instanceData[(i * DATA_LENGTH) + 8] = modelMatrix.m20();
-			instanceData[(i * DATA_LENGTH) + 9] = modelMatrix.m21();
-			instanceData[(i * DATA_LENGTH) + 10] = modelMatrix.m22();
-			instanceData[(i * DATA_LENGTH) + 11] = modelMatrix.m23();
-			instanceData[(i * DATA_LENGTH) + 12] = modelMatrix.m30();
-			instanceData[(i * DATA_LENGTH) + 13] = modelMatrix.m31();
-			instanceData[(i * DATA_LENGTH) + 14] = modelMatrix.m32();
-			instanceData[(i * DATA_LENGTH) + 15] = modelMatrix.m33();
-
-			UIDimensions dimensions = quad.getDimensions();
-			instanceData[(i * DATA_LENGTH) + 16] = dimensions.getX();
-			instanceData[(i * DATA_LENGTH) + 17] = dimensions.getY();
-			instanceData[(i * DATA_LENGTH) + 18] = dimensions.getWidth();
-			instanceData[(i * DATA_LENGTH) + 19] = dimensions.getHeight();
+		// Fill the stream buffer with the instance data
+		FloatBuffer instanceData = instanceVBO.reserve(quadsToRender.size() * DATA_LENGTH);
+		for (UIQuad quad : quadsToRender) {
+
+			// Model matrix, in column-major order
+			quad.computeModelMatrix(width, height, modelMatrix).get(instanceData.position(), instanceData);
+			instanceData.position(instanceData.position() + 16);
+
+			UIDimensions dimensions = quad.dimensions;
+			instanceData.put(dimensions.getX()).put(dimensions.getY()).put(dimensions.getWidth()).put(dimensions.getHeight());
 
 			UIColor color = quad.getColor();
-			instanceData[(i * DATA_LENGTH) + 20] = color.getR();
-			instanceData[(i * DATA_LENGTH) + 21] = color.getG();
-			instanceData[(i * DATA_LENGTH) + 22] = color.getB();
-			instanceData[(i * DATA_LENGTH) + 23] = color.getA();
+			instanceData.put(color.getR()).put(color.getG()).put(color.getB()).put(color.getA());
 
-			instanceData[(i * DATA_LENGTH) + 24] = quad.getBorderRadius();
+			instanceData.put(quad.getBorderRadius());
 
-			instanceData[(i * DATA_LENGTH) + 25] = quad.getDimensions().getRotation();
+			instanceData.put(dimensions.getRotation());
 		}
 
 		// Use shader
 		shader.use();
 
 		// Update the VBO
-		instanceVBO.bind().storeSubData(0, instanceData);
+		instanceVBO.bind().stream();
 
 		// Bind VAO
 		vao.bind(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
@@ -239,90 +292,127 @@ public class UIRenderer {
 		int width = window.getWidth();
 		int height = window.getHeight();
 
-		// Mesh vao
-		VAO vao = mesh.getVAO();
-
-		// Sort sprites by elevation
-		spritesToRender.sort(Comparator.comparingDouble(a -> a.getDimensions().getElevation() + 0.01f * a.getDimensions().getElevationInParent()));
-
 		// Use the shader
 		imageShader.use();
 
+		// Sprites are batched until the texture changes, each batch is a single draw call.
+		// Regions of the same atlas share their texture, so a hand of cards is a single batch.
+		Texture batchTexture = null;
 		for (UISprite sprite : spritesToRender) {
 
-			// Load shader uniforms
-			imageShader.modelMatrix.set(sprite.computeModelMatrix(width, height));
-			imageShader.textureFormat.set(ShaderUISprite.IMAGE_FORMAT_RGBA);
-
-			// Bind VAO
-			vao.bind(0, 1);
+			Texture texture = sprite.getTexture();
+			if (texture == null)
+				continue;
 
-			// Bind texture
-			sprite.getTexture().bindToUnit(0);
+			if (batchTexture == null || texture.getTextureID() != batchTexture.getTextureID()) {
+				drawSprites(batchTexture);
+				batchTexture = texture;
+			}
 
-			// Draw mesh
-			mesh.draw();
+			// Model matrix, in column-major order
+			FloatBuffer spriteData = spriteVBO.reserve(SPRITE_DATA_LENGTH);
+			sprite.computeModelMatrix(width, height, modelMatrix).get(spriteData.position(), spriteData);
+			spriteData.position(spriteData.position() + 16);
 
-			// Unbind VAO
-			vao.unbind(0, 1);
+			// Texture region
+			spriteData.put(texture.getU0()).put(texture.getV0()).put(texture.getU1()).put(texture.getV1());
 
 		}
+		drawSprites(batchTexture);
 
 		// Stop the shader
 		imageShader.stop();
 
 	}
 
-	private void renderTexts(List<UIText> textsToRender) {
+	private void drawSprites(Texture texture) {
+		int spriteCount = spriteVBO.getPendingFloats() / SPRITE_DATA_LENGTH;
+		if (texture == null || spriteCount == 0)
+			return;
 
-		// Screen size
-		int width = window.getWidth();
-		int height = window.getHeight();
+		// Update the VBO
+		spriteVBO.bind().stream();
 
-		// Mesh vao
-		VAO vao = mesh.getVAO();
+		// Bind VAO
+		VAO vao = spriteMesh.getVAO();
+		vao.bind(0, 1, 2, 3, 4, 5, 6);
 
-		// Sort texts by elevation
-		textsToRender.sort(Comparator.comparingDouble(a -> a.getDimensions().getElevation() + 0.01f * a.getDimensions().getElevationInParent()));
+		// Bind texture
+		texture.bindToUnit(0);
+
+		// Draw meshes
+		spriteMesh.drawInstanced(spriteCount);
+
+		// Unbind VAO
+		vao.unbind(0, 1, 2, 3, 4, 5, 6);
+	}
+
+	private void renderTexts(List<UIText> textsToRender) {
 
 		// Use the shader
-		imageShader.use();
+		textShader.use();
+		textShader.screenSize.set(new Vector2f(window.getWidth(), window.getHeight()));
 
+		// Glyphs are batched until the font changes, each batch is a single draw call
+		UIFont batchFont = null;
 		for (UIText text : textsToRender) {
 
-			// Create a new texture or get the old one
-			Texture texture;
-			if (!textTextures.containsKey(text)) {
-				texture = Texture.create2D(text.getDimensions().getWidth(), text.getDimensions().getHeight(), GL_LINEAR);
-				textTextures.put(text, texture);
-			} else
-				texture = textTextures.get(text);
+			UIFont font = text.getFont();
+			int glyphCount = text.getGlyphCount();
+			if (font == null || glyphCount == 0)
+				continue;
+
+			if (font != batchFont) {
+				drawGlyphs(batchFont);
+				batchFont = font;
+			}
+
+			float[] glyphs = text.getGlyphs();
+			UIDimensions dimensions = text.dimensions;
+			UIColor color = text.getColor();
+			float centerX = dimensions.getX() + dimensions.getWidth() / 2.0f;
+			float centerY = dimensions.getY() + dimensions.getHeight() / 2.0f;
+			float depth = text.computeDepth();
+
+			FloatBuffer glyphData = glyphVBO.reserve(glyphCount * GLYPH_DATA_LENGTH);
+			for (int i = 0; i < glyphCount; i++) {
+				int offset = i * UIFont.GLYPH_LENGTH;
+				glyphData
+						.put(Math.round(centerX) + glyphs[offset]).put(Math.round(centerY) + glyphs[offset + 1])
+						.put(glyphs[offset + 2]).put(glyphs[offset + 3])
+						.put(glyphs[offset + 4]).put(glyphs[offset + 5]).put(glyphs[offset + 6]).put(glyphs[offset + 7])
+						.put(color.getR()).put(color.getG()).put(color.getB()).put(color.getA())
+						.put(centerX).put(centerY).put(dimensions.getRotation()).put(depth);
+			}
 
-			// Update the texture if necessary
-			if (text.sizeChanged || text.shouldUpdateImage)
-				text.drawImageToTexture(texture);
+		}
+		drawGlyphs(batchFont);
 
-			// Load shader uniforms
-			imageShader.modelMatrix.set(text.computeModelMatrix(width, height));
-			imageShader.textureFormat.set(ShaderUISprite.IMAGE_FORMAT_ARGB);
+		// Stop the shader
+		textShader.stop();
 
-			// Bind VAO
-			vao.bind(0, 1);
+	}
 
-			// Bind texture
-			texture.bindToUnit(0);
+	private void drawGlyphs(UIFont font) {
+		int glyphCount = glyphVBO.getPendingFloats() / GLYPH_DATA_LENGTH;
+		if (font == null || glyphCount == 0)
+			return;
 
-			// Draw mesh
-			mesh.draw();
+		// Update the VBO
+		glyphVBO.bind().stream();
 
-			// Unbind VAO
-			vao.unbind(0, 1);
+		// Bind VAO
+		VAO vao = glyphMesh.getVAO();
+		vao.bind(0, 1, 2, 3, 4);
 
-		}
+		// Bind the font's atlas
+		font.getTexture().bindToUnit(0);
 
-		// Stop the shader
-		imageShader.stop();
+		// Draw meshes
+		glyphMesh.drawInstanced(glyphCount);
 
+		// Unbind VAO
+		vao.unbind(0, 1, 2, 3, 4);
 	}
 
 }
@@ -1,127 +1,113 @@
 package ui;
 
-import objects.Texture;
-
-import javax.swing.*;
-import javax.swing.text.*;
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
-
-import static java.awt.image.BufferedImage.TYPE_INT_ARGB;
-import static org.lwjgl.opengl.GL11.*;
-
+/**
+ * A block of text drawn from the glyph atlas of a {@link UIFont}, centered in its bounds. Each line is centered
+ * horizontally and the block of lines vertically. Changing the text only lays out its glyphs again, the atlas is never
+ * redrawn or uploaded.
+ */
 public class UIText extends UIComponent {
 
-    boolean shouldUpdateImage = true;
+    private UIFont font;
+    private String text;
+    private UIColor color = UIColor.BLACK;
 
-    private final SimpleAttributeSet attrs = new SimpleAttributeSet();
-    private final JTextPane textPane = new JTextPane();
+    // Glyph quads relative to the center of the bounds, in pixels, followed by their atlas texture coordinates
+    private float[] glyphs = new float[0];
+    private int glyphCount = 0;
+    private boolean layoutChanged = true;
 
-    public UIText(Font font, String text) {
-        textPane.setFont(font);
-        textPane.setEditorKit(new VerticalCenterEditorKit());
-        StyleConstants.setAlignment(attrs, StyleConstants.ALIGN_CENTER);
-        StyledDocument doc = (StyledDocument) textPane.getDocument();
-        textPane.setText(text);
-        textPane.setBackground(new Color(0, 0, 0, 0));
-        doc.setParagraphAttributes(0,doc.getLength() - 1, attrs, false);
+    public UIText(UIFont font, String text) {
+        this.font = font;
+        this.text = text;
         setInteractive(false);
     }
 
     public UIText setText(String text) {
-        textPane.setText(text);
-        StyledDocument doc = (StyledDocument) textPane.getDocument();
-        doc.setParagraphAttributes(0,doc.getLength() - 1, attrs, false);
-        shouldUpdateImage = true;
+        if (!text.equals(this.text))
+            layoutChanged = true;
+        this.text = text;
         return this;
     }
 
-    public UIText setFont(Font font) {
-        textPane.setFont(font);
-        shouldUpdateImage = true;
+    public UIText setFont(UIFont font) {
+        if (font != this.font)
+            layoutChanged = true;
+        this.font = font;
         return this;
     }
 
     public UIText setColor(UIColor color) {
-        textPane.setForeground(new Color(color.getR(), color.getG(), color.getB(), color.getA()));
-        shouldUpdateImage = true;
+        this.color = color;
         return this;
     }
 
-    public void drawImageToTexture(Texture texture) {
-
-        // Create new image of argb format
-        BufferedImage image = new BufferedImage(dimensions.getWidth(), dimensions.getHeight(), TYPE_INT_ARGB);
-
-        // Create graphics for the image
-        Graphics g = image.createGraphics();
-
-        // Set label dimensions
-        textPane.setSize(dimensions.getWidth(), dimensions.getHeight());
-
-        // Paint the label using graphics
-        textPane.paint(g);
-
-        // Dispose of the graphics
-        g.dispose();
-
-        // Copy the result into the texture
-        int[] imageData = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
-        glBindTexture(texture.getType(), texture.getTextureID());
-        glTexImage2D(GL_TEXTURE_2D,
-                0,
-                GL_RGBA,
-                image.getWidth(),
-                image.getHeight(),
-                0,
-                GL_RGBA,
-                GL_UNSIGNED_BYTE,
-                imageData);
-
+    public String getText() {
+        return text;
     }
 
-    private static class VerticalCenterEditorKit extends StyledEditorKit {
-
-        public ViewFactory getViewFactory() {
-            return new StyledViewFactory();
-        }
-
-        private static class StyledViewFactory implements ViewFactory {
-
-            public View create(Element elem) {
-                String kind = elem.getName();
-                return switch (kind) {
-                    case AbstractDocument.ParagraphElementName -> new ParagraphView(elem);
-                    case AbstractDocument.SectionElementName -> new CenteredBoxView(elem, View.Y_AXIS);
-                    case StyleConstants.ComponentElementName -> new ComponentView(elem);
-                    case StyleConstants.IconElementName -> new IconView(elem);
-                    default -> new LabelView(elem);
-                };
-            }
-
-        }
-
+    public UIFont getFont() {
+        return font;
     }
 
-    private static class CenteredBoxView extends BoxView {
-
-        public CenteredBoxView(Element elem, int axis) {
-            super(elem,axis);
-        }
+    public UIColor getColor() {
+        return color;
+    }
 
-        protected void layoutMajorAxis(int targetSpan, int axis, int[] offsets, int[] spans) {
-            super.layoutMajorAxis(targetSpan, axis, offsets, spans);
-            int textBlockHeight = 0;
+    /**
+     * Returns the glyph quads of this text, laying them out again if the text or font changed.
+     *
+     * @return <b>float[]</b> {@link UIFont#GLYPH_LENGTH} floats per glyph, valid up to {@link #getGlyphCount()}.
+     */
+    float[] getGlyphs() {
+        if (layoutChanged)
+            layout();
+        return glyphs;
+    }
 
-            for (int span : spans)
-                textBlockHeight = span;
+    int getGlyphCount() {
+        if (layoutChanged)
+            layout();
+        return glyphCount;
+    }
 
-            int offset = (targetSpan - textBlockHeight) / 2;
-            for (int i = 0; i < offsets.length; i++)
-                offsets[i] += offset;
+    private void layout() {
+        layoutChanged = false;
+        glyphCount = 0;
+        if (font == null)
+            return;
+
+        if (glyphs.length < text.length() * UIFont.GLYPH_LENGTH)
+            glyphs = new float[text.length() * UIFont.GLYPH_LENGTH];
+
+        int lines = 1;
+        for (int i = 0; i < text.length(); i++)
+            if (text.charAt(i) == '\n')
+                lines++;
+
+        float[] fontGlyphs = font.getGlyphs();
+        float baseline = Math.round(font.getAscent() - lines * font.getLineHeight() / 2);
+
+        for (int start = 0; start <= text.length(); baseline += font.getLineHeight()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0)
+                end = text.length();
+
+            float pen = -Math.round(font.getLineWidth(text, start, end) / 2);
+            for (int i = start; i < end; i++) {
+                int glyph = font.getGlyphIndex(text.charAt(i));
+                int src = glyph * UIFont.GLYPH_LENGTH;
+
+                // Glyphs without coverage, such as spaces, only move the pen
+                if (fontGlyphs[src + 2] > 0 && fontGlyphs[src + 3] > 0) {
+                    int dst = glyphCount++ * UIFont.GLYPH_LENGTH;
+                    glyphs[dst] = Math.round(pen + fontGlyphs[src]);
+                    glyphs[dst + 1] = Math.round(baseline + fontGlyphs[src + 1]);
+                    System.arraycopy(fontGlyphs, src + 2, glyphs, dst + 2, UIFont.GLYPH_LENGTH - 2);
+                }
+                pen += font.getAdvance(glyph);
+            }
+            start = end + 1;
         }
-
     }
 
-}
\ No newline at end of file
+}
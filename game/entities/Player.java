@@ -1,12 +1,10 @@
 package entities;
 
-import entities.board.Tile;
+import gameplay.Hand;
 import objects.TexturedMesh;
 import resources.Resource;
 
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 
 public class Player {
@@ -15,7 +13,7 @@ public class Player {
 
 	private final int id;
 	private final Resource color;
-	private final ArrayList<Integer> resourceCards = new ArrayList<>(Arrays.asList(0, 0, 0, 0, 0));
+	private final Hand hand = new Hand();
 
 //	public DevelopmentCards(TexturedMesh model) {
 //		this(model, 14, 2, 2, 2, 5);
@@ -47,9 +45,11 @@ public class Player {
 		this.color = Resource.values()[buffer.getInt()];
 	}
 
-	public void removeResourceCards(int resource, int count) { resourceCards.set(resource, resourceCards.get(resource) - count); }
+	public void removeResourceCards(int resource, int count) { hand.remove(resource, count); }
 
-	public void addResourceCard(int resource, int count) { resourceCards.set(resource, resourceCards.get(resource) + count); }
+	public void addResourceCard(int resource, int count) { hand.add(resource, count); }
+
+	public void setResourceCards(int resource, int count) { hand.set(resource, count); }
 
 	public int getID() {
 		return id;
@@ -60,28 +60,23 @@ public class Player {
 	}
 
 	public int getResourceCards(int type) {
-		return resourceCards.get(type);
+		return hand.get(type);
 	}
 
-	public boolean canAfford(int[] price) {
-		for(int i =0; i < price.length; i ++)
-			if(resourceCards.get(i) < price[i])
-				return false;
+	public Hand getHand() {
+		return hand;
+	}
 
-		return true;
+	public boolean canAfford(int[] price) {
+		return hand.canAfford(price);
 	}
 
 	public void purchasePiece(int[] price) {
-		for(int i = 0; i < price.length; i ++)
-			removeResourceCards(i, price[i]);
+		hand.subtract(price);
 	}
 
 	public void clearHand() {
-		resourceCards.set(Tile.WOOD, 0);
-		resourceCards.set(Tile.BRICK, 0);
-		resourceCards.set(Tile.SHEEP, 0);
-		resourceCards.set(Tile.WHEAT, 0);
-		resourceCards.set(Tile.STONE, 0);
+		hand.clear();
 	}
 
 	public byte[] serialize() {
@@ -1,6 +1,7 @@
 package entities.board;
 
 import entities.Entity;
+import gameplay.Hand;
 import objects.TexturedMesh;
 import resources.GameResources;
 import resources.Resource;
@@ -45,12 +46,7 @@ public class Piece extends Entity {
      * @return An array containing the cost for each piece
      */
     public static int[] getPrice(int type) {
-        return switch (type) {
-            case SETTLEMENT -> new int[]{1, 1, 1, 1, 0}; // 1 WOOD, 1 BRICK, 1 SHEEP, 1 WHEAT, 0 ROCK
-            case CITY -> new int[]{0, 0, 0, 2, 3};
-            case ROAD -> new int[]{1, 1, 0, 0, 0};
-            default -> throw new IllegalStateException("Unexpected value: " + type);
-        };
+        return Hand.getPrice(type);
     }
 
     /**
@@ -26,33 +26,6 @@ public class Side extends Node{
         }
     }
 
-    /**
-     * Method to determine whether or not there is an allied road nearby.
-     * @param player - Player object for the user wanting to put down a road.
-     * @return True if there is an allied road nearby.
-     */
-    public boolean isAlliedRoadNearby(Player player) {
-        for(Node node : getNearbyNodes())
-            for(Node deepNode : node.getNearbyNodes())
-                if(deepNode.getOwner() == player)
-                    return true;
-
-        return false;
-    }
-
-    /**
-     * Method to determine whether or not the vertices nearby are occupied by the player that wants to place a road down.
-     * @return True if there is a building on a nearby vertex owned by the player that wants to place a road down.
-     */
-    public boolean isAlliedBuildingNearby(Player player) {
-        for(Node node : getNearbyNodes()) {
-            if(node.getOwner()== player)
-                return true;
-        }
-
-        return false;
-    }
-
     @Override
     public void destroy() {
 
@@ -40,31 +40,6 @@ public class Vertex extends Node{
         return Piece.getPieceValue(getPiece().type);
     }
 
-    /**
-     * Method to determine whether or not there is a road nearby owned by the player that wants to settle.
-     * @param player - Player object of the user wanting to settle.
-     * @return True if there's a road nearby owned by the player that wants to settle.
-     */
-    public boolean isRoadNearby(Player player) {
-        for(Node node : getNearbyNodes())
-            if(node.getOwner() == player)
-                return true;
-        return false;
-    }
-
-    /**
-     * Method to determine whether or not the vertices nearby are occupied.
-     * @return True if there is a building on a nearby vertex.
-     */
-    public boolean isPieceNearby() {
-        for(Node node : getNearbyNodes())
-            for(Node deepNode : node.getNearbyNodes())
-                if(null != deepNode.getPiece())
-                    return true;
-
-        return false;
-    }
-
     @Override
     public void destroy() {
 
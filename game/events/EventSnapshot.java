@@ -0,0 +1,100 @@
+package events;
+
+import network.annotations.SerializableField;
+import network.events.NetworkEvent;
+
+/**
+ * A fragment of an encoded snapshot. Snapshots are split into fragments small enough for a datagram, which are
+ * reassembled by the receiver once every part of the same sequence and baseline was received.
+ */
+public class EventSnapshot extends NetworkEvent {
+
+    // Largest number of bytes of a snapshot held by a single fragment, well within a datagram
+    public static final int MAX_FRAGMENT_LENGTH = 1024;
+
+    // Largest number of fragments a snapshot may be split into
+    public static final int MAX_PARTS = 64;
+
+    @SerializableField
+    private int sequence;
+
+    @SerializableField
+    private int baseline;
+
+    @SerializableField
+    private int part;
+
+    @SerializableField
+    private int parts;
+
+    @SerializableField
+    private byte[] data;
+
+    public EventSnapshot() {
+        sequence = 0;
+        baseline = -1;
+        part = 0;
+        parts = 1;
+        data = new byte[0];
+    }
+
+    public EventSnapshot(int sequence, int baseline, int part, int parts, byte[] data) {
+        this.sequence = sequence;
+        this.baseline = baseline;
+        this.part = part;
+        this.parts = parts;
+        this.data = data;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the sequence number of the snapshot the data is a delta against.
+     * @return The baseline's sequence number, or -1 if the data holds a full snapshot
+     */
+    public int getBaseline() {
+        return baseline;
+    }
+
+    /**
+     * Returns the index of this fragment among the snapshot's fragments.
+     * @return Index of the fragment, from 0 to the number of parts minus one
+     */
+    public int getPart() {
+        return part;
+    }
+
+    public int getParts() {
+        return parts;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public boolean isDelta() {
+        return baseline >= 0;
+    }
+
+    public void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+
+    public void setBaseline(int baseline) {
+        this.baseline = baseline;
+    }
+
+    public void setPart(int part) {
+        this.part = part;
+    }
+
+    public void setParts(int parts) {
+        this.parts = parts;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+}
@@ -0,0 +1,26 @@
+package events;
+
+import network.annotations.SerializableField;
+import network.events.NetworkEvent;
+
+public class EventSnapshotAck extends NetworkEvent {
+
+    @SerializableField
+    private int sequence;
+
+    public EventSnapshotAck() {
+        sequence = 0;
+    }
+
+    public EventSnapshotAck(int sequence) {
+        this.sequence = sequence;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+}
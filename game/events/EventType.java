@@ -12,6 +12,9 @@ public class EventType {
     public static final int ROLL_REQUEST = 4;
     public static final int ROLL_RESULT = 5;
 
+    public static final int SNAPSHOT = 6;
+    public static final int SNAPSHOT_ACK = 7;
+
     public static final int TEST = Integer.MAX_VALUE;
 
 }
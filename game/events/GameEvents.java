@@ -0,0 +1,31 @@
+package events;
+
+import network.events.NetworkEvents;
+
+/**
+ * Registers the game's network events. Event IDs are assigned in registration order, so the server and its clients
+ * must register the same events in the same order before any is sent, which this class does in {@link EventType} order.
+ */
+public class GameEvents {
+
+    private static boolean registered = false;
+
+    /**
+     * Registers every game event, only the first call has any effect
+     */
+    public static synchronized void register() {
+        if(registered)
+            return;
+
+        NetworkEvents.register(EventGameStart.class);
+        NetworkEvents.register(EventResource.class);
+        NetworkEvents.register(EventTradeRequest.class);
+        NetworkEvents.register(EventTradeResult.class);
+        NetworkEvents.register(EventRollRequest.class);
+        NetworkEvents.register(EventRollResult.class);
+        NetworkEvents.register(EventSnapshot.class);
+        NetworkEvents.register(EventSnapshotAck.class);
+        registered = true;
+    }
+
+}
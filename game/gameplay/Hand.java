@@ -0,0 +1,106 @@
+package gameplay;
+
+import gameplay.rules.Board;
+
+import java.util.Arrays;
+
+/**
+ * A player's resource cards, one primitive count per resource type. Bulk operations take arrays indexed by resource,
+ * such as the piece prices, and never allocate.
+ */
+public class Hand {
+    // The number of resource types
+    public static final int RESOURCES = 5;
+
+    // Price of every piece type, indexed by resource. Shared, only handed out through the accessors below
+    private static final int[] ROAD_PRICE = {1, 1, 0, 0, 0}; // 1 WOOD, 1 BRICK
+    private static final int[] SETTLEMENT_PRICE = {1, 1, 1, 1, 0}; // 1 WOOD, 1 BRICK, 1 SHEEP, 1 WHEAT
+    private static final int[] CITY_PRICE = {0, 0, 0, 2, 3}; // 2 WHEAT, 3 ROCK
+
+    private final int[] counts = new int[RESOURCES];
+
+    public int get(int resource) {
+        return counts[resource];
+    }
+
+    public void set(int resource, int count) {
+        counts[resource] = count;
+    }
+
+    public void add(int resource, int count) {
+        counts[resource] += count;
+    }
+
+    public void remove(int resource, int count) {
+        counts[resource] -= count;
+    }
+
+    /**
+     * Adds a number of cards of every resource
+     * @param amounts - Number of cards to add, indexed by resource
+     */
+    public void add(int[] amounts) {
+        for(int r = 0; r < amounts.length; r ++)
+            counts[r] += amounts[r];
+    }
+
+    /**
+     * Removes a number of cards of every resource
+     * @param amounts - Number of cards to remove, indexed by resource
+     */
+    public void subtract(int[] amounts) {
+        for(int r = 0; r < amounts.length; r ++)
+            counts[r] -= amounts[r];
+    }
+
+    /**
+     * Determines whether the hand holds at least a number of cards of every resource
+     * @param price - Number of cards needed, indexed by resource
+     * @return True if every count is covered
+     */
+    public boolean canAfford(int[] price) {
+        for(int r = 0; r < price.length; r ++)
+            if(counts[r] < price[r])
+                return false;
+        return true;
+    }
+
+    public int getTotal() {
+        int total = 0;
+        for(int count : counts)
+            total += count;
+        return total;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+    }
+
+    /**
+     * Returns the number of cards of a resource needed to buy a piece, without allocating
+     * @param piece - Type of piece, one of the piece constants of {@link Board}
+     * @param resource - Type of resource
+     * @return Number of cards of the resource in the price of the piece
+     */
+    public static int getPrice(int piece, int resource) {
+        return price(piece)[resource];
+    }
+
+    /**
+     * Returns the price of a piece
+     * @param piece - Type of piece, one of the piece constants of {@link Board}
+     * @return A copy of the price of the piece, indexed by resource
+     */
+    public static int[] getPrice(int piece) {
+        return price(piece).clone();
+    }
+
+    private static int[] price(int piece) {
+        return switch (piece) {
+            case Board.ROAD -> ROAD_PRICE;
+            case Board.SETTLEMENT -> SETTLEMENT_PRICE;
+            case Board.CITY -> CITY_PRICE;
+            default -> throw new IllegalStateException("Unexpected value: " + piece);
+        };
+    }
+}
@@ -0,0 +1,356 @@
+package gameplay.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Headless game board: the tiles, the graph of nodes (vertices and sides) around them and the pieces placed on it. The
+ * tiles are laid out in the same ring order as {@link scripts.Tiles#generateTiles} and the nodes are numbered in the
+ * same order as {@link scripts.Tiles#generateNodes}, so indices are interchangeable with the rendered board's.
+ * <p>
+ * Node positions are keyed on an integer lattice (x in units of sqrt(3)/4, z in units of 1/4), on which every tile
+ * center, vertex and side falls exactly, so the graph is built in a single pass without any distance checks.
+ */
+public class Board {
+    // Tile types, same values as entities.board.Tile
+    public static final int WOOD = 0;
+    public static final int BRICK = 1;
+    public static final int SHEEP = 2;
+    public static final int WHEAT = 3;
+    public static final int STONE = 4;
+    public static final int DESERT = 5;
+
+    // Node types, same values as entities.board.nodes.Node
+    public static final int VERTEX = 0;
+    public static final int SIDE = 1;
+
+    // Piece types, same values as entities.board.Piece
+    public static final int NONE = -1;
+    public static final int ROAD = 0;
+    public static final int SETTLEMENT = 1;
+    public static final int CITY = 2;
+
+    // Standard tile counts per type and token counts per value (2 to 12), repeated for bigger boards
+    private static final int[] RESOURCE_COUNTS = { 4, 3, 4, 4, 3, 1 };
+    private static final int[] TOKEN_COUNTS = { 1, 2, 2, 2, 2, 0, 2, 2, 2, 2, 1 };
+
+    // Lattice offsets of the 12 nodes around a tile, starting with the side at 0 degrees and alternating with vertices
+    private static final int[] NODE_DX = { 2, 2, 1, 0, -1, -2, -2, -2, -1, 0, 1, 2 };
+    private static final int[] NODE_DZ = { 0, 2, 3, 4, 3, 2, 0, -2, -3, -4, -3, -2 };
+
+    // World units per lattice step
+    private static final double LATTICE_X = Math.sqrt(3) / 4;
+    private static final double LATTICE_Z = 0.25;
+
+    private final int radius;
+
+    // Tiles
+    private final int[] tileTypes;
+    private final int[] tileValues;
+    private final int[] tileQ;
+    private final int[] tileR;
+    private final int[][] tileVertices;
+    private final Map<Long, Integer> tileIndex = new HashMap<>();
+    private int robber;
+
+    // Nodes
+    private final int[] nodeTypes;
+    private final int[] nodeX;
+    private final int[] nodeZ;
+    private final Map<Long, Integer> nodeIndex = new HashMap<>();
+    private final int[][] nodeNeighbours;
+    private final int[][] vertexTiles;
+    private final int[] nodeOwners;
+    private final int[] nodePieces;
+
+    /**
+     * Constructor to create a board from a given layout
+     * @param radius - Radius of the board in tiles, including the center tile
+     * @param types - Type of every tile, in ring order
+     * @param values - Number that must be rolled for every tile, -1 for the desert
+     */
+    public Board(int radius, int[] types, int[] values) {
+        int tileCount = getTileCount(radius);
+        if(types.length != tileCount || values.length != tileCount)
+            throw new IllegalArgumentException("A board of radius " + radius + " has " + tileCount + " tiles");
+
+        this.radius = radius;
+        this.tileTypes = types.clone();
+        this.tileValues = values.clone();
+        this.tileQ = new int[tileCount];
+        this.tileR = new int[tileCount];
+        this.tileVertices = new int[tileCount][6];
+
+        generateTiles();
+
+        // Number the nodes in the order they are first met around each tile
+        List<Integer> nodeTypeList = new ArrayList<>();
+        List<Long> keys = new ArrayList<>();
+        int[][] tileNodes = new int[tileCount][12];
+        for(int t = 0; t < tileCount; t ++) {
+            int x = 2 * (tileR[t] + 2 * tileQ[t]);
+            int z = 6 * tileR[t];
+            tileIndex.put(key(x, z), t);
+            for(int n = 0; n < 12; n ++) {
+                long key = key(x + NODE_DX[n], z + NODE_DZ[n]);
+                Integer node = nodeIndex.get(key);
+                if(node == null) {
+                    node = nodeTypeList.size();
+                    nodeIndex.put(key, node);
+                    nodeTypeList.add(n % 2 == 0 ? SIDE : VERTEX);
+                    keys.add(key);
+                }
+                tileNodes[t][n] = node;
+                if(n % 2 == 1)
+                    tileVertices[t][n / 2] = node;
+            }
+        }
+
+        int nodeCount = nodeTypeList.size();
+        this.nodeTypes = new int[nodeCount];
+        this.nodeX = new int[nodeCount];
+        this.nodeZ = new int[nodeCount];
+        for(int n = 0; n < nodeCount; n ++) {
+            nodeTypes[n] = nodeTypeList.get(n);
+            nodeX[n] = (int) (keys.get(n) >> 32);
+            nodeZ[n] = (int) (long) keys.get(n);
+        }
+
+        // Every side links the two vertices on either side of it, every vertex the tiles around it
+        int[] degree = new int[nodeCount];
+        int[][] neighbours = new int[nodeCount][3];
+        int[] tileDegree = new int[nodeCount];
+        int[][] tiles = new int[nodeCount][3];
+        for(int t = 0; t < tileCount; t ++) {
+            for(int n = 0; n < 12; n += 2) {
+                int side = tileNodes[t][n];
+                for(int vertex : new int[] { tileNodes[t][(n + 11) % 12], tileNodes[t][n + 1] }) {
+                    if(!contains(neighbours[side], degree[side], vertex)) {
+                        neighbours[side][degree[side] ++] = vertex;
+                        neighbours[vertex][degree[vertex] ++] = side;
+                    }
+                }
+            }
+            for(int vertex : tileVertices[t])
+                tiles[vertex][tileDegree[vertex] ++] = t;
+        }
+
+        this.nodeNeighbours = new int[nodeCount][];
+        this.vertexTiles = new int[nodeCount][];
+        for(int n = 0; n < nodeCount; n ++) {
+            nodeNeighbours[n] = Arrays.copyOf(neighbours[n], degree[n]);
+            vertexTiles[n] = Arrays.copyOf(tiles[n], tileDegree[n]);
+        }
+
+        this.nodeOwners = new int[nodeCount];
+        this.nodePieces = new int[nodeCount];
+        Arrays.fill(nodeOwners, -1);
+        Arrays.fill(nodePieces, NONE);
+
+        this.robber = -1;
+        for(int t = 0; t < tileCount; t ++)
+            if(tileTypes[t] == DESERT) {
+                robber = t;
+                break;
+            }
+    }
+
+    /**
+     * Method generating a random board from the standard set of tiles and tokens, shuffled. Boards that are not a
+     * multiple of the standard set draw their extra tiles from a shuffled set, and always hold at least one desert
+     * @param radius - Radius of the board in tiles, including the center tile
+     * @param random - Random number generator used to shuffle the tiles and tokens
+     * @return A new board with a shuffled layout
+     */
+    public static Board generate(int radius, Random random) {
+        int tileCount = getTileCount(radius);
+
+        // Resource configuration, shuffled standard sets of tiles repeated until the board is full, so a partial set
+        // keeps the standard proportions of every type
+        List<Integer> types = new ArrayList<>();
+        List<Integer> set = new ArrayList<>();
+        for(int i = 0; i < RESOURCE_COUNTS.length; i ++)
+            for(int j = 0; j < RESOURCE_COUNTS[i]; j ++)
+                set.add(i);
+        while(types.size() < tileCount) {
+            Collections.shuffle(set, random);
+            types.addAll(set.subList(0, Math.min(set.size(), tileCount - types.size())));
+        }
+
+        // Every board holds at least one desert for the robber to start on
+        if(!types.contains(DESERT))
+            types.set(random.nextInt(tileCount), DESERT);
+        Collections.shuffle(types, random);
+
+        // Tokens in increasing order on the non-desert tiles, the standard set repeated as needed
+        int[] values = new int[tileCount];
+        Arrays.fill(values, -1);
+        int tIndex = 0;
+        outer:
+        while(true) {
+            for(int t = 0; t < TOKEN_COUNTS.length; t ++) {
+                for(int i = 0; i < TOKEN_COUNTS[t]; i ++) {
+                    while(tIndex < tileCount && types.get(tIndex) == DESERT)
+                        tIndex ++;
+                    if(tIndex >= tileCount)
+                        break outer;
+                    values[tIndex ++] = t + 2;
+                }
+            }
+        }
+
+        // Shuffle the tiles again with their tokens
+        Integer[] order = new Integer[tileCount];
+        for(int i = 0; i < tileCount; i ++)
+            order[i] = i;
+        List<Integer> shuffled = Arrays.asList(order);
+        Collections.shuffle(shuffled, random);
+
+        int[] tileTypes = new int[tileCount];
+        int[] tileValues = new int[tileCount];
+        for(int i = 0; i < tileCount; i ++) {
+            tileTypes[i] = types.get(shuffled.get(i));
+            tileValues[i] = values[shuffled.get(i)];
+        }
+
+        return new Board(radius, tileTypes, tileValues);
+    }
+
+    /**
+     * Returns the number of tiles on a board
+     * @param radius - Radius of the board in tiles, including the center tile
+     * @return Number of tiles on the board
+     */
+    public static int getTileCount(int radius) {
+        return 3 * radius * (radius - 1) + 1;
+    }
+
+    /**
+     * Returns the radius of a board from its number of tiles
+     * @param tileCount - Number of tiles on the board
+     * @return Radius of the board, or -1 if no board has this number of tiles
+     */
+    public static int getRadius(int tileCount) {
+        int radius = 1;
+        while(getTileCount(radius) < tileCount)
+            radius ++;
+        return getTileCount(radius) == tileCount ? radius : -1;
+    }
+
+    /**
+     * Lays out the tiles in rings from the outside in, same walk as {@link scripts.Tiles#generateTiles}
+     */
+    private void generateTiles() {
+        int[] hexCoords = new int[3];
+        int zeroIndex = 1;
+        int hIndex = 2;
+        int unitIncrement = 0;
+
+        int tIndex = 0;
+
+        for(int i = radius - 1; i > 0; i --) {
+            hexCoords[0] = i;
+            hexCoords[1] = 0;
+            hexCoords[2] = -i;
+
+            for(int t = 0; t < i * 6; t ++) {
+                tileQ[tIndex] = hexCoords[0];
+                tileR[tIndex] = hexCoords[2];
+
+                if(hexCoords[hIndex] == 0) {
+                    hIndex = (hIndex + 1) % 3;
+                    zeroIndex = (zeroIndex + 1) % 3;
+                }
+
+                if(hexCoords[hIndex] < 0)
+                    unitIncrement = -1;
+                else if(hexCoords[hIndex] > 0)
+                    unitIncrement = 1;
+
+                hexCoords[zeroIndex] += unitIncrement;
+                hexCoords[hIndex] += (unitIncrement * -1);
+
+                tIndex ++;
+            }
+        }
+
+        tileQ[tIndex] = 0;
+        tileR[tIndex] = 0;
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Finds the node at a position in world space
+     * @param x - X coordinate of the position
+     * @param z - Z coordinate of the position
+     * @return Index of the node at the position, or -1 if there is none
+     */
+    public int getNodeAt(float x, float z) {
+        Integer node = nodeIndex.get(key((int) Math.round(x / LATTICE_X), (int) Math.round(z / LATTICE_Z)));
+        return node != null ? node : -1;
+    }
+
+    /**
+     * Finds the tile centered at a position in world space
+     * @param x - X coordinate of the position
+     * @param z - Z coordinate of the position
+     * @return Index of the tile centered at the position, or -1 if there is none
+     */
+    public int getTileAt(float x, float z) {
+        Integer tile = tileIndex.get(key((int) Math.round(x / LATTICE_X), (int) Math.round(z / LATTICE_Z)));
+        return tile != null ? tile : -1;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for(int i = 0; i < length; i ++)
+            if(values[i] == value)
+                return true;
+        return false;
+    }
+
+    /**
+     * Places or upgrades a piece without checking any rule
+     * @param node - Node on which to place the piece
+     * @param player - Seat of the player who owns the piece
+     * @param piece - Type of piece
+     */
+    public void setPiece(int node, int player, int piece) {
+        nodeOwners[node] = player;
+        nodePieces[node] = piece;
+    }
+
+    public void setRobber(int tile) {
+        robber = tile;
+    }
+
+    // Tiles
+    public int getRadius() { return radius; }
+    public int getTileCount() { return tileTypes.length; }
+    public int getTileType(int tile) { return tileTypes[tile]; }
+    public int getTileValue(int tile) { return tileValues[tile]; }
+    public int getTileQ(int tile) { return tileQ[tile]; }
+    public int getTileR(int tile) { return tileR[tile]; }
+    public int[] getTileVertices(int tile) { return tileVertices[tile]; }
+    public int getRobber() { return robber; }
+    public boolean isTile(int tile) { return tile >= 0 && tile < tileTypes.length; }
+
+    // Nodes
+    public int getNodeCount() { return nodeTypes.length; }
+    public boolean isNode(int node) { return node >= 0 && node < nodeTypes.length; }
+    public int getNodeType(int node) { return nodeTypes[node]; }
+    public float getNodeX(int node) { return (float) (nodeX[node] * LATTICE_X); }
+    public float getNodeZ(int node) { return (float) (nodeZ[node] * LATTICE_Z); }
+    public int[] getNeighbours(int node) { return nodeNeighbours[node]; }
+    public int[] getVertexTiles(int vertex) { return vertexTiles[vertex]; }
+    public int getOwner(int node) { return nodeOwners[node]; }
+    public int getPiece(int node) { return nodePieces[node]; }
+    public boolean isEmpty(int node) { return nodeOwners[node] < 0; }
+}
@@ -0,0 +1,12 @@
+package gameplay.rules;
+
+/**
+ * Phases of a turn, mirroring the rendered game's states
+ */
+public enum Phase {
+    SETTING_UP,
+    ROLLING,
+    SETTLING,
+    STEALING,
+    FINISHED
+}
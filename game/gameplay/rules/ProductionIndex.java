@@ -0,0 +1,107 @@
+package gameplay.rules;
+
+/**
+ * Index of the payouts of every dice roll on a {@link Board}. Each roll value maps to a flat array of packed
+ * (player, resource, amount) payouts, one per building next to an unblocked tile with that value, so resolving a roll
+ * is a single walk over an array with no allocation. The payouts of a roll value are rebuilt when a building is placed
+ * next to one of its tiles or the robber moves on or off one of them, which only visits those few tiles.
+ */
+public class ProductionIndex {
+    private final Board board;
+
+    // Tiles by roll value
+    private final int[][] rollTiles = new int[13][];
+
+    // Packed payouts by roll value, valid up to the payout count
+    private final int[][] payouts = new int[13][];
+    private final int[] payoutCounts = new int[13];
+
+    /**
+     * Constructor to index a board, including the pieces already placed on it
+     * @param board - Board to index
+     */
+    public ProductionIndex(Board board) {
+        this.board = board;
+
+        int[] counts = new int[13];
+        for(int t = 0; t < board.getTileCount(); t ++)
+            if(isRollValue(board.getTileValue(t)))
+                counts[board.getTileValue(t)] ++;
+
+        for(int roll = 0; roll < 13; roll ++) {
+            rollTiles[roll] = new int[counts[roll]];
+            payouts[roll] = new int[counts[roll] * 6];
+            counts[roll] = 0;
+        }
+        for(int t = 0; t < board.getTileCount(); t ++)
+            if(isRollValue(board.getTileValue(t)))
+                rollTiles[board.getTileValue(t)][counts[board.getTileValue(t)] ++] = t;
+
+        for(int roll = 2; roll <= 12; roll ++)
+            rebuild(roll);
+    }
+
+    /**
+     * Updates the payouts of the tiles around a vertex after a building was placed or upgraded on it
+     * @param vertex - Vertex on which the building stands
+     */
+    public void onPiecePlaced(int vertex) {
+        if(board.getNodeType(vertex) != Board.VERTEX)
+            return;
+        for(int tile : board.getVertexTiles(vertex))
+            rebuild(board.getTileValue(tile));
+    }
+
+    /**
+     * Updates the payouts of the tiles the robber moved between
+     * @param from - Tile the robber left, or -1
+     * @param to - Tile the robber now blocks, or -1
+     */
+    public void onRobberMoved(int from, int to) {
+        if(from >= 0)
+            rebuild(board.getTileValue(from));
+        if(to >= 0)
+            rebuild(board.getTileValue(to));
+    }
+
+    private void rebuild(int roll) {
+        if(!isRollValue(roll))
+            return;
+
+        int[] rollPayouts = payouts[roll];
+        int count = 0;
+        for(int tile : rollTiles[roll]) {
+            if(tile == board.getRobber())
+                continue;
+            for(int vertex : board.getTileVertices(tile)) {
+                int owner = board.getOwner(vertex);
+                if(owner >= 0)
+                    rollPayouts[count ++] = pack(owner, board.getTileType(tile), board.getPiece(vertex) == Board.CITY ? 2 : 1);
+            }
+        }
+        payoutCounts[roll] = count;
+    }
+
+    private static boolean isRollValue(int value) {
+        return value >= 2 && value <= 12;
+    }
+
+    /**
+     * Returns the payouts of a roll, to be read up to {@link #getPayoutCount}
+     * @param roll - Sum of the dice
+     * @return Packed payouts of the roll, decoded with {@link #getPlayer}, {@link #getResource} and {@link #getAmount}
+     */
+    public int[] getPayouts(int roll) {
+        return payouts[roll];
+    }
+
+    public int getPayoutCount(int roll) {
+        return isRollValue(roll) ? payoutCounts[roll] : 0;
+    }
+
+    // Packed payouts
+    private static int pack(int player, int resource, int amount) { return player << 16 | resource << 8 | amount; }
+    public static int getPlayer(int payout) { return payout >>> 16; }
+    public static int getResource(int payout) { return (payout >>> 8) & 0xFF; }
+    public static int getAmount(int payout) { return payout & 0xFF; }
+}
@@ -0,0 +1,399 @@
+package gameplay.rules;
+
+import gameplay.Hand;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Headless, deterministic rules engine, the single implementation of the game's rules (setup in snake order, rolling,
+ * settling, moving the robber, trading with the bank and winning) applied to a {@link Board} and the players' hands,
+ * without any dependency on rendering. The rendered game's states call its actions and the scene mirrors its events,
+ * while the simulator plays it directly. The rendered game does not offer the bank trade yet. Every random decision is
+ * drawn from a generator given by the caller, so a seeded game is fully determined by its seed and the actions taken.
+ * <p>
+ * Players are identified by their seat, from 0 to the player count minus one. Every action returns whether it was
+ * legal, an illegal action leaves the game unchanged.
+ */
+public class Rules {
+    // Victory points needed to win
+    public static final int VICTORY_POINTS = 10;
+
+    // Resources given to the bank for one resource of choice
+    public static final int BANK_TRADE_RATE = 4;
+
+    private final Board board;
+    private final ProductionIndex production;
+    private final Random random;
+
+    private final int playerCount;
+    private final Hand[] hands;
+    private final int[] points;
+
+    private final List<RulesEventSubject> subjects = new ArrayList<>();
+
+    private Phase phase = Phase.SETTING_UP;
+    private int turn = 0;
+    private int winner = -1;
+
+    // Setup progress, a settlement then a road per player in snake order
+    private int setupStep = 0;
+    private boolean setupRoad = false;
+
+    private int lastRoll = 0;
+
+    /**
+     * Constructor to create a game on a randomly generated board
+     * @param radius - Radius of the board in tiles
+     * @param playerCount - Number of players
+     * @param seed - Seed from which the board and every dice roll are drawn
+     */
+    public Rules(int radius, int playerCount, long seed) {
+        this(playerCount, new Random(seed), radius);
+    }
+
+    private Rules(int playerCount, Random random, int radius) {
+        this(Board.generate(radius, random), playerCount, random);
+    }
+
+    /**
+     * Constructor to create a game on a given board
+     * @param board - Board to play on, possibly with pieces already placed
+     * @param playerCount - Number of players
+     * @param random - Random number generator for the dice
+     */
+    public Rules(Board board, int playerCount, Random random) {
+        this.board = board;
+        this.production = new ProductionIndex(board);
+        this.random = random;
+        this.playerCount = playerCount;
+        this.hands = new Hand[playerCount];
+        for(int p = 0; p < playerCount; p ++)
+            hands[p] = new Hand();
+        this.points = new int[playerCount];
+    }
+
+    public void register(RulesEventSubject subject) {
+        subjects.add(subject);
+    }
+
+    // Setup
+
+    /**
+     * Places a settlement during setup, rewarding the adjacent tiles' resources in the second round
+     * @param vertex - Vertex on which to settle
+     * @return True if the settlement was placed
+     */
+    public boolean placeInitialSettlement(int vertex) {
+        if(phase != Phase.SETTING_UP || setupRoad || !canSettle(vertex))
+            return false;
+
+        int player = getCurrentPlayer();
+        place(player, vertex, Board.SETTLEMENT);
+        setupRoad = true;
+
+        if(setupStep >= playerCount)
+            for(int tile : board.getVertexTiles(vertex))
+                if(board.getTileType(tile) != Board.DESERT)
+                    addResources(player, board.getTileType(tile), 1);
+        return true;
+    }
+
+    /**
+     * Places a road during setup, next to one of the player's buildings
+     * @param side - Side on which to place the road
+     * @return True if the road was placed
+     */
+    public boolean placeInitialRoad(int side) {
+        int player = getCurrentPlayer();
+        if(phase != Phase.SETTING_UP || !setupRoad || !isEmptySide(side) || !isAlliedBuildingNearby(side, player))
+            return false;
+
+        place(player, side, Board.ROAD);
+        setupRoad = false;
+
+        if(++ setupStep == 2 * playerCount) {
+            turn = 0;
+            setPhase(Phase.ROLLING);
+        }
+        subjects.forEach(s -> s.onTurnStarted(getCurrentPlayer()));
+        return true;
+    }
+
+    // Turn
+
+    /**
+     * Rolls both dice, producing resources or moving to the robber phase on a 7
+     * @return Sum of the dice, or 0 if dice cannot be rolled now
+     */
+    public int roll() {
+        if(phase != Phase.ROLLING)
+            return 0;
+
+        int die1 = random.nextInt(6) + 1;
+        int die2 = random.nextInt(6) + 1;
+        lastRoll = die1 + die2;
+        subjects.forEach(s -> s.onDiceRolled(die1, die2));
+
+        if(lastRoll == 7) {
+            setPhase(Phase.STEALING);
+        } else {
+            produce(lastRoll);
+            setPhase(Phase.SETTLING);
+        }
+        return lastRoll;
+    }
+
+    /**
+     * Moves the robber to another tile
+     * @param tile - Tile to block
+     * @return True if the robber was moved
+     */
+    public boolean moveRobber(int tile) {
+        if(phase != Phase.STEALING || !board.isTile(tile) || tile == board.getRobber())
+            return false;
+
+        placeRobber(tile);
+        setPhase(Phase.SETTLING);
+        return true;
+    }
+
+    public boolean buildSettlement(int vertex) {
+        int player = getCurrentPlayer();
+        if(phase != Phase.SETTLING || !canSettle(vertex) || !isRoadNearby(vertex, player) || !canAfford(player, Board.SETTLEMENT))
+            return false;
+
+        pay(player, Board.SETTLEMENT);
+        place(player, vertex, Board.SETTLEMENT);
+        return true;
+    }
+
+    public boolean buildCity(int vertex) {
+        int player = getCurrentPlayer();
+        if(phase != Phase.SETTLING || !board.isNode(vertex) || board.getOwner(vertex) != player || board.getPiece(vertex) != Board.SETTLEMENT || !canAfford(player, Board.CITY))
+            return false;
+
+        pay(player, Board.CITY);
+        place(player, vertex, Board.CITY);
+        return true;
+    }
+
+    public boolean buildRoad(int side) {
+        int player = getCurrentPlayer();
+        if(phase != Phase.SETTLING || !isEmptySide(side) ||
+           !(isAlliedBuildingNearby(side, player) || isAlliedRoadNearby(side, player)) ||
+           !canAfford(player, Board.ROAD))
+            return false;
+
+        pay(player, Board.ROAD);
+        place(player, side, Board.ROAD);
+        return true;
+    }
+
+    /**
+     * Trades resources with the bank at {@link #BANK_TRADE_RATE} to one
+     * @param give - Resource given to the bank
+     * @param get - Resource received from the bank
+     * @return True if the trade was made
+     */
+    public boolean tradeWithBank(int give, int get) {
+        int player = getCurrentPlayer();
+        if(phase != Phase.SETTLING || !isResource(give) || !isResource(get) || give == get ||
+           hands[player].get(give) < BANK_TRADE_RATE)
+            return false;
+
+        addResources(player, give, -BANK_TRADE_RATE);
+        addResources(player, get, 1);
+        return true;
+    }
+
+    public boolean endTurn() {
+        if(phase != Phase.SETTLING)
+            return false;
+
+        turn ++;
+        setPhase(Phase.ROLLING);
+        subjects.forEach(s -> s.onTurnStarted(getCurrentPlayer()));
+        return true;
+    }
+
+    // Restoring
+
+    /**
+     * Places a piece without checking any rule or charging its price, to bring the game up to date with a state
+     * captured elsewhere. A city must be restored over a settlement of the same player
+     * @param player - Seat of the piece's owner
+     * @param node - Node on which to place the piece
+     * @param piece - Type of piece
+     * @return True if the piece was placed
+     */
+    public boolean restorePiece(int player, int node, int piece) {
+        if(player < 0 || player >= playerCount || !board.isNode(node) || piece < Board.ROAD || piece > Board.CITY)
+            return false;
+        if(piece == Board.CITY ? board.getOwner(node) != player || board.getPiece(node) != Board.SETTLEMENT : !board.isEmpty(node))
+            return false;
+
+        place(player, node, piece);
+        return true;
+    }
+
+    /**
+     * Sets a player's number of cards of a resource, to bring the game up to date with a state captured elsewhere
+     * @param player - Seat of the player
+     * @param resource - Resource to set
+     * @param count - Number of cards the player holds
+     * @return True if the hand was set
+     */
+    public boolean restoreResourceCards(int player, int resource, int count) {
+        if(player < 0 || player >= playerCount || resource < 0 || resource >= Hand.RESOURCES)
+            return false;
+
+        if(count != hands[player].get(resource))
+            addResources(player, resource, count - hands[player].get(resource));
+        return true;
+    }
+
+    /**
+     * Moves the robber without changing phase, to bring the game up to date with a state captured elsewhere
+     * @param tile - Tile to block
+     * @return True if the robber is on the tile
+     */
+    public boolean restoreRobber(int tile) {
+        if(!board.isTile(tile))
+            return false;
+
+        if(tile != board.getRobber())
+            placeRobber(tile);
+        return true;
+    }
+
+    // Rule checks
+
+    /**
+     * Determines whether a vertex is free and no building stands on a vertex next to it
+     * @param vertex - Vertex to check, out of range indices are never free
+     * @return True if a settlement may stand on the vertex
+     */
+    public boolean canSettle(int vertex) {
+        if(!board.isNode(vertex) || board.getNodeType(vertex) != Board.VERTEX || !board.isEmpty(vertex))
+            return false;
+
+        for(int side : board.getNeighbours(vertex))
+            for(int other : board.getNeighbours(side))
+                if(board.getPiece(other) != Board.NONE)
+                    return false;
+        return true;
+    }
+
+    public boolean isRoadNearby(int vertex, int player) {
+        for(int side : board.getNeighbours(vertex))
+            if(board.getOwner(side) == player)
+                return true;
+        return false;
+    }
+
+    public boolean isAlliedBuildingNearby(int side, int player) {
+        for(int vertex : board.getNeighbours(side))
+            if(board.getOwner(vertex) == player)
+                return true;
+        return false;
+    }
+
+    public boolean isAlliedRoadNearby(int side, int player) {
+        for(int vertex : board.getNeighbours(side))
+            for(int other : board.getNeighbours(vertex))
+                if(board.getOwner(other) == player)
+                    return true;
+        return false;
+    }
+
+    public boolean canAfford(int player, int piece) {
+        for(int r = 0; r < Hand.RESOURCES; r ++)
+            if(hands[player].get(r) < Hand.getPrice(piece, r))
+                return false;
+        return true;
+    }
+
+    private static boolean isResource(int resource) {
+        return resource >= 0 && resource < Hand.RESOURCES;
+    }
+
+    private boolean isEmptySide(int side) {
+        return board.isNode(side) && board.getNodeType(side) == Board.SIDE && board.isEmpty(side);
+    }
+
+
+    // State changes
+
+    private void place(int player, int node, int piece) {
+        board.setPiece(node, player, piece);
+        production.onPiecePlaced(node);
+        subjects.forEach(s -> s.onPiecePlaced(player, node, piece));
+
+        if(piece == Board.SETTLEMENT || piece == Board.CITY) {
+            points[player] ++;
+            if(points[player] >= VICTORY_POINTS && winner < 0) {
+                winner = player;
+                setPhase(Phase.FINISHED);
+                subjects.forEach(s -> s.onGameWon(player));
+            }
+        }
+    }
+
+    private void placeRobber(int tile) {
+        int previous = board.getRobber();
+        board.setRobber(tile);
+        production.onRobberMoved(previous, tile);
+        subjects.forEach(s -> s.onRobberMoved(tile));
+    }
+
+    private void pay(int player, int piece) {
+        for(int r = 0; r < Hand.RESOURCES; r ++) {
+            int price = Hand.getPrice(piece, r);
+            if(price > 0)
+                addResources(player, r, -price);
+        }
+    }
+
+    private void produce(int roll) {
+        int[] payouts = production.getPayouts(roll);
+        for(int i = 0, count = production.getPayoutCount(roll); i < count; i ++)
+            addResources(ProductionIndex.getPlayer(payouts[i]), ProductionIndex.getResource(payouts[i]), ProductionIndex.getAmount(payouts[i]));
+    }
+
+    private void addResources(int player, int resource, int count) {
+        hands[player].add(resource, count);
+        subjects.forEach(s -> s.onHandChanged(player, resource, count));
+    }
+
+    private void setPhase(Phase phase) {
+        if(this.phase == Phase.FINISHED)
+            return;
+        this.phase = phase;
+        subjects.forEach(s -> s.onPhaseChanged(phase));
+    }
+
+    // Getters
+
+    /**
+     * Returns the seat of the player whose turn it is, setup runs in order then in reverse order
+     * @return Seat of the current player
+     */
+    public int getCurrentPlayer() {
+        if(phase == Phase.SETTING_UP)
+            return setupStep < playerCount ? setupStep : 2 * playerCount - 1 - setupStep;
+        return turn % playerCount;
+    }
+
+    public Board getBoard() { return board; }
+    public Phase getPhase() { return phase; }
+    public int getPlayerCount() { return playerCount; }
+    public int getTurn() { return turn; }
+    public int getLastRoll() { return lastRoll; }
+    public int getWinner() { return winner; }
+    public int getPoints(int player) { return points[player]; }
+    public int getResourceCards(int player, int resource) { return hands[player].get(resource); }
+    public Hand getHand(int player) { return hands[player]; }
+    public boolean isSettingUpRoad() { return setupRoad; }
+}
@@ -0,0 +1,20 @@
+package gameplay.rules;
+
+/**
+ * Receives the events of a {@link Rules} engine, every method does nothing by default
+ */
+public interface RulesEventSubject {
+    default void onPhaseChanged(Phase phase) {}
+
+    default void onTurnStarted(int player) {}
+
+    default void onDiceRolled(int die1, int die2) {}
+
+    default void onPiecePlaced(int player, int node, int piece) {}
+
+    default void onHandChanged(int player, int resource, int count) {}
+
+    default void onRobberMoved(int tile) {}
+
+    default void onGameWon(int player) {}
+}
@@ -0,0 +1,16 @@
+package gameplay.simulation;
+
+import gameplay.rules.Rules;
+
+/**
+ * A scripted player for headless games
+ */
+public interface Bot {
+    /**
+     * Takes the next step of the current player's turn: a setup placement, a roll, a robber move, or every build and
+     * trade of the settling phase followed by the end of the turn
+     * @param rules - Game in which it is this bot's turn
+     * @return True if the step was taken, false if the bot has no legal move left and gives up the game
+     */
+    boolean play(Rules rules);
+}
@@ -0,0 +1,192 @@
+package gameplay.simulation;
+
+import gameplay.Hand;
+import gameplay.rules.Board;
+import gameplay.rules.Phase;
+import gameplay.rules.Rules;
+
+import java.util.Random;
+
+/**
+ * Greedy bot that settles on the vertices with the best production odds, upgrades to cities first, builds roads
+ * towards free vertices and trades its surplus with the bank for what it lacks. Ties are broken with its own seeded
+ * generator, so games remain deterministic.
+ */
+public class ScriptedBot implements Bot {
+    private final Random random;
+
+    // Production score of every vertex, computed once per board
+    private Board scoredBoard;
+    private int[] vertexScores;
+
+    public ScriptedBot(long seed) {
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public boolean play(Rules rules) {
+        Board board = rules.getBoard();
+        if(board != scoredBoard)
+            scoreVertices(board);
+
+        int player = rules.getCurrentPlayer();
+        switch(rules.getPhase()) {
+            case SETTING_UP -> {
+                if(rules.isSettingUpRoad()) {
+                    int road = pickRoad(rules, player);
+                    return road >= 0 && rules.placeInitialRoad(road);
+                }
+                int settlement = pickSettlement(rules, player, false);
+                return settlement >= 0 && rules.placeInitialSettlement(settlement);
+            }
+            case ROLLING -> {
+                return rules.roll() > 0;
+            }
+            case STEALING -> {
+                int tile = pickRobberTile(rules, player);
+                return tile >= 0 && rules.moveRobber(tile);
+            }
+            case SETTLING -> {
+                settle(rules, player);
+                return rules.endTurn();
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    private void settle(Rules rules, int player) {
+        boolean built = true;
+        while(built) {
+            built = false;
+
+            int city = pickCity(rules, player);
+            if(city >= 0 && rules.buildCity(city)) {
+                built = true;
+                continue;
+            }
+
+            int settlement = pickSettlement(rules, player, true);
+            if(settlement >= 0 && rules.buildSettlement(settlement)) {
+                built = true;
+                continue;
+            }
+
+            // Only build roads when no settlement spot is reachable yet
+            if(settlement < 0 && rules.canAfford(player, Board.ROAD)) {
+                int road = pickRoad(rules, player);
+                if(road >= 0 && rules.buildRoad(road)) {
+                    built = true;
+                    continue;
+                }
+            }
+
+            built = trade(rules, player);
+        }
+    }
+
+    /**
+     * Trades the most plentiful resource, keeping one card of it, for a resource the bot has none of
+     */
+    private boolean trade(Rules rules, int player) {
+        int give = -1;
+        int get = -1;
+        for(int r = 0; r < Hand.RESOURCES; r ++) {
+            int count = rules.getResourceCards(player, r);
+            if(count >= Rules.BANK_TRADE_RATE + 1 && (give < 0 || count > rules.getResourceCards(player, give)))
+                give = r;
+            if(count == 0 && (get < 0 || random.nextBoolean()))
+                get = r;
+        }
+        return give >= 0 && get >= 0 && rules.tradeWithBank(give, get);
+    }
+
+    private int pickSettlement(Rules rules, int player, boolean connected) {
+        Board board = rules.getBoard();
+        int best = -1;
+        for(int n = 0; n < board.getNodeCount(); n ++) {
+            if(!rules.canSettle(n) || (connected && !rules.isRoadNearby(n, player)))
+                continue;
+            if(best < 0 || vertexScores[n] > vertexScores[best] || (vertexScores[n] == vertexScores[best] && random.nextBoolean()))
+                best = n;
+        }
+        return best;
+    }
+
+    private int pickCity(Rules rules, int player) {
+        Board board = rules.getBoard();
+        int best = -1;
+        for(int n = 0; n < board.getNodeCount(); n ++)
+            if(board.getOwner(n) == player && board.getPiece(n) == Board.SETTLEMENT && (best < 0 || vertexScores[n] > vertexScores[best]))
+                best = n;
+        return best;
+    }
+
+    /**
+     * Picks a free side connected to the player's network, preferring sides leading to a vertex that can be settled
+     */
+    private int pickRoad(Rules rules, int player) {
+        Board board = rules.getBoard();
+        int best = -1;
+        int bestScore = -1;
+        for(int n = 0; n < board.getNodeCount(); n ++) {
+            if(board.getNodeType(n) != Board.SIDE || !board.isEmpty(n))
+                continue;
+            if(!rules.isAlliedBuildingNearby(n, player) && (rules.getPhase() != Phase.SETTLING || !rules.isAlliedRoadNearby(n, player)))
+                continue;
+
+            int score = 0;
+            for(int vertex : board.getNeighbours(n))
+                if(rules.canSettle(vertex))
+                    score = Math.max(score, vertexScores[vertex]);
+            if(score > bestScore || (score == bestScore && random.nextBoolean())) {
+                best = n;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Picks the tile that blocks the most production of the other players and none of this player's
+     */
+    private int pickRobberTile(Rules rules, int player) {
+        Board board = rules.getBoard();
+        int best = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for(int t = 0; t < board.getTileCount(); t ++) {
+            if(t == board.getRobber())
+                continue;
+
+            int score = 0;
+            for(int vertex : board.getTileVertices(t)) {
+                int owner = board.getOwner(vertex);
+                if(owner >= 0)
+                    score += (owner == player ? -2 : 1) * board.getPiece(vertex);
+            }
+            score = score * 8 + pips(board.getTileValue(t));
+            if(score > bestScore) {
+                best = t;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private void scoreVertices(Board board) {
+        scoredBoard = board;
+        vertexScores = new int[board.getNodeCount()];
+        for(int n = 0; n < board.getNodeCount(); n ++)
+            if(board.getNodeType(n) == Board.VERTEX)
+                for(int tile : board.getVertexTiles(n))
+                    vertexScores[n] += pips(board.getTileValue(tile));
+    }
+
+    /**
+     * Returns the number of the 36 dice combinations that roll a value
+     */
+    private static int pips(int value) {
+        return value < 2 || value > 12 ? 0 : 6 - Math.abs(7 - value);
+    }
+}
@@ -0,0 +1,132 @@
+package gameplay.simulation;
+
+import gameplay.Hand;
+
+import java.util.Arrays;
+
+/**
+ * Aggregated results of simulated games. Each simulation thread fills its own report, which are merged once every game
+ * is played, so threads never contend on shared counters. Win rates, turns and incomes only cover finished games, since
+ * the length of an abandoned game is set by the simulation's limits rather than by the board. Abandoned games are only
+ * counted.
+ */
+public class SimulationReport {
+    private final int playerCount;
+
+    private long games = 0;
+    private long unfinished = 0;
+    private long turns = 0;
+    private long durationNanos = 0;
+
+    // Wins by seat
+    private final long[] wins;
+
+    // Income from rolls by seat and resource, summed over every finished game
+    private final long[][] income;
+
+    // Per finished game income by seat, for the spread of incomes
+    private final double[] incomeSum;
+    private final double[] incomeSquares;
+    private final long[] incomeMin;
+    private final long[] incomeMax;
+
+    public SimulationReport(int playerCount) {
+        this.playerCount = playerCount;
+        this.wins = new long[playerCount];
+        this.income = new long[playerCount][Hand.RESOURCES];
+        this.incomeSum = new double[playerCount];
+        this.incomeSquares = new double[playerCount];
+        this.incomeMin = new long[playerCount];
+        this.incomeMax = new long[playerCount];
+        Arrays.fill(incomeMin, Long.MAX_VALUE);
+    }
+
+    /**
+     * Records the outcome of a game, only counting it if it was abandoned
+     * @param winner - Seat of the winner, or -1 if the game was abandoned
+     * @param turnCount - Number of turns played
+     * @param gameIncome - Income from rolls in the game by seat and resource
+     */
+    public void record(int winner, int turnCount, int[][] gameIncome) {
+        games ++;
+        if(winner < 0) {
+            unfinished ++;
+            return;
+        }
+
+        turns += turnCount;
+        wins[winner] ++;
+        for(int p = 0; p < playerCount; p ++) {
+            long total = 0;
+            for(int r = 0; r < Hand.RESOURCES; r ++) {
+                income[p][r] += gameIncome[p][r];
+                total += gameIncome[p][r];
+            }
+            incomeSum[p] += total;
+            incomeSquares[p] += (double) total * total;
+            incomeMin[p] = Math.min(incomeMin[p], total);
+            incomeMax[p] = Math.max(incomeMax[p], total);
+        }
+    }
+
+    /**
+     * Adds the results of another report to this one
+     * @param other - Report of the same player count
+     */
+    public void merge(SimulationReport other) {
+        games += other.games;
+        unfinished += other.unfinished;
+        turns += other.turns;
+        for(int p = 0; p < playerCount; p ++) {
+            wins[p] += other.wins[p];
+            for(int r = 0; r < Hand.RESOURCES; r ++)
+                income[p][r] += other.income[p][r];
+            incomeSum[p] += other.incomeSum[p];
+            incomeSquares[p] += other.incomeSquares[p];
+            incomeMin[p] = Math.min(incomeMin[p], other.incomeMin[p]);
+            incomeMax[p] = Math.max(incomeMax[p], other.incomeMax[p]);
+        }
+    }
+
+    public void setDuration(long durationNanos) {
+        this.durationNanos = durationNanos;
+    }
+
+    public long getGames() { return games; }
+    public long getFinished() { return games - unfinished; }
+    public long getUnfinished() { return unfinished; }
+    public long getWins(int seat) { return wins[seat]; }
+
+    // Statistics of finished games
+    public double getWinRate(int seat) { return getFinished() > 0 ? (double) wins[seat] / getFinished() : 0; }
+    public double getMeanIncome(int seat) { return getFinished() > 0 ? incomeSum[seat] / getFinished() : 0; }
+    public double getMeanIncome(int seat, int resource) { return getFinished() > 0 ? (double) income[seat][resource] / getFinished() : 0; }
+    public double getAverageTurns() { return getFinished() > 0 ? (double) turns / getFinished() : 0; }
+    public double getGamesPerSecond() { return durationNanos > 0 ? games * 1e9 / durationNanos : 0; }
+
+    public double getIncomeDeviation(int seat) {
+        if(getFinished() == 0)
+            return 0;
+        double mean = getMeanIncome(seat);
+        return Math.sqrt(Math.max(0, incomeSquares[seat] / getFinished() - mean * mean));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%d games in %.2f s, %.0f games/s, %d unfinished%n",
+                games, durationNanos / 1e9, getGamesPerSecond(), unfinished));
+        builder.append(String.format("%d finished games, %.1f turns/game%n", getFinished(), getAverageTurns()));
+        builder.append(String.format("%-6s %8s %10s %8s %6s %6s   %6s %6s %6s %6s %6s%n",
+                "seat", "win %", "income", "stddev", "min", "max", "wood", "brick", "sheep", "wheat", "stone"));
+        for(int p = 0; p < playerCount; p ++) {
+            builder.append(String.format("%-6d %7.2f%% %10.2f %8.2f %6d %6d  ",
+                    p, getWinRate(p) * 100, getMeanIncome(p), getIncomeDeviation(p),
+                    getFinished() > 0 ? incomeMin[p] : 0, getFinished() > 0 ? incomeMax[p] : 0));
+            for(int r = 0; r < Hand.RESOURCES; r ++)
+                builder.append(String.format(" %6.2f", getMeanIncome(p, r)));
+            builder.append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+}
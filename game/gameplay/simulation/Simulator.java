@@ -0,0 +1,127 @@
+package gameplay.simulation;
+
+import gameplay.Hand;
+import gameplay.rules.Phase;
+import gameplay.rules.Rules;
+import gameplay.rules.RulesEventSubject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays seeded headless games between scripted bots on every core and aggregates the results. Game i is played with
+ * seed {@code baseSeed + i}, which fixes its board, its dice and its bots, so results do not depend on the number of
+ * threads. Threads claim games in small chunks from a shared counter to stay busy until the last game, and each one
+ * aggregates into its own {@link SimulationReport}.
+ * <p>
+ * Usage: {@code Simulator [games] [threads] [players] [radius] [seed]}
+ */
+public class Simulator {
+    // Games claimed by a thread at once
+    private static final int CHUNK_SIZE = 64;
+
+    // Turns after which a game is abandoned
+    public static final int MAX_TURNS = 1000;
+
+    // Bot steps after which a game is abandoned, also bounding the setup where turns do not advance
+    public static final int MAX_STEPS = 4 * MAX_TURNS;
+
+    private final int playerCount;
+    private final int radius;
+    private final int threads;
+
+    public Simulator(int playerCount, int radius, int threads) {
+        this.playerCount = playerCount;
+        this.radius = radius;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Plays a number of games across the simulator's threads
+     * @param games - Number of games to play
+     * @param baseSeed - Seed of the first game
+     * @return Aggregated results of every game
+     * @throws IllegalStateException if a game failed, with the failure as its cause
+     */
+    public SimulationReport run(long games, long baseSeed) {
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicLong next = new AtomicLong();
+        List<Future<SimulationReport>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for(int t = 0; t < threads; t ++) {
+            results.add(workers.submit(() -> {
+                SimulationReport report = new SimulationReport(playerCount);
+                long first;
+                while((first = next.getAndAdd(CHUNK_SIZE)) < games)
+                    for(long game = first; game < Math.min(games, first + CHUNK_SIZE); game ++)
+                        play(baseSeed + game, report);
+                return report;
+            }));
+        }
+
+        SimulationReport total = new SimulationReport(playerCount);
+        try {
+            for(Future<SimulationReport> result : results)
+                total.merge(result.get());
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } finally {
+            workers.shutdownNow();
+        }
+        total.setDuration(System.nanoTime() - start);
+        return total;
+    }
+
+    /**
+     * Plays a single game to the end, to {@link #MAX_TURNS} or {@link #MAX_STEPS}, or until a bot gives up
+     * @param seed - Seed of the game
+     * @param report - Report in which to record the game
+     */
+    public void play(long seed, SimulationReport report) {
+        Rules rules = new Rules(radius, playerCount, seed);
+
+        Bot[] bots = new Bot[playerCount];
+        for(int p = 0; p < playerCount; p ++)
+            bots[p] = new ScriptedBot(seed * 31 + p);
+
+        // Income from rolls only, production happens before leaving the rolling phase
+        int[][] income = new int[playerCount][Hand.RESOURCES];
+        rules.register(new RulesEventSubject() {
+            @Override
+            public void onHandChanged(int player, int resource, int count) {
+                if(count > 0 && rules.getPhase() == Phase.ROLLING)
+                    income[player][resource] += count;
+            }
+        });
+
+        for(int step = 0; step < MAX_STEPS && rules.getPhase() != Phase.FINISHED && rules.getTurn() < MAX_TURNS; step ++)
+            if(!bots[rules.getCurrentPlayer()].play(rules))
+                break;
+
+        report.record(rules.getWinner(), rules.getTurn(), income);
+    }
+
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int radius = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 0;
+
+        System.out.printf("Simulating %d games of %d players on radius %d boards with %d threads%n", games, players, radius, threads);
+        System.out.print(new Simulator(players, radius, threads).run(games, seed));
+    }
+}
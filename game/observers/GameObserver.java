@@ -26,7 +26,8 @@ public class GameObserver {
         SETTING_UP,
         ROLLING,
         SETTLING,
-        STEALING
+        STEALING,
+        FINISHED
     }
 
     ArrayList<PlayerEventSubject> playerSubscribers = new ArrayList<>();
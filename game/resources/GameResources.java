@@ -2,6 +2,7 @@ package resources;
 
 import main.Engine;
 import objects.GameResource;
+import objects.TextureAtlas;
 
 import static org.lwjgl.opengl.GL11.GL_LINEAR;
 import static org.lwjgl.opengl.GL11.GL_NEAREST;
@@ -11,6 +12,10 @@ public class GameResources extends GameResourceLoader {
 	public static final String MESH_PATH = "./models/";
 	public static final String TEXTURE_PATH = "./textures/";
 
+	// Largest size of a card in the card atlas, cards are never drawn larger on screen.
+	// With its padding a card fills a 512 pixel cell, the six cards fit in a 2048 by 1024 atlas.
+	private static final int CARD_ATLAS_SIZE = 512 - 2 * TextureAtlas.PADDING;
+
 	/**
 	 * Constructs a new {@link GameResourceLoader} for the given {@link Engine} instance.
 	 *
@@ -59,15 +64,25 @@ public class GameResources extends GameResourceLoader {
 		loadTexture2D(Resource.TEXTURE_TOKEN_12, TEXTURE_PATH + "token_12.png", GL_LINEAR, true);
 		reportProgress(0.4f);
 
-		loadTexture2D(Resource.TEXTURE_CARD_BRICK, TEXTURE_PATH + "card_brick.png", GL_LINEAR, true);
-		loadTexture2D(Resource.TEXTURE_CARD_FOREST, TEXTURE_PATH + "card_forest.png", GL_LINEAR, true);
-		loadTexture2D(Resource.TEXTURE_CARD_SHEEP, TEXTURE_PATH + "card_sheep.png", GL_LINEAR, true);
-		loadTexture2D(Resource.TEXTURE_CARD_STONE, TEXTURE_PATH + "card_stone.png", GL_LINEAR, true);
+		// Cards are packed in a single atlas so that a hand of cards is drawn at once
+		loadTextureAtlas(Resource.TEXTURE_ATLAS_CARDS, new Resource[] {
+				Resource.TEXTURE_CARD_BRICK,
+				Resource.TEXTURE_CARD_FOREST,
+				Resource.TEXTURE_CARD_SHEEP,
+				Resource.TEXTURE_CARD_STONE,
+				Resource.TEXTURE_CARD_WHEAT,
+				Resource.TEXTURE_CARD_KNIGHT
+		}, new String[] {
+				TEXTURE_PATH + "card_brick.png",
+				TEXTURE_PATH + "card_forest.png",
+				TEXTURE_PATH + "card_sheep.png",
+				TEXTURE_PATH + "card_stone.png",
+				TEXTURE_PATH + "card_wheat.png",
+				TEXTURE_PATH + "card_knight.png"
+		}, CARD_ATLAS_SIZE, GL_LINEAR, true);
 		reportProgress(0.5f);
-		loadTexture2D(Resource.TEXTURE_CARD_WHEAT, TEXTURE_PATH + "card_wheat.png", GL_LINEAR, true);
 
 		loadTexture2D(Resource.TEXTURE_BOARD, TEXTURE_PATH + "board.png", GL_LINEAR, true);
-		loadTexture2D(Resource.TEXTURE_CARD_KNIGHT, TEXTURE_PATH + "card_knight.png", GL_LINEAR, true);
 		loadTexture2D(Resource.TEXTURE_TABLE, TEXTURE_PATH + "wood.jpg", GL_LINEAR, true);
 		reportProgress(0.6f);
 
@@ -115,6 +130,13 @@ public class GameResources extends GameResourceLoader {
 		loadTexture2D(id.ordinal(), filepath, filtering, mipmap);
 	}
 
+	private void loadTextureAtlas(Resource id, Resource[] regionIds, String[] filepaths, int maxSize, int filtering, boolean mipmap) {
+		int[] ids = new int[regionIds.length];
+		for (int i = 0; i < regionIds.length; i++)
+			ids[i] = regionIds[i].ordinal();
+		loadTextureAtlas(id.ordinal(), ids, filepaths, maxSize, filtering, mipmap);
+	}
+
 	private void loadTextureCubeMap(Resource id, String filepath) {
 		loadTextureCubeMap(id.ordinal(), filepath);
 	}
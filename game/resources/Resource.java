@@ -20,6 +20,8 @@ public enum Resource {
 	TEXTURE_CARD_WHEAT,
 	
 	TEXTURE_CARD_KNIGHT,
+
+	TEXTURE_ATLAS_CARDS,
 	
 	TEXTURE_BOARD,
 	
@@ -9,9 +9,12 @@ import main.Scene;
 import org.joml.Vector3f;
 import resources.GameResources;
 import resources.Resource;
+import gameplay.rules.Board;
 import scripts.GameManager;
+import scripts.SnapshotSync;
 import scripts.Tiles;
 import settings.SettingsManager;
+import snapshots.GameSnapshot;
 import ui.PlayerHandUI;
 import ui.PlayerUI;
 import ui.TradeMenuUI;
@@ -60,11 +63,23 @@ public class Game extends Scene {
         register(sun);
         register(sun2);
 
-        Tiles tiles = new Tiles(settingsManager.getGameSettings().getBoardRadius());
-        tiles.generateMap();
+        // A client plays on the host's board, other games shuffle their own
+        SnapshotSync sync = new SnapshotSync(settingsManager.getNetworkSettings());
+        GameSnapshot board = sync.awaitBoard();
+        int radius = board != null ? Board.getRadius(board.getTileCount()) : -1;
+
+        Tiles tiles;
+        if(radius > 0) {
+            tiles = new Tiles(radius);
+            tiles.generateMap(board);
+        } else {
+            tiles = new Tiles(settingsManager.getGameSettings().getBoardRadius());
+            tiles.generateMap();
+        }
         register(tiles);
 
         register(new GameManager());
+        register(sync);
         register(new UI());
         register(new PlayerUI());
         register(new PlayerHandUI());
@@ -1,37 +1,48 @@
 package scripts;
 
-import entities.board.nodes.Vertex;
+import entities.board.nodes.Node;
 import entities.Entity;
 import entities.EntityToggleable;
 import entities.Player;
 import entities.board.Tile;
+import gameplay.Hand;
+import gameplay.rules.Board;
+import gameplay.rules.Phase;
+import gameplay.rules.Rules;
+import gameplay.rules.RulesEventSubject;
+import main.Scene;
 import objects.GameScript;
 import objects.InjectableScript;
 import observers.GameObserver;
-import org.joml.Vector3f;
 import resources.Resource;
-import states.GameState;
-import states.StateSetup;
+import settings.SettingsManager;
+import snapshots.GameSnapshot;
+import states.*;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Random;
 
+import static observers.GameObserver.DiceEvents;
 import static observers.GameObserver.PlayerEvent;
 import static observers.GameObserver.PlayerHandEvent;
 import static org.lwjgl.glfw.GLFW.GLFW_KEY_SPACE;
 import static org.lwjgl.glfw.GLFW.GLFW_PRESS;
 
-public class GameManager extends GameScript {
+/**
+ * Runs the rendered game on a {@link Rules} engine. The current state turns clicks into actions of the engine, and the
+ * scene mirrors the engine's events: pieces, hands, turns and phases here, the robber in {@link Tiles}
+ */
+public class GameManager extends GameScript implements RulesEventSubject {
     // Entities registered in the scene that we need access to
     @InjectableScript
     private Tiles tiles;
 
+    // Players by seat
     private final ArrayList<Player> players = new ArrayList<>();
-    private boolean playersReversed = false;
 
-    public final GameObserver gameObserver = new GameObserver();
+    private Rules rules;
 
-    private int turn;
+    public final GameObserver gameObserver = new GameObserver();
 
     private GameState currentState;
 
@@ -56,7 +67,7 @@ public class GameManager extends GameScript {
         if(action == GLFW_PRESS)
             return;
 
-        currentState.onClick(this, getScene().physics().raycastFromCamera(), getCurrentPlayer());
+        currentState.onClick(this, getScene().physics().raycastFromCamera());
     }
 
     public void onSpaceReleased(int mods) {
@@ -67,40 +78,83 @@ public class GameManager extends GameScript {
         return players.size();
     }
 
-    public void reversePlayers() {
-        Collections.reverse(players);
-        playersReversed = !playersReversed;
+    public Rules getRules() {
+        return rules;
     }
 
-    public void rewardPlayerNearTile(int roll) {
-        for(Tile t : tiles.getTiles(roll))
-            for(Vertex v : t.getNodes()) {
-                v.getOwner().addResourceCard(t.getType(), v.getPieceValue());
-                gameObserver.broadcast(PlayerHandEvent.RESOURCES_ADDED, t.getType(), v.getPieceValue());
-            }
+    /**
+     * Finds the index of a node in the board's layout
+     * @param node - Node of the board
+     * @return Index of the node, or -1 if it is not part of the board
+     */
+    public int getNodeIndex(Node node) {
+        return tiles.getLayout().getNodeAt(node.getPositionX(), node.getPositionZ());
     }
 
-    public void rewardPlayerOnNode(Vector3f nodePosition, Player player) {
-        for(Tile t : tiles.getTilesNearVertex(nodePosition))
-            if(t.getType() != Tile.DESERT) {
-                player.addResourceCard(t.getType(), 1);
-                if(player.getColor() == Resource.TEXTURE_COLOR_BLUE)
-                    gameObserver.broadcast(PlayerHandEvent.RESOURCES_ADDED, t.getType(), 1);
-            }
+    /**
+     * Finds the index of a tile in the board's layout
+     * @param tile - Tile of the board
+     * @return Index of the tile, or -1 if it is not part of the board
+     */
+    public int getTileIndex(Tile tile) {
+        return tiles.getLayout().getTileAt(tile.getPositionX(), tile.getPositionZ());
+    }
+
+    // Rules events
+
+    @Override
+    public void onPhaseChanged(Phase phase) {
+        setGameState(switch(phase) {
+            case SETTING_UP -> new StateSetup();
+            case ROLLING -> new StateRolling();
+            case STEALING -> new StateStealing();
+            case SETTLING -> new StateSettling();
+            case FINISHED -> new StateFinished();
+        });
     }
 
-    public boolean isPlayersReversed() {
-        return playersReversed;
+    @Override
+    public void onTurnStarted(int player) {
+        gameObserver.broadcast(PlayerEvent.PLAYER_TURN, getPlayer(player));
     }
 
-    public void nextTurn() {
-        turn ++;
+    @Override
+    public void onDiceRolled(int die1, int die2) {
+        gameObserver.broadcast(DiceEvents.DICE_ROLLED, die1);
+        gameObserver.broadcast(DiceEvents.DICE_ROLLED, die2);
     }
 
+    /**
+     * Places the piece the rules placed on a node, replacing the settlement a city is built on
+     * @param player - Seat of the piece's owner
+     * @param node - Index of the node in the board's layout
+     * @param piece - Type of piece placed
+     */
     @Override
-    public void initialize() {
-        turn = 0;
+    public void onPiecePlaced(int player, int node, int piece) {
+        Node placed = tiles.getNodes().get(node);
+        if(placed.getPiece() != null)
+            getScene().remove(placed.getPiece());
+        placed.settle(getPlayer(player));
+        getScene().register(placed.getPiece());
+    }
 
+    /**
+     * Mirrors a change of a player's hand, the local player's cards are also shown in the hand UI
+     * @param player - Seat of the player
+     * @param resource - Resource whose count changed
+     * @param count - Number of cards added, negative if cards were removed
+     */
+    @Override
+    public void onHandChanged(int player, int resource, int count) {
+        Player changed = getPlayer(player);
+        changed.addResourceCard(resource, count);
+        if(changed.getColor() == Resource.TEXTURE_COLOR_BLUE)
+            gameObserver.broadcast(count > 0 ? PlayerHandEvent.RESOURCES_ADDED : PlayerHandEvent.RESOURCES_REMOVED, resource, Math.abs(count));
+    }
+
+    @Override
+    public void initialize() {
         Player newPlayer = new Player(0, Resource.TEXTURE_COLOR_BLUE);
         players.add(newPlayer);
         gameObserver.broadcast(PlayerEvent.PLAYER_ADDED, newPlayer);
@@ -121,7 +175,14 @@ public class GameManager extends GameScript {
         gameObserver.broadcast(PlayerEvent.PLAYER_ADDED, newPlayer);
         gameObserver.broadcast(PlayerEvent.PLAYER_COLOR_CHANGED, players.get(3));
 
-        setGameState(new StateSetup(players.size()));
+        // The rules play on the rendered board's layout, whose nodes and tiles are in the same order as the entities
+        rules = new Rules(tiles.getLayout(), players.size(), new Random());
+        rules.register(tiles);
+        rules.register(this);
+        onPhaseChanged(rules.getPhase());
+
+        SettingsManager settingsManager = Scene.getGlobalScriptInstance(SettingsManager.class);
+        getScene().physics().setPickingMode(settingsManager.getGameSettings().getPickingMode());
 
         getScene().setOnSceneClick(this::onClick);
         getScene().registerKeyUpAction(GLFW_KEY_SPACE, this::onSpaceReleased);
@@ -130,12 +191,63 @@ public class GameManager extends GameScript {
     }
 
     public Player getCurrentPlayer() {
-        return players.get(turn % 4);
+        return players.get(rules.getCurrentPlayer());
+    }
+
+    /**
+     * Captures the authoritative state of the game, to be sent to clients
+     * @return Snapshot of the board, the robber and every player's hand
+     */
+    public GameSnapshot captureSnapshot() {
+        return GameSnapshot.capture(tiles, players);
     }
 
-    public void updateRobber(Vector3f pos) {
-        tiles.resetEmbargoedTile();
-        tiles.getRobber().setPosition(pos).translate(new Vector3f(0, 0, 0.3f));
+    /**
+     * Brings the game up to date with a snapshot received from the server, through the rules so that the scene mirrors
+     * it like any other change. Pieces are only ever added or upgraded, every hand is overwritten and players missing
+     * from the game are ignored.
+     * @param snapshot - Snapshot to apply
+     * @return True if the snapshot was applied, false if it was captured from a board with another layout
+     */
+    public boolean applySnapshot(GameSnapshot snapshot) {
+        Board board = rules.getBoard();
+        if(snapshot.getTileCount() != board.getTileCount() || snapshot.getNodeCount() != board.getNodeCount())
+            return false;
+        for(int t = 0; t < board.getTileCount(); t ++)
+            if(snapshot.getTileType(t) != board.getTileType(t) || (board.getTileType(t) != Board.DESERT && snapshot.getTileValue(t) != board.getTileValue(t)))
+                return false;
+
+        for(int p = 0; p < snapshot.getPlayerCount(); p ++)
+            for(int r = 0; r < Hand.RESOURCES; r ++)
+                rules.restoreResourceCards(snapshot.getPlayerID(p), r, snapshot.getResourceCards(p, r));
+
+        for(int n = 0; n < board.getNodeCount(); n ++) {
+            int owner = snapshot.getNodeOwner(n);
+            if(owner < 0 || (!board.isEmpty(n) && board.getOwner(n) != owner))
+                continue;
+
+            // Settle until the node holds the snapshot's piece, a vertex is settled before it is upgraded to a city
+            while(board.getPiece(n) < snapshot.getNodePiece(n)) {
+                int piece = board.getNodeType(n) == Board.SIDE ? Board.ROAD : board.isEmpty(n) ? Board.SETTLEMENT : Board.CITY;
+                if(!rules.restorePiece(owner, n, piece))
+                    break;
+            }
+        }
+
+        rules.restoreRobber(snapshot.getRobberTile());
+        return true;
+    }
+
+    /**
+     * Finds a player by ID, which is also the player's seat in the rules
+     * @param id - ID of the player
+     * @return The player, or null if there is none with this ID
+     */
+    public Player getPlayer(int id) {
+        for(Player player : players)
+            if(player.getID() == id)
+                return player;
+        return null;
     }
 
     @Override
@@ -0,0 +1,124 @@
+package scripts;
+
+import events.GameEvents;
+import log.Logger;
+import main.Engine;
+import network.managers.GameClient;
+import network.managers.GameServer;
+import network.packets.PacketConnect;
+import objects.GameScript;
+import objects.InjectableScript;
+import settings.SettingsNetwork;
+import snapshots.GameSnapshot;
+import snapshots.SnapshotClient;
+import snapshots.SnapshotHost;
+
+/**
+ * Keeps a networked game in sync with its host, as set in the network settings. The host publishes the game's state
+ * to every client of its room, and a client applies every snapshot it receives to its own game. Offline games neither
+ * host nor connect.
+ */
+public class SnapshotSync extends GameScript {
+    // Seconds between two snapshots captured by the host
+    private static final double PUBLISH_INTERVAL = 0.1;
+
+    // Milliseconds a client waits for the host's board
+    private static final long BOARD_TIMEOUT = 5000;
+
+    @InjectableScript
+    private GameManager gameManager;
+
+    private GameServer server;
+    private SnapshotHost host;
+
+    private GameClient client;
+    private SnapshotClient receiver;
+
+    // Snapshot received while waiting for the board, applied on the first update
+    private GameSnapshot initial;
+
+    private double publishTimer = 0;
+
+    private boolean layoutMismatch = false;
+
+    /**
+     * Constructor to host or join a game, the connection is opened right away so that a client can wait for the board
+     * before the scene is built
+     * @param settings - Network settings giving the mode, the server's address and port and the username
+     */
+    public SnapshotSync(SettingsNetwork settings) {
+        GameEvents.register();
+
+        switch(settings.getMode()) {
+            case HOST -> {
+                server = new GameServer(settings.getPort());
+                server.start();
+                host = new SnapshotHost(server.getRoom(PacketConnect.DEFAULT_ROOM));
+            }
+            case CLIENT -> {
+                client = new GameClient();
+                receiver = new SnapshotClient(client);
+                client.start();
+                client.connect(settings.getAddress(), settings.getPort(), settings.getUsername());
+            }
+        }
+    }
+
+    /**
+     * Waits for the host's first snapshot, from which a client builds its board
+     * @return The first snapshot received, or null if this game is not a client or nothing was received in time
+     */
+    public GameSnapshot awaitBoard() {
+        if(receiver == null)
+            return null;
+
+        long deadline = System.currentTimeMillis() + BOARD_TIMEOUT;
+        while(initial == null && System.currentTimeMillis() < deadline) {
+            initial = receiver.poll();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if(initial == null)
+            Engine.log(Logger.WARN, "No board received from the host, playing on a local board.");
+        return initial;
+    }
+
+    @Override
+    public void update(double delta) {
+        if(host != null) {
+            publishTimer += delta;
+            if(publishTimer >= PUBLISH_INTERVAL) {
+                host.publish(gameManager.captureSnapshot());
+                publishTimer = 0;
+            }
+        }
+
+        if(receiver != null) {
+            // A newer snapshot supersedes the one the board was built from
+            GameSnapshot snapshot = receiver.poll();
+            if(snapshot == null)
+                snapshot = initial;
+            initial = null;
+
+            if(snapshot != null && !gameManager.applySnapshot(snapshot) && !layoutMismatch) {
+                Engine.log(Logger.WARN, "Snapshots from the host do not match the local board, ignoring them.");
+                layoutMismatch = true;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if(server != null)
+            server.halt();
+        if(client != null) {
+            client.disconnect();
+            client.halt();
+        }
+    }
+}
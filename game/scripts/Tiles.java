@@ -6,17 +6,23 @@ import entities.board.nodes.Side;
 import entities.Entity;
 import entities.EntityStatic;
 import entities.board.Tile;
+import gameplay.rules.Board;
+import gameplay.rules.RulesEventSubject;
 import objects.GameScript;
 import objects.TexturedMesh;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
+import org.joml.Vector3fc;
 import resources.GameResources;
 import resources.Resource;
+import snapshots.GameSnapshot;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
-public class Tiles extends GameScript{
+/**
+ * Renders the board. The layout's graph is built once, and the robber is moved whenever the rules report it moved
+ */
+public class Tiles extends GameScript implements RulesEventSubject {
 
     private ArrayList<Tile> tiles;
     private ArrayList<Node> nodes;
@@ -24,14 +30,27 @@ public class Tiles extends GameScript{
     private Entity robber;
 
     private final int BOARD_RADIUS;
-    private ArrayList<Integer> tokenConfig = new ArrayList<Integer>();
+
+    // Graph of the board's nodes, in the same order as the nodes list
+    private Board layout;
+
+    // Tiles around every vertex, by node index
+    private List<List<Tile>> vertexTiles;
 
     public Tiles(int boardRadius) {
         BOARD_RADIUS = boardRadius;
     }
 
-    public List<Tile> getTiles(int val) {
-        return tiles.stream().filter(t -> t.getValue() == val && !t.isBlocked()).collect(Collectors.toList());
+    public List<Tile> getTiles() {
+        return tiles;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public Board getLayout() {
+        return layout;
     }
 
     public void resetEmbargoedTile() {
@@ -41,122 +60,126 @@ public class Tiles extends GameScript{
         });
     }
 
+    /**
+     * Moves the robber onto a tile, blocking it
+     * @param tile - Index of the tile in the layout
+     */
+    @Override
+    public void onRobberMoved(int tile) {
+        resetEmbargoedTile();
+        tiles.get(tile).setIsBlocked(true);
+        robber.setPosition(tiles.get(tile).getPosition()).translate(new Vector3f(0, 0, 0.3f));
+    }
+
     /**
      * Method generating the tiles and assigning the vertices to each tile
      */
     public void generateMap() {
-        robber = new EntityStatic(new TexturedMesh(GameResources.get(Resource.MESH_ROBBER), GameResources.get(Resource.TEXTURE_COLOR_BLUE))).scale(0.01f);
-
-        // Create resource configuration
-        int[] resourceCount = new int[6];
-        resourceCount[Tile.WOOD] = 4;
-        resourceCount[Tile.BRICK] = 3;
-        resourceCount[Tile.WHEAT] = 4;
-        resourceCount[Tile.SHEEP] = 4;
-        resourceCount[Tile.STONE] = 3;
-        resourceCount[Tile.DESERT] = 1;
-
-        tokenConfig.add(1); //0 -> 2
-        tokenConfig.add(2); //1 -> 3
-        tokenConfig.add(2); //2 -> 4
-        tokenConfig.add(2); //3 -> 5
-        tokenConfig.add(2); //4 -> 6
-        tokenConfig.add(0); //5 -> 7
-        tokenConfig.add(2); //6 -> 8
-        tokenConfig.add(2); //7 -> 9
-        tokenConfig.add(2); //8 -> 10
-        tokenConfig.add(2); //9 -> 11
-        tokenConfig.add(1); //10 -> 12
+        generateMap(Board.generate(BOARD_RADIUS, new Random()));
+    }
 
-        tiles = new ArrayList<Tile>();
-        nodes = new ArrayList<Node>();
+    /**
+     * Method generating the tiles from a snapshot's layout instead of shuffling them, so that the board matches the
+     * one the snapshot was captured from
+     * @param snapshot - Snapshot of the board to rebuild
+     */
+    public void generateMap(GameSnapshot snapshot) {
+        int[] types = new int[snapshot.getTileCount()];
+        int[] values = new int[snapshot.getTileCount()];
+        for(int t = 0; t < types.length; t ++) {
+            types[t] = snapshot.getTileType(t);
+            values[t] = snapshot.getTileValue(t);
+        }
+        generateMap(types, values, snapshot.getRobberTile());
+    }
 
-        for(int i = 0; i < resourceCount.length; i ++)
-            for(int j = 0; j < resourceCount[i]; j ++)
-                tiles.add(new Tile(GameResources.get(Resource.getTileModel(i)), i));
+    /**
+     * Method generating the tiles from the layout of a headless board, so that the rendered board mirrors it node
+     * for node
+     * @param board - Board to render
+     */
+    public void generateMap(Board board) {
+        int[] types = new int[board.getTileCount()];
+        int[] values = new int[board.getTileCount()];
+        for(int t = 0; t < types.length; t ++) {
+            types[t] = board.getTileType(t);
+            values[t] = board.getTileValue(t);
+        }
+        generateMap(types, values, board.getRobber());
+    }
 
-        Collections.shuffle(tiles);
+    private void generateMap(int[] types, int[] values, int robberTile) {
+        robber = new EntityStatic(new TexturedMesh(GameResources.get(Resource.MESH_ROBBER), GameResources.get(Resource.TEXTURE_COLOR_BLUE))).scale(0.01f);
 
-        int tIndex = 0;
+        tiles = new ArrayList<Tile>();
+        nodes = new ArrayList<Node>();
 
-        for(int t = 0; t < tokenConfig.size(); t ++) {
-            for(int i = 0; i < tokenConfig.get(t); i ++) {
-                while(tiles.get(tIndex).getType() == Tile.DESERT)
-                    tIndex ++;
-                tiles.get(tIndex ++).setValue(t + 2);
-            }
+        for(int t = 0; t < types.length; t ++) {
+            Tile tile = new Tile(GameResources.get(Resource.getTileModel(types[t])), types[t]);
+            if(tile.getType() != Tile.DESERT)
+                tile.setValue(values[t]);
+            tiles.add(tile);
         }
 
-        Collections.shuffle(tiles);
+        layout = new Board(BOARD_RADIUS, types, values);
 
         generateTiles();
         generateNodes();
 
-        getDesertTile().setIsBlocked(true);
-        robber.setPosition(getDesertTile().getPosition());
+        // The layout starts with the robber on a desert, unless told otherwise
+        if(robberTile >= 0)
+            layout.setRobber(robberTile);
+        if(layout.getRobber() >= 0)
+            onRobberMoved(layout.getRobber());
     }
 
+    /**
+     * Method creating the nodes of the board from its layout's graph. Nodes are looked up by their coordinates on the
+     * layout's lattice, so the graph is built in linear time without comparing node positions
+     */
     public void generateNodes() {
-        float radius;
-        double theta;
-        boolean isSide;
-        Node newNode;
-
-        for(Tile t : tiles) {
-            theta = 0;
-            isSide = true;
-
-            while(theta != 360) {
-                radius = isSide ? 0.866f : 1.0f;
-
-                float nodeX = (float) (Math.cos(Math.toRadians(theta)) * radius) + t.getPositionX();
-                float nodeZ = (float) (Math.sin(Math.toRadians(theta)) * radius) + t.getPositionZ();
-
-                newNode = nodes.stream()
-                        .filter(node -> Math.abs(nodeX - node.getPositionX()) < 0.01 && Math.abs(nodeZ - node.getPositionZ()) < 0.01)
-                        .reduce((o, n) -> n)
-                        .orElse(null);
-
-                if (null == newNode) {
-                    if(isSide) {
-                        newNode = new Side();
-                    } else {
-                        newNode = new Vertex();
-                        t.addNode( (Vertex) newNode);
-                    }
-
-                    newNode.setPosition(new Vector3f(nodeX, 0.1f, nodeZ));
-                    nodes.add(newNode);
-                }
-
-                theta += 30;
-                isSide = !isSide;
-            }
+        for(int n = 0; n < layout.getNodeCount(); n ++) {
+            Node newNode = layout.getNodeType(n) == Board.SIDE ? new Side() : new Vertex();
+            newNode.setPosition(new Vector3f(layout.getNodeX(n), 0.1f, layout.getNodeZ(n)));
+            nodes.add(newNode);
         }
 
-        for(Node currNode :  nodes) {
-            for(Node node : nodes) {
-                Vector3f result = new Vector3f();
-                node.getPosition().sub(currNode.getPosition(), result);
-                if(Math.abs(result.length() - 0.5) < 0.1) {
-                    currNode.addNode(node);
-                }
-            }
-           if(currNode instanceof Side) {
-               Vector3f pos = new Vector3f(currNode.getNearbyNodes().get(0).getPosition());
-               pos.sub(currNode.getNearbyNodes().get(1).getPosition());
+        vertexTiles = new ArrayList<>(nodes.size());
+        for(int n = 0; n < nodes.size(); n ++) {
+            Node currNode = nodes.get(n);
+
+            // Neighbours in index order
+            int[] neighbours = layout.getNeighbours(n).clone();
+            Arrays.sort(neighbours);
+            for(int neighbour : neighbours)
+                currNode.addNode(nodes.get(neighbour));
+
+            List<Tile> nearbyTiles = new ArrayList<>();
+            for(int tile : layout.getVertexTiles(n))
+                nearbyTiles.add(tiles.get(tile));
+            vertexTiles.add(nearbyTiles);
 
-               currNode.setRotation(new Vector3f(0, -(float)Math.toDegrees(Math.atan(pos.z / pos.x)), 0));
-           }
+            if(currNode instanceof Side) {
+                Vector3f pos = new Vector3f(currNode.getNearbyNodes().get(0).getPosition());
+                pos.sub(currNode.getNearbyNodes().get(1).getPosition());
+
+                currNode.setRotation(new Vector3f(0, -(float)Math.toDegrees(Math.atan(pos.z / pos.x)), 0));
+            }
         }
+
+        for(int t = 0; t < tiles.size(); t ++)
+            for(int vertex : layout.getTileVertices(t))
+                tiles.get(t).addNode((Vertex) nodes.get(vertex));
     }
 
-    public List<Tile> getTilesNearVertex(Vector3f position) {
-        return tiles.stream().filter(t -> {
-            Vector3f result = new Vector3f();
-            t.getPosition().sub(position, result);
-            return result.length() - 1 < 0.1;
-        }).collect(Collectors.toList());
+    /**
+     * Method returning the tiles around a vertex
+     * @param position - Position of the vertex
+     * @return Tiles around the vertex, empty if there is no vertex at the position
+     */
+    public List<Tile> getTilesNearVertex(Vector3fc position) {
+        int node = layout.getNodeAt(position.x(), position.z());
+        return node >= 0 ? vertexTiles.get(node) : Collections.emptyList();
     }
 
     public void generateTiles() {
@@ -1,10 +1,12 @@
 package settings;
 
 import main.Engine;
+import physics.PickingMode;
 
 public class SettingsGame implements Settings{
     private int boardRadius;
     private GameModes gameMode;
+    private PickingMode pickingMode = PickingMode.RAYCAST;
 
     private final SettingsManager manager;
 
@@ -21,6 +23,7 @@ public class SettingsGame implements Settings{
         switch(key) {
             case "board_radius" -> setBoardRadius(value);
             case "mode" -> setGameMode(value);
+            case "picking" -> setPickingMode(value);
             default -> throw new Exception("Key does not exist in the scope of GameSettings.");
         }
     }
@@ -48,6 +51,20 @@ public class SettingsGame implements Settings{
                 } + " mode");
     }
 
+    private void setPickingMode(String value) {
+        pickingMode = PickingMode.values()[Integer.parseInt(value)];
+        Engine.log("GAME SETTINGS : Picking mode has been set to " +
+                switch(pickingMode) {
+                    case RAYCAST -> "raycast";
+                    case GPU -> "gpu";
+                });
+    }
+
+    public void setPickingMode(PickingMode mode) {
+        pickingMode = mode;
+        update("picking", Integer.toString(mode.ordinal()));
+    }
+
     public int getBoardRadius() {
         return boardRadius;
     }
@@ -55,4 +72,8 @@ public class SettingsGame implements Settings{
     public GameModes getGameMode() {
         return gameMode;
     }
+
+    public PickingMode getPickingMode() {
+        return pickingMode;
+    }
 }
@@ -89,4 +89,8 @@ public class SettingsManager extends GameScript {
     public SettingsWindow getWindowSettings() {
         return windowSettings;
     }
+
+    public SettingsNetwork getNetworkSettings() {
+        return networkSettings;
+    }
 }
@@ -1,8 +1,20 @@
 package settings;
 
+import main.Engine;
+
 public class SettingsNetwork implements Settings {
+    private NetworkModes mode = NetworkModes.OFFLINE;
+    private String address = "127.0.0.1";
+    private int port = 7777;
+    private String username = "Player";
+
+    private final SettingsManager manager;
 
-    SettingsManager manager;
+    public enum NetworkModes {
+        OFFLINE,
+        HOST,
+        CLIENT
+    }
 
     public SettingsNetwork(SettingsManager manager) {
         this.manager = manager;
@@ -10,11 +22,63 @@ public class SettingsNetwork implements Settings {
 
     @Override
     public void setProperty(String key, String value) throws Exception {
-
+        switch(key) {
+            case "mode" -> setMode(value);
+            case "address" -> setAddress(value);
+            case "port" -> setPort(value);
+            case "username" -> setUsername(value);
+            default -> throw new Exception("Key does not exist in the scope of NetworkSettings.");
+        }
     }
 
     @Override
     public void update(String key, String value) {
-        manager.updateProperty(SettingsPrefix.GAME + "." + key, value);
+        manager.updateProperty(SettingsPrefix.NETWORK + "." + key, value);
+    }
+
+    private void setMode(String value) {
+        mode = NetworkModes.values()[Integer.parseInt(value)];
+        Engine.log("NETWORK SETTINGS : Network mode has been set to " +
+                switch(mode) {
+                    case OFFLINE -> "offline";
+                    case HOST -> "host";
+                    case CLIENT -> "client";
+                });
+    }
+
+    public void setMode(NetworkModes mode) {
+        this.mode = mode;
+        update("mode", Integer.toString(mode.ordinal()));
+    }
+
+    private void setAddress(String value) {
+        address = value;
+        Engine.log("NETWORK SETTINGS : Server address has been set to " + address);
+    }
+
+    private void setPort(String value) {
+        port = Integer.parseInt(value);
+        Engine.log("NETWORK SETTINGS : Server port has been set to " + port);
+    }
+
+    private void setUsername(String value) {
+        username = value;
+        Engine.log("NETWORK SETTINGS : Username has been set to " + username);
+    }
+
+    public NetworkModes getMode() {
+        return mode;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getUsername() {
+        return username;
     }
 }
@@ -0,0 +1,219 @@
+package snapshots;
+
+import entities.Player;
+import entities.board.Piece;
+import entities.board.Tile;
+import entities.board.nodes.Node;
+import gameplay.Hand;
+import network.serializers.ByteArrayWriter;
+import network.serializers.ByteBufferReader;
+import scripts.Tiles;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable copy of the authoritative game state: the board layout, the robber, the owner and piece of every node
+ * and every player's hand. The state is flattened into an array of integers so that it can be encoded in full or as a
+ * delta against an older snapshot, listing only the values that changed.
+ * <p>
+ * Layout: tile, node and player counts and the robber's tile, followed by the type and value of every tile, the owner
+ * ID and piece type of every node (-1 if none) and the ID, color and resource cards of every player.
+ */
+public class GameSnapshot {
+
+    // Header offsets
+    private static final int TILE_COUNT = 0;
+    private static final int NODE_COUNT = 1;
+    private static final int PLAYER_COUNT = 2;
+    private static final int ROBBER = 3;
+    private static final int HEADER = 4;
+
+    // Values per entry
+    private static final int TILE_FIELDS = 2;
+    private static final int NODE_FIELDS = 2;
+    private static final int PLAYER_FIELDS = 2 + Hand.RESOURCES;
+
+    /**
+     * The flattened state.
+     */
+    private final int[] values;
+
+    /**
+     * Creates a snapshot from its flattened state.
+     *
+     * @param values The flattened state, not copied.
+     */
+    private GameSnapshot(int[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Captures the current state of a game.
+     *
+     * @param tiles   The board.
+     * @param players The players, in turn order.
+     * @return {@link GameSnapshot} A snapshot of the game's state.
+     */
+    public static GameSnapshot capture(Tiles tiles, List<Player> players) {
+        List<Tile> tileList = tiles.getTiles();
+        List<Node> nodeList = tiles.getNodes();
+
+        int[] values = new int[HEADER + tileList.size() * TILE_FIELDS + nodeList.size() * NODE_FIELDS + players.size() * PLAYER_FIELDS];
+        values[TILE_COUNT] = tileList.size();
+        values[NODE_COUNT] = nodeList.size();
+        values[PLAYER_COUNT] = players.size();
+        values[ROBBER] = -1;
+
+        int i = HEADER;
+        for (int t = 0; t < tileList.size(); t++) {
+            Tile tile = tileList.get(t);
+            if (tile.isBlocked())
+                values[ROBBER] = t;
+            values[i++] = tile.getType();
+            values[i++] = tile.getValue();
+        }
+
+        for (Node node : nodeList) {
+            Piece piece = node.getPiece();
+            values[i++] = node.getOwner() != null ? node.getOwner().getID() : -1;
+            values[i++] = piece != null ? piece.type : -1;
+        }
+
+        for (Player player : players) {
+            values[i++] = player.getID();
+            values[i++] = player.getColor().ordinal();
+            for (int r = 0; r < Hand.RESOURCES; r++)
+                values[i++] = player.getResourceCards(r);
+        }
+
+        return new GameSnapshot(values);
+    }
+
+    /**
+     * Encodes this snapshot in full.
+     *
+     * @return <b>byte[]</b> The encoded snapshot.
+     */
+    public byte[] encode() {
+        ByteArrayWriter out = new ByteArrayWriter(values.length * 2);
+        out.putVarInt(values.length);
+        for (int value : values)
+            out.putSignedVarInt(value);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes the values of this snapshot that differ from an older one, values missing from the older snapshot being
+     * considered zero.
+     *
+     * @param baseline The snapshot the receiver already has.
+     * @return <b>byte[]</b> The encoded delta.
+     */
+    public byte[] encodeDelta(GameSnapshot baseline) {
+        int changes = 0;
+        for (int i = 0; i < values.length; i++)
+            if (values[i] != baseline.get(i))
+                changes++;
+
+        ByteArrayWriter out = new ByteArrayWriter(8 + changes * 3);
+        out.putVarInt(values.length).putVarInt(changes);
+        for (int i = 0, previous = -1; i < values.length; i++) {
+            if (values[i] == baseline.get(i))
+                continue;
+            out.putVarInt(i - previous - 1).putSignedVarInt(values[i]);
+            previous = i;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a snapshot encoded in full. This is the reverse operation of {@link #encode}.
+     *
+     * @param data The encoded snapshot.
+     * @return {@link GameSnapshot} The decoded snapshot, or null if the data is malformed.
+     */
+    public static GameSnapshot decode(byte[] data) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            int[] values = new int[ByteBufferReader.getVarInt(in)];
+            for (int i = 0; i < values.length; i++)
+                values[i] = ByteBufferReader.getSignedVarInt(in);
+            return new GameSnapshot(values);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decodes a snapshot encoded as a delta. This is the reverse operation of {@link #encodeDelta}.
+     *
+     * @param baseline The snapshot the delta was encoded against.
+     * @param data     The encoded delta.
+     * @return {@link GameSnapshot} The decoded snapshot, or null if the data is malformed.
+     */
+    public static GameSnapshot decodeDelta(GameSnapshot baseline, byte[] data) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            int[] values = new int[ByteBufferReader.getVarInt(in)];
+            System.arraycopy(baseline.values, 0, values, 0, Math.min(values.length, baseline.values.length));
+
+            int changes = ByteBufferReader.getVarInt(in);
+            for (int c = 0, i = -1; c < changes; c++) {
+                i += ByteBufferReader.getVarInt(in) + 1;
+                values[i] = ByteBufferReader.getSignedVarInt(in);
+            }
+            return new GameSnapshot(values);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Board
+    public int getTileCount() { return values[TILE_COUNT]; }
+    public int getTileType(int tile) { return values[HEADER + tile * TILE_FIELDS]; }
+    public int getTileValue(int tile) { return values[HEADER + tile * TILE_FIELDS + 1]; }
+    public int getRobberTile() { return values[ROBBER]; }
+
+    // Nodes
+    public int getNodeCount() { return values[NODE_COUNT]; }
+    public int getNodeOwner(int node) { return values[nodeOffset() + node * NODE_FIELDS]; }
+    public int getNodePiece(int node) { return values[nodeOffset() + node * NODE_FIELDS + 1]; }
+
+    // Players
+    public int getPlayerCount() { return values[PLAYER_COUNT]; }
+    public int getPlayerID(int player) { return values[playerOffset() + player * PLAYER_FIELDS]; }
+    public int getPlayerColor(int player) { return values[playerOffset() + player * PLAYER_FIELDS + 1]; }
+    public int getResourceCards(int player, int resource) { return values[playerOffset() + player * PLAYER_FIELDS + 2 + resource]; }
+
+    /**
+     * Returns whether this snapshot holds the same state as another.
+     *
+     * @param obj The other snapshot.
+     * @return <b>boolean</b> True if both snapshots hold the same state.
+     */
+    public boolean equals(Object obj) {
+        return obj instanceof GameSnapshot && Arrays.equals(values, ((GameSnapshot) obj).values);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    private int get(int index) {
+        return index < values.length ? values[index] : 0;
+    }
+
+    private int nodeOffset() {
+        return HEADER + getTileCount() * TILE_FIELDS;
+    }
+
+    private int playerOffset() {
+        return nodeOffset() + getNodeCount() * NODE_FIELDS;
+    }
+
+}
@@ -0,0 +1,66 @@
+package snapshots;
+
+import events.EventSnapshot;
+import events.EventSnapshotAck;
+import network.events.NetworkEvent;
+import network.events.NetworkEvents;
+import network.managers.GameClient;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Receives the authoritative game state from the server a client is connected to. Snapshots are decoded and
+ * acknowledged on the client's thread, and the latest one is held until the game polls it on its own thread.
+ */
+public class SnapshotClient {
+
+    private final GameClient client;
+
+    private final SnapshotReceiver receiver = new SnapshotReceiver();
+
+    /**
+     * The latest snapshot received and not polled yet.
+     */
+    private final AtomicReference<GameSnapshot> pending = new AtomicReference<>();
+
+    /**
+     * Creates a client receiving snapshots, taking over the client's event and connection callbacks.
+     *
+     * @param client The client connected, or about to connect, to the server sending snapshots.
+     */
+    public SnapshotClient(GameClient client) {
+        this.client = client;
+        client.onEvent(this::onEvent)
+              .onConnect(this::onConnect);
+    }
+
+    /**
+     * Returns the latest snapshot received since the last call.
+     *
+     * @return {@link GameSnapshot} The latest snapshot, or null if none was received since the last call.
+     */
+    public GameSnapshot poll() {
+        return pending.getAndSet(null);
+    }
+
+    private void onConnect() {
+        // A new connection's sequence numbers have nothing in common with the previous one's
+        receiver.reset();
+        pending.set(null);
+    }
+
+    private void onEvent(NetworkEvent event) {
+        if (!EventSnapshot.class.equals(event.getClass()))
+            return;
+        EventSnapshot fragment = NetworkEvents.cast(event);
+
+        GameSnapshot snapshot = receiver.receive(fragment);
+        if (snapshot != null)
+            pending.set(snapshot);
+
+        EventSnapshotAck ack = receiver.createAck();
+        if (ack != null)
+            client.sendEvent(ack);
+    }
+
+}
@@ -0,0 +1,80 @@
+package snapshots;
+
+import events.EventSnapshot;
+import events.EventSnapshotAck;
+import network.events.NetworkEvent;
+import network.events.NetworkEvents;
+import network.managers.GameServer;
+
+/**
+ * Sends the authoritative game state to the clients of a room. Joining and reconnecting clients are sent the full
+ * state right away, and every client is then sent a delta whenever a new snapshot is published. Updates are delivered
+ * reliably, and a client is only sent the next one once it acknowledged the previous one, which also catches it up with
+ * the snapshots published in the meantime. Acknowledgements are attributed to the client whose connection they were
+ * received on.
+ */
+public class SnapshotHost {
+
+    private final GameServer.Room room;
+
+    private final SnapshotSender sender = new SnapshotSender();
+
+    /**
+     * Creates a host sending snapshots to a room's clients, taking over the room's event, join and leave callbacks.
+     *
+     * @param room The room whose clients to keep up to date.
+     */
+    public SnapshotHost(GameServer.Room room) {
+        this.room = room;
+        room.onEvent(this::onEvent)
+            .onJoin(this::resync)
+            .onLeave(sender::remove);
+    }
+
+    /**
+     * Records the current state of the game and sends it to every client, if it changed since the last call.
+     *
+     * @param snapshot The current state of the game.
+     */
+    public void publish(GameSnapshot snapshot) {
+        int previous = sender.getLatestSequence();
+        if (sender.record(snapshot) == previous)
+            return;
+        for (int clientID : room.getClientIDs())
+            send(clientID);
+    }
+
+    /**
+     * Returns the sequence number of the latest snapshot published.
+     *
+     * @return <b>int</b> The sequence number of the latest snapshot, or -1 if none was published yet.
+     */
+    public int getLatestSequence() {
+        return sender.getLatestSequence();
+    }
+
+    private void onEvent(int clientID, NetworkEvent event) {
+        if (!EventSnapshotAck.class.equals(event.getClass()))
+            return;
+        EventSnapshotAck ack = NetworkEvents.cast(event);
+
+        // A negative sequence number is a request for the full state
+        if (ack.getSequence() < 0) {
+            resync(clientID);
+        } else {
+            sender.acknowledge(clientID, ack.getSequence());
+            send(clientID);
+        }
+    }
+
+    private void resync(int clientID) {
+        sender.reset(clientID);
+        send(clientID);
+    }
+
+    private void send(int clientID) {
+        for (EventSnapshot fragment : sender.createUpdate(clientID))
+            room.sendEvent(clientID, fragment);
+    }
+
+}
@@ -0,0 +1,181 @@
+package snapshots;
+
+import events.EventSnapshot;
+import events.EventSnapshotAck;
+
+import java.util.Arrays;
+
+/**
+ * Rebuilds the snapshots sent by a {@link SnapshotSender} on the client, reassembling their fragments and keeping the
+ * recent ones as baselines for the deltas to come. Snapshots older than the latest one received are dropped, since the
+ * latest one supersedes them.
+ */
+public class SnapshotReceiver {
+
+    // Recent snapshots, indexed by sequence number modulo the history size
+    private final GameSnapshot[] history = new GameSnapshot[SnapshotSender.HISTORY_SIZE];
+    private final int[] sequences = new int[SnapshotSender.HISTORY_SIZE];
+
+    /**
+     * The sequence number of the latest snapshot received, or -1 if none was received yet.
+     */
+    private int latest = -1;
+
+    // Snapshot being reassembled, fragments are null until received
+    private byte[][] fragments = null;
+    private int fragmentSequence = -1;
+    private int fragmentBaseline = -1;
+    private int fragmentsReceived = 0;
+
+    /**
+     * Whether a snapshot was received since the last acknowledgement was created.
+     */
+    private boolean unacknowledged = false;
+
+    /**
+     * Whether a delta was dropped because its baseline is no longer available, so that the full state is needed.
+     */
+    private boolean resync = false;
+
+    /**
+     * Decodes a fragment of a snapshot received from the server.
+     *
+     * @param event The event holding the fragment.
+     * @return {@link GameSnapshot} The snapshot once its last fragment was received, or null if fragments are missing
+     * or if it is outdated, malformed or a delta against a baseline that is no longer available.
+     */
+    public synchronized GameSnapshot receive(EventSnapshot event) {
+        int sequence = event.getSequence();
+        if (!isValid(event))
+            return null;
+
+        // The server waits for an acknowledgement before sending the next update, so outdated ones are answered too
+        if (sequence <= latest) {
+            unacknowledged = latest >= 0;
+            return null;
+        }
+
+        byte[] data = assemble(event);
+        if (data == null)
+            return null;
+
+        GameSnapshot snapshot;
+        if (event.isDelta()) {
+            GameSnapshot baseline = get(event.getBaseline());
+            if (baseline == null) {
+                resync = true;
+                return null;
+            }
+            snapshot = GameSnapshot.decodeDelta(baseline, data);
+        } else {
+            snapshot = GameSnapshot.decode(data);
+        }
+
+        if (snapshot == null) {
+            resync = true;
+            return null;
+        }
+        history[sequence % history.length] = snapshot;
+        sequences[sequence % history.length] = sequence;
+        latest = sequence;
+        unacknowledged = true;
+        resync = false;
+        return snapshot;
+    }
+
+    /**
+     * Creates the acknowledgement of the latest snapshot received. The server identifies the client by its connection.
+     *
+     * @return {@link EventSnapshotAck} The acknowledgement to send, with a sequence number of -1 to request the full
+     * state if a delta could not be decoded, or null if nothing needs to be acknowledged since the last call.
+     */
+    public synchronized EventSnapshotAck createAck() {
+        if (resync) {
+            resync = false;
+            return new EventSnapshotAck(-1);
+        }
+        if (!unacknowledged)
+            return null;
+        unacknowledged = false;
+        return new EventSnapshotAck(latest);
+    }
+
+    /**
+     * Forgets every snapshot received, meant for a new connection to a server whose sequence numbers start over.
+     */
+    public synchronized void reset() {
+        Arrays.fill(history, null);
+        latest = -1;
+        fragments = null;
+        unacknowledged = false;
+        resync = false;
+    }
+
+    /**
+     * Returns the latest snapshot received.
+     *
+     * @return {@link GameSnapshot} The latest snapshot, or null if none was received yet.
+     */
+    public synchronized GameSnapshot getLatest() {
+        return get(latest);
+    }
+
+    /**
+     * Returns the sequence number of the latest snapshot received.
+     *
+     * @return <b>int</b> The sequence number of the latest snapshot, or -1 if none was received yet.
+     */
+    public synchronized int getLatestSequence() {
+        return latest;
+    }
+
+    private static boolean isValid(EventSnapshot event) {
+        return event.getParts() >= 1 && event.getParts() <= EventSnapshot.MAX_PARTS &&
+               event.getPart() >= 0 && event.getPart() < event.getParts() &&
+               event.getData() != null && event.getData().length <= EventSnapshot.MAX_FRAGMENT_LENGTH;
+    }
+
+    /**
+     * Adds a fragment to the snapshot being reassembled. A fragment of a newer snapshot, or of another encoding of the
+     * same one, replaces the fragments received so far.
+     *
+     * @param event The fragment.
+     * @return <b>byte[]</b> The encoded snapshot once every fragment was received, null otherwise.
+     */
+    private byte[] assemble(EventSnapshot event) {
+        if (event.getParts() == 1)
+            return event.getData();
+
+        if (fragments == null || event.getSequence() != fragmentSequence || event.getBaseline() != fragmentBaseline || event.getParts() != fragments.length) {
+            if (fragments != null && event.getSequence() < fragmentSequence)
+                return null;
+            fragments = new byte[event.getParts()][];
+            fragmentSequence = event.getSequence();
+            fragmentBaseline = event.getBaseline();
+            fragmentsReceived = 0;
+        }
+
+        if (fragments[event.getPart()] == null) {
+            fragments[event.getPart()] = event.getData();
+            fragmentsReceived++;
+        }
+        if (fragmentsReceived < fragments.length)
+            return null;
+
+        int length = 0;
+        for (byte[] fragment : fragments)
+            length += fragment.length;
+        byte[] data = new byte[length];
+        for (int i = 0, offset = 0; i < fragments.length; offset += fragments[i].length, i++)
+            System.arraycopy(fragments[i], 0, data, offset, fragments[i].length);
+        fragments = null;
+        return data;
+    }
+
+    private GameSnapshot get(int sequence) {
+        if (sequence < 0 || history[sequence % history.length] == null || sequences[sequence % history.length] != sequence)
+            return null;
+        return history[sequence % history.length];
+    }
+
+}
@@ -0,0 +1,155 @@
+package snapshots;
+
+import events.EventSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the recent snapshots of the authoritative game state on the server and the last snapshot each client
+ * acknowledged, so that every client is sent a delta against the state it is known to have. Clients that have not
+ * acknowledged any snapshot yet, or whose last acknowledged snapshot fell out of the history, are sent the full state,
+ * which resyncs late joiners and reconnecting clients in a single update. Updates are split into fragments of at most
+ * {@link EventSnapshot#MAX_FRAGMENT_LENGTH} bytes so that each fits in a datagram. A client is sent at most one update
+ * at a time, the next one waits for it to be acknowledged and then brings the client straight to the latest snapshot,
+ * so that a stalled client never has more than one snapshot queued.
+ */
+public class SnapshotSender {
+
+    /**
+     * The number of recent snapshots kept as potential baselines.
+     */
+    public static final int HISTORY_SIZE = 32;
+
+    // Recent snapshots, indexed by sequence number modulo the history size
+    private final GameSnapshot[] history = new GameSnapshot[HISTORY_SIZE];
+
+    /**
+     * The sequence number of the latest snapshot, or -1 if none was recorded yet.
+     */
+    private int latest = -1;
+
+    /**
+     * The sequence number of the last snapshot each client acknowledged, by client ID.
+     */
+    private final Map<Integer, Integer> acknowledged = new HashMap<>();
+
+    /**
+     * The sequence number of the latest snapshot when each client was last reset, by client ID. Acknowledgements older
+     * than this were sent before the reset and no longer tell which snapshots the client has.
+     */
+    private final Map<Integer, Integer> resets = new HashMap<>();
+
+    /**
+     * The sequence number of the update each client was sent and has not acknowledged yet, by client ID.
+     */
+    private final Map<Integer, Integer> pending = new HashMap<>();
+
+    /**
+     * Records the current state of the game as the latest snapshot, unless it is identical to the previous one.
+     *
+     * @param snapshot The current state of the game.
+     * @return <b>int</b> The sequence number of the latest snapshot.
+     * @throws IllegalArgumentException If the snapshot is too large to be sent in {@link EventSnapshot#MAX_PARTS}
+     *                                  fragments.
+     */
+    public synchronized int record(GameSnapshot snapshot) {
+        if (latest >= 0 && history[latest % HISTORY_SIZE].equals(snapshot))
+            return latest;
+
+        int length = snapshot.encode().length;
+        if (length > EventSnapshot.MAX_PARTS * EventSnapshot.MAX_FRAGMENT_LENGTH)
+            throw new IllegalArgumentException("Snapshot of " + length + " bytes is too large to be sent.");
+        history[++latest % HISTORY_SIZE] = snapshot;
+        return latest;
+    }
+
+    /**
+     * Creates the events bringing a client up to date with the latest snapshot.
+     *
+     * @param clientID The ID of the client.
+     * @return {@link List} The fragments of a delta against the client's last acknowledged snapshot, or of the full
+     * snapshot if there is no usable baseline or the delta would be larger, or an empty list if the client already
+     * acknowledged the latest snapshot or has not acknowledged the previous update yet.
+     */
+    public synchronized List<EventSnapshot> createUpdate(int clientID) {
+        if (latest < 0 || pending.containsKey(clientID))
+            return new ArrayList<>();
+
+        GameSnapshot snapshot = history[latest % HISTORY_SIZE];
+        Integer baseline = acknowledged.get(clientID);
+        if (baseline != null && baseline == latest)
+            return new ArrayList<>();
+
+        pending.put(clientID, latest);
+        byte[] data = snapshot.encode();
+        if (baseline != null && latest - baseline < HISTORY_SIZE) {
+            byte[] delta = snapshot.encodeDelta(history[baseline % HISTORY_SIZE]);
+            if (delta.length < data.length)
+                return split(latest, baseline, delta);
+        }
+        return split(latest, -1, data);
+    }
+
+    /**
+     * Records that a client received a snapshot, which allows it to be sent the next update once it acknowledged the
+     * pending one. Acknowledgements older than the client's last one are ignored.
+     *
+     * @param clientID The ID of the connection the acknowledgement was received from, never one read from the event.
+     * @param sequence The sequence number of the snapshot acknowledged.
+     */
+    public synchronized void acknowledge(int clientID, int sequence) {
+        if (sequence < 0 || sequence > latest || sequence < resets.getOrDefault(clientID, -1))
+            return;
+        int last = acknowledged.merge(clientID, sequence, Math::max);
+        if (last >= pending.getOrDefault(clientID, Integer.MAX_VALUE))
+            pending.remove(clientID);
+    }
+
+    /**
+     * Forgets the snapshots a client acknowledged, so that it is sent the full state next. Meant for clients that
+     * join or reconnect, or that lost their baseline.
+     *
+     * @param clientID The ID of the client.
+     */
+    public synchronized void reset(int clientID) {
+        acknowledged.remove(clientID);
+        pending.remove(clientID);
+        resets.put(clientID, latest);
+    }
+
+    /**
+     * Forgets everything known about a client, meant for clients that left for good.
+     *
+     * @param clientID The ID of the client.
+     */
+    public synchronized void remove(int clientID) {
+        acknowledged.remove(clientID);
+        pending.remove(clientID);
+        resets.remove(clientID);
+    }
+
+    /**
+     * Returns the sequence number of the latest snapshot.
+     *
+     * @return <b>int</b> The sequence number of the latest snapshot, or -1 if none was recorded yet.
+     */
+    public synchronized int getLatestSequence() {
+        return latest;
+    }
+
+    private static List<EventSnapshot> split(int sequence, int baseline, byte[] data) {
+        int parts = Math.max(1, (data.length + EventSnapshot.MAX_FRAGMENT_LENGTH - 1) / EventSnapshot.MAX_FRAGMENT_LENGTH);
+        List<EventSnapshot> fragments = new ArrayList<>(parts);
+        for (int part = 0; part < parts; part++) {
+            int from = part * EventSnapshot.MAX_FRAGMENT_LENGTH;
+            int to = Math.min(data.length, from + EventSnapshot.MAX_FRAGMENT_LENGTH);
+            fragments.add(new EventSnapshot(sequence, baseline, part, parts, Arrays.copyOfRange(data, from, to)));
+        }
+        return fragments;
+    }
+
+}
@@ -0,0 +1,23 @@
+package states;
+
+import entities.Entity;
+import observers.GameObserver.GameStates;
+import scripts.GameManager;
+
+public class StateFinished implements GameState {
+
+    @Override
+    public void onClick(GameManager context, Entity clicked) {
+
+    }
+
+    @Override
+    public void onSpace(GameManager context) {
+
+    }
+
+    @Override
+    public GameStates getStateName() {
+        return GameStates.FINISHED;
+    }
+}
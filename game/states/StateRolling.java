@@ -1,20 +1,10 @@
 package states;
 
 import entities.Entity;
-import entities.Player;
-import observers.GameObserver.*;
+import observers.GameObserver.GameStates;
 import scripts.GameManager;
 
 public class StateRolling implements GameState {
-    /**
-     * Method to replicate the roll of a die
-     * @return - Returns a random number between 1 and 6
-     */
-    public int roll(GameManager context) {
-        int roll = (int)(Math.random() * 6) + 1;
-        context.gameObserver.broadcast(DiceEvents.DICE_ROLLED, roll);
-        return roll;
-    }
 
     @Override
     public GameStates getStateName() {
@@ -22,23 +12,15 @@ public class StateRolling implements GameState {
     }
 
     @Override
-    public void onClick(GameManager context, Entity clicked, Player player) {
+    public void onClick(GameManager context, Entity clicked) {
 
     }
 
     @Override
     public void onSpace(GameManager context) {
-        int roll1 = roll(context);
-        int roll2 = roll(context);
+        int roll = context.getRules().roll();
 
         System.out.print("You rolled: ");
-        System.out.println(roll1 + roll2);
-
-        if(roll1 + roll2 == 7) {
-            context.setGameState(new StateStealing());
-        } else {
-            context.rewardPlayerNearTile(roll1 + roll2);
-            context.setGameState(new StateSettling());
-        }
+        System.out.println(roll);
     }
 }
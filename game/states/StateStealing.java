@@ -1,7 +1,6 @@
 package states;
 
 import entities.Entity;
-import entities.Player;
 import entities.board.Tile;
 import observers.GameObserver.GameStates;
 import scripts.GameManager;
@@ -9,17 +8,11 @@ import scripts.GameManager;
 public class StateStealing implements GameState {
 
     @Override
-    public void onClick(GameManager context, Entity clicked, Player player) {
+    public void onClick(GameManager context, Entity clicked) {
         if(!(clicked instanceof Tile))
             return;
 
-        Tile clickedTile = (Tile) clicked;
-
-        if(!clickedTile.isBlocked()) {
-            context.updateRobber(clickedTile.getPosition());
-            clickedTile.setIsBlocked(true);
-            context.setGameState(new StateSettling());
-        }
+        context.getRules().moveRobber(context.getTileIndex((Tile) clicked));
     }
 
     @Override
@@ -34,7 +34,7 @@ public class PlayerUI extends GameScript {
 
     public void untrackPlayer(Player context) {
         PlayerPortrait portrait = players.get(context);
-        getScene().getUiManager().getContainer().children.remove(portrait);
+        getScene().getUiManager().getContainer().remove(portrait);
         players.remove(context);
     }
 
@@ -6,11 +6,15 @@ import ui.constraints.CenterConstraint;
 import ui.constraints.PixelConstraint;
 import ui.constraints.RelativeConstraint;
 
-import java.awt.*;
-
 public class GamePhase extends UIQuad {
 
-    UIText text = new UIText(new Font("TimesRoman", Font.PLAIN, 26), "");
+    UIText text = new UIText(UIFont.load(UIFont.SERIF, 26), "");
+
+    private final UIConstraints phaseConstraints = new UIConstraints()
+            .setX(new PixelConstraint(30, UIDimensions.DIRECTION_LEFT))
+            .setY(new PixelConstraint(300, UIDimensions.DIRECTION_TOP))
+            .setWidth(new RelativeConstraint(0.15f))
+            .setHeight(new RelativeConstraint(0.1f));
 
     public GamePhase() {
         text.setColor(UIColor.WHITE);
@@ -25,11 +29,7 @@ public class GamePhase extends UIQuad {
 
     public UIConstraints getConstraints()
     {
-        return new UIConstraints()
-                .setX(new PixelConstraint(30, UIDimensions.DIRECTION_LEFT))
-                .setY(new PixelConstraint(300, UIDimensions.DIRECTION_TOP))
-                .setWidth(new RelativeConstraint(0.15f))
-                .setHeight(new RelativeConstraint(0.1f));
+        return phaseConstraints;
     }
 
     public void setCurrentStateName(GameStates event) {
@@ -38,6 +38,7 @@ public class GamePhase extends UIQuad {
             case STEALING -> this.text.setText("Stealing");
             case SETTING_UP -> this.text.setText("Setting up");
             case SETTLING -> this.text.setText("Settling");
+            case FINISHED -> this.text.setText("Game over");
         }
     }
 }
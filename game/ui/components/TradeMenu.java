@@ -51,6 +51,12 @@ public class TradeMenu extends UIComponent {
     private final Panel ourPanel = new Panel();
     private final Panel otherPanel = new Panel();
 
+    private final UIConstraints menuConstraints = new UIConstraints()
+            .setX(new CenterConstraint())
+            .setY(new CenterConstraint())
+            .setHeight(new RelativeConstraint(0.60f))
+            .setWidth(new RelativeConstraint(0.20f));
+
     public TradeMenu()
     {
         ourPanel.setColor(background);
@@ -71,11 +77,7 @@ public class TradeMenu extends UIComponent {
     }
 
     public UIConstraints getConstraints() {
-        return new UIConstraints()
-                .setX(new CenterConstraint())
-                .setY(new CenterConstraint())
-                .setHeight(new RelativeConstraint(0.60f))
-                .setWidth(new RelativeConstraint(0.20f));
+        return menuConstraints;
     }
 
     public void toggle() {